@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.benchmarks.ee;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
+import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntriesProvider;
+
+/**
+ * Compares the schedule/cancel throughput and allocation rate of a {@link LocalScheduler} for each {@link ScheduledEntriesProvider}.
+ * Scheduled entries are distributed between one and two hours from now, such that no entries expire during the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalSchedulerBenchmark {
+    // Number of pre-computed identifiers/instants, to avoid measuring their creation
+    private static final int SIZE = 1 << 16;
+
+    @Param
+    ScheduledEntriesProvider provider;
+
+    // Number of entries already scheduled, e.g. the number of sessions owned by this member
+    @Param({ "0", "10000", "100000" })
+    int backlog;
+
+    private LocalScheduler<UUID> scheduler;
+    private UUID[] ids;
+    private Instant[] instants;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        this.scheduler = new LocalScheduler<>(this.provider.createScheduledEntries(), id -> true, Duration.ZERO);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant now = Instant.now();
+        for (int i = 0; i < this.backlog; ++i) {
+            this.scheduler.schedule(UUID.randomUUID(), now.plusMillis(random.nextLong(Duration.ofHours(1).toMillis(), Duration.ofHours(2).toMillis())));
+        }
+        this.ids = new UUID[SIZE];
+        this.instants = new Instant[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            this.ids[i] = UUID.randomUUID();
+            this.instants[i] = now.plusMillis(random.nextLong(Duration.ofHours(1).toMillis(), Duration.ofHours(2).toMillis()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.scheduler.close();
+    }
+
+    /**
+     * Emulates the scheduling of a session on request completion, and its cancellation on the next request.
+     */
+    @Benchmark
+    public void scheduleCancel() {
+        int index = this.index++ & (SIZE - 1);
+        UUID id = this.ids[index];
+        this.scheduler.schedule(id, this.instants[index]);
+        this.scheduler.cancel(id);
+    }
+
+    /**
+     * Emulates a subsequent request for a scheduled session, whose expiration is cancelled, then rescheduled.
+     */
+    @Benchmark
+    public void reschedule() {
+        int index = this.index++ & (SIZE - 1);
+        UUID id = this.ids[index];
+        this.scheduler.cancel(id);
+        this.scheduler.schedule(id, this.instants[index]);
+    }
+}
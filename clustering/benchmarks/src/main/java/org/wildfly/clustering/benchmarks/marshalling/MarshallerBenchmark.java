@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.benchmarks.marshalling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.clustering.marshalling.jboss.DynamicClassTable;
+import org.wildfly.clustering.marshalling.jboss.DynamicExternalizerObjectTable;
+import org.wildfly.clustering.marshalling.jboss.JBossByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.protostream.SerializationContextBuilder;
+import org.wildfly.clustering.marshalling.protostream.SimpleClassLoaderMarshaller;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Compares the throughput and allocation rate of ProtoStream vs JBoss Marshalling for typical session attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarshallerBenchmark {
+
+    enum MarshallerFactory {
+        PROTOSTREAM() {
+            @Override
+            ByteBufferMarshaller createMarshaller(ClassLoader loader) {
+                return new ProtoStreamByteBufferMarshaller(new SerializationContextBuilder(new SimpleClassLoaderMarshaller(loader)).load(loader).build());
+            }
+        },
+        JBOSS() {
+            @Override
+            ByteBufferMarshaller createMarshaller(ClassLoader loader) {
+                MarshallingConfiguration configuration = new MarshallingConfiguration();
+                configuration.setClassTable(new DynamicClassTable(loader));
+                configuration.setObjectTable(new DynamicExternalizerObjectTable(loader));
+                return new JBossByteBufferMarshaller(new SimpleMarshallingConfigurationRepository(configuration), loader);
+            }
+        },
+        ;
+        abstract ByteBufferMarshaller createMarshaller(ClassLoader loader);
+    }
+
+    enum AttributeFactory {
+        // e.g. a user name
+        STRING() {
+            @Override
+            Object createAttribute() {
+                return "user@example.org";
+            }
+        },
+        // e.g. a CSRF token, or a login timestamp
+        SIMPLE() {
+            @Override
+            Object createAttribute() {
+                return List.of(UUID.randomUUID(), Instant.now(), Locale.US, Integer.valueOf(42));
+            }
+        },
+        // e.g. a shopping cart, or user preferences
+        COMPOSITE() {
+            @Override
+            Object createAttribute() {
+                Map<String, Object> map = new HashMap<>();
+                List<String> items = new ArrayList<>();
+                for (int i = 0; i < 32; ++i) {
+                    items.add("item-" + i);
+                }
+                map.put("items", items);
+                map.put("owner", UUID.randomUUID());
+                map.put("created", Instant.now());
+                map.put("total", Long.valueOf(12345L));
+                map.put("locale", Locale.FRANCE);
+                return map;
+            }
+        },
+        ;
+        abstract Object createAttribute();
+    }
+
+    @Param
+    MarshallerFactory marshaller;
+
+    @Param
+    AttributeFactory attribute;
+
+    private ByteBufferMarshaller subject;
+    private Object value;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        this.subject = this.marshaller.createMarshaller(MarshallerBenchmark.class.getClassLoader());
+        this.value = this.attribute.createAttribute();
+        this.buffer = this.subject.write(this.value);
+    }
+
+    @Benchmark
+    public ByteBuffer write() throws IOException {
+        return this.subject.write(this.value);
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        return this.subject.read(this.buffer.duplicate());
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException {
+        return this.subject.read(this.subject.write(this.value));
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.benchmarks.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.immutable.CompositeImmutability;
+import org.wildfly.clustering.ee.immutable.DefaultImmutability;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.protostream.SerializationContextBuilder;
+import org.wildfly.clustering.marshalling.protostream.SimpleClassLoaderMarshaller;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshalledValueFactory;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueMarshaller;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.cache.session.CompositeSessionMetaData;
+import org.wildfly.clustering.web.cache.session.SessionAttributeActivationNotifier;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.cache.session.SimpleSessionAccessMetaData;
+import org.wildfly.clustering.web.cache.session.SimpleSessionCreationMetaData;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSessionAttributesFactoryConfiguration;
+import org.wildfly.clustering.web.infinispan.session.coarse.CoarseDeltaSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
+import org.wildfly.clustering.web.session.HttpSessionActivationListenerProvider;
+import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+
+/**
+ * Compares the throughput and allocation rate of the request lifecycle of session attributes, i.e. read, mutate, and close, for each granularity, against a local-mode Infinispan cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionAttributesBenchmark {
+
+    enum Granularity {
+        COARSE() {
+            @Override
+            SessionAttributesFactory<Object, ?> createSessionAttributesFactory(Cache<?, ?> cache, ByteBufferMarshaller marshaller) {
+                return new CoarseSessionAttributesFactory<>(new BenchmarkSessionAttributesFactoryConfiguration<>(cache, marshaller));
+            }
+        },
+        DELTA() {
+            @Override
+            SessionAttributesFactory<Object, ?> createSessionAttributesFactory(Cache<?, ?> cache, ByteBufferMarshaller marshaller) {
+                return new CoarseDeltaSessionAttributesFactory<>(new BenchmarkSessionAttributesFactoryConfiguration<>(cache, marshaller));
+            }
+        },
+        FINE() {
+            @Override
+            SessionAttributesFactory<Object, ?> createSessionAttributesFactory(Cache<?, ?> cache, ByteBufferMarshaller marshaller) {
+                return new FineSessionAttributesFactory<>(new BenchmarkSessionAttributesFactoryConfiguration<>(cache, marshaller));
+            }
+        },
+        ;
+        abstract SessionAttributesFactory<Object, ?> createSessionAttributesFactory(Cache<?, ?> cache, ByteBufferMarshaller marshaller);
+    }
+
+    @Param
+    Granularity granularity;
+
+    // Number of attributes per session
+    @Param({ "10" })
+    int attributes;
+
+    private EmbeddedCacheManager manager;
+    private SessionAttributesFactory<Object, ?> factory;
+    private ImmutableSessionMetaData metaData;
+    private String id;
+    private int counter = 0;
+
+    @Setup
+    public void setup() {
+        this.manager = new DefaultCacheManager(new GlobalConfigurationBuilder().nonClusteredDefault().build());
+        this.manager.defineConfiguration("session", new ConfigurationBuilder().clustering().cacheMode(CacheMode.LOCAL).build());
+        Cache<?, ?> cache = this.manager.getCache("session");
+        ClassLoader loader = SessionAttributesBenchmark.class.getClassLoader();
+        ByteBufferMarshaller marshaller = new ProtoStreamByteBufferMarshaller(new SerializationContextBuilder(new SimpleClassLoaderMarshaller(loader)).load(loader).build());
+        this.factory = this.granularity.createSessionAttributesFactory(cache, marshaller);
+        SimpleSessionAccessMetaData accessMetaData = new SimpleSessionAccessMetaData();
+        accessMetaData.setLastAccessDuration(Duration.ofSeconds(1), Duration.ofMillis(10));
+        this.metaData = new CompositeSessionMetaData(new SimpleSessionCreationMetaData(), accessMetaData);
+        this.id = UUID.randomUUID().toString();
+        this.populate(this.factory);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.factory.close();
+        this.manager.stop();
+    }
+
+    private <V> void populate(SessionAttributesFactory<Object, V> factory) {
+        V value = factory.createValue(this.id, null);
+        try (SessionAttributes attributes = factory.createSessionAttributes(this.id, value, this.metaData, null)) {
+            attributes.setAttribute("user", "user@example.org");
+            for (int i = 0; i < this.attributes; ++i) {
+                List<String> list = new ArrayList<>();
+                for (int j = 0; j < 8; ++j) {
+                    list.add("value-" + i + "-" + j);
+                }
+                attributes.setAttribute("attribute-" + i, list);
+            }
+        }
+    }
+
+    /**
+     * Read-only request, i.e. reading an immutable attribute.
+     */
+    @Benchmark
+    public Object read() {
+        return this.read(this.factory);
+    }
+
+    private <V> Object read(SessionAttributesFactory<Object, V> factory) {
+        V value = factory.findValue(this.id);
+        try (SessionAttributes attributes = factory.createSessionAttributes(this.id, value, this.metaData, null)) {
+            return attributes.getAttribute("user");
+        }
+    }
+
+    /**
+     * Request that replaces a single, immutable attribute.
+     */
+    @Benchmark
+    public Object mutate() {
+        return this.mutate(this.factory);
+    }
+
+    private <V> Object mutate(SessionAttributesFactory<Object, V> factory) {
+        V value = factory.findValue(this.id);
+        try (SessionAttributes attributes = factory.createSessionAttributes(this.id, value, this.metaData, null)) {
+            return attributes.setAttribute("counter", Integer.valueOf(this.counter++));
+        }
+    }
+
+    private static class BenchmarkSessionAttributesFactoryConfiguration<V> implements InfinispanSessionAttributesFactoryConfiguration<Object, Object, ActivationListener, V, MarshalledValue<V, ByteBufferMarshaller>> {
+        private final Cache<?, ?> cache;
+        private final Marshaller<V, MarshalledValue<V, ByteBufferMarshaller>> marshaller;
+        private final Immutability immutability = new CompositeImmutability(EnumSet.allOf(DefaultImmutability.class));
+
+        BenchmarkSessionAttributesFactoryConfiguration(Cache<?, ?> cache, ByteBufferMarshaller marshaller) {
+            this.cache = cache;
+            this.marshaller = new MarshalledValueMarshaller<>(new ByteBufferMarshalledValueFactory(marshaller));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <CK, CV> Cache<CK, CV> getCache() {
+            return (Cache<CK, CV>) this.cache;
+        }
+
+        @Override
+        public Marshaller<V, MarshalledValue<V, ByteBufferMarshaller>> getMarshaller() {
+            return this.marshaller;
+        }
+
+        @Override
+        public Immutability getImmutability() {
+            return this.immutability;
+        }
+
+        @Override
+        public HttpSessionActivationListenerProvider<Object, Object, ActivationListener> getHttpSessionActivationListenerProvider() {
+            return NoOpHttpSessionActivationListenerProvider.INSTANCE;
+        }
+
+        @Override
+        public Function<String, SessionAttributeActivationNotifier> getActivationNotifierFactory() {
+            return id -> null;
+        }
+    }
+
+    interface ActivationListener {
+    }
+
+    enum NoOpHttpSessionActivationListenerProvider implements HttpSessionActivationListenerProvider<Object, Object, ActivationListener> {
+        INSTANCE;
+
+        @Override
+        public Object createHttpSession(ImmutableSession session, Object context) {
+            return session;
+        }
+
+        @Override
+        public Class<ActivationListener> getHttpSessionActivationListenerClass() {
+            return ActivationListener.class;
+        }
+
+        @Override
+        public Consumer<Object> prePassivateNotifier(ActivationListener listener) {
+            return session -> {};
+        }
+
+        @Override
+        public Consumer<Object> postActivateNotifier(ActivationListener listener) {
+            return session -> {};
+        }
+
+        @Override
+        public ActivationListener createListener(Consumer<Object> prePassivate, Consumer<Object> postActivate) {
+            return new ActivationListener() {};
+        }
+    }
+}
@@ -25,46 +25,129 @@ package org.wildfly.clustering.ee.cache.scheduler;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import org.jboss.logging.Logger;
 import org.wildfly.clustering.context.DefaultExecutorService;
 import org.wildfly.clustering.context.DefaultThreadFactory;
+import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Scheduler;
+import org.wildfly.clustering.ee.SchedulerStatistics;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Scheduler that uses a single scheduled task in concert with an {@link ScheduledEntries}.
+ * If configured with a drain concurrency greater than 1, large numbers of entries that come due at once are partitioned
+ * and executed in parallel, where the task for each entry of a partition is executed within a single batch.
  * @author Paul Ferraro
  */
-public class LocalScheduler<T> implements Scheduler<T, Instant>, Runnable {
+public class LocalScheduler<T> implements Scheduler<T, Instant>, SchedulerStatistics, Runnable {
+    private static final Logger LOGGER = Logger.getLogger(LocalScheduler.class);
+    // Due entries below this threshold are not worth the overhead of partitioning
+    static final int MIN_PARTITION_SIZE = 32;
+    private static final Batch NO_BATCH = new Batch() {
+        @Override
+        public void close() {
+            // Do nothing
+        }
+
+        @Override
+        public void discard() {
+            // Do nothing
+        }
+
+        @Override
+        public State getState() {
+            return State.ACTIVE;
+        }
+    };
 
     private final ScheduledExecutorService executor;
+    private final ExecutorService drainExecutor;
+    private final int drainConcurrency;
+    private final Supplier<? extends Batch> batchFactory;
     private final ScheduledEntries<T, Instant> entries;
     private final Predicate<T> task;
     private final Duration closeTimeout;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger backlog = new AtomicInteger();
 
     private volatile Map.Entry<Map.Entry<T, Instant>, Future<?>> futureEntry = null;
+    private volatile Duration lastDrainDuration = Duration.ZERO;
+    private volatile double lastDrainThroughput = 0d;
 
     public LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout) {
+        this(entries, task, closeTimeout, 1, () -> NO_BATCH);
+    }
+
+    /**
+     * Creates a scheduler that drains due entries using the specified concurrency.
+     * @param entries the scheduled entries
+     * @param task the task to execute for each due entry, returning true if successful
+     * @param closeTimeout the duration to wait for pending tasks to complete on close
+     * @param drainConcurrency the maximum number of partitions of due entries to execute in parallel
+     * @param batchFactory a factory for creating the batch within which the tasks of a partition are executed
+     */
+    public LocalScheduler(ScheduledEntries<T, Instant> entries, Predicate<T> task, Duration closeTimeout, int drainConcurrency, Supplier<? extends Batch> batchFactory) {
         ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(this.getClass()));
         executor.setKeepAliveTime(1L, TimeUnit.MINUTES);
         executor.allowCoreThreadTimeOut(true);
         executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
         executor.setRemoveOnCancelPolicy(entries.isSorted());
         this.executor = executor;
+        this.drainConcurrency = Math.max(drainConcurrency, 1);
+        if (this.drainConcurrency > 1) {
+            ThreadPoolExecutor drainExecutor = new ThreadPoolExecutor(this.drainConcurrency, this.drainConcurrency, 1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new DefaultThreadFactory(this.getClass()));
+            drainExecutor.allowCoreThreadTimeOut(true);
+            this.drainExecutor = drainExecutor;
+        } else {
+            this.drainExecutor = null;
+        }
+        this.batchFactory = batchFactory;
         this.entries = entries;
         this.task = task;
         this.closeTimeout = closeTimeout;
     }
 
+    /**
+     * Resolves the drain concurrency specified by the given system property, or 1, i.e. a sequential drain, if the property is undefined or invalid.
+     * @param property a system property name
+     * @return a drain concurrency
+     */
+    public static int drainConcurrencyFromProperty(String property) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value != null) {
+            try {
+                int concurrency = Integer.parseInt(value.trim());
+                if (concurrency > 0) {
+                    return concurrency;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through
+            }
+            LOGGER.warnf("Ignoring invalid value '%s' of system property %s, expected a positive integer", value, property);
+        }
+        return 1;
+    }
+
     @Override
     public void schedule(T id, Instant instant) {
         this.entries.add(id, instant);
@@ -98,9 +181,16 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Runnable {
     @Override
     public void close() {
         WildFlySecurityManager.doPrivilegedWithParameter(this.executor, DefaultExecutorService.SHUTDOWN_ACTION);
+        if (this.drainExecutor != null) {
+            WildFlySecurityManager.doPrivilegedWithParameter(this.drainExecutor, DefaultExecutorService.SHUTDOWN_ACTION);
+        }
         if (!this.closeTimeout.isNegative() && !this.closeTimeout.isZero()) {
+            long deadline = System.nanoTime() + this.closeTimeout.toNanos();
             try {
-                this.executor.awaitTermination(this.closeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (this.executor.awaitTermination(this.closeTimeout.toNanos(), TimeUnit.NANOSECONDS) && (this.drainExecutor != null)) {
+                    // Partitions of an in-progress drain may still be executing
+                    this.drainExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
@@ -109,20 +199,206 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Runnable {
 
     @Override
     public void run() {
+        long start = System.nanoTime();
+        int count = (this.drainExecutor != null) ? this.drainPartitioned() : this.drain();
+        if (count < 0) return;
+        if (count > 0) {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            this.lastDrainDuration = duration;
+            this.lastDrainThroughput = (duration.isZero() ? count : count * 1_000_000_000d / duration.toNanos());
+        }
+        synchronized (this) {
+            // Discard any drain rescheduled while this drain was running, since this drain already processed its entries
+            Map.Entry<Map.Entry<T, Instant>, Future<?>> futureEntry = this.futureEntry;
+            if (futureEntry != null) {
+                futureEntry.getValue().cancel(false);
+            }
+            this.futureEntry = this.scheduleFirst();
+        }
+    }
+
+    /**
+     * Sequentially executes the task for each due entry.
+     * @return the number of processed entries, or -1 if interrupted
+     */
+    private int drain() {
+        int count = 0;
         Iterator<Map.Entry<T, Instant>> entries = this.entries.iterator();
         while (entries.hasNext()) {
-            if (Thread.currentThread().isInterrupted() || this.executor.isShutdown()) return;
+            if (this.isInterrupted()) return -1;
             Map.Entry<T, Instant> entry = entries.next();
             if (entry.getValue().isAfter(Instant.now())) break;
             T key = entry.getKey();
+            count += 1;
             // Remove only if task is successful
-            if (this.task.test(key)) {
+            if (this.test(key)) {
                 entries.remove();
             }
         }
-        synchronized (this) {
-            this.futureEntry = this.scheduleFirst();
+        return count;
+    }
+
+    /**
+     * Collects all due entries, and executes their tasks in parallel, one batch per partition.
+     * @return the number of processed entries, or -1 if interrupted
+     */
+    private int drainPartitioned() {
+        List<T> keys = new ArrayList<>();
+        Instant now = Instant.now();
+        Iterator<Map.Entry<T, Instant>> entries = this.entries.iterator();
+        while (entries.hasNext()) {
+            if (this.isInterrupted()) return -1;
+            Map.Entry<T, Instant> entry = entries.next();
+            if (entry.getValue().isAfter(now)) break;
+            keys.add(entry.getKey());
         }
+        int size = keys.size();
+        if (size == 0) return 0;
+        this.backlog.set(size);
+        try {
+            int partitions = Math.min(this.drainConcurrency, (size + MIN_PARTITION_SIZE - 1) / MIN_PARTITION_SIZE);
+            if (partitions <= 1) {
+                this.drain(keys);
+            } else if (!this.drainPartitions(keys, partitions)) {
+                return -1;
+            }
+        } finally {
+            this.backlog.set(0);
+        }
+        return size;
+    }
+
+    /**
+     * Executes the specified keys in contiguous partitions, in parallel, and waits for every partition to complete,
+     * so that a subsequent drain never collects keys that are still being executed.
+     * @param keys the due entry keys
+     * @param partitions the number of partitions
+     * @return true, if all partitions completed, false if interrupted or rejected
+     */
+    private boolean drainPartitions(List<T> keys, int partitions) {
+        int size = keys.size();
+        List<Future<?>> futures = new ArrayList<>(partitions);
+        boolean completed = true;
+        try {
+            for (int i = 0; i < partitions; ++i) {
+                // Contiguous partitions preserve the relative expiration order within each partition
+                List<T> partition = keys.subList(i * size / partitions, (i + 1) * size / partitions);
+                futures.add(this.drainExecutor.submit(() -> this.drain(partition)));
+            }
+        } catch (RejectedExecutionException e) {
+            completed = false;
+        }
+        boolean interrupted = false;
+        Throwable failure = null;
+        // Partitions are never cancelled, and stop of their own accord on shutdown, so wait for those already submitted
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+        return completed && !interrupted;
+    }
+
+    /**
+     * Executes the task for each of the specified keys within a single batch.
+     * If a task fails, the batch is committed for the preceding keys, and the remaining keys, starting with the failed key, are each executed within their own batch.
+     * If the batch itself could not be committed, the task for each key is re-executed within its own batch.
+     * @param keys a partition of due entry keys
+     */
+    private void drain(List<T> keys) {
+        int size = keys.size();
+        int succeeded = 0;
+        boolean interrupted = false;
+        boolean committed;
+        try (Batch batch = this.batchFactory.get()) {
+            while (succeeded < size) {
+                if (this.isInterrupted()) {
+                    interrupted = true;
+                    break;
+                }
+                if (!this.task.test(keys.get(succeeded))) break;
+                succeeded += 1;
+            }
+            committed = (batch.getState() == Batch.State.ACTIVE);
+            if (!committed) {
+                batch.discard();
+            }
+        } catch (RuntimeException e) {
+            committed = false;
+        }
+        if (committed) {
+            for (T key : keys.subList(0, succeeded)) {
+                this.entries.remove(key);
+            }
+            this.executed.add(succeeded);
+            this.backlog.addAndGet(-succeeded);
+        } else {
+            // Nothing was committed, so every key must be re-executed
+            succeeded = 0;
+        }
+        // Fall back to executing each remaining task within its own batch, so that a single failure does not affect other entries
+        for (T key : keys.subList(succeeded, size)) {
+            if (interrupted || this.isInterrupted()) return;
+            if (this.test(key)) {
+                this.entries.remove(key);
+            }
+            this.backlog.decrementAndGet();
+        }
+    }
+
+    private boolean test(T key) {
+        boolean result = this.task.test(key);
+        if (result) {
+            this.executed.increment();
+        } else {
+            this.failed.increment();
+        }
+        return result;
+    }
+
+    private boolean isInterrupted() {
+        return Thread.currentThread().isInterrupted() || this.executor.isShutdown();
+    }
+
+    @Override
+    public long getExecutedCount() {
+        return this.executed.sum();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return this.failed.sum();
+    }
+
+    @Override
+    public int getBacklog() {
+        return this.backlog.get();
+    }
+
+    @Override
+    public Duration getLastDrainDuration() {
+        return this.lastDrainDuration;
+    }
+
+    @Override
+    public double getLastDrainThroughput() {
+        return this.lastDrainThroughput;
     }
 
     private Map.Entry<Map.Entry<T, Instant>, Future<?>> scheduleFirst() {
@@ -156,7 +432,8 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Runnable {
             synchronized (this) {
                 if (this.futureEntry != null) {
                     if (instant.isBefore(this.futureEntry.getKey().getValue())) {
-                        this.futureEntry.getValue().cancel(true);
+                        // Never interrupt a running drain, whose partitions would otherwise continue concurrently with a subsequent drain
+                        this.futureEntry.getValue().cancel(false);
                         this.futureEntry = this.scheduleFirst();
                     }
                 }
@@ -169,7 +446,7 @@ public class LocalScheduler<T> implements Scheduler<T, Instant>, Runnable {
             synchronized (this) {
                 if (this.futureEntry != null) {
                     if (this.futureEntry.getKey().getKey().equals(id)) {
-                        this.futureEntry.getValue().cancel(true);
+                        this.futureEntry.getValue().cancel(false);
                         this.futureEntry = null;
                     }
                 }
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Instant;
+import java.util.Locale;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Enumerates the available {@link ScheduledEntries} implementations for use by a {@link LocalScheduler}.
+ */
+public enum ScheduledEntriesProvider {
+    /**
+     * Entries are iterated in insertion order.  Suitable only if all entries share a constant delay.
+     * @see LinkedScheduledEntries
+     */
+    LINKED() {
+        @Override
+        public <K> ScheduledEntries<K, Instant> createScheduledEntries() {
+            return new LinkedScheduledEntries<>();
+        }
+    },
+    /**
+     * Entries are strictly sorted, with O(log N) additions and removals.
+     * @see SortedScheduledEntries
+     */
+    SORTED() {
+        @Override
+        public <K> ScheduledEntries<K, Instant> createScheduledEntries() {
+            return new SortedScheduledEntries<>();
+        }
+    },
+    /**
+     * Entries are sorted to within the resolution of a timing wheel, with O(1) additions and removals.
+     * @see TimingWheelScheduledEntries
+     */
+    TIMING_WHEEL() {
+        @Override
+        public <K> ScheduledEntries<K, Instant> createScheduledEntries() {
+            return new TimingWheelScheduledEntries<>();
+        }
+    },
+    ;
+
+    /**
+     * Creates a new set of scheduled entries.
+     * @param <K> the scheduled entry key type
+     * @return a new set of scheduled entries.
+     */
+    public abstract <K> ScheduledEntries<K, Instant> createScheduledEntries();
+
+    /**
+     * Resolves the provider specified by the given system property, or the specified default provider if the property is undefined.
+     * @param property a system property name
+     * @param defaultProvider the provider to use if the property is undefined
+     * @return a scheduled entries provider
+     */
+    public static ScheduledEntriesProvider fromProperty(String property, ScheduledEntriesProvider defaultProvider) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        return (value != null) ? valueOf(value.trim().toUpperCase(Locale.ENGLISH)) : defaultProvider;
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link ScheduledEntries} implemented using a hierarchical timing wheel.
+ * Entries are sorted to within the resolution of the wheel, i.e. entries whose values fall within the same tick are iterated in insertion order.
+ * Consequently, an entry may be expired up to one tick later than its scheduled instant.
+ * Both {@link #add(Object, Instant)} and {@link #remove(Object)} run in O(1) time.
+ * Additions and removals are queued, and applied to the wheel by whichever thread next acquires the wheel lock without contention.
+ * @param <K> the entry key type
+ */
+public class TimingWheelScheduledEntries<K> implements ScheduledEntries<K, Instant> {
+    static final Duration DEFAULT_RESOLUTION = Duration.ofMillis(100);
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    // With the default resolution, 4 levels spans ~19 days - more distant entries are re-cascaded from the outermost wheel
+    private static final int LEVELS = 4;
+
+    private final long resolution;
+    private final Supplier<Instant> clock;
+    private final Map<K, Node<K>> nodes = new ConcurrentHashMap<>();
+    private final Queue<Node<K>> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Node<K>> removals = new ConcurrentLinkedQueue<>();
+    private final Lock lock = new ReentrantLock();
+    // The following are guarded by the lock
+    private final Bucket<K> overdue = new Bucket<>();
+    private final List<List<Bucket<K>>> wheels = new ArrayList<>(LEVELS);
+    private long cursor;
+
+    /**
+     * Creates a new timing wheel using the default resolution.
+     */
+    public TimingWheelScheduledEntries() {
+        this(DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Creates a new timing wheel using the specified resolution.
+     * @param resolution the duration of a single tick of the innermost wheel
+     */
+    public TimingWheelScheduledEntries(Duration resolution) {
+        this(resolution, Instant::now);
+    }
+
+    TimingWheelScheduledEntries(Duration resolution, Supplier<Instant> clock) {
+        this.resolution = Math.max(resolution.toMillis(), 1L);
+        this.clock = clock;
+        for (int level = 0; level < LEVELS; ++level) {
+            List<Bucket<K>> wheel = new ArrayList<>(WHEEL_SIZE);
+            for (int i = 0; i < WHEEL_SIZE; ++i) {
+                wheel.add(new Bucket<>());
+            }
+            this.wheels.add(wheel);
+        }
+        this.cursor = this.tick(clock.get());
+    }
+
+    @Override
+    public boolean isSorted() {
+        return true;
+    }
+
+    @Override
+    public void add(K key, Instant value) {
+        Node<K> node = new Node<>(key, value, this.tick(value));
+        Node<K> previous = this.nodes.put(key, node);
+        if (previous != null) {
+            previous.removed = true;
+            this.removals.add(previous);
+        }
+        this.additions.add(node);
+        this.tryFlush();
+    }
+
+    @Override
+    public void remove(K key) {
+        Node<K> node = this.nodes.remove(key);
+        if (node != null) {
+            node.removed = true;
+            this.removals.add(node);
+            this.tryFlush();
+        }
+    }
+
+    @Override
+    public boolean contains(K key) {
+        return this.nodes.containsKey(key);
+    }
+
+    @Override
+    public Map.Entry<K, Instant> peek() {
+        this.lock.lock();
+        try {
+            this.flush();
+            Node<K> first = this.overdue.first();
+            if (first != null) return first;
+            // Find earliest tick of inner wheel
+            long earliestTick = Long.MAX_VALUE;
+            Map.Entry<K, Instant> earliest = null;
+            for (int i = 0; i < WHEEL_SIZE; ++i) {
+                long tick = this.cursor + i;
+                Node<K> node = this.bucket(0, tick).first();
+                if (node != null) {
+                    earliestTick = tick;
+                    earliest = node;
+                    break;
+                }
+            }
+            // Entries of outer wheels are unsorted, so use the start of the earliest non-empty slot
+            for (int level = 1; level < LEVELS; ++level) {
+                int shift = level * WHEEL_BITS;
+                long slot = this.cursor >>> shift;
+                for (int i = 1; i <= WHEEL_SIZE; ++i) {
+                    long tick = (slot + i) << shift;
+                    if (tick >= earliestTick) break;
+                    Node<K> node = this.bucket(level, slot + i).first();
+                    if (node != null) {
+                        earliestTick = tick;
+                        earliest = new SimpleImmutableEntry<>(node.getKey(), Instant.ofEpochMilli(tick * this.resolution));
+                        break;
+                    }
+                }
+            }
+            return earliest;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public Stream<Map.Entry<K, Instant>> stream() {
+        List<Map.Entry<K, Instant>> entries = new ArrayList<>(this.nodes.size());
+        this.lock.lock();
+        try {
+            this.flush();
+            for (Bucket<K> bucket : this.buckets()) {
+                bucket.copyTo(entries);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return entries.stream();
+    }
+
+    /**
+     * Returns an iterator over the scheduled entries.
+     * Advances the wheel to the current time, cascading entries from outer wheels as needed.
+     * The returned iterator is weakly consistent.
+     */
+    @Override
+    public Iterator<Map.Entry<K, Instant>> iterator() {
+        List<Bucket<K>> buckets;
+        this.lock.lock();
+        try {
+            this.flush();
+            this.advance(this.tick(this.clock.get()));
+            buckets = this.buckets();
+        } finally {
+            this.lock.unlock();
+        }
+        Iterator<Bucket<K>> remaining = buckets.iterator();
+        return new Iterator<>() {
+            private List<Node<K>> snapshot = List.of();
+            private int index = 0;
+            private Node<K> current = null;
+
+            @Override
+            public boolean hasNext() {
+                while (true) {
+                    while (this.index < this.snapshot.size()) {
+                        if (!this.snapshot.get(this.index).removed) return true;
+                        this.index += 1;
+                    }
+                    if (!remaining.hasNext()) return false;
+                    // Copy buckets lazily, as callers typically only iterate over those entries that are due
+                    this.snapshot = TimingWheelScheduledEntries.this.copy(remaining.next());
+                    this.index = 0;
+                }
+            }
+
+            @Override
+            public Map.Entry<K, Instant> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.current = this.snapshot.get(this.index++);
+                return this.current;
+            }
+
+            @Override
+            public void remove() {
+                Node<K> node = this.current;
+                if (node == null) {
+                    throw new IllegalStateException();
+                }
+                this.current = null;
+                TimingWheelScheduledEntries.this.unlink(node);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return this.nodes.keySet().toString();
+    }
+
+    private long tick(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), this.resolution);
+    }
+
+    private Bucket<K> bucket(int level, long slot) {
+        return this.wheels.get(level).get((int) (slot & WHEEL_MASK));
+    }
+
+    private void tryFlush() {
+        if (this.lock.tryLock()) {
+            try {
+                this.flush();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    // Must be called while holding the lock
+    private void flush() {
+        Node<K> node = this.additions.poll();
+        while (node != null) {
+            // Node may have been replaced or removed before it was ever added to the wheel
+            if (!node.removed) {
+                this.place(node);
+            }
+            node = this.additions.poll();
+        }
+        node = this.removals.poll();
+        while (node != null) {
+            if (node.bucket != null) {
+                node.bucket.unlink(node);
+            }
+            node = this.removals.poll();
+        }
+    }
+
+    // Must be called while holding the lock
+    private void place(Node<K> node) {
+        long delta = node.tick - this.cursor;
+        if (delta < 0) {
+            this.overdue.link(node);
+            return;
+        }
+        for (int level = 0; level < LEVELS; ++level) {
+            int shift = level * WHEEL_BITS;
+            if (delta < (1L << (shift + WHEEL_BITS))) {
+                this.bucket(level, node.tick >>> shift).link(node);
+                return;
+            }
+        }
+        // Beyond the horizon of the outermost wheel, park in its most distant slot - will be re-placed when that slot cascades
+        int shift = (LEVELS - 1) * WHEEL_BITS;
+        long horizon = this.cursor + (1L << (LEVELS * WHEEL_BITS)) - 1;
+        this.bucket(LEVELS - 1, horizon >>> shift).link(node);
+    }
+
+    // Must be called while holding the lock
+    private void advance(long tick) {
+        if (tick <= this.cursor) return;
+        if (this.nodes.isEmpty()) {
+            // Nothing to cascade
+            this.cursor = tick;
+            return;
+        }
+        while (this.cursor < tick) {
+            // Entries of the current slot of the inner wheel are now overdue
+            this.overdue.transfer(this.bucket(0, this.cursor));
+            this.cursor += 1;
+            // Cascade entries of outer wheels whose slot boundary we just crossed
+            for (int level = 1; level < LEVELS; ++level) {
+                int shift = level * WHEEL_BITS;
+                if ((this.cursor & ((1L << shift) - 1)) != 0) break;
+                Node<K> node = this.bucket(level, this.cursor >>> shift).clear();
+                while (node != null) {
+                    Node<K> next = node.next;
+                    node.next = null;
+                    this.place(node);
+                    node = next;
+                }
+            }
+        }
+    }
+
+    // Must be called while holding the lock
+    private List<Bucket<K>> buckets() {
+        List<Bucket<K>> buckets = new ArrayList<>(1 + LEVELS * WHEEL_SIZE);
+        buckets.add(this.overdue);
+        for (int i = 0; i < WHEEL_SIZE; ++i) {
+            buckets.add(this.bucket(0, this.cursor + i));
+        }
+        for (int level = 1; level < LEVELS; ++level) {
+            long slot = this.cursor >>> (level * WHEEL_BITS);
+            for (int i = 1; i <= WHEEL_SIZE; ++i) {
+                buckets.add(this.bucket(level, slot + i));
+            }
+        }
+        return buckets;
+    }
+
+    List<Node<K>> copy(Bucket<K> bucket) {
+        List<Node<K>> nodes = new ArrayList<>();
+        this.lock.lock();
+        try {
+            bucket.copyTo(nodes);
+        } finally {
+            this.lock.unlock();
+        }
+        return nodes;
+    }
+
+    void unlink(Node<K> node) {
+        this.lock.lock();
+        try {
+            // Only remove mapping if node was not since replaced
+            this.nodes.remove(node.getKey(), node);
+            node.removed = true;
+            if (node.bucket != null) {
+                node.bucket.unlink(node);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * A scheduled entry, linked into a slot of the timing wheel.
+     * Equality is identity-based, so that a replaced entry is never mistaken for its replacement.
+     */
+    static class Node<K> implements Map.Entry<K, Instant> {
+        final K key;
+        final Instant value;
+        final long tick;
+        volatile boolean removed = false;
+        // The following are guarded by the wheel lock
+        Bucket<K> bucket;
+        Node<K> previous;
+        Node<K> next;
+
+        Node(K key, Instant value, long tick) {
+            this.key = key;
+            this.value = value;
+            this.tick = tick;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public Instant getValue() {
+            return this.value;
+        }
+
+        @Override
+        public Instant setValue(Instant value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return this.key.toString();
+        }
+    }
+
+    /**
+     * A doubly-linked list of nodes supporting O(1) removal.
+     */
+    static class Bucket<K> {
+        private Node<K> head;
+        private Node<K> tail;
+
+        Node<K> first() {
+            Node<K> node = this.head;
+            while ((node != null) && node.removed) {
+                node = node.next;
+            }
+            return node;
+        }
+
+        void link(Node<K> node) {
+            node.bucket = this;
+            node.previous = this.tail;
+            node.next = null;
+            if (this.tail != null) {
+                this.tail.next = node;
+            } else {
+                this.head = node;
+            }
+            this.tail = node;
+        }
+
+        void unlink(Node<K> node) {
+            if (node.bucket != this) return;
+            if (node.previous != null) {
+                node.previous.next = node.next;
+            } else {
+                this.head = node.next;
+            }
+            if (node.next != null) {
+                node.next.previous = node.previous;
+            } else {
+                this.tail = node.previous;
+            }
+            node.bucket = null;
+            node.previous = null;
+            node.next = null;
+        }
+
+        /**
+         * Detaches all nodes from this bucket.
+         * @return the first detached node, whose successors are reachable via {@link Node#next}.
+         */
+        Node<K> clear() {
+            Node<K> head = this.head;
+            for (Node<K> node = head; node != null; node = node.next) {
+                node.bucket = null;
+                node.previous = null;
+            }
+            this.head = null;
+            this.tail = null;
+            return head;
+        }
+
+        void transfer(Bucket<K> bucket) {
+            Node<K> node = bucket.clear();
+            while (node != null) {
+                Node<K> next = node.next;
+                this.link(node);
+                node = next;
+            }
+        }
+
+        void copyTo(List<? super Node<K>> nodes) {
+            for (Node<K> node = this.head; node != null; node = node.next) {
+                if (!node.removed) {
+                    nodes.add(node);
+                }
+            }
+        }
+    }
+}
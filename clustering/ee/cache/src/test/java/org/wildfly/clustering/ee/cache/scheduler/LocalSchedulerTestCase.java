@@ -31,10 +31,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Scheduler;
 
 /**
@@ -135,4 +138,171 @@ public class LocalSchedulerTestCase {
             verify(entries).remove(entry.getKey());
         }
     }
+
+    @Test
+    public void partitionedDrain() throws InterruptedException {
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        Predicate<UUID> task = mock(Predicate.class);
+        Batch batch = mock(Batch.class);
+        int size = LocalScheduler.MIN_PARTITION_SIZE * 4;
+
+        when(task.test(any())).thenReturn(true);
+        when(batch.getState()).thenReturn(Batch.State.ACTIVE);
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, 4, () -> batch)) {
+            Instant instant = Instant.now().plusMillis(100);
+            for (int i = 0; i < size; ++i) {
+                scheduler.schedule(UUID.randomUUID(), instant);
+            }
+
+            Thread.sleep(500);
+
+            // Verify that all entries were expired, using one batch per partition
+            Assert.assertEquals(0L, scheduler.stream().count());
+            Assert.assertEquals(size, scheduler.getExecutedCount());
+            Assert.assertEquals(0L, scheduler.getFailedCount());
+            Assert.assertEquals(0, scheduler.getBacklog());
+            verify(task, times(size)).test(any());
+            verify(batch, times(4)).close();
+            verify(batch, never()).discard();
+        }
+    }
+
+    @Test
+    public void partitionedDrainFailingTask() throws InterruptedException {
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        Predicate<UUID> task = mock(Predicate.class);
+        Batch batch = mock(Batch.class);
+        int size = LocalScheduler.MIN_PARTITION_SIZE * 2;
+        UUID failingId = UUID.randomUUID();
+
+        when(task.test(any())).thenReturn(true);
+        when(task.test(failingId)).thenReturn(false);
+        when(batch.getState()).thenReturn(Batch.State.ACTIVE);
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, 2, () -> batch)) {
+            Instant instant = Instant.now().plusMillis(100);
+            List<UUID> ids = new ArrayList<>(size - 1);
+            for (int i = 1; i < size; ++i) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                scheduler.schedule(id, instant);
+                if (i == size / 4) {
+                    scheduler.schedule(failingId, instant);
+                }
+            }
+
+            Thread.sleep(500);
+
+            // Verify that a failing task only prevents removal of its own entry
+            Assert.assertTrue(scheduler.contains(failingId));
+            Assert.assertEquals(size - 1, scheduler.getExecutedCount());
+            Assert.assertTrue(scheduler.getFailedCount() > 0);
+            // Verify that tasks preceding the failing task were committed, and that no task was re-executed
+            for (UUID id : ids) {
+                verify(task).test(id);
+            }
+            verify(batch, never()).discard();
+        }
+    }
+
+    @Test
+    public void rescheduleDuringPartitionedDrain() throws InterruptedException {
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        Batch batch = mock(Batch.class);
+        Map<UUID, AtomicInteger> executions = new ConcurrentHashMap<>();
+        AtomicInteger running = new AtomicInteger();
+        Predicate<UUID> task = id -> {
+            running.incrementAndGet();
+            try {
+                Thread.sleep(1);
+                return !Thread.currentThread().isInterrupted();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                executions.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+                running.decrementAndGet();
+            }
+        };
+        int size = LocalScheduler.MIN_PARTITION_SIZE * 2;
+
+        when(batch.getState()).thenReturn(Batch.State.ACTIVE);
+
+        try (LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ZERO, 2, () -> batch)) {
+            Instant instant = Instant.now();
+            for (int i = 0; i < size; ++i) {
+                scheduler.schedule(UUID.randomUUID(), instant);
+            }
+
+            // Wait for drain to start
+            while (running.get() == 0) {
+                Thread.sleep(1);
+            }
+            // Schedule an earlier entry, forcing the running drain to be rescheduled
+            scheduler.schedule(UUID.randomUUID(), instant.minusSeconds(1));
+
+            Thread.sleep(500);
+
+            // Verify that the running drain was not interrupted, and that no task was executed more than once
+            Assert.assertEquals(0L, scheduler.stream().count());
+            Assert.assertEquals(size + 1, scheduler.getExecutedCount());
+            Assert.assertEquals(size + 1, executions.size());
+            for (AtomicInteger count : executions.values()) {
+                Assert.assertEquals(1, count.get());
+            }
+        }
+    }
+
+    @Test
+    public void drainConcurrencyFromProperty() {
+        String property = "test.drain.concurrency";
+        Assert.assertEquals(1, LocalScheduler.drainConcurrencyFromProperty(property));
+        try {
+            System.setProperty(property, "4");
+            Assert.assertEquals(4, LocalScheduler.drainConcurrencyFromProperty(property));
+            System.setProperty(property, "0");
+            Assert.assertEquals(1, LocalScheduler.drainConcurrencyFromProperty(property));
+            System.setProperty(property, "four");
+            Assert.assertEquals(1, LocalScheduler.drainConcurrencyFromProperty(property));
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void closeAwaitsPartitionedDrain() throws InterruptedException {
+        ScheduledEntries<UUID, Instant> entries = new SortedScheduledEntries<>();
+        Batch batch = mock(Batch.class);
+        AtomicInteger running = new AtomicInteger();
+        Predicate<UUID> task = id -> {
+            running.incrementAndGet();
+            try {
+                Thread.sleep(10);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+
+        when(batch.getState()).thenReturn(Batch.State.ACTIVE);
+
+        LocalScheduler<UUID> scheduler = new LocalScheduler<>(entries, task, Duration.ofSeconds(5), 2, () -> batch);
+        Instant instant = Instant.now();
+        for (int i = 0; i < LocalScheduler.MIN_PARTITION_SIZE * 2; ++i) {
+            scheduler.schedule(UUID.randomUUID(), instant);
+        }
+
+        // Wait for drain to start
+        while (running.get() == 0) {
+            Thread.sleep(1);
+        }
+        scheduler.close();
+
+        // Verify that no partition is still executing once closed
+        Assert.assertEquals(0, running.get());
+    }
 }
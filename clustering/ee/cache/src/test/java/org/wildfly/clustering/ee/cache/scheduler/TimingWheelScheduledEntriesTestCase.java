@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.cache.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimingWheelScheduledEntries}
+ */
+public class TimingWheelScheduledEntriesTestCase extends AbstractScheduledEntriesTestCase {
+
+    public TimingWheelScheduledEntriesTestCase() {
+        super(new TimingWheelScheduledEntries<>(), list -> {
+            List<Map.Entry<UUID, Instant>> result = new LinkedList<>(list);
+            // Entries within the same tick retain their insertion order
+            result.sort(Map.Entry.comparingByValue());
+            return result;
+        });
+    }
+
+    @Test
+    public void cascade() {
+        Instant start = Instant.now();
+        AtomicReference<Instant> clock = new AtomicReference<>(start);
+        TimingWheelScheduledEntries<UUID> entries = new TimingWheelScheduledEntries<>(TimingWheelScheduledEntries.DEFAULT_RESOLUTION, clock::get);
+
+        // With the default resolution, each entry is placed in a successively higher level
+        UUID level1 = UUID.randomUUID();
+        UUID level2 = UUID.randomUUID();
+        UUID level3 = UUID.randomUUID();
+        Instant level1Instant = start.plus(Duration.ofSeconds(10));
+        Instant level2Instant = start.plus(Duration.ofHours(1));
+        Instant level3Instant = start.plus(Duration.ofDays(3));
+        entries.add(level3, level3Instant);
+        entries.add(level2, level2Instant);
+        entries.add(level1, level1Instant);
+
+        assertOrder(entries, level1, level2, level3);
+
+        // Once due, each entry must have cascaded into the inner wheel, whose entries are reported with their exact instant
+        clock.set(level1Instant);
+        assertOrder(entries, level1, level2, level3);
+        Assert.assertEquals(level1Instant, entries.peek().getValue());
+        entries.remove(level1);
+
+        clock.set(level2Instant);
+        assertOrder(entries, level2, level3);
+        Assert.assertEquals(level2Instant, entries.peek().getValue());
+        entries.remove(level2);
+
+        clock.set(level3Instant);
+        assertOrder(entries, level3);
+        Assert.assertEquals(level3Instant, entries.peek().getValue());
+        entries.remove(level3);
+
+        assertOrder(entries);
+        Assert.assertNull(entries.peek());
+    }
+
+    @Test
+    public void beyondHorizon() {
+        Instant start = Instant.now();
+        AtomicReference<Instant> clock = new AtomicReference<>(start);
+        TimingWheelScheduledEntries<UUID> entries = new TimingWheelScheduledEntries<>(TimingWheelScheduledEntries.DEFAULT_RESOLUTION, clock::get);
+
+        // With the default resolution, the outermost wheel spans ~19 days
+        UUID near = UUID.randomUUID();
+        UUID distant = UUID.randomUUID();
+        Instant nearInstant = start.plus(Duration.ofDays(10));
+        Instant distantInstant = start.plus(Duration.ofDays(30));
+        entries.add(distant, distantInstant);
+        entries.add(near, nearInstant);
+
+        assertOrder(entries, near, distant);
+        Assert.assertTrue(entries.contains(distant));
+
+        clock.set(nearInstant);
+        assertOrder(entries, near, distant);
+        entries.remove(near);
+
+        // Parked entry is re-placed once the horizon slot cascades, and is not reported earlier than its instant
+        clock.set(distantInstant.minus(Duration.ofDays(1)));
+        assertOrder(entries, distant);
+        Assert.assertTrue(entries.peek().getValue().isBefore(distantInstant));
+
+        clock.set(distantInstant);
+        assertOrder(entries, distant);
+        Assert.assertEquals(distantInstant, entries.peek().getValue());
+    }
+
+    @Test
+    public void peek() {
+        Instant start = Instant.now();
+        AtomicReference<Instant> clock = new AtomicReference<>(start);
+        TimingWheelScheduledEntries<UUID> entries = new TimingWheelScheduledEntries<>(TimingWheelScheduledEntries.DEFAULT_RESOLUTION, clock::get);
+
+        Assert.assertNull(entries.peek());
+
+        // Entry of an outer wheel is reported at the start of its slot
+        UUID outer = UUID.randomUUID();
+        Instant outerInstant = start.plus(Duration.ofMinutes(5));
+        entries.add(outer, outerInstant);
+        Map.Entry<UUID, Instant> entry = entries.peek();
+        Assert.assertEquals(outer, entry.getKey());
+        Assert.assertFalse(entry.getValue().isAfter(outerInstant));
+        Assert.assertTrue(entry.getValue().isAfter(start));
+
+        // Entry of inner wheel is reported with its exact instant
+        UUID inner = UUID.randomUUID();
+        Instant innerInstant = start.plus(Duration.ofSeconds(1));
+        entries.add(inner, innerInstant);
+        entry = entries.peek();
+        Assert.assertEquals(inner, entry.getKey());
+        Assert.assertEquals(innerInstant, entry.getValue());
+
+        // Overdue entry precedes all others
+        UUID overdue = UUID.randomUUID();
+        Instant overdueInstant = start.minus(Duration.ofSeconds(1));
+        entries.add(overdue, overdueInstant);
+        entry = entries.peek();
+        Assert.assertEquals(overdue, entry.getKey());
+        Assert.assertEquals(overdueInstant, entry.getValue());
+
+        entries.remove(overdue);
+        Assert.assertEquals(inner, entries.peek().getKey());
+        entries.remove(inner);
+        Assert.assertEquals(outer, entries.peek().getKey());
+        entries.remove(outer);
+        Assert.assertNull(entries.peek());
+    }
+
+    @Test
+    public void removeAfterCascade() {
+        Instant start = Instant.now();
+        AtomicReference<Instant> clock = new AtomicReference<>(start);
+        TimingWheelScheduledEntries<UUID> entries = new TimingWheelScheduledEntries<>(TimingWheelScheduledEntries.DEFAULT_RESOLUTION, clock::get);
+
+        UUID removed = UUID.randomUUID();
+        UUID iterated = UUID.randomUUID();
+        UUID retained = UUID.randomUUID();
+        entries.add(removed, start.plus(Duration.ofMinutes(1)));
+        entries.add(iterated, start.plus(Duration.ofMinutes(2)));
+        entries.add(retained, start.plus(Duration.ofMinutes(3)));
+
+        // Cascade all entries into the inner wheel
+        clock.set(start.plus(Duration.ofMinutes(3)));
+        assertOrder(entries, removed, iterated, retained);
+
+        entries.remove(removed);
+        Assert.assertFalse(entries.contains(removed));
+        assertOrder(entries, iterated, retained);
+
+        Iterator<Map.Entry<UUID, Instant>> iterator = entries.iterator();
+        Assert.assertEquals(iterated, iterator.next().getKey());
+        iterator.remove();
+        Assert.assertFalse(entries.contains(iterated));
+        assertOrder(entries, retained);
+
+        // Re-adding a removed key after a cascade schedules it anew
+        entries.add(removed, start.plus(Duration.ofMinutes(4)));
+        assertOrder(entries, retained, removed);
+        Assert.assertEquals(2L, entries.stream().count());
+    }
+
+    private static void assertOrder(ScheduledEntries<UUID, Instant> entries, UUID... keys) {
+        Iterator<Map.Entry<UUID, Instant>> iterator = entries.iterator();
+        for (UUID key : keys) {
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertEquals(key, iterator.next().getKey());
+        }
+        Assert.assertFalse(iterator.hasNext());
+    }
+}
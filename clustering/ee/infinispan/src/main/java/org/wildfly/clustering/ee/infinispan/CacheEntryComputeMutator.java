@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee.infinispan;
+
+import java.util.function.BiFunction;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.Mutator;
+
+/**
+ * Mutates a given cache entry by applying a remapping function on its primary owner.
+ * Unlike {@link CacheEntryMutator}, only the function, and not the entire value, is replicated.
+ * @param <K> the cache key type
+ * @param <V> the cache value type
+ */
+public class CacheEntryComputeMutator<K, V> implements Mutator {
+
+    private final Cache<K, V> cache;
+    private final K key;
+    private final BiFunction<Object, V, V> function;
+
+    public CacheEntryComputeMutator(Cache<K, V> cache, K key, BiFunction<Object, V, V> function) {
+        this.cache = cache;
+        this.key = key;
+        this.function = function;
+    }
+
+    @Override
+    public void mutate() {
+        // Use FAIL_SILENTLY to prevent mutation from failing locally due to remote exceptions
+        this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES, Flag.FAIL_SILENTLY).compute(this.key, this.function);
+    }
+}
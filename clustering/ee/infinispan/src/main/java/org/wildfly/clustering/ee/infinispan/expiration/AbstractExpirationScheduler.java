@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.ee.infinispan.expiration;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import org.wildfly.clustering.ee.Scheduler;
@@ -38,4 +39,13 @@ public abstract class AbstractExpirationScheduler<I> extends AbstractCacheEntryS
     public AbstractExpirationScheduler(Scheduler<I, Instant> scheduler) {
         super(scheduler, metaData -> !metaData.isImmortal() ? metaData.getLastAccessTime().plus(metaData.getTimeout()) : null);
     }
+
+    /**
+     * Creates an expiration scheduler that delays expiration by the specified duration.
+     * @param scheduler a scheduler
+     * @param delay the duration by which to delay expiration, e.g. to account for stale last access times
+     */
+    public AbstractExpirationScheduler(Scheduler<I, Instant> scheduler, Duration delay) {
+        super(scheduler, metaData -> !metaData.isImmortal() ? metaData.getLastAccessTime().plus(metaData.getTimeout()).plus(delay) : null);
+    }
 }
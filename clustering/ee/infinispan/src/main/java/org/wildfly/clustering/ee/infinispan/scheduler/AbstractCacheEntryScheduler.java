@@ -30,6 +30,7 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.wildfly.clustering.ee.Scheduler;
+import org.wildfly.clustering.ee.SchedulerStatistics;
 import org.wildfly.clustering.ee.infinispan.GroupedKey;
 import org.wildfly.clustering.infinispan.distribution.Locality;
 
@@ -88,6 +89,14 @@ public abstract class AbstractCacheEntryScheduler<I, M> implements CacheEntrySch
         this.scheduler.close();
     }
 
+    /**
+     * Returns the statistics of the local scheduler to which this scheduler delegates.
+     * @return scheduler statistics, or null, if the local scheduler does not record statistics
+     */
+    public SchedulerStatistics getStatistics() {
+        return (this.scheduler instanceof SchedulerStatistics) ? (SchedulerStatistics) this.scheduler : null;
+    }
+
     @Override
     public String toString() {
         return this.scheduler.toString();
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ee;
+
+import java.time.Duration;
+
+/**
+ * Exposes metrics of a scheduler.
+ */
+public interface SchedulerStatistics {
+
+    /**
+     * Returns the number of entries whose task completed successfully.
+     * @return the number of successfully executed entries
+     */
+    long getExecutedCount();
+
+    /**
+     * Returns the number of entries whose task failed, and which will be retried on the next drain.
+     * @return the number of failed task executions
+     */
+    long getFailedCount();
+
+    /**
+     * Returns the number of entries that were due, but not yet processed, by the current drain.
+     * @return the number of due entries awaiting execution
+     */
+    int getBacklog();
+
+    /**
+     * Returns the duration of the most recently completed drain of due entries.
+     * @return the duration of the last drain
+     */
+    Duration getLastDrainDuration();
+
+    /**
+     * Returns the throughput of the most recently completed drain, in entries per second.
+     * @return the throughput of the last drain
+     */
+    double getLastDrainThroughput();
+}
@@ -27,9 +27,8 @@ import java.util.function.Predicate;
 
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
-import org.wildfly.clustering.ee.cache.scheduler.LinkedScheduledEntries;
 import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
-import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntriesProvider;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.expiration.AbstractExpirationScheduler;
 import org.wildfly.clustering.ejb.bean.Bean;
@@ -49,11 +48,15 @@ import org.wildfly.clustering.group.Group;
  * @param <M> the metadata value type
  */
 public class BeanExpirationScheduler<K, V extends BeanInstance<K>, M> extends AbstractExpirationScheduler<K> {
+    // Overrides the default implementation, i.e. LINKED for singleton groups (constant delay), otherwise SORTED
+    private static final String SCHEDULED_ENTRIES_PROVIDER_PROPERTY = "org.wildfly.clustering.ejb.bean.expiration.scheduler";
+    // Number of threads used to expire beans in parallel, when large numbers of beans are due at once
+    private static final int DRAIN_CONCURRENCY = LocalScheduler.drainConcurrencyFromProperty("org.wildfly.clustering.ejb.bean.expiration.concurrency");
 
     private final ImmutableBeanMetaDataFactory<K, M> factory;
 
     public BeanExpirationScheduler(Group group, Batcher<TransactionBatch> batcher, BeanFactory<K, V, M> factory, BeanExpirationConfiguration<K, V> expiration, Duration closeTimeout) {
-        super(new LocalScheduler<>(group.isSingleton() ? new LinkedScheduledEntries<>() : new SortedScheduledEntries<>(), new BeanRemoveTask<>(batcher, factory, expiration.getExpirationListener()), closeTimeout));
+        super(new LocalScheduler<>(ScheduledEntriesProvider.fromProperty(SCHEDULED_ENTRIES_PROVIDER_PROPERTY, group.isSingleton() ? ScheduledEntriesProvider.LINKED : ScheduledEntriesProvider.SORTED).createScheduledEntries(), new BeanRemoveTask<>(batcher, factory, expiration.getExpirationListener()), closeTimeout, DRAIN_CONCURRENCY, batcher::createBatch));
         this.factory = factory.getMetaDataFactory();
     }
 
@@ -44,6 +44,7 @@ import org.jboss.ejb.client.NodeAffinity;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Key;
 import org.wildfly.clustering.ee.Scheduler;
+import org.wildfly.clustering.ee.SchedulerStatistics;
 import org.wildfly.clustering.ee.cache.CacheProperties;
 import org.wildfly.clustering.ee.cache.IdentifierFactory;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
@@ -55,7 +56,6 @@ import org.wildfly.clustering.ee.infinispan.scheduler.PrimaryOwnerScheduler;
 import org.wildfly.clustering.ee.infinispan.scheduler.ScheduleLocalEntriesTask;
 import org.wildfly.clustering.ee.infinispan.scheduler.ScheduleWithMetaDataCommand;
 import org.wildfly.clustering.ee.infinispan.scheduler.ScheduleWithTransientMetaDataCommand;
-import org.wildfly.clustering.ee.infinispan.scheduler.CacheEntryScheduler;
 import org.wildfly.clustering.ee.infinispan.scheduler.SchedulerTopologyChangeListener;
 import org.wildfly.clustering.ee.infinispan.tx.InfinispanBatcher;
 import org.wildfly.clustering.ejb.bean.Bean;
@@ -95,6 +95,7 @@ public class InfinispanBeanManager<K, V extends BeanInstance<K>, M> implements B
     private final Affinity strongAffinity;
 
     private volatile Scheduler<K, ExpirationMetaData> scheduler;
+    private volatile SchedulerStatistics expirationStatistics;
     private volatile ListenerRegistration schedulerListenerRegistration;
     private volatile UnaryOperator<Bean<K, V>> transformer;
 
@@ -117,7 +118,8 @@ public class InfinispanBeanManager<K, V extends BeanInstance<K>, M> implements B
         this.identifierFactory.start();
 
         Duration stopTimeout = Duration.ofMillis(this.cache.getCacheConfiguration().transaction().cacheStopTimeout());
-        CacheEntryScheduler<K, ExpirationMetaData> localScheduler = (this.expiration != null) && !this.expiration.getTimeout().isZero() ? new BeanExpirationScheduler<>(this.dispatcherFactory.getGroup(), this.batcher, this.beanFactory, this.expiration, stopTimeout) : null;
+        BeanExpirationScheduler<K, V, M> localScheduler = (this.expiration != null) && !this.expiration.getTimeout().isZero() ? new BeanExpirationScheduler<>(this.dispatcherFactory.getGroup(), this.batcher, this.beanFactory, this.expiration, stopTimeout) : null;
+        this.expirationStatistics = (localScheduler != null) ? localScheduler.getStatistics() : null;
 
         String dispatcherName = String.join("/", this.cache.getName(), this.filter.toString());
         this.scheduler = (localScheduler != null) ? (this.dispatcherFactory.getGroup().isSingleton() ? localScheduler : new PrimaryOwnerScheduler<>(this.dispatcherFactory, dispatcherName, localScheduler, this.primaryOwnerLocator, InfinispanBeanCreationMetaDataKey::new, this.properties.isTransactional() ? ScheduleWithMetaDataCommand::new : ScheduleWithTransientMetaDataCommand::new)) : null;
@@ -249,6 +251,11 @@ public class InfinispanBeanManager<K, V extends BeanInstance<K>, M> implements B
         return this.count(EnumSet.of(Flag.CACHE_MODE_LOCAL)) - this.getActiveCount();
     }
 
+    @Override
+    public SchedulerStatistics getExpirationStatistics() {
+        return this.expirationStatistics;
+    }
+
     private int count(Set<Flag> flags) {
         try (Stream<Key<K>> keys = this.cache.getAdvancedCache().withFlags(flags).keySet().stream()) {
             return (int) keys.filter(InfinispanBeanGroupKey.class::isInstance).count();
@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.ejb.bean;
 
+import org.wildfly.clustering.ee.SchedulerStatistics;
+
 /**
  * Exposes statistics for cached beans.
  * @author Paul Ferraro
@@ -37,4 +39,12 @@ public interface BeanStatistics {
      * @return a number of beans
      */
     int getPassiveCount();
+
+    /**
+     * Returns the statistics of the scheduler that expires beans owned by this member.
+     * @return scheduler statistics, or null, if beans do not expire, or if expiration statistics are not recorded
+     */
+    default SchedulerStatistics getExpirationStatistics() {
+        return null;
+    }
 }
@@ -24,6 +24,7 @@ package org.wildfly.clustering.marshalling.protostream;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.infinispan.protostream.BaseMarshaller;
@@ -45,6 +46,17 @@ import org.infinispan.protostream.impl.SerializationContextImpl;
  * @author Paul Ferraro
  */
 public class DefaultSerializationContext implements SerializationContext, Supplier<ImmutableSerializationContext> {
+    // Incremented whenever the registrations of any serialization context change
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    /**
+     * Returns the current generation of serialization context registrations.
+     * Any result derived from the registrations of a serialization context is stale if the generation has since changed.
+     * @return the current registration generation
+     */
+    static int getGeneration() {
+        return GENERATION.get();
+    }
 
     private final SerializationContext context = new SerializationContextImpl(Configuration.builder().build());
 
@@ -133,48 +145,57 @@ public class DefaultSerializationContext implements SerializationContext, Suppli
     @Override
     public void registerProtoFiles(FileDescriptorSource source) throws DescriptorParserException {
         this.context.registerProtoFiles(source);
+        GENERATION.incrementAndGet();
     }
 
     @Override
     public void unregisterProtoFile(String fileName) {
         this.context.unregisterProtoFile(fileName);
+        GENERATION.incrementAndGet();
     }
 
     @Override
     public void unregisterProtoFiles(Set<String> fileNames) {
         this.context.unregisterProtoFiles(fileNames);
+        GENERATION.incrementAndGet();
     }
 
     @Override
     public void registerMarshaller(BaseMarshaller<?> marshaller) {
         this.context.registerMarshaller(this.adapt(marshaller));
+        GENERATION.incrementAndGet();
     }
 
     @Override
     public void unregisterMarshaller(BaseMarshaller<?> marshaller) {
         this.context.unregisterMarshaller(marshaller);
+        GENERATION.incrementAndGet();
     }
 
     @Deprecated
     @Override
     public void registerMarshallerProvider(MarshallerProvider provider) {
         this.context.registerMarshallerProvider(this.adapt(provider));
+        GENERATION.incrementAndGet();
     }
 
     @Deprecated
     @Override
     public void unregisterMarshallerProvider(MarshallerProvider provider) {
         this.context.unregisterMarshallerProvider(provider);
+        GENERATION.incrementAndGet();
     }
 
     @Override
     public void registerMarshallerProvider(InstanceMarshallerProvider<?> provider) {
         this.context.registerMarshallerProvider(this.adapt(provider));
+        GENERATION.incrementAndGet();
     }
 
     @Override
     public void unregisterMarshallerProvider(InstanceMarshallerProvider<?> provider) {
         this.context.unregisterMarshallerProvider(provider);
+        GENERATION.incrementAndGet();
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
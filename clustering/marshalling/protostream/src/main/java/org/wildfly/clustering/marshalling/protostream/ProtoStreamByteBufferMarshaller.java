@@ -26,8 +26,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.protostream.ImmutableSerializationContext;
 import org.infinispan.protostream.ProtobufTagMarshaller.ReadContext;
@@ -42,6 +44,13 @@ import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
 public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
 
     private final ImmutableSerializationContext context;
+    // Caches the marshallability of a given class, which remains valid until the next change to the registrations of a serialization context
+    private final ClassValue<AtomicReference<Marshallability>> marshallability = new ClassValue<>() {
+        @Override
+        protected AtomicReference<Marshallability> computeValue(Class<?> targetClass) {
+            return new AtomicReference<>();
+        }
+    };
 
     public ProtoStreamByteBufferMarshaller(ImmutableSerializationContext context) {
         this.context = context;
@@ -58,25 +67,66 @@ public class ProtoStreamByteBufferMarshaller implements ByteBufferMarshaller {
     public boolean isMarshallable(Object object) {
         if ((object == null) || (object instanceof Class)) return true;
         Class<?> targetClass = object.getClass();
-        if (AnyField.fromJavaType(targetClass) != null) return true;
         if (targetClass.isArray()) {
+            Class<?> componentType = targetClass.getComponentType();
+            // Primitive arrays are marshalled as a whole, so never inspect their elements
+            if (componentType.isPrimitive()) return this.isMarshallableClass(targetClass);
+            // If the component type cannot be subclassed, all non-null elements share the same type, so check it just once
+            if (!componentType.isArray() && Modifier.isFinal(componentType.getModifiers()) && this.isMarshallableClass(componentType)) return true;
+            Class<?> verifiedClass = null;
             for (int i = 0; i < Array.getLength(object); ++i) {
-                if (!this.isMarshallable(Array.get(object, i))) return false;
+                Object element = Array.get(object, i);
+                // Skip elements whose class was already verified by a previous element
+                if ((element == null) || (element.getClass() == verifiedClass)) continue;
+                if (!this.isMarshallable(element)) return false;
+                Class<?> elementClass = element.getClass();
+                // Marshallability of arrays and proxies depends on the element itself, not just its class
+                if (!elementClass.isArray() && !Proxy.isProxyClass(elementClass)) {
+                    verifiedClass = elementClass;
+                }
             }
             return true;
         }
         if (Proxy.isProxyClass(targetClass)) {
             return this.isMarshallable(Proxy.getInvocationHandler(object));
         }
-        while (targetClass != null) {
-            if (this.context.canMarshall(targetClass)) {
+        return this.isMarshallableClass(targetClass);
+    }
+
+    private boolean isMarshallableClass(Class<?> targetClass) {
+        AtomicReference<Marshallability> reference = this.marshallability.get(targetClass);
+        int generation = DefaultSerializationContext.getGeneration();
+        Marshallability cached = reference.get();
+        if ((cached != null) && (cached.generation == generation)) {
+            return cached.marshallable;
+        }
+        boolean marshallable = this.computeMarshallable(targetClass);
+        reference.set(new Marshallability(generation, marshallable));
+        return marshallable;
+    }
+
+    private boolean computeMarshallable(Class<?> targetClass) {
+        if (AnyField.fromJavaType(targetClass) != null) return true;
+        Class<?> superClass = targetClass;
+        while (superClass != null) {
+            if (this.context.canMarshall(superClass)) {
                 return true;
             }
-            targetClass = targetClass.getSuperclass();
+            superClass = superClass.getSuperclass();
         }
         return false;
     }
 
+    private static class Marshallability {
+        final int generation;
+        final boolean marshallable;
+
+        Marshallability(int generation, boolean marshallable) {
+            this.generation = generation;
+            this.marshallable = marshallable;
+        }
+    }
+
     @Override
     public Object readFrom(InputStream input) throws IOException {
         ReadContext context = TagReaderImpl.newInstance(this.context, input);
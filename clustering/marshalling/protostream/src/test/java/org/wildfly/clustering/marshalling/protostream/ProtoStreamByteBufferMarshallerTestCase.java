@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.protostream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.Test;
+import org.wildfly.clustering.marshalling.Person;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Validates {@link ProtoStreamByteBufferMarshaller#isMarshallable(Object)}.
+ */
+public class ProtoStreamByteBufferMarshallerTestCase {
+
+    @Test
+    public void isMarshallable() {
+        SerializationContextBuilder builder = new SerializationContextBuilder(new SimpleClassLoaderMarshaller(Thread.currentThread().getContextClassLoader()));
+        ByteBufferMarshaller marshaller = new ProtoStreamByteBufferMarshaller(builder.build());
+        Person person = Person.create("foo");
+
+        assertTrue(marshaller.isMarshallable(null));
+        assertTrue(marshaller.isMarshallable("foo"));
+        assertTrue(marshaller.isMarshallable(UUID.randomUUID()));
+        assertTrue(marshaller.isMarshallable(new int[] { 1, 2 }));
+        assertTrue(marshaller.isMarshallable(new boolean[] { true, false }));
+        assertTrue(marshaller.isMarshallable(new String[] { "foo", null, "bar" }));
+        assertTrue(marshaller.isMarshallable(new Person[] { null }));
+        assertFalse(marshaller.isMarshallable(person));
+        assertFalse(marshaller.isMarshallable(new Person[] { person }));
+        assertFalse(marshaller.isMarshallable(new Object[] { "foo", person }));
+        assertFalse(marshaller.isMarshallable(new Object[][] { new Object[] { "foo" }, new Object[] { person } }));
+        // Verify cached result for the same class
+        assertFalse(marshaller.isMarshallable(person));
+
+        // Verify that registration invalidates cached results
+        builder.register(new TestSerializationContextInitializer());
+
+        assertTrue(marshaller.isMarshallable(person));
+        assertTrue(marshaller.isMarshallable(new Person[] { person, null, Person.create("bar") }));
+        assertTrue(marshaller.isMarshallable(new Object[] { "foo", person, 1 }));
+        assertTrue(marshaller.isMarshallable(new Object[][] { new Object[] { "foo" }, new Object[] { person } }));
+    }
+}
@@ -36,6 +36,7 @@ import org.jboss.logging.Logger;
  */
 public interface ByteBufferMarshaller extends Marshaller<Object, ByteBuffer> {
     Logger LOGGER = Logger.getLogger(ByteBufferMarshaller.class);
+    MarshalledSizePredictor SIZE_PREDICTOR = new MarshalledSizePredictor();
 
     /**
      * Reads an object from the specified input stream.
@@ -62,20 +63,15 @@ public interface ByteBufferMarshaller extends Marshaller<Object, ByteBuffer> {
 
     @Override
     default ByteBuffer write(Object object) throws IOException {
-        OptionalInt size = this.size(object);
-        try (ByteBufferOutputStream output = new ByteBufferOutputStream(size)) {
+        // Marshal to a reusable buffer, then copy to an exactly sized buffer, thus avoiding a separate pass to compute the marshalled size
+        ByteBufferOutputStream output = ByteBufferOutputStreamPool.acquire(SIZE_PREDICTOR.predict(object));
+        try {
             this.writeTo(output, object);
-            ByteBuffer buffer = output.getBuffer();
-            if (size.isPresent()) {
-                int predictedSize = size.getAsInt();
-                int actualSize = buffer.limit() - buffer.arrayOffset();
-                if (predictedSize < actualSize) {
-                    LOGGER.debugf("Buffer size prediction too small for %s (%s), predicted = %d, actual = %d", object, (object != null) ? object.getClass().getCanonicalName() : null, predictedSize, actualSize);
-                }
-            } else {
-                LOGGER.tracef("Buffer size prediction missing for %s (%s)", object, (object != null) ? object.getClass().getCanonicalName() : null);
-            }
+            ByteBuffer buffer = output.toBuffer();
+            SIZE_PREDICTOR.record(object, buffer.remaining());
             return buffer;
+        } finally {
+            ByteBufferOutputStreamPool.release(output);
         }
     }
 
@@ -51,4 +51,21 @@ public final class ByteBufferOutputStream extends ByteArrayOutputStream {
     public ByteBuffer getBuffer() {
         return ByteBuffer.wrap(this.buf, 0, this.count);
     }
+
+    /**
+     * Returns a copy of the content of this output stream, backed by an array of the exact size.
+     * Unlike {@link #getBuffer()}, the returned buffer remains valid after this stream is reset.
+     * @return a byte buffer containing a copy of the content of this stream.
+     */
+    public ByteBuffer toBuffer() {
+        return ByteBuffer.wrap(this.toByteArray());
+    }
+
+    /**
+     * Returns the current capacity of the internal buffer of this output stream.
+     * @return the capacity of the internal buffer
+     */
+    int capacity() {
+        return this.buf.length;
+    }
 }
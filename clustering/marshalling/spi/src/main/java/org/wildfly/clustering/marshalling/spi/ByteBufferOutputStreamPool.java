@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.util.OptionalInt;
+
+/**
+ * A per-thread pool of reusable {@link ByteBufferOutputStream} instances.
+ * Since a pooled stream is removed from its thread while in use, nested marshalling operations on the same thread will allocate a new stream.
+ */
+final class ByteBufferOutputStreamPool {
+    // Do not retain buffers beyond this capacity, so that the occasional large object does not pin memory indefinitely
+    static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<ByteBufferOutputStream> STREAMS = new ThreadLocal<>();
+
+    private ByteBufferOutputStreamPool() {
+        // Hide
+    }
+
+    /**
+     * Acquires an empty output stream, reusing a stream previously released by the current thread, if available.
+     * @param size the initial buffer size to use if a new stream must be allocated
+     * @return an empty output stream
+     */
+    static ByteBufferOutputStream acquire(OptionalInt size) {
+        ByteBufferOutputStream stream = STREAMS.get();
+        if (stream == null) {
+            return new ByteBufferOutputStream(size);
+        }
+        STREAMS.remove();
+        stream.reset();
+        return stream;
+    }
+
+    /**
+     * Releases the specified output stream to the pool of the current thread.
+     * @param stream an output stream previously returned by {@link #acquire(OptionalInt)}.
+     */
+    static void release(ByteBufferOutputStream stream) {
+        if (stream.capacity() <= MAX_POOLED_CAPACITY) {
+            STREAMS.set(stream);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Predicts the marshalled size of an object using an exponentially weighted moving average of the marshalled sizes of previous objects of the same class.
+ * This is considerably cheaper than computing the exact marshalled size, which generally requires a full traversal of the object graph.
+ */
+public class MarshalledSizePredictor {
+    // Weight of each new sample, expressed as a right shift, i.e. 1/8
+    private static final int WEIGHT_SHIFT = 3;
+    private static final int UNKNOWN = -1;
+
+    private final ClassValue<AtomicInteger> averages = new ClassValue<>() {
+        @Override
+        protected AtomicInteger computeValue(Class<?> targetClass) {
+            return new AtomicInteger(UNKNOWN);
+        }
+    };
+
+    /**
+     * Predicts the marshalled size of the specified object.
+     * @param object an object to be marshalled
+     * @return the predicted marshalled size of the specified object, or empty, if no objects of the same class were previously recorded.
+     */
+    public OptionalInt predict(Object object) {
+        if (object == null) return OptionalInt.empty();
+        int average = this.averages.get(object.getClass()).get();
+        // Add 25% headroom to minimize the likelihood of buffer resizing
+        return (average != UNKNOWN) ? OptionalInt.of(average + (average >> 2)) : OptionalInt.empty();
+    }
+
+    /**
+     * Records the actual marshalled size of the specified object.
+     * @param object a marshalled object
+     * @param size the marshalled size of the object
+     */
+    public void record(Object object, int size) {
+        if (object != null) {
+            this.averages.get(object.getClass()).updateAndGet(average -> (average != UNKNOWN) ? average + ((size - average) >> WEIGHT_SHIFT) : size);
+        }
+    }
+}
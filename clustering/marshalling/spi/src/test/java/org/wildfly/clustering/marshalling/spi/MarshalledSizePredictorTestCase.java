@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.marshalling.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.OptionalInt;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MarshalledSizePredictor}.
+ */
+public class MarshalledSizePredictorTestCase {
+
+    @Test
+    public void test() {
+        MarshalledSizePredictor predictor = new MarshalledSizePredictor();
+
+        assertFalse(predictor.predict(null).isPresent());
+        assertFalse(predictor.predict("foo").isPresent());
+
+        predictor.record("foo", 80);
+
+        OptionalInt prediction = predictor.predict("bar");
+        assertTrue(prediction.isPresent());
+        assertEquals(100, prediction.getAsInt());
+        // Predictions are per class
+        assertFalse(predictor.predict(Integer.valueOf(1)).isPresent());
+
+        // Verify that prediction converges toward recent samples
+        for (int i = 0; i < 100; ++i) {
+            predictor.record("foo", 160);
+        }
+        prediction = predictor.predict("bar");
+        assertTrue(prediction.isPresent());
+        assertTrue(prediction.getAsInt() >= 160);
+        assertTrue(prediction.getAsInt() <= 200);
+    }
+}
@@ -117,7 +117,8 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
     public <R> Map<Node, CompletionStage<R>> executeOnGroup(Command<R, ? super CC> command, Node... excludedMembers) throws CommandDispatcherException {
         Set<Node> excluded = (excludedMembers != null) ? new HashSet<>(Arrays.asList(excludedMembers)) : Collections.emptySet();
         Map<Node, CompletionStage<R>> results = new ConcurrentHashMap<>();
-        ByteBuffer buffer = this.createBuffer(command);
+        // Command is marshalled lazily, at most once, and its payload is shared by the messages to each remote member
+        ByteBuffer buffer = null;
         for (Node member : this.group.getMembership().getMembers()) {
             if (!excluded.contains(member)) {
                 Address address = JGroupsAddressResolver.INSTANCE.apply(member);
@@ -125,6 +126,9 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
                     results.put(member, this.localDispatcher.executeOnMember(command, member));
                 } else {
                     try {
+                        if (buffer == null) {
+                            buffer = this.createBuffer(command);
+                        }
                         ServiceRequest<R, MC> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), address, this.options, this.context);
                         Message message = this.createMessage(buffer, address);
                         CompletionStage<R> future = request.send(message);
@@ -152,7 +156,8 @@ public class ChannelCommandDispatcher<CC, MC> implements CommandDispatcher<CC> {
     }
 
     private Message createMessage(ByteBuffer buffer, Address destination) {
-        return new BytesMessage().setArray(buffer.array(), buffer.arrayOffset(), buffer.limit() - buffer.arrayOffset()).src(this.localAddress).dest(destination);
+        // Message references, rather than copies, the marshalled payload
+        return new BytesMessage().setArray(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()).src(this.localAddress).dest(destination);
     }
 
     private static class PruneCancellationTask<T> implements BiConsumer<T, Throwable> {
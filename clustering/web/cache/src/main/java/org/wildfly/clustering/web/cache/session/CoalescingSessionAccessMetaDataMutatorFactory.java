@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.cache.session;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.wildfly.clustering.context.DefaultExecutorService;
+import org.wildfly.clustering.context.DefaultThreadFactory;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.MutatorFactory;
+import org.wildfly.clustering.web.cache.logging.Logger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Mutator factory for session access meta data that coalesces writes within a fixed window.
+ * Mutations only record the session access meta data to be written.
+ * Once the window elapses, the most recent access meta data of each session is written asynchronously, in batches.
+ * Consequently, persisted access meta data may lag behind the actual last access by up to the duration of the window,
+ * which must be accounted for when determining whether a session has expired.
+ * @param <K> the cache key type
+ */
+public class CoalescingSessionAccessMetaDataMutatorFactory<K> implements MutatorFactory<K, SessionAccessMetaData>, AutoCloseable {
+    static final int MAX_BATCH_SIZE = 128;
+
+    private final Map<K, SessionAccessMetaData> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService executor;
+    private final Duration window;
+    private final Consumer<Map<K, SessionAccessMetaData>> writer;
+
+    /**
+     * Creates a coalescing mutator factory.
+     * @param window the duration within which writes are coalesced
+     * @param writer writes a batch of session access meta data
+     */
+    public CoalescingSessionAccessMetaDataMutatorFactory(Duration window, Consumer<Map<K, SessionAccessMetaData>> writer) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new DefaultThreadFactory(this.getClass()));
+        executor.setKeepAliveTime(1L, TimeUnit.MINUTES);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+        this.window = window;
+        this.writer = writer;
+    }
+
+    @Override
+    public Mutator createMutator(K key, SessionAccessMetaData value) {
+        return () -> this.enqueue(key, value);
+    }
+
+    /**
+     * Discards any pending write for the specified key, e.g. because the session was removed.
+     * @param key a cache key
+     */
+    public void cancel(K key) {
+        this.pending.remove(key);
+    }
+
+    @Override
+    public void close() {
+        WildFlySecurityManager.doPrivilegedWithParameter(this.executor, DefaultExecutorService.SHUTDOWN_ACTION);
+        // Write any remaining access meta data
+        this.flush();
+    }
+
+    private void enqueue(K key, SessionAccessMetaData value) {
+        // Only the first write within the window needs to schedule a flush
+        if ((this.pending.put(key, value) == null) && this.scheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.schedule(this::flush, this.window.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Factory was closed
+                this.scheduled.set(false);
+                this.flush();
+            }
+        }
+    }
+
+    private void flush() {
+        // Reset first, so that any subsequent write schedules the next flush
+        this.scheduled.set(false);
+        Map<K, SessionAccessMetaData> batch = new HashMap<>();
+        for (K key : this.pending.keySet()) {
+            SessionAccessMetaData value = this.pending.remove(key);
+            if (value != null) {
+                batch.put(key, value);
+                if (batch.size() == MAX_BATCH_SIZE) {
+                    this.write(batch);
+                    batch = new HashMap<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.write(batch);
+        }
+    }
+
+    private void write(Map<K, SessionAccessMetaData> batch) {
+        try {
+            this.writer.accept(batch);
+        } catch (RuntimeException e) {
+            Logger.ROOT_LOGGER.failedToWriteSessionAccessMetaData(e, batch.size());
+            // Retry on next flush, unless superseded by a more recent write
+            for (Map.Entry<K, SessionAccessMetaData> entry : batch.entrySet()) {
+                this.pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            if (!this.executor.isShutdown() && this.scheduled.compareAndSet(false, true)) {
+                try {
+                    this.executor.schedule(this::flush, this.window.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ex) {
+                    this.scheduled.set(false);
+                }
+            }
+        }
+    }
+}
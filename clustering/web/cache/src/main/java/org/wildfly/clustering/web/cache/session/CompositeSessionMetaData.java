@@ -32,10 +32,23 @@ public class CompositeSessionMetaData implements InvalidatableSessionMetaData {
 
     private final SessionCreationMetaData creationMetaData;
     private final SessionAccessMetaData accessMetaData;
+    private final Duration accessCoalescingWindow;
 
     public CompositeSessionMetaData(SessionCreationMetaData creationMetaData, SessionAccessMetaData accessMetaData) {
+        this(creationMetaData, accessMetaData, Duration.ZERO);
+    }
+
+    /**
+     * Creates a composite session meta data whose access meta data may lag behind the actual last access time, by up to the specified window.
+     * @param creationMetaData the creation meta data of a session
+     * @param accessMetaData the access meta data of a session
+     * @param accessCoalescingWindow the duration within which writes of access meta data are coalesced
+     * @see CoalescingSessionAccessMetaDataMutatorFactory
+     */
+    public CompositeSessionMetaData(SessionCreationMetaData creationMetaData, SessionAccessMetaData accessMetaData, Duration accessCoalescingWindow) {
         this.creationMetaData = creationMetaData;
         this.accessMetaData = accessMetaData;
+        this.accessCoalescingWindow = accessCoalescingWindow;
     }
 
     @Override
@@ -73,6 +86,14 @@ public class CompositeSessionMetaData implements InvalidatableSessionMetaData {
         return this.creationMetaData.getTimeout();
     }
 
+    @Override
+    public boolean isExpired() {
+        if (this.accessCoalescingWindow.isZero()) return InvalidatableSessionMetaData.super.isExpired();
+        if (this.isImmortal()) return false;
+        // Last access time may be stale by up to the coalescing window
+        return !this.getLastAccessTime().plus(this.getTimeout()).plus(this.accessCoalescingWindow).isAfter(Instant.now());
+    }
+
     @Override
     public void setLastAccess(Instant startTime, Instant endTime) {
         Instant creationTime = this.creationMetaData.getCreationTime();
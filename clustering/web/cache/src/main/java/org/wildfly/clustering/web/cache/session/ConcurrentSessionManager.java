@@ -23,7 +23,9 @@
 package org.wildfly.clustering.web.cache.session;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -38,17 +40,41 @@ import org.wildfly.clustering.web.session.SessionAttributes;
 import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionMetaData;
 import org.wildfly.common.function.Functions;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
  * A concurrent session manager, that can share session references across concurrent threads.
+ * Optionally, immutable snapshots returned by {@link #readSession(String)} are shared across threads, until the session is next written or invalidated by this manager, or until they reach a maximum age.
+ * Sessions returned by {@link #findSession(String)} are never shared in this way, since every request that finds a session records its access, and is thus never read-only.
  * @author Paul Ferraro
  */
 public class ConcurrentSessionManager<L, B extends Batch> implements SessionManager<L, B> {
+    // Duration, in milliseconds, for which an immutable session snapshot may be shared between read-only requests, or 0, if snapshots should not be shared.
+    // This bounds the staleness of a shared snapshot with respect to modifications by other members.
+    private static final Duration SNAPSHOT_MAX_AGE = Duration.ofMillis(Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.clustering.web.session.snapshot.max-age", "0")));
+    // Maximum number of shared immutable session snapshots
+    private static final int SNAPSHOT_MAX_SIZE = 10_000;
+    // Number of version counters, used to detect writes that race with creation of a snapshot
+    private static final int VERSION_STRIPES = 64;
 
     private final SessionManager<L, B> manager;
     private final Manager<String, Session<L>> concurrentManager;
+    private final Map<String, Map.Entry<Long, ImmutableSession>> snapshots;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
 
     public ConcurrentSessionManager(SessionManager<L, B> manager, ManagerFactory<String, Session<L>> concurrentManagerFactory) {
+        this(manager, concurrentManagerFactory, SNAPSHOT_MAX_AGE);
+    }
+
+    /**
+     * Creates a concurrent session manager that shares immutable session snapshots for up to the specified duration.
+     * @param manager the decorated session manager
+     * @param concurrentManagerFactory a factory for creating the manager of concurrently referenced sessions
+     * @param snapshotMaxAge the maximum duration for which an immutable session snapshot is shared, or zero, if snapshots should not be shared.
+     */
+    public ConcurrentSessionManager(SessionManager<L, B> manager, ManagerFactory<String, Session<L>> concurrentManagerFactory, Duration snapshotMaxAge) {
         this.manager = manager;
         this.concurrentManager = concurrentManagerFactory.apply(Functions.discardingConsumer(), new Consumer<Session<L>>() {
             @Override
@@ -56,6 +82,7 @@ public class ConcurrentSessionManager<L, B extends Batch> implements SessionMana
                 ((ConcurrentSession<L>) session).closeSession();
             }
         });
+        this.snapshots = !snapshotMaxAge.isZero() ? Caffeine.newBuilder().executor(Runnable::run).expireAfterWrite(snapshotMaxAge).maximumSize(SNAPSHOT_MAX_SIZE).<String, Map.Entry<Long, ImmutableSession>>build().asMap() : null;
     }
 
     @Override
@@ -65,7 +92,7 @@ public class ConcurrentSessionManager<L, B extends Batch> implements SessionMana
             @Override
             public ConcurrentSession<L> apply(Runnable closeTask) {
                 Session<L> session = manager.findSession(id);
-                return (session != null) ? new ConcurrentSession<>(session, closeTask) : null;
+                return (session != null) ? new ConcurrentSession<>(session, closeTask, ConcurrentSessionManager.this::invalidateSnapshot) : null;
             }
         };
         @SuppressWarnings("resource")
@@ -86,7 +113,7 @@ public class ConcurrentSessionManager<L, B extends Batch> implements SessionMana
             @Override
             public ConcurrentSession<L> apply(Runnable closeTask) {
                 Session<L> session = manager.createSession(id);
-                return new ConcurrentSession<>(session, closeTask);
+                return new ConcurrentSession<>(session, closeTask, ConcurrentSessionManager.this::invalidateSnapshot);
             }
         };
         return this.concurrentManager.apply(id, factory);
@@ -129,7 +156,37 @@ public class ConcurrentSessionManager<L, B extends Batch> implements SessionMana
 
     @Override
     public ImmutableSession readSession(String id) {
-        return this.manager.readSession(id);
+        Map<String, Map.Entry<Long, ImmutableSession>> snapshots = this.snapshots;
+        if (snapshots == null) {
+            return this.manager.readSession(id);
+        }
+        int stripe = stripe(id);
+        long version = this.versions.get(stripe);
+        Map.Entry<Long, ImmutableSession> snapshot = snapshots.get(id);
+        // Reuse snapshot if session was not since written or invalidated by this manager
+        if ((snapshot != null) && (snapshot.getKey().longValue() == version) && !snapshot.getValue().getMetaData().isExpired()) {
+            return snapshot.getValue();
+        }
+        ImmutableSession session = this.manager.readSession(id);
+        if (session != null) {
+            // Snapshot will be ignored by subsequent reads if it was written concurrently
+            snapshots.put(id, Map.entry(version, session));
+        } else if (snapshot != null) {
+            snapshots.remove(id, snapshot);
+        }
+        return session;
+    }
+
+    private void invalidateSnapshot(String id) {
+        if (this.snapshots != null) {
+            // Increment version before removal, so that a concurrent read can detect it
+            this.versions.incrementAndGet(stripe(id));
+            this.snapshots.remove(id);
+        }
+    }
+
+    private static int stripe(String id) {
+        return id.hashCode() & (VERSION_STRIPES - 1);
     }
 
     @Override
@@ -140,14 +197,18 @@ public class ConcurrentSessionManager<L, B extends Batch> implements SessionMana
     private static class ConcurrentSession<L> implements Session<L> {
         private final Session<L> session;
         private final Runnable closeTask;
+        private final Consumer<String> snapshotInvalidator;
 
-        ConcurrentSession(Session<L> session, Runnable closeTask) {
+        ConcurrentSession(Session<L> session, Runnable closeTask, Consumer<String> snapshotInvalidator) {
             this.session = session;
             this.closeTask = closeTask;
+            this.snapshotInvalidator = snapshotInvalidator;
         }
 
         void closeSession() {
             this.session.close();
+            // Session may have been written on close
+            this.snapshotInvalidator.accept(this.session.getId());
         }
 
         @Override
@@ -173,6 +234,7 @@ public class ConcurrentSessionManager<L, B extends Batch> implements SessionMana
         @Override
         public void invalidate() {
             this.session.invalidate();
+            this.snapshotInvalidator.accept(this.session.getId());
             this.closeTask.run();
         }
 
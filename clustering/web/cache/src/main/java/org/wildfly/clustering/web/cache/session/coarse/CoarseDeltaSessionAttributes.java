@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.cache.session.coarse;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.cache.session.SessionActivationNotifier;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+
+/**
+ * Exposes session attributes for a delta granularity session.
+ * Like coarse granularity, all session attributes are stored within a single cache entry.
+ * However, rather than replacing the entire cache entry on close, only the attributes written or removed during the request are replicated.
+ * @param <V> the marshalled attribute value type
+ */
+public class CoarseDeltaSessionAttributes<V> extends CoarseImmutableSessionAttributes implements SessionAttributes {
+    private final Map<String, Object> attributes;
+    // An empty value indicates a removed attribute
+    private final Map<String, Optional<Object>> mutations = new ConcurrentHashMap<>();
+    private final Function<Map<String, Optional<V>>, Mutator> mutatorFactory;
+    private final Marshaller<Object, V> marshaller;
+    private final Immutability immutability;
+    private final CacheProperties properties;
+    private final SessionActivationNotifier notifier;
+
+    public CoarseDeltaSessionAttributes(Map<String, Object> attributes, Function<Map<String, Optional<V>>, Mutator> mutatorFactory, Marshaller<Object, V> marshaller, Immutability immutability, CacheProperties properties, SessionActivationNotifier notifier) {
+        super(attributes);
+        this.attributes = attributes;
+        this.mutatorFactory = mutatorFactory;
+        this.marshaller = marshaller;
+        this.immutability = immutability;
+        this.properties = properties;
+        this.notifier = notifier;
+        if (this.notifier != null) {
+            this.notifier.postActivate();
+        }
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Object value = this.attributes.remove(name);
+        if (value != null) {
+            this.mutations.put(name, Optional.empty());
+        }
+        return value;
+    }
+
+    @Override
+    public Object setAttribute(String name, Object value) {
+        if (value == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.properties.isMarshalling() && !this.marshaller.isMarshallable(value)) {
+            throw new IllegalArgumentException(new NotSerializableException(value.getClass().getName()));
+        }
+        Object old = this.attributes.put(name, value);
+        // Always trigger mutation, even if this is an immutable object that was previously retrieved via getAttribute(...)
+        this.mutations.put(name, Optional.of(value));
+        return old;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = this.attributes.get(name);
+        if ((value != null) && !this.immutability.test(value)) {
+            // Mutable attribute must be replicated on close, unless it was removed in the meantime
+            this.mutations.putIfAbsent(name, Optional.of(value));
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        if (this.notifier != null) {
+            this.notifier.prePassivate();
+        }
+        if (!this.mutations.isEmpty()) {
+            Map<String, Optional<V>> delta = new HashMap<>();
+            for (String name : this.mutations.keySet()) {
+                Optional<Object> mutation = this.mutations.remove(name);
+                if (mutation != null) {
+                    delta.put(name, mutation.isPresent() ? Optional.of(this.write(mutation.get())) : Optional.empty());
+                }
+            }
+            if (!delta.isEmpty()) {
+                this.mutatorFactory.apply(delta).mutate();
+            }
+        }
+    }
+
+    private V write(Object value) {
+        try {
+            return this.marshaller.write(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
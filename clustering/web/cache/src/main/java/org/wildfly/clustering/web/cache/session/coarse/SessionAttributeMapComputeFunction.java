@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.cache.session.coarse;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import org.wildfly.clustering.ee.cache.function.Operations;
+
+/**
+ * Function that applies a delta of session attribute writes and removals to the map of marshalled session attributes of a session.
+ * An empty value indicates that the attribute was removed.
+ * Unlike {@link org.wildfly.clustering.ee.cache.function.MapFunction}, this function never creates a missing map, nor does it remove an empty map.
+ * @param <V> the marshalled attribute value type
+ */
+public class SessionAttributeMapComputeFunction<V> implements BiFunction<Object, Map<String, V>, Map<String, V>>, BiConsumer<Map<String, V>, Map<String, Optional<V>>> {
+
+    private final Map<String, Optional<V>> operand;
+    private final Operations<Map<String, V>> operations;
+
+    public SessionAttributeMapComputeFunction(Map<String, Optional<V>> operand, Operations<Map<String, V>> operations) {
+        this.operand = operand;
+        this.operations = operations;
+    }
+
+    @Override
+    public Map<String, V> apply(Object key, Map<String, V> attributes) {
+        // A delta must never resurrect the attributes of a session that was since invalidated
+        if (attributes == null) return null;
+        // Transactional caches must operate on a copy of the attributes
+        Map<String, V> result = this.operations.apply(attributes);
+        this.accept(result, this.operand);
+        return result;
+    }
+
+    @Override
+    public void accept(Map<String, V> attributes, Map<String, Optional<V>> delta) {
+        for (Map.Entry<String, Optional<V>> entry : delta.entrySet()) {
+            String name = entry.getKey();
+            Optional<V> value = entry.getValue();
+            if (value.isPresent()) {
+                attributes.put(name, value.get());
+            } else {
+                attributes.remove(name);
+            }
+        }
+    }
+
+    public Map<String, Optional<V>> getOperand() {
+        return this.operand;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.cache.session.coarse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.infinispan.protostream.descriptors.WireType;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamMarshaller;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamReader;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamWriter;
+
+/**
+ * {@link ProtoStreamMarshaller} for a session attribute map compute function.
+ * Each attribute name is optionally followed by its value, where a missing value indicates a removed attribute.
+ * @param <F> the function type
+ */
+public class SessionAttributeMapComputeFunctionMarshaller<F extends SessionAttributeMapComputeFunction<Object>> implements ProtoStreamMarshaller<F> {
+
+    private static final int ATTRIBUTE_NAME_INDEX = 1;
+    private static final int ATTRIBUTE_VALUE_INDEX = 2;
+
+    private final Class<F> targetClass;
+    private final Function<Map<String, Optional<Object>>, F> factory;
+
+    public SessionAttributeMapComputeFunctionMarshaller(Class<F> targetClass, Function<Map<String, Optional<Object>>, F> factory) {
+        this.targetClass = targetClass;
+        this.factory = factory;
+    }
+
+    @Override
+    public F readFrom(ProtoStreamReader reader) throws IOException {
+        Map<String, Optional<Object>> delta = new HashMap<>();
+        String attributeName = null;
+        while (!reader.isAtEnd()) {
+            int tag = reader.readTag();
+            int index = WireType.getTagFieldNumber(tag);
+            if (index == ATTRIBUTE_NAME_INDEX) {
+                if (attributeName != null) {
+                    // Previous attribute had no value, i.e. it was removed
+                    delta.put(attributeName, Optional.empty());
+                }
+                attributeName = reader.readString();
+            } else if (index == ATTRIBUTE_VALUE_INDEX) {
+                delta.put(attributeName, Optional.of(reader.readAny()));
+                attributeName = null;
+            } else {
+                reader.skipField(tag);
+            }
+        }
+        if (attributeName != null) {
+            delta.put(attributeName, Optional.empty());
+        }
+        return this.factory.apply(delta);
+    }
+
+    @Override
+    public void writeTo(ProtoStreamWriter writer, F function) throws IOException {
+        for (Map.Entry<String, Optional<Object>> entry : function.getOperand().entrySet()) {
+            writer.writeString(ATTRIBUTE_NAME_INDEX, entry.getKey());
+            Optional<Object> value = entry.getValue();
+            if (value.isPresent()) {
+                writer.writeAny(ATTRIBUTE_VALUE_INDEX, value.get());
+            }
+        }
+    }
+
+    @Override
+    public Class<? extends F> getJavaClass() {
+        return this.targetClass;
+    }
+}
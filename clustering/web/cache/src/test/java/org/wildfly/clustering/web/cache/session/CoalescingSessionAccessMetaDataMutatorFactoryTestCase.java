@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.cache.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CoalescingSessionAccessMetaDataMutatorFactory}.
+ */
+public class CoalescingSessionAccessMetaDataMutatorFactoryTestCase {
+
+    @Test
+    public void test() throws InterruptedException {
+        List<Map<String, SessionAccessMetaData>> batches = new CopyOnWriteArrayList<>();
+        SessionAccessMetaData metaData1 = mock(SessionAccessMetaData.class);
+        SessionAccessMetaData metaData2 = mock(SessionAccessMetaData.class);
+        SessionAccessMetaData metaData3 = mock(SessionAccessMetaData.class);
+
+        try (CoalescingSessionAccessMetaDataMutatorFactory<String> factory = new CoalescingSessionAccessMetaDataMutatorFactory<>(Duration.ofMillis(100), batches::add)) {
+            factory.createMutator("foo", metaData1).mutate();
+            factory.createMutator("bar", metaData2).mutate();
+            factory.createMutator("foo", metaData3).mutate();
+            factory.createMutator("baz", metaData2).mutate();
+            factory.cancel("baz");
+
+            // Nothing written within window
+            assertTrue(batches.isEmpty());
+
+            Thread.sleep(500);
+
+            // Verify that only most recent value per key was written, within a single batch
+            assertEquals(1, batches.size());
+            Map<String, SessionAccessMetaData> batch = batches.get(0);
+            assertEquals(2, batch.size());
+            assertSame(metaData3, batch.get("foo"));
+            assertSame(metaData2, batch.get("bar"));
+
+            factory.createMutator("foo", metaData1).mutate();
+        }
+
+        // Verify pending writes are flushed on close
+        assertEquals(2, batches.size());
+        assertSame(metaData1, batches.get(1).get("foo"));
+    }
+}
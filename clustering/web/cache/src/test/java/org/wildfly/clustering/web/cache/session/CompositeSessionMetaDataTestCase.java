@@ -72,6 +72,28 @@ public class CompositeSessionMetaDataTestCase {
         assertFalse(this.metaData.isExpired());
     }
 
+    @Test
+    public void isExpiredWithAccessCoalescingWindow() {
+        SessionMetaData metaData = new CompositeSessionMetaData(this.creationMetaData, this.accessMetaData, Duration.ofSeconds(10L));
+
+        when(this.creationMetaData.getCreationTime()).thenReturn(Instant.now().minus(Duration.ofMinutes(10L)));
+        when(this.creationMetaData.getTimeout()).thenReturn(Duration.ofMinutes(5L).minus(Duration.ofSeconds(5L)));
+        when(this.accessMetaData.getSinceCreationDuration()).thenReturn(Duration.ofMinutes(5L));
+        when(this.accessMetaData.getLastAccessDuration()).thenReturn(Duration.ZERO);
+
+        // Last access time may be stale by up to the window
+        assertTrue(this.metaData.isExpired());
+        assertFalse(metaData.isExpired());
+
+        when(this.creationMetaData.getTimeout()).thenReturn(Duration.ofMinutes(5L).minus(Duration.ofSeconds(15L)));
+
+        assertTrue(metaData.isExpired());
+
+        when(this.creationMetaData.getTimeout()).thenReturn(Duration.ZERO);
+
+        assertFalse(metaData.isExpired());
+    }
+
     @Test
     public void getCreationTime() {
         Instant expected = Instant.now();
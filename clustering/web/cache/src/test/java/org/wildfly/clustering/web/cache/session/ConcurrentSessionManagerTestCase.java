@@ -36,6 +36,7 @@ import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.cache.ConcurrentManager;
 import org.wildfly.clustering.ee.cache.SimpleManager;
 import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionMetaData;
@@ -277,6 +278,48 @@ public class ConcurrentSessionManagerTestCase {
         assertSame(expected, result);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void readSharedSession() {
+        SessionManager<Void, Batch> manager = mock(SessionManager.class);
+        SessionManager<Void, Batch> subject = new ConcurrentSessionManager<>(manager, ConcurrentManager::new, Duration.ofMinutes(1));
+        ImmutableSession expected1 = mock(ImmutableSession.class);
+        ImmutableSession expected2 = mock(ImmutableSession.class);
+        ImmutableSessionMetaData metaData = mock(ImmutableSessionMetaData.class);
+        Session<Void> session = mock(Session.class);
+        String id = "foo";
+
+        when(manager.readSession(id)).thenReturn(expected1, expected2);
+        when(manager.findSession(id)).thenReturn(session);
+        when(expected1.getMetaData()).thenReturn(metaData);
+        when(expected2.getMetaData()).thenReturn(metaData);
+        when(metaData.isExpired()).thenReturn(false);
+        when(session.getId()).thenReturn(id);
+        when(session.isValid()).thenReturn(true);
+
+        // Should share snapshot across reads
+        assertSame(expected1, subject.readSession(id));
+        assertSame(expected1, subject.readSession(id));
+        verify(manager).readSession(id);
+
+        // Closing a session may write it, thus a subsequent read should create a new snapshot
+        try (Session<Void> result = subject.findSession(id)) {
+            assertNotNull(result);
+        }
+        verify(session).close();
+
+        assertSame(expected2, subject.readSession(id));
+        assertSame(expected2, subject.readSession(id));
+        verify(manager, times(2)).readSession(id);
+
+        // Expired snapshots should not be shared
+        when(metaData.isExpired()).thenReturn(true);
+        when(manager.readSession(id)).thenReturn(null);
+
+        assertNull(subject.readSession(id));
+        verify(manager, times(3)).readSession(id);
+    }
+
     @Test
     public void getStopTimeout() {
         SessionManager<Void, Batch> manager = mock(SessionManager.class);
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.cache.session.coarse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.wildfly.clustering.marshalling.Tester;
+import org.wildfly.clustering.marshalling.protostream.ProtoStreamTesterFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionAttributeMapComputeFunctionMarshallerTestCase {
+
+    @Test
+    public void test() throws IOException {
+        Tester<SessionAttributeMapComputeFunction<Object>> tester = ProtoStreamTesterFactory.INSTANCE.createTester();
+        Map<String, Optional<Object>> delta = new HashMap<>();
+        tester.test(new ConcurrentSessionAttributeMapComputeFunction<>(delta), SessionAttributeMapComputeFunctionMarshallerTestCase::assertEquals);
+        tester.test(new CopyOnWriteSessionAttributeMapComputeFunction<>(delta), SessionAttributeMapComputeFunctionMarshallerTestCase::assertEquals);
+
+        delta.put("foo", Optional.of(UUID.randomUUID()));
+        delta.put("bar", Optional.empty());
+        delta.put("baz", Optional.of("qux"));
+        tester.test(new ConcurrentSessionAttributeMapComputeFunction<>(delta), SessionAttributeMapComputeFunctionMarshallerTestCase::assertEquals);
+        tester.test(new CopyOnWriteSessionAttributeMapComputeFunction<>(delta), SessionAttributeMapComputeFunctionMarshallerTestCase::assertEquals);
+    }
+
+    @Test
+    public void apply() {
+        Map<String, Optional<Object>> delta = new HashMap<>();
+        delta.put("foo", Optional.of("bar"));
+        delta.put("baz", Optional.empty());
+
+        // Delta must not create missing entry
+        Assert.assertNull(new ConcurrentSessionAttributeMapComputeFunction<>(delta).apply(null, null));
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("baz", "qux");
+        Map<String, Object> result = new CopyOnWriteSessionAttributeMapComputeFunction<>(delta).apply(null, attributes);
+        Assert.assertNotSame(attributes, result);
+        Assert.assertEquals(Map.of("foo", "bar"), result);
+
+        attributes.put("foo", "qux");
+        result = new ConcurrentSessionAttributeMapComputeFunction<Object>(Map.of("foo", Optional.empty())).apply(null, attributes);
+        // Delta must not remove empty entry
+        Assert.assertSame(attributes, result);
+        Assert.assertEquals(Map.of("baz", "qux"), result);
+    }
+
+    static void assertEquals(SessionAttributeMapComputeFunction<Object> function1, SessionAttributeMapComputeFunction<Object> function2) {
+        Assert.assertEquals(function1.getOperand(), function2.getOperand());
+    }
+}
@@ -32,6 +32,7 @@ public enum SessionGranularity {
 
     SESSION(SessionAttributePersistenceStrategy.COARSE),
     ATTRIBUTE(SessionAttributePersistenceStrategy.FINE),
+    DELTA(SessionAttributePersistenceStrategy.DELTA),
     ;
     private final SessionAttributePersistenceStrategy strategy;
 
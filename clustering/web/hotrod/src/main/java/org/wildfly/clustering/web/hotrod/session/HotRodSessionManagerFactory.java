@@ -95,7 +95,9 @@ public class HotRodSessionManagerFactory<S, SC, AL, LC> implements SessionManage
             case FINE: {
                 return new FineSessionAttributesFactory<>(new HotRodMarshalledValueSessionAttributesFactoryConfiguration<>(configuration));
             }
-            case COARSE: {
+            case COARSE:
+            // Remote caches cannot apply a delta via a server-side compute function, thus delta granularity degenerates to coarse granularity
+            case DELTA: {
                 return new CoarseSessionAttributesFactory<>(new HotRodMarshalledValueSessionAttributesFactoryConfiguration<>(configuration));
             }
             default: {
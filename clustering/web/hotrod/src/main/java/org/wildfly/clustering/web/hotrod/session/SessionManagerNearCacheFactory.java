@@ -89,7 +89,8 @@ public class SessionManagerNearCacheFactory implements NearCacheFactory {
                 List<Object> keys = new LinkedList<>();
                 keys.add(new SessionAccessMetaDataKey(id));
                 switch (this.strategy) {
-                    case COARSE: {
+                    case COARSE:
+                    case DELTA: {
                         keys.add(new SessionAttributesKey(id));
                         break;
                     }
@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -33,14 +34,18 @@ import jakarta.transaction.SystemException;
 import org.infinispan.Cache;
 import org.infinispan.commons.CacheException;
 import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Key;
 import org.wildfly.clustering.ee.Mutator;
 import org.wildfly.clustering.ee.MutatorFactory;
 import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.InfinispanConfiguration;
 import org.wildfly.clustering.ee.infinispan.InfinispanMutatorFactory;
 import org.wildfly.clustering.infinispan.listener.ListenerRegistration;
 import org.wildfly.clustering.infinispan.listener.PostPassivateBlockingListener;
+import org.wildfly.clustering.web.cache.session.CoalescingSessionAccessMetaDataMutatorFactory;
 import org.wildfly.clustering.web.cache.session.CompositeSessionMetaData;
 import org.wildfly.clustering.web.cache.session.CompositeSessionMetaDataEntry;
 import org.wildfly.clustering.web.cache.session.InvalidatableSessionMetaData;
@@ -74,10 +79,21 @@ public abstract class AbstractInfinispanSessionMetaDataFactory<L> implements Ses
     private final MutatorFactory<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> creationMetaDataMutatorFactory;
     private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataCache;
     private final MutatorFactory<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataMutatorFactory;
+    private final CoalescingSessionAccessMetaDataMutatorFactory<SessionAccessMetaDataKey> coalescingAccessMetaDataMutatorFactory;
+    private final Duration accessCoalescingWindow;
     private final CacheProperties properties;
     private final ListenerRegistration evictListenerRegistration;
 
     public AbstractInfinispanSessionMetaDataFactory(InfinispanConfiguration configuration) {
+        this(configuration, Duration.ZERO);
+    }
+
+    /**
+     * Creates a session meta data factory that coalesces writes of session access meta data within the specified window.
+     * @param configuration the configuration of this factory
+     * @param accessCoalescingWindow the duration within which writes of session access meta data are coalesced, or zero, if writes should not be coalesced.
+     */
+    public AbstractInfinispanSessionMetaDataFactory(InfinispanConfiguration configuration, Duration accessCoalescingWindow) {
         this.writeOnlyCache = configuration.getWriteOnlyCache();
         this.silentWriteCache = configuration.getSilentWriteCache();
         this.creationMetaDataTryLockCache = configuration.getTryLockCache();
@@ -85,13 +101,38 @@ public abstract class AbstractInfinispanSessionMetaDataFactory<L> implements Ses
         this.creationMetaDataCache = configuration.getCache();
         this.creationMetaDataMutatorFactory = new InfinispanMutatorFactory<>(this.creationMetaDataCache, this.properties);
         this.accessMetaDataCache = configuration.getCache();
-        this.accessMetaDataMutatorFactory = new InfinispanMutatorFactory<>(this.accessMetaDataCache, this.properties);
+        this.accessCoalescingWindow = accessCoalescingWindow;
+        if (!accessCoalescingWindow.isZero()) {
+            Batcher<TransactionBatch> batcher = configuration.getBatcher();
+            Cache<SessionAccessMetaDataKey, SessionAccessMetaData> cache = this.accessMetaDataCache;
+            this.coalescingAccessMetaDataMutatorFactory = new CoalescingSessionAccessMetaDataMutatorFactory<>(accessCoalescingWindow, entries -> {
+                try (Batch batch = batcher.createBatch()) {
+                    try {
+                        for (Map.Entry<SessionAccessMetaDataKey, SessionAccessMetaData> entry : entries.entrySet()) {
+                            // Use conditional write, so as not to resurrect the access meta data of a removed session
+                            cache.replace(entry.getKey(), entry.getValue());
+                        }
+                    } catch (RuntimeException e) {
+                        // e.g. lock timeout, in which case the entries are retried by the next flush
+                        batch.discard();
+                        throw e;
+                    }
+                }
+            });
+            this.accessMetaDataMutatorFactory = this.coalescingAccessMetaDataMutatorFactory;
+        } else {
+            this.coalescingAccessMetaDataMutatorFactory = null;
+            this.accessMetaDataMutatorFactory = new InfinispanMutatorFactory<>(this.accessMetaDataCache, this.properties);
+        }
         this.evictListenerRegistration = new PostPassivateBlockingListener<>(this.creationMetaDataCache, this::cascadeEvict).register(SessionCreationMetaDataKey.class);
     }
 
     @Override
     public void close() {
         this.evictListenerRegistration.close();
+        if (this.coalescingAccessMetaDataMutatorFactory != null) {
+            this.coalescingAccessMetaDataMutatorFactory.close();
+        }
     }
 
     @Override
@@ -127,12 +168,12 @@ public abstract class AbstractInfinispanSessionMetaDataFactory<L> implements Ses
         Mutator accessMutator = this.properties.isTransactional() && newSession ? Mutator.PASSIVE : this.accessMetaDataMutatorFactory.createMutator(accessMetaDataKey, entry.getAccessMetaData());
         SessionAccessMetaData accessMetaData = new MutableSessionAccessMetaData(entry.getAccessMetaData(), accessMutator);
 
-        return new CompositeSessionMetaData(creationMetaData, accessMetaData);
+        return new CompositeSessionMetaData(creationMetaData, accessMetaData, this.accessCoalescingWindow);
     }
 
     @Override
     public ImmutableSessionMetaData createImmutableSessionMetaData(String id, CompositeSessionMetaDataEntry<L> entry) {
-        return new CompositeSessionMetaData(entry.getCreationMetaData(), entry.getAccessMetaData());
+        return new CompositeSessionMetaData(entry.getCreationMetaData(), entry.getAccessMetaData(), this.accessCoalescingWindow);
     }
 
     @Override
@@ -140,7 +181,7 @@ public abstract class AbstractInfinispanSessionMetaDataFactory<L> implements Ses
         SessionCreationMetaDataKey key = new SessionCreationMetaDataKey(id);
         try {
             if (!this.properties.isLockOnWrite() || (this.creationMetaDataCache.getAdvancedCache().getTransactionManager().getTransaction() == null) || this.creationMetaDataTryLockCache.getAdvancedCache().lock(key)) {
-                return delete(this.writeOnlyCache, id);
+                return this.delete(this.writeOnlyCache, id);
             }
             return false;
         } catch (SystemException e) {
@@ -150,11 +191,15 @@ public abstract class AbstractInfinispanSessionMetaDataFactory<L> implements Ses
 
     @Override
     public boolean purge(String id) {
-        return delete(this.silentWriteCache, id);
+        return this.delete(this.silentWriteCache, id);
     }
 
-    private static boolean delete(Cache<Key<String>, Object> cache, String id) {
-        cache.remove(new SessionAccessMetaDataKey(id));
+    private boolean delete(Cache<Key<String>, Object> cache, String id) {
+        SessionAccessMetaDataKey accessMetaDataKey = new SessionAccessMetaDataKey(id);
+        if (this.coalescingAccessMetaDataMutatorFactory != null) {
+            this.coalescingAccessMetaDataMutatorFactory.cancel(accessMetaDataKey);
+        }
+        cache.remove(accessMetaDataKey);
         cache.remove(new SessionCreationMetaDataKey(id));
         return true;
     }
@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Set;
 
@@ -41,8 +42,8 @@ public class BulkReadInfinispanSessionMetaDataFactory<L> extends AbstractInfinis
 
     private final Cache<Key<String>, Object> cache;
 
-    public BulkReadInfinispanSessionMetaDataFactory(InfinispanConfiguration configuration) {
-        super(configuration);
+    public BulkReadInfinispanSessionMetaDataFactory(InfinispanConfiguration configuration, Duration accessCoalescingWindow) {
+        super(configuration, accessCoalescingWindow);
         this.cache = configuration.getCache();
     }
 
@@ -23,6 +23,7 @@ package org.wildfly.clustering.web.infinispan.session;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -63,12 +64,16 @@ import org.wildfly.clustering.web.cache.session.SessionAttributeActivationNotifi
 import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
 import org.wildfly.clustering.web.cache.session.SessionFactory;
 import org.wildfly.clustering.web.cache.session.SessionMetaDataFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.CoarseDeltaSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesKey;
+import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesKeyFilter;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
 import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionManagerConfiguration;
 import org.wildfly.clustering.web.session.SessionManagerFactory;
 import org.wildfly.clustering.web.session.SpecificationProvider;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Factory for creating session managers.
@@ -79,6 +84,10 @@ import org.wildfly.clustering.web.session.SpecificationProvider;
  * @author Paul Ferraro
  */
 public class InfinispanSessionManagerFactory<S, SC, AL, LC> implements SessionManagerFactory<SC, LC, TransactionBatch>, Runnable {
+    // Duration, in milliseconds, within which writes of session access meta data are coalesced.  Must be consistent across all members of a cluster.
+    private static final Duration ACCESS_COALESCING_WINDOW = Duration.ofMillis(Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.clustering.web.session.access.coalescing-window", "0")));
+    // Maximum number of sessions whose attributes are retained locally by non-owners of a distributed cache, or 0, if disabled.
+    private static final int NEAR_CACHE_MAX_SIZE = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.clustering.web.session.near-cache.max-size", "0"));
 
     private final org.wildfly.clustering.ee.Scheduler<String, ExpirationMetaData> scheduler;
     private final SpecificationProvider<S, SC, AL> provider;
@@ -96,11 +105,11 @@ public class InfinispanSessionManagerFactory<S, SC, AL, LC> implements SessionMa
         this.provider = config.getSpecificationProvider();
         this.notifierFactory = new SessionAttributeActivationNotifierFactory<>(this.provider);
         CacheProperties properties = config.getCacheProperties();
-        SessionMetaDataFactory<CompositeSessionMetaDataEntry<LC>> metaDataFactory = properties.isLockOnRead() ? new LockOnReadInfinispanSessionMetaDataFactory<>(config) : new BulkReadInfinispanSessionMetaDataFactory<>(config);
+        SessionMetaDataFactory<CompositeSessionMetaDataEntry<LC>> metaDataFactory = properties.isLockOnRead() ? new LockOnReadInfinispanSessionMetaDataFactory<>(config, ACCESS_COALESCING_WINDOW) : new BulkReadInfinispanSessionMetaDataFactory<>(config, ACCESS_COALESCING_WINDOW);
         this.factory = new CompositeSessionFactory<>(metaDataFactory, this.createSessionAttributesFactory(config), config.getLocalContextFactory());
         this.remover = new ExpiredSessionRemover<>(this.factory);
         Cache<Key<String>, ?> cache = config.getCache();
-        CacheEntryScheduler<String, ExpirationMetaData> localScheduler = new SessionExpirationScheduler<>(config.getBatcher(), this.factory.getMetaDataFactory(), this.remover, Duration.ofMillis(cache.getCacheConfiguration().transaction().cacheStopTimeout()));
+        CacheEntryScheduler<String, ExpirationMetaData> localScheduler = new SessionExpirationScheduler<>(config.getBatcher(), this.factory.getMetaDataFactory(), this.remover, Duration.ofMillis(cache.getCacheConfiguration().transaction().cacheStopTimeout()), ACCESS_COALESCING_WINDOW);
         CommandDispatcherFactory dispatcherFactory = config.getCommandDispatcherFactory();
         Group group = dispatcherFactory.getGroup();
         this.scheduler = group.isSingleton() ? localScheduler : new PrimaryOwnerScheduler<>(dispatcherFactory, cache.getName(), localScheduler, new PrimaryOwnerLocator<>(cache, config.getMemberFactory()), SessionCreationMetaDataKey::new, properties.isTransactional() ? new ScheduleWithExpirationMetaDataCommandFactory<>() : ScheduleWithTransientMetaDataCommand::new);
@@ -151,7 +160,10 @@ public class InfinispanSessionManagerFactory<S, SC, AL, LC> implements SessionMa
                 return new FineSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.notifierFactory));
             }
             case COARSE: {
-                return new CoarseSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.notifierFactory));
+                return createNearCacheSessionAttributesFactory(new CoarseSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.notifierFactory)), configuration.getCache());
+            }
+            case DELTA: {
+                return createNearCacheSessionAttributesFactory(new CoarseDeltaSessionAttributesFactory<>(new InfinispanMarshalledValueSessionAttributesFactoryConfiguration<>(configuration, this.notifierFactory)), configuration.getCache());
             }
             default: {
                 // Impossible
@@ -160,6 +172,12 @@ public class InfinispanSessionManagerFactory<S, SC, AL, LC> implements SessionMa
         }
     }
 
+    private static <C> SessionAttributesFactory<C, Map<String, Object>> createNearCacheSessionAttributesFactory(SessionAttributesFactory<C, Map<String, Object>> factory, Cache<Key<String>, ?> cache) {
+        // Fine granularity attributes are read individually on demand, thus only coarse and delta granularity attributes are near cached
+        if ((NEAR_CACHE_MAX_SIZE <= 0) || !cache.getCacheConfiguration().clustering().cacheMode().isDistributed()) return factory;
+        return new NearCacheSessionAttributesFactory<>(factory, ConcurrentHashMap::new, cache, SessionAttributesKey.class, SessionAttributesKey::new, SessionAttributesKeyFilter.INSTANCE, SessionAttributesKeyFilter.INSTANCE, NEAR_CACHE_MAX_SIZE);
+    }
+
     @Override
     public void close() {
         this.schedulerListenerRegistration.close();
@@ -22,6 +22,7 @@
 
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.time.Duration;
 import java.util.Set;
 
 import org.infinispan.Cache;
@@ -40,8 +41,8 @@ public class LockOnReadInfinispanSessionMetaDataFactory<L> extends AbstractInfin
     private final Cache<SessionCreationMetaDataKey, SessionCreationMetaDataEntry<L>> creationMetaDataCache;
     private final Cache<SessionAccessMetaDataKey, SessionAccessMetaData> accessMetaDataCache;
 
-    public LockOnReadInfinispanSessionMetaDataFactory(InfinispanConfiguration configuration) {
-        super(configuration);
+    public LockOnReadInfinispanSessionMetaDataFactory(InfinispanConfiguration configuration, Duration accessCoalescingWindow) {
+        super(configuration, accessCoalescingWindow);
         this.creationMetaDataCache = configuration.getReadForUpdateCache();
         this.accessMetaDataCache = configuration.getCache();
     }
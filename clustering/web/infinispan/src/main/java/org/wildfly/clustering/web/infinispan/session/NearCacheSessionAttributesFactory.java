@@ -0,0 +1,268 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.notifications.cachelistener.filter.CacheEventConverter;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.wildfly.clustering.ee.Key;
+import org.wildfly.clustering.infinispan.distribution.ConsistentHashLocality;
+import org.wildfly.clustering.infinispan.distribution.Locality;
+import org.wildfly.clustering.infinispan.listener.ListenerRegistration;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Decorates a {@link SessionAttributesFactory} with a bounded, local cache of unmarshalled session attributes, keyed by session identifier.
+ * This spares a member that does not own a given session (e.g. following failover of a sticky session) from reading and unmarshalling its attributes on every request.
+ * Only attributes read from a remote owner are cached, since local reads already reuse the unmarshalled value of the cache entry.
+ * Cached attributes are invalidated synchronously whenever they are mutated by this member,
+ * and asynchronously, via a clustered listener, whenever the corresponding cache entry is modified, removed, or expired by any other member.
+ * The listener is registered with a filter and converter, such that only the keys of modified session attributes entries are sent to this member.
+ * Since session attributes are mutated in place, this near cache retains a copy of the attributes, and returns a copy of its retained attributes.
+ * @param <C> the ServletContext specification type
+ * @param <V> the session attributes value type
+ */
+@Listener(clustered = true, sync = false, observation = Listener.Observation.POST)
+public class NearCacheSessionAttributesFactory<C, V> implements SessionAttributesFactory<C, V> {
+    // Number of invalidation counters, used to detect invalidations that race with population of the near cache
+    private static final int STRIPES = 64;
+
+    private final SessionAttributesFactory<C, V> factory;
+    private final UnaryOperator<V> copier;
+    private final Class<? extends Key<String>> keyClass;
+    private final Function<String, ? extends Key<String>> keyFactory;
+    private final Predicate<Object> locality;
+    private final Map<String, V> values;
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+    private final ListenerRegistration registration;
+
+    /**
+     * Creates a near cache for session attributes stored in the specified cache.
+     * @param factory the decorated session attributes factory
+     * @param copier a function returning a copy of the specified session attributes
+     * @param cache the cache containing the session attributes
+     * @param keyClass the class of the cache key of the session attributes
+     * @param keyFactory a factory for creating the cache key of the session attributes for a given session identifier
+     * @param filter a marshallable filter of cache events for the cache key of the session attributes
+     * @param converter a marshallable converter of cache events that omits the value of the cache entry
+     * @param maxSize the maximum number of sessions whose attributes are retained by this near cache
+     */
+    public NearCacheSessionAttributesFactory(SessionAttributesFactory<C, V> factory, UnaryOperator<V> copier, Cache<?, ?> cache, Class<? extends Key<String>> keyClass, Function<String, ? extends Key<String>> keyFactory, CacheEventFilter<Object, Object> filter, CacheEventConverter<Object, Object, Void> converter, int maxSize) {
+        this(factory, copier, keyClass, keyFactory, new TopologyLocality(cache), maxSize, listener -> {
+            cache.addListener(listener, filter, converter);
+            return () -> cache.removeListener(listener);
+        });
+    }
+
+    NearCacheSessionAttributesFactory(SessionAttributesFactory<C, V> factory, UnaryOperator<V> copier, Class<? extends Key<String>> keyClass, Function<String, ? extends Key<String>> keyFactory, Predicate<Object> locality, int maxSize, Function<Object, ListenerRegistration> registrar) {
+        this.factory = factory;
+        this.copier = copier;
+        this.keyClass = keyClass;
+        this.keyFactory = keyFactory;
+        this.locality = locality;
+        this.values = Caffeine.newBuilder().executor(Runnable::run).maximumSize(maxSize).<String, V>build().asMap();
+        this.registration = registrar.apply(this);
+    }
+
+    @Override
+    public V createValue(String id, Void context) {
+        return this.factory.createValue(id, context);
+    }
+
+    @Override
+    public V findValue(String id) {
+        V value = this.values.get(id);
+        if (value != null) {
+            // Caller may mutate the returned attributes
+            if (!this.locality.test(this.keyFactory.apply(id))) return this.copier.apply(value);
+            // This member became an owner of these attributes, and will no longer receive their events from a remote owner
+            this.invalidate(id);
+        }
+
+        int stripe = stripe(id);
+        long invalidations = this.invalidations.get(stripe);
+        value = this.factory.findValue(id);
+        if ((value != null) && !this.locality.test(this.keyFactory.apply(id))) {
+            V copy = this.copier.apply(value);
+            this.values.put(id, copy);
+            // If these attributes were invalidated since we read them, they may already be stale
+            if (this.invalidations.get(stripe) != invalidations) {
+                this.values.remove(id, copy);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public V tryValue(String id) {
+        // Used to expire or remove sessions, thus always read from the cache
+        return this.factory.tryValue(id);
+    }
+
+    @Override
+    public boolean remove(String id) {
+        this.invalidate(id);
+        return this.factory.remove(id);
+    }
+
+    @Override
+    public boolean purge(String id) {
+        this.invalidate(id);
+        return this.factory.purge(id);
+    }
+
+    @Override
+    public SessionAttributes createSessionAttributes(String id, V value, ImmutableSessionMetaData metaData, C context) {
+        return new InvalidatingSessionAttributes(this.factory.createSessionAttributes(id, value, metaData, context), () -> this.invalidate(id));
+    }
+
+    @Override
+    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, V value) {
+        return this.factory.createImmutableSessionAttributes(id, value);
+    }
+
+    @Override
+    public void close() {
+        this.registration.close();
+        this.values.clear();
+        this.factory.close();
+    }
+
+    @CacheEntryModified
+    @CacheEntryRemoved
+    @CacheEntryExpired
+    public CompletionStage<Void> invalidate(CacheEntryEvent<Object, Object> event) {
+        Object key = event.getKey();
+        // Mutations by this member were already invalidated synchronously
+        if (!event.isOriginLocal() && this.keyClass.isInstance(key)) {
+            this.invalidate(this.keyClass.cast(key).getId());
+        }
+        return CompletableFuture.completedStage(null);
+    }
+
+    private void invalidate(String id) {
+        // Increment counter before removal, so that a concurrent population of the near cache can detect it
+        this.invalidations.incrementAndGet(stripe(id));
+        this.values.remove(id);
+    }
+
+    private static int stripe(String id) {
+        return id.hashCode() & (STRIPES - 1);
+    }
+
+    /**
+     * Session attributes that invalidate their near cache entry, prior to and upon completion of any mutation.
+     */
+    private static class InvalidatingSessionAttributes implements SessionAttributes {
+        private final SessionAttributes attributes;
+        private final Runnable invalidation;
+        private volatile boolean mutated = false;
+
+        InvalidatingSessionAttributes(SessionAttributes attributes, Runnable invalidation) {
+            this.attributes = attributes;
+            this.invalidation = invalidation;
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return this.attributes.getAttributeNames();
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return this.attributes.getAttribute(name);
+        }
+
+        @Override
+        public Object removeAttribute(String name) {
+            this.mutate();
+            return this.attributes.removeAttribute(name);
+        }
+
+        @Override
+        public Object setAttribute(String name, Object value) {
+            this.mutate();
+            return this.attributes.setAttribute(name, value);
+        }
+
+        @Override
+        public void close() {
+            this.attributes.close();
+            // Discard any attributes cached by a concurrent request prior to the mutation
+            if (this.mutated) {
+                this.invalidation.run();
+            }
+        }
+
+        private void mutate() {
+            this.mutated = true;
+            this.invalidation.run();
+        }
+    }
+
+    /**
+     * Determines whether a given key is owned by the local member, reusing the same {@link Locality} until the cache topology changes.
+     */
+    private static class TopologyLocality implements Predicate<Object> {
+        private final Cache<?, ?> cache;
+        private volatile Map.Entry<Integer, Locality> locality = null;
+
+        TopologyLocality(Cache<?, ?> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public boolean test(Object key) {
+            DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+            if (dist == null) return true;
+            LocalizedCacheTopology topology = dist.getCacheTopology();
+            Map.Entry<Integer, Locality> locality = this.locality;
+            if ((locality == null) || (locality.getKey() != topology.getTopologyId())) {
+                locality = Map.entry(topology.getTopologyId(), new ConsistentHashLocality(this.cache, topology.getWriteConsistentHash()));
+                this.locality = locality;
+            }
+            return locality.getValue().isLocal(key);
+        }
+    }
+}
@@ -28,7 +28,7 @@ import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.Remover;
 import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
-import org.wildfly.clustering.ee.cache.scheduler.SortedScheduledEntries;
+import org.wildfly.clustering.ee.cache.scheduler.ScheduledEntriesProvider;
 import org.wildfly.clustering.ee.cache.tx.TransactionBatch;
 import org.wildfly.clustering.ee.infinispan.expiration.AbstractExpirationScheduler;
 import org.wildfly.clustering.web.cache.session.ImmutableSessionMetaDataFactory;
@@ -42,11 +42,27 @@ import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
  * @param <MV> the meta data value type
  */
 public class SessionExpirationScheduler<MV> extends AbstractExpirationScheduler<String> {
+    // Allows selection of an alternate implementation, e.g. TIMING_WHEEL, for deployments with large numbers of sessions
+    private static final ScheduledEntriesProvider SCHEDULED_ENTRIES_PROVIDER = ScheduledEntriesProvider.fromProperty("org.wildfly.clustering.web.session.expiration.scheduler", ScheduledEntriesProvider.SORTED);
+    // Number of threads used to expire sessions in parallel, when large numbers of sessions are due at once
+    private static final int DRAIN_CONCURRENCY = LocalScheduler.drainConcurrencyFromProperty("org.wildfly.clustering.web.session.expiration.concurrency");
 
     private final ImmutableSessionMetaDataFactory<MV> metaDataFactory;
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, ImmutableSessionMetaDataFactory<MV> metaDataFactory, Remover<String> remover, Duration closeTimeout) {
-        super(new LocalScheduler<>(new SortedScheduledEntries<>(), new SessionRemoveTask(batcher, remover), closeTimeout));
+        this(batcher, metaDataFactory, remover, closeTimeout, Duration.ZERO);
+    }
+
+    /**
+     * Creates a session expiration scheduler that delays expiration by the specified window, within which writes of session access meta data are coalesced.
+     * @param batcher a batcher
+     * @param metaDataFactory a session meta data factory
+     * @param remover a session remover
+     * @param closeTimeout the duration to wait for pending expirations on close
+     * @param accessCoalescingWindow the duration within which writes of session access meta data are coalesced
+     */
+    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, ImmutableSessionMetaDataFactory<MV> metaDataFactory, Remover<String> remover, Duration closeTimeout, Duration accessCoalescingWindow) {
+        super(new LocalScheduler<>(SCHEDULED_ENTRIES_PROVIDER.createScheduledEntries(), new SessionRemoveTask(batcher, remover), closeTimeout, DRAIN_CONCURRENCY, batcher::createBatch), accessCoalescingWindow);
         this.metaDataFactory = metaDataFactory;
     }
 
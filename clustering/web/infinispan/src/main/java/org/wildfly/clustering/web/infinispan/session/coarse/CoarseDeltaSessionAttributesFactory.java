@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.infinispan.Cache;
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.cache.CacheProperties;
+import org.wildfly.clustering.ee.infinispan.CacheEntryComputeMutator;
+import org.wildfly.clustering.infinispan.listener.ListenerRegistration;
+import org.wildfly.clustering.infinispan.listener.PostActivateBlockingListener;
+import org.wildfly.clustering.infinispan.listener.PostPassivateBlockingListener;
+import org.wildfly.clustering.infinispan.listener.PrePassivateBlockingListener;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.cache.session.CompositeImmutableSession;
+import org.wildfly.clustering.web.cache.session.ImmutableSessionActivationNotifier;
+import org.wildfly.clustering.web.cache.session.SessionActivationNotifier;
+import org.wildfly.clustering.web.cache.session.SessionAttributeActivationNotifier;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.cache.session.coarse.CoarseDeltaSessionAttributes;
+import org.wildfly.clustering.web.cache.session.coarse.CoarseImmutableSessionAttributes;
+import org.wildfly.clustering.web.cache.session.coarse.ConcurrentSessionAttributeMapComputeFunction;
+import org.wildfly.clustering.web.cache.session.coarse.CopyOnWriteSessionAttributeMapComputeFunction;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSessionAttributesFactoryConfiguration;
+import org.wildfly.clustering.web.infinispan.session.SessionCreationMetaDataKey;
+import org.wildfly.clustering.web.session.HttpSessionActivationListenerProvider;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+
+/**
+ * {@link SessionAttributesFactory} for delta granularity sessions.
+ * Like coarse granularity, all session attributes are stored in a single cache entry, but each attribute value is marshalled separately.
+ * This allows the attributes written or removed during a request to be applied to the cache entry on its primary owner via a compute function,
+ * rather than replicating the entire map of session attributes.
+ */
+public class CoarseDeltaSessionAttributesFactory<S, C, L, V> implements SessionAttributesFactory<C, Map<String, Object>> {
+
+    private final Cache<SessionAttributesKey, Map<String, V>> cache;
+    private final Cache<SessionAttributesKey, Map<String, V>> writeCache;
+    private final Cache<SessionAttributesKey, Map<String, V>> silentCache;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+    private final Immutability immutability;
+    private final HttpSessionActivationListenerProvider<S, C, L> provider;
+    private final Function<String, SessionAttributeActivationNotifier> notifierFactory;
+    private final ListenerRegistration evictListenerRegistration;
+    private final ListenerRegistration prePassivateListenerRegistration;
+    private final ListenerRegistration postActivateListenerRegistration;
+
+    public CoarseDeltaSessionAttributesFactory(InfinispanSessionAttributesFactoryConfiguration<S, C, L, Object, V> configuration) {
+        this.cache = configuration.getCache();
+        this.writeCache = configuration.getWriteOnlyCache();
+        this.silentCache = configuration.getSilentWriteCache();
+        this.marshaller = configuration.getMarshaller();
+        this.immutability = configuration.getImmutability();
+        this.properties = configuration.getCacheProperties();
+        this.provider = configuration.getHttpSessionActivationListenerProvider();
+        this.notifierFactory = configuration.getActivationNotifierFactory();
+        this.prePassivateListenerRegistration = !this.properties.isPersistent() ? new PrePassivateBlockingListener<>(this.cache, this::prePassivate).register(SessionAttributesKey.class) : null;
+        this.postActivateListenerRegistration = !this.properties.isPersistent() ? new PostActivateBlockingListener<>(this.cache, this::postActivate).register(SessionAttributesKey.class) : null;
+        this.evictListenerRegistration = new PostPassivateBlockingListener<>(configuration.getCache(), this::cascadeEvict).register(SessionCreationMetaDataKey.class);
+    }
+
+    @Override
+    public void close() {
+        this.evictListenerRegistration.close();
+        if (this.prePassivateListenerRegistration != null) {
+            this.prePassivateListenerRegistration.close();
+        }
+        if (this.postActivateListenerRegistration != null) {
+            this.postActivateListenerRegistration.close();
+        }
+    }
+
+    @Override
+    public Map<String, Object> createValue(String id, Void context) {
+        this.writeCache.put(new SessionAttributesKey(id), new ConcurrentHashMap<>());
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Map<String, Object> findValue(String id) {
+        return this.getValue(id, true);
+    }
+
+    @Override
+    public Map<String, Object> tryValue(String id) {
+        return this.getValue(id, false);
+    }
+
+    private Map<String, Object> getValue(String id, boolean purgeIfInvalid) {
+        Map<String, V> values = this.cache.get(new SessionAttributesKey(id));
+        if (values != null) {
+            try {
+                Map<String, Object> attributes = new ConcurrentHashMap<>();
+                for (Map.Entry<String, V> entry : values.entrySet()) {
+                    attributes.put(entry.getKey(), this.marshaller.read(entry.getValue()));
+                }
+                return attributes;
+            } catch (IOException e) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToActivateSession(e, id);
+                if (purgeIfInvalid) {
+                    this.purge(id);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(String id) {
+        return this.delete(this.writeCache, id);
+    }
+
+    @Override
+    public boolean purge(String id) {
+        return this.delete(this.silentCache, id);
+    }
+
+    private boolean delete(Cache<SessionAttributesKey, Map<String, V>> cache, String id) {
+        cache.remove(new SessionAttributesKey(id));
+        return true;
+    }
+
+    @Override
+    public SessionAttributes createSessionAttributes(String id, Map<String, Object> attributes, ImmutableSessionMetaData metaData, C context) {
+        SessionAttributesKey key = new SessionAttributesKey(id);
+        Function<Map<String, Optional<V>>, Mutator> mutatorFactory = delta -> new CacheEntryComputeMutator<>(this.cache, key, this.properties.isTransactional() ? new CopyOnWriteSessionAttributeMapComputeFunction<>(delta) : new ConcurrentSessionAttributeMapComputeFunction<>(delta));
+        SessionActivationNotifier notifier = this.properties.isPersistent() ? new ImmutableSessionActivationNotifier<>(this.provider, new CompositeImmutableSession(id, metaData, this.createImmutableSessionAttributes(id, attributes)), context) : null;
+        return new CoarseDeltaSessionAttributes<>(attributes, mutatorFactory, this.marshaller, this.immutability, this.properties, notifier);
+    }
+
+    @Override
+    public ImmutableSessionAttributes createImmutableSessionAttributes(String id, Map<String, Object> values) {
+        return new CoarseImmutableSessionAttributes(values);
+    }
+
+    private void cascadeEvict(SessionCreationMetaDataKey key) {
+        this.cache.evict(new SessionAttributesKey(key.getId()));
+    }
+
+    private void prePassivate(SessionAttributesKey key, Map<String, V> values) {
+        this.notify(key, values, SessionAttributeActivationNotifier.PRE_PASSIVATE);
+    }
+
+    private void postActivate(SessionAttributesKey key, Map<String, V> values) {
+        this.notify(key, values, SessionAttributeActivationNotifier.POST_ACTIVATE);
+    }
+
+    private void notify(SessionAttributesKey key, Map<String, V> values, BiConsumer<SessionAttributeActivationNotifier, Object> notification) {
+        String sessionId = key.getId();
+        try (SessionAttributeActivationNotifier notifier = this.notifierFactory.apply(sessionId)) {
+            for (V value : values.values()) {
+                notification.accept(notifier, this.marshaller.read(value));
+            }
+        } catch (IOException e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToActivateSession(e, sessionId);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.infinispan.protostream.SerializationContext;
 import org.infinispan.protostream.SerializationContextInitializer;
 import org.kohsuke.MetaInfServices;
 import org.wildfly.clustering.marshalling.protostream.AbstractSerializationContextInitializer;
+import org.wildfly.clustering.marshalling.protostream.EnumMarshaller;
 import org.wildfly.clustering.web.cache.SessionKeyMarshaller;
 
 /**
@@ -37,5 +38,6 @@ public class CoarseSessionAttributeSerializationContextInitializer extends Abstr
     @Override
     public void registerMarshallers(SerializationContext context) {
         context.registerMarshaller(new SessionKeyMarshaller<>(SessionAttributesKey.class, SessionAttributesKey::new));
+        context.registerMarshaller(new EnumMarshaller<>(SessionAttributesKeyFilter.class));
     }
 }
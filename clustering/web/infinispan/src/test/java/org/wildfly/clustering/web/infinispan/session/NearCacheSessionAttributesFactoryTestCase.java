@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.junit.Test;
+import org.wildfly.clustering.infinispan.listener.ListenerRegistration;
+import org.wildfly.clustering.web.cache.session.SessionAttributes;
+import org.wildfly.clustering.web.cache.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesKey;
+
+/**
+ * Unit test for {@link NearCacheSessionAttributesFactory}.
+ */
+public class NearCacheSessionAttributesFactoryTestCase {
+
+    @Test
+    public void findValue() {
+        SessionAttributesFactory<Object, Map<String, Object>> factory = mock(SessionAttributesFactory.class);
+        Predicate<Object> locality = mock(Predicate.class);
+        ListenerRegistration registration = mock(ListenerRegistration.class);
+        String remoteId = "remote";
+        String localId = "local";
+        Map<String, Object> remoteValue = new ConcurrentHashMap<>(Map.of("foo", UUID.randomUUID()));
+        Map<String, Object> localValue = new ConcurrentHashMap<>(Map.of("bar", UUID.randomUUID()));
+
+        try (NearCacheSessionAttributesFactory<Object, Map<String, Object>> subject = new NearCacheSessionAttributesFactory<>(factory, ConcurrentHashMap::new, SessionAttributesKey.class, SessionAttributesKey::new, locality, 10, listener -> registration)) {
+            when(factory.findValue(remoteId)).thenReturn(remoteValue);
+            when(factory.findValue(localId)).thenReturn(localValue);
+            when(locality.test(new SessionAttributesKey(remoteId))).thenReturn(false);
+            when(locality.test(new SessionAttributesKey(localId))).thenReturn(true);
+
+            // Remotely owned attributes are read once
+            assertSame(remoteValue, subject.findValue(remoteId));
+            Map<String, Object> result = subject.findValue(remoteId);
+            assertNotSame(remoteValue, result);
+            assertEquals(remoteValue, result);
+            verify(factory).findValue(remoteId);
+
+            // Mutation of attributes, either those read from the cache or those read from the near cache, must not be visible via the near cache
+            Object foo = remoteValue.remove("foo");
+            result.put("baz", UUID.randomUUID());
+            result = subject.findValue(remoteId);
+            assertEquals(Map.of("foo", foo), result);
+            assertFalse(result.containsKey("baz"));
+            verify(factory).findValue(remoteId);
+
+            // Locally owned attributes are not near cached
+            assertSame(localValue, subject.findValue(localId));
+            assertSame(localValue, subject.findValue(localId));
+            verify(factory, times(2)).findValue(localId);
+
+            // Verify that near cache is bypassed by tryValue(...)
+            assertNull(subject.tryValue(remoteId));
+            verify(factory).tryValue(remoteId);
+        }
+
+        verify(registration).close();
+        verify(factory).close();
+    }
+
+    @Test
+    public void invalidate() {
+        SessionAttributesFactory<Object, Map<String, Object>> factory = mock(SessionAttributesFactory.class);
+        ListenerRegistration registration = mock(ListenerRegistration.class);
+        CacheEntryEvent<Object, Object> event = mock(CacheEntryEvent.class);
+        CacheEntryEvent<Object, Object> otherEvent = mock(CacheEntryEvent.class);
+        String id = "id";
+        Map<String, Object> value = Map.of("foo", UUID.randomUUID());
+        Map<String, Object> updatedValue = Map.of("foo", UUID.randomUUID());
+
+        try (NearCacheSessionAttributesFactory<Object, Map<String, Object>> subject = new NearCacheSessionAttributesFactory<>(factory, ConcurrentHashMap::new, SessionAttributesKey.class, SessionAttributesKey::new, key -> false, 10, listener -> registration)) {
+            when(factory.findValue(id)).thenReturn(value, updatedValue);
+            when(event.getKey()).thenReturn(new SessionAttributesKey(id));
+            when(otherEvent.getKey()).thenReturn(new SessionCreationMetaDataKey(id));
+
+            assertEquals(value, subject.findValue(id));
+
+            // Events for other keys should not invalidate near cache
+            subject.invalidate(otherEvent);
+            assertEquals(value, subject.findValue(id));
+
+            subject.invalidate(event);
+            assertEquals(updatedValue, subject.findValue(id));
+            assertEquals(updatedValue, subject.findValue(id));
+
+            when(factory.remove(id)).thenReturn(true);
+            subject.remove(id);
+            verify(factory).remove(id);
+
+            when(factory.findValue(id)).thenReturn(null);
+            assertNull(subject.findValue(id));
+        }
+    }
+
+    @Test
+    public void mutate() {
+        SessionAttributesFactory<Object, Map<String, Object>> factory = mock(SessionAttributesFactory.class);
+        ListenerRegistration registration = mock(ListenerRegistration.class);
+        SessionAttributes attributes = mock(SessionAttributes.class);
+        CacheEntryEvent<Object, Object> event = mock(CacheEntryEvent.class);
+        String id = "id";
+        Map<String, Object> value = Map.of("foo", UUID.randomUUID());
+        Map<String, Object> updatedValue = Map.of("foo", UUID.randomUUID());
+
+        try (NearCacheSessionAttributesFactory<Object, Map<String, Object>> subject = new NearCacheSessionAttributesFactory<>(factory, ConcurrentHashMap::new, SessionAttributesKey.class, SessionAttributesKey::new, key -> false, 10, listener -> registration)) {
+            when(factory.findValue(id)).thenReturn(value, updatedValue);
+            when(factory.createSessionAttributes(id, value, null, null)).thenReturn(attributes);
+            when(event.getKey()).thenReturn(new SessionAttributesKey(id));
+            when(event.isOriginLocal()).thenReturn(true);
+
+            assertEquals(value, subject.findValue(id));
+
+            // Reads should not invalidate near cache
+            try (SessionAttributes result = subject.createSessionAttributes(id, value, null, null)) {
+                result.getAttribute("foo");
+            }
+            assertEquals(value, subject.findValue(id));
+            verify(factory).findValue(id);
+
+            // Local mutations should invalidate near cache synchronously
+            try (SessionAttributes result = subject.createSessionAttributes(id, value, null, null)) {
+                result.setAttribute("foo", updatedValue.get("foo"));
+                verify(attributes).setAttribute("foo", updatedValue.get("foo"));
+            }
+            verify(attributes, times(2)).close();
+            assertEquals(updatedValue, subject.findValue(id));
+
+            // Events originating from this member should be ignored
+            subject.invalidate(event);
+            assertEquals(updatedValue, subject.findValue(id));
+            verify(factory, times(2)).findValue(id);
+        }
+    }
+}
@@ -26,5 +26,5 @@ package org.wildfly.clustering.web.session;
  * @author Paul Ferraro
  */
 public enum SessionAttributePersistenceStrategy {
-    COARSE, FINE
+    COARSE, FINE, DELTA
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.bulkhead;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import jakarta.ejb.EJBException;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * Per-component admission control for asynchronous and remote invocations.
+ * Invocations are dispatched to their executor while the number of concurrently executing invocations is below a {@link GradientConcurrencyLimit limit}
+ * that adapts to their observed latency.
+ * Beyond this limit, invocations wait in a bounded queue, and are dispatched in arrival order as executing invocations complete.
+ * Once this queue is full, further invocations fail fast.
+ * A queued invocation whose executor rejects it once dispatched fails the same way, via the rejection handler of its submitter.
+ * This prevents a single flooded component from monopolizing a thread pool shared with other components.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int queueSize;
+    private final GradientConcurrencyLimit limit; // guarded by this
+    private final Deque<Task> queue = new ArrayDeque<>(); // guarded by this
+    private final LongAdder rejected = new LongAdder();
+    private int active = 0; // guarded by this
+
+    public Bulkhead(String name, BulkheadConfiguration configuration) {
+        this.name = name;
+        this.queueSize = configuration.getQueueSize();
+        this.limit = new GradientConcurrencyLimit(configuration.getMinConcurrency(), configuration.getMaxConcurrency());
+    }
+
+    /**
+     * Executes the specified task via the specified executor, as soon as permitted by the concurrency limit of this bulkhead.
+     *
+     * If the task was queued, but is later rejected by its executor, the specified handler is notified instead.
+     *
+     * @param executor the executor of the task
+     * @param task an invocation task
+     * @param rejectionHandler handles the failure of a queued task that could not be dispatched
+     * @throws EJBException if the concurrency limit was reached, and the queue of this bulkhead is full
+     */
+    public void execute(Executor executor, Runnable task, Consumer<? super EJBException> rejectionHandler) {
+        Task permitted = new Task(executor, task, rejectionHandler);
+        synchronized (this) {
+            if (this.active >= this.limit.getLimit()) {
+                if (this.queue.size() >= this.queueSize) {
+                    this.rejected.increment();
+                    throw EjbLogger.ROOT_LOGGER.bulkheadSaturated(this.name);
+                }
+                this.queue.addLast(permitted);
+                return;
+            }
+            this.active += 1;
+        }
+        try {
+            executor.execute(permitted);
+        } catch (RuntimeException e) {
+            this.complete(-1);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit of this bulkhead.
+     */
+    public int getConcurrencyLimit() {
+        return this.limit.getLimit();
+    }
+
+    /**
+     * Returns the number of invocations currently executing.
+     */
+    public synchronized int getActiveCount() {
+        return this.active;
+    }
+
+    /**
+     * Returns the number of invocations currently waiting for a permit.
+     */
+    public synchronized int getQueuedCount() {
+        return this.queue.size();
+    }
+
+    /**
+     * Returns the number of invocations rejected since this bulkhead was created.
+     */
+    public long getRejectedCount() {
+        return this.rejected.sum();
+    }
+
+    private void complete(long latency) {
+        synchronized (this) {
+            if (latency >= 0) {
+                this.limit.sample(latency, this.active);
+            }
+            this.active -= 1;
+        }
+        this.dispatch();
+    }
+
+    private void dispatch() {
+        while (true) {
+            Task task;
+            synchronized (this) {
+                if ((this.active >= this.limit.getLimit()) || this.queue.isEmpty()) {
+                    return;
+                }
+                task = this.queue.pollFirst();
+                this.active += 1;
+            }
+            try {
+                task.executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The submitter of a queued task is no longer around to handle rejection, so fail it via its handler
+                synchronized (this) {
+                    this.active -= 1;
+                }
+                this.rejected.increment();
+                task.rejectionHandler.accept(EjbLogger.ROOT_LOGGER.bulkheadSaturated(this.name));
+            }
+        }
+    }
+
+    private class Task implements Runnable {
+        final Executor executor;
+        final Consumer<? super EJBException> rejectionHandler;
+        private final Runnable task;
+
+        Task(Executor executor, Runnable task, Consumer<? super EJBException> rejectionHandler) {
+            this.executor = executor;
+            this.task = task;
+            this.rejectionHandler = rejectionHandler;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                this.task.run();
+            } finally {
+                Bulkhead.this.complete(System.nanoTime() - start);
+            }
+        }
+    }
+}
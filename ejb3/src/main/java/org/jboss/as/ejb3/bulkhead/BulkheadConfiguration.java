@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.bulkhead;
+
+/**
+ * Configuration of the {@link Bulkhead} of a session bean component.
+ */
+public class BulkheadConfiguration {
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final int queueSize;
+
+    /**
+     * Creates a new bulkhead configuration.
+     *
+     * @param minConcurrency the lower bound of the adaptive concurrency limit
+     * @param maxConcurrency the upper bound, and initial value, of the adaptive concurrency limit
+     * @param queueSize the maximum number of invocations waiting for a permit, once the concurrency limit was reached
+     */
+    public BulkheadConfiguration(int minConcurrency, int maxConcurrency, int queueSize) {
+        if (minConcurrency < 1 || maxConcurrency < minConcurrency || queueSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.queueSize = queueSize;
+    }
+
+    public int getMinConcurrency() {
+        return this.minConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    public int getQueueSize() {
+        return this.queueSize;
+    }
+}
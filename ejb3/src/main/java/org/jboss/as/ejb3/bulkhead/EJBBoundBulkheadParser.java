@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.bulkhead;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.metadata.ejb.parser.jboss.ejb3.AbstractEJBBoundMetaDataParser;
+import org.jboss.metadata.property.PropertyReplacer;
+
+/**
+ * Parser for <code>urn:ejb-bulkhead</code> namespace. The <code>urn:ejb-bulkhead</code> namespace elements
+ * can be used to configure admission control of asynchronous and remote invocations of session beans.
+ */
+public class EJBBoundBulkheadParser extends AbstractEJBBoundMetaDataParser<EJBBoundBulkheadMetaData> {
+
+    public static final String NAMESPACE_URI_1_0 = "urn:ejb-bulkhead:1.0";
+
+    private static final String ROOT_ELEMENT_BULKHEAD = "bulkhead";
+    private static final String ELEMENT_MIN_CONCURRENCY = "min-concurrency";
+    private static final String ELEMENT_MAX_CONCURRENCY = "max-concurrency";
+    private static final String ELEMENT_QUEUE_SIZE = "queue-size";
+
+    @Override
+    public EJBBoundBulkheadMetaData parse(final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
+        final String element = reader.getLocalName();
+        // we only parse <bulkhead> (root) element
+        if (!ROOT_ELEMENT_BULKHEAD.equals(element)) {
+            throw unexpectedElement(reader);
+        }
+        final EJBBoundBulkheadMetaData metaData = new EJBBoundBulkheadMetaData();
+        this.processElements(metaData, reader, propertyReplacer);
+        return metaData;
+    }
+
+    @Override
+    protected void processElement(final EJBBoundBulkheadMetaData metaData, final XMLStreamReader reader, final PropertyReplacer propertyReplacer) throws XMLStreamException {
+        final String namespaceURI = reader.getNamespaceURI();
+        final String elementName = reader.getLocalName();
+        // if it doesn't belong to our namespace then let the super handle this
+        if (!NAMESPACE_URI_1_0.equals(namespaceURI)) {
+            super.processElement(metaData, reader, propertyReplacer);
+            return;
+        }
+        if (ELEMENT_MIN_CONCURRENCY.equals(elementName)) {
+            metaData.setMinConcurrency(getElementText(reader, propertyReplacer));
+        } else if (ELEMENT_MAX_CONCURRENCY.equals(elementName)) {
+            metaData.setMaxConcurrency(getElementText(reader, propertyReplacer));
+        } else if (ELEMENT_QUEUE_SIZE.equals(elementName)) {
+            metaData.setQueueSize(getElementText(reader, propertyReplacer));
+        } else {
+            throw unexpectedElement(reader);
+        }
+    }
+}
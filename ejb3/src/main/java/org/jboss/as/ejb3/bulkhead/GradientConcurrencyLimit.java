@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.bulkhead;
+
+/**
+ * A concurrency limit that adapts to the observed latency of invocations, based on the gradient between its short term and long term average.
+ * While the short term latency does not exceed the long term latency by more than a tolerated ratio, the limit grows by roughly the square root of its value.
+ * Once the short term latency rises beyond that, e.g. due to contention within the bean or its downstream resources, the limit shrinks proportionally.
+ * The limit starts at, and never exceeds, its upper bound.
+ * This object is not thread-safe, and must be guarded by its {@link Bulkhead}.
+ */
+class GradientConcurrencyLimit {
+
+    // Ratio of short term to long term latency tolerated before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private double shortLatency = Double.NaN;
+    private double longLatency = Double.NaN;
+    private volatile int currentLimit;
+
+    GradientConcurrencyLimit(int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit;
+        this.currentLimit = maxLimit;
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     * May be read without holding the monitor of the bulkhead.
+     */
+    int getLimit() {
+        return this.currentLimit;
+    }
+
+    /**
+     * Adjusts the limit according to the latency of a completed invocation.
+     *
+     * @param latency the latency of the completed invocation, in nanoseconds
+     * @param inflight the number of concurrent invocations at the time of completion, including the completed invocation
+     */
+    void sample(long latency, int inflight) {
+        double sample = Math.max(latency, 1L);
+        this.shortLatency = average(this.shortLatency, sample, SHORT_WINDOW);
+        this.longLatency = average(this.longLatency, sample, LONG_WINDOW);
+        // Following a period of excessive latency, let the long term average recover faster
+        if (this.longLatency > 2 * this.shortLatency) {
+            this.longLatency *= 0.95;
+        }
+        // Latency is not representative of the limit while the limit is underutilized
+        if (inflight < this.limit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * this.longLatency / this.shortLatency));
+        double target = this.limit * gradient + Math.sqrt(this.limit);
+        double limit = this.limit * (1 - SMOOTHING) + target * SMOOTHING;
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, limit));
+        this.currentLimit = (int) this.limit;
+    }
+
+    private static double average(double average, double sample, int window) {
+        return Double.isNaN(average) ? sample : average + (sample - average) / window;
+    }
+}
@@ -31,6 +31,7 @@ import org.jboss.as.ee.component.InjectionSource;
 import org.jboss.as.ee.component.ViewConfiguration;
 import org.jboss.as.ee.component.ViewConfigurator;
 import org.jboss.as.ee.component.ViewDescription;
+import org.jboss.as.ejb3.remote.EJBMethodLocatorIndex;
 import org.jboss.as.ejb3.remote.RemoteViewInjectionSource;
 import org.jboss.as.ejb3.validator.EjbProxy;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
@@ -69,6 +70,15 @@ public class EJBViewDescription extends ViewDescription {
                 configuration.putPrivateData(MethodInterfaceType.class, getMethodIntf());
             }
         });
+        if (methodIntf == MethodInterfaceType.Remote || methodIntf == MethodInterfaceType.Home) {
+            // index the methods of remote views by the locator used by remote invocations
+            getConfigurators().add(new ViewConfigurator() {
+                @Override
+                public void configure(final DeploymentPhaseContext context, final ComponentConfiguration componentConfiguration, final ViewDescription description, final ViewConfiguration configuration) throws DeploymentUnitProcessingException {
+                    configuration.putPrivateData(EJBMethodLocatorIndex.class, new EJBMethodLocatorIndex(configuration.getProxyFactory().getCachedMethods()));
+                }
+            });
+        }
         // add a view configurator for setting up application specific container interceptors for the EJB view
         getConfigurators().add(EJBContainerInterceptorsViewConfigurator.INSTANCE);
         // add server interceptors configurator
@@ -27,6 +27,7 @@ import java.util.concurrent.Callable;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.deployers.StartupCountdown;
 import org.jboss.as.ee.component.interceptors.InvocationType;
+import org.jboss.as.ejb3.bulkhead.Bulkhead;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
@@ -139,7 +140,12 @@ public final class AsyncFutureInterceptorFactory implements InterceptorFactory {
         // To prevent this, we set the TCCL of this thread to null and then trigger the "execute" before "finally" setting the TCCL back to the original one.
         final ClassLoader oldClassLoader = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged((ClassLoader) null);
         try {
-            component.getAsynchronousExecutor().execute(task);
+            final Bulkhead bulkhead = component.getBulkhead();
+            if (bulkhead != null) {
+                bulkhead.execute(component.getAsynchronousExecutor(), task, task::setFailed);
+            } else {
+                component.getAsynchronousExecutor().execute(task);
+            }
         } finally {
             // reset to the original TCCL
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(oldClassLoader);
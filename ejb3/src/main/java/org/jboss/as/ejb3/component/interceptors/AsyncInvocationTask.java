@@ -112,7 +112,7 @@ public abstract class AsyncInvocationTask implements Runnable, Future<Object> {
         done();
     }
 
-    private synchronized void setFailed(final Exception e) {
+    synchronized void setFailed(final Exception e) {
         this.failed = e;
         status = ST_FAILED;
         done();
@@ -42,13 +42,13 @@ public class ExecutionTimeInterceptor extends AbstractEJBInterceptor {
         if (!component.isStatisticsEnabled())
             return context.proceed();
         final Long startWaitTime = (Long) context.getPrivateData(WaitTimeInterceptor.START_WAIT_TIME);
-        final long waitTime = startWaitTime != null && startWaitTime != 0L ? System.currentTimeMillis() - startWaitTime : 0L;
+        final long waitTime = startWaitTime != null ? System.nanoTime() - startWaitTime : 0L;
         component.getInvocationMetrics().startInvocation();
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return context.proceed();
         } finally {
-            final long executionTime = System.currentTimeMillis() - start;
+            final long executionTime = System.nanoTime() - start;
             component.getInvocationMetrics().finishInvocation(context.getMethod(), waitTime, executionTime);
         }
     }
@@ -22,76 +22,88 @@
 package org.jboss.as.ejb3.component.invocationmetrics;
 
 import java.lang.reflect.Method;
-import java.util.AbstractMap;
-import java.util.AbstractSet;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
+    /**
+     * Invocation metrics, recorded via striped counters so that concurrent invocations do not contend.
+     * Times are recorded in nanoseconds, totals are reported in milliseconds, and percentiles in microseconds.
+     */
     public static class Values {
-        final long invocations;
-        final long executionTime;
-        final long waitTime;
-
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder executionTime = new LongAdder();
+        private final LongAdder waitTime = new LongAdder();
+        private final LatencyHistogram executionTimes = new LatencyHistogram();
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+        Values() {
+        }
+
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+            waitTimes.record(TimeUnit.NANOSECONDS.toMicros(invocationWaitTime));
+            executionTimes.record(TimeUnit.NANOSECONDS.toMicros(invocationExecutionTime));
         }
 
         public long getExecutionTime() {
-            return executionTime;
+            return TimeUnit.NANOSECONDS.toMillis(executionTime.sum());
         }
 
         public long getInvocations() {
-            return invocations;
+            return invocations.sum();
         }
 
         public long getWaitTime() {
-            return waitTime;
+            return TimeUnit.NANOSECONDS.toMillis(waitTime.sum());
+        }
+
+        /**
+         * Returns the execution time, in microseconds, below which the specified percentage of invocations completed.
+         */
+        public long getExecutionTimePercentile(final double percentile) {
+            return executionTimes.getValueAtPercentile(percentile);
+        }
+
+        /**
+         * Returns the wait time, in microseconds, below which the specified percentage of invocations obtained an instance.
+         */
+        public long getWaitTimePercentile(final double percentile) {
+            return waitTimes.getValueAtPercentile(percentile);
         }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Values values = new Values();
     private final AtomicLong concurrent = new AtomicLong(0);
-    private final AtomicLong peakConcurrent = new AtomicLong(0);
+    private final LongAccumulator peakConcurrent = new LongAccumulator(Math::max, 0);
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    private final ConcurrentMap<String, Values> methods = new ConcurrentHashMap<String, Values>();
 
+    /**
+     * Records a completed invocation.
+     * @param method the invoked method
+     * @param invocationWaitTime the wait time, in nanoseconds
+     * @param invocationExecutionTime the execution time, in nanoseconds
+     */
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
+        values.record(invocationWaitTime, invocationExecutionTime);
+        Values methodValues = methods.get(method.getName());
+        if (methodValues == null) {
+            methodValues = methods.computeIfAbsent(method.getName(), key -> new Values());
         }
-    }
-
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
-        }
-        return ref;
+        methodValues.record(invocationWaitTime, invocationExecutionTime);
     }
 
     public long getConcurrent() {
@@ -99,62 +111,15 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.getExecutionTime();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.getInvocations();
     }
 
     public Map<String, Values> getMethods() {
-        return new AbstractMap<String, Values>() {
-            @Override
-            public Set<Entry<String, Values>> entrySet() {
-                return new AbstractSet<Entry<String, Values>>() {
-                    @Override
-                    public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
-                        return new Iterator<Entry<String, Values>>() {
-                            @Override
-                            public boolean hasNext() {
-                                return delegate.hasNext();
-                            }
-
-                            @Override
-                            public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
-                                return new Entry<String, Values>() {
-                                    @Override
-                                    public String getKey() {
-                                        return next.getKey();
-                                    }
-
-                                    @Override
-                                    public Values getValue() {
-                                        return next.getValue().get();
-                                    }
-
-                                    @Override
-                                    public Values setValue(final Values value) {
-                                        throw new UnsupportedOperationException("NYI");
-                                    }
-                                };
-                            }
-
-                            @Override
-                            public void remove() {
-                                throw new UnsupportedOperationException("NYI");
-                            }
-                        };
-                    }
-
-                    @Override
-                    public int size() {
-                        return methods.size();
-                    }
-                };
-            }
-        };
+        return Collections.unmodifiableMap(methods);
     }
 
     public long getPeakConcurrent() {
@@ -162,13 +127,24 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.getWaitTime();
+    }
+
+    /**
+     * Returns the execution time, in microseconds, below which the specified percentage of invocations completed.
+     */
+    public long getExecutionTimePercentile(final double percentile) {
+        return values.getExecutionTimePercentile(percentile);
+    }
+
+    /**
+     * Returns the wait time, in microseconds, below which the specified percentage of invocations obtained an instance.
+     */
+    public long getWaitTimePercentile(final double percentile) {
+        return values.getWaitTimePercentile(percentile);
     }
 
     void startInvocation() {
-        final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
-        if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+        peakConcurrent.accumulate(concurrent.incrementAndGet());
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, log-linear latency histogram, in the style of HdrHistogram.
+ * Values are grouped into power-of-two ranges, each subdivided into {@value #SUB_BUCKETS} linear buckets, yielding a relative error of at most 1/{@value #SUB_BUCKETS}.
+ * Bucket counters are created lazily, on first use, and are striped to avoid contention between concurrent recordings.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Largest trackable value, larger values are clamped
+    static final long MAX_VALUE = (1L << 36) - 1;
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(BUCKETS);
+
+    /**
+     * Records the specified value.
+     * @param value a non-negative value
+     */
+    public void record(long value) {
+        int index = index(Math.min(Math.max(value, 0L), MAX_VALUE));
+        LongAdder count = this.counts.get(index);
+        if (count == null) {
+            LongAdder newCount = new LongAdder();
+            count = this.counts.compareAndSet(index, null, newCount) ? newCount : this.counts.get(index);
+        }
+        count.increment();
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; ++i) {
+            LongAdder count = this.counts.get(i);
+            if (count != null) {
+                total += count.sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at or below which the specified percentage of recorded values fall.
+     * The returned value is the highest value equivalent to the bucket containing the percentile.
+     * @param percentile a percentile, between 0 and 100
+     * @return the value at the specified percentile, or 0, if no values were recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; ++i) {
+            LongAdder count = this.counts.get(i);
+            if (count != null) {
+                snapshot[i] = count.sum();
+                total += snapshot[i];
+            }
+        }
+        if (total == 0L) return 0L;
+        long threshold = Math.max(1L, (long) Math.ceil(Math.min(Math.max(percentile, 0d), 100d) * total / 100d));
+        long cumulative = 0L;
+        for (int i = 0; i < BUCKETS; ++i) {
+            cumulative += snapshot[i];
+            if (cumulative >= threshold) {
+                return highestEquivalentValue(i);
+            }
+        }
+        return highestEquivalentValue(BUCKETS - 1);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (shift * SUB_BUCKETS) + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowest = ((long) (SUB_BUCKETS + subBucket)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.lifo.LifoPool;
+
+/**
+ * Configuration of a strict max pool whose idle instances are held in thread-affine LIFO stripes.
+ * If a minimum pool size is specified, the pool adapts its size to load within the range of the minimum and maximum pool sizes.
+ */
+public class LifoPoolConfig extends StrictMaxPoolConfig {
+
+    // Undefined, if not positive
+    private volatile int minPoolSize;
+
+    public LifoPoolConfig(String poolName, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(poolName, 0, maxSize, timeout, timeUnit);
+    }
+
+    public LifoPoolConfig(String poolName, int minSize, int maxSize, long timeout, TimeUnit timeUnit) {
+        super(poolName, maxSize, timeout, timeUnit);
+        this.minPoolSize = minSize;
+    }
+
+    @Override
+    public <T> Pool<T> createPool(StatelessObjectFactory<T> factory) {
+        int maxPoolSize = this.getMaxPoolSize();
+        int minPoolSize = this.minPoolSize;
+        return new LifoPool<>(factory, (minPoolSize > 0) ? Math.min(minPoolSize, maxPoolSize) : maxPoolSize, maxPoolSize, this.getTimeout(), this.getTimeoutUnit());
+    }
+
+    public int getMinPoolSize() {
+        return this.minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    @Override
+    public String toString() {
+        return "LifoPoolConfig{" +
+                "name=" + this.poolName +
+                ", minPoolSize=" + this.minPoolSize +
+                ", maxPoolSize=" + this.getMaxPoolSize() +
+                ", timeoutUnit=" + this.getTimeoutUnit() +
+                ", timeout=" + this.getTimeout() +
+                '}';
+    }
+}
@@ -50,11 +50,15 @@ public class StrictMaxPoolConfigService implements Service<StrictMaxPoolConfig>
 
 
     public StrictMaxPoolConfigService(final Consumer<StrictMaxPoolConfig> configConsumer, final Supplier<Integer> maxThreadsSupplier, final String poolName, int declaredMaxSize, Derive derive, long timeout, TimeUnit timeUnit) {
+        this(configConsumer, maxThreadsSupplier, new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit), derive);
+    }
+
+    public StrictMaxPoolConfigService(final Consumer<StrictMaxPoolConfig> configConsumer, final Supplier<Integer> maxThreadsSupplier, final StrictMaxPoolConfig poolConfig, Derive derive) {
         this.configConsumer = configConsumer;
         this.maxThreadsSupplier = maxThreadsSupplier;
-        this.declaredMaxSize = declaredMaxSize;
+        this.declaredMaxSize = poolConfig.getMaxPoolSize();
         this.derive = derive;
-        this.poolConfig = new StrictMaxPoolConfig(poolName, declaredMaxSize, timeout, timeUnit);
+        this.poolConfig = poolConfig;
     }
 
     @Override
@@ -30,6 +30,8 @@ import jakarta.ejb.EJBLocalObject;
 import jakarta.ejb.EJBObject;
 import jakarta.ejb.TransactionAttributeType;
 
+import org.jboss.as.ejb3.bulkhead.Bulkhead;
+import org.jboss.as.ejb3.bulkhead.BulkheadConfiguration;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
@@ -44,6 +46,7 @@ public abstract class SessionBeanComponent extends EJBComponent {
 
     protected final Map<String, AccessTimeoutDetails> beanLevelAccessTimeout;
     private final ExecutorService asyncExecutor;
+    private final Bulkhead bulkhead;
 
     /**
      * Construct a new instance.
@@ -59,6 +62,9 @@ public abstract class SessionBeanComponent extends EJBComponent {
 
         //if this bean has no async methods, then this will not be injected
         this.asyncExecutor = ejbComponentCreateService.getAsyncExecutorService().getOptionalValue();
+
+        final BulkheadConfiguration bulkheadConfiguration = ejbComponentCreateService.getBulkheadConfiguration();
+        this.bulkhead = (bulkheadConfiguration != null) ? new Bulkhead(this.getComponentName(), bulkheadConfiguration) : null;
     }
 
     public <T> T getBusinessObject(Class<T> businessInterface, final InterceptorContext context) throws IllegalStateException {
@@ -91,6 +97,15 @@ public abstract class SessionBeanComponent extends EJBComponent {
         return asyncExecutor;
     }
 
+    /**
+     * Return the {@link Bulkhead} guarding asynchronous and remote invocations of this component.
+     *
+     * @return the bulkhead, or null, if invocations are not subject to admission control
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
     @Override
     public boolean getRollbackOnly() throws IllegalStateException {
         // NOT_SUPPORTED and NEVER will not have a transaction context, so we can ignore those
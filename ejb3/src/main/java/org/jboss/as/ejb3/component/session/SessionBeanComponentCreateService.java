@@ -31,6 +31,7 @@ import jakarta.ejb.LockType;
 
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ejb3.PrimitiveClassLoaderUtil;
+import org.jboss.as.ejb3.bulkhead.BulkheadConfiguration;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
 import org.jboss.as.ejb3.component.EJBComponentCreateService;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
@@ -48,6 +49,7 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
     private final Map<EJBBusinessMethod, LockType> methodApplicableLockTypes;
     private final Map<String, AccessTimeoutDetails> beanLevelAccessTimeout;
     private final Map<EJBBusinessMethod, AccessTimeoutDetails> methodApplicableAccessTimeouts;
+    private final BulkheadConfiguration bulkheadConfiguration;
 
     private final InjectedValue<ExecutorService> asyncExecutorService = new InjectedValue<ExecutorService>();
 
@@ -89,6 +91,8 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
             this.methodApplicableAccessTimeouts = Collections.unmodifiableMap(accessTimeouts);
         }
 
+        this.bulkheadConfiguration = sessionBeanComponentDescription.getBulkheadConfiguration();
+
         if (sessionBeanComponentDescription.getScheduleMethods() != null) {
             for (Method method : sessionBeanComponentDescription.getScheduleMethods().keySet()) {
                 processTxAttr(sessionBeanComponentDescription, MethodInterfaceType.Timer, method);
@@ -116,6 +120,10 @@ public abstract class SessionBeanComponentCreateService extends EJBComponentCrea
         return this.beanLevelAccessTimeout;
     }
 
+    public BulkheadConfiguration getBulkheadConfiguration() {
+        return this.bulkheadConfiguration;
+    }
+
     private EJBBusinessMethod getEJBBusinessMethod(final MethodIdentifier method) {
         final ClassLoader classLoader = this.getComponentClass().getClassLoader();
         final String methodName = method.getName();
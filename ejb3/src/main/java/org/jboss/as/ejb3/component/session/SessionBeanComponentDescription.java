@@ -42,6 +42,7 @@ import org.jboss.as.ee.component.ViewConfiguration;
 import org.jboss.as.ee.component.ViewConfigurator;
 import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.ee.component.interceptors.InterceptorOrder;
+import org.jboss.as.ejb3.bulkhead.BulkheadConfiguration;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
 import org.jboss.as.ejb3.component.EJBViewDescription;
 import org.jboss.as.ejb3.component.concurrent.EJBContextHandleFactory;
@@ -112,6 +113,11 @@ public abstract class SessionBeanComponentDescription extends EJBComponentDescri
      */
     private String mappedName;
 
+    /**
+     * Admission control of asynchronous and remote invocations, if any
+     */
+    private BulkheadConfiguration bulkheadConfiguration;
+
     public enum SessionBeanType {
         STATELESS,
         STATEFUL,
@@ -326,6 +332,24 @@ public abstract class SessionBeanComponentDescription extends EJBComponentDescri
         return asynchronousClasses;
     }
 
+    /**
+     * Returns the configuration of the bulkhead guarding asynchronous and remote invocations of this component.
+     *
+     * @return a bulkhead configuration, or null, if invocations are not subject to admission control
+     */
+    public BulkheadConfiguration getBulkheadConfiguration() {
+        return this.bulkheadConfiguration;
+    }
+
+    /**
+     * Sets the configuration of the bulkhead guarding asynchronous and remote invocations of this component.
+     *
+     * @param bulkheadConfiguration a bulkhead configuration
+     */
+    public void setBulkheadConfiguration(BulkheadConfiguration bulkheadConfiguration) {
+        this.bulkheadConfiguration = bulkheadConfiguration;
+    }
+
     /**
      * Returns the type of the session bean
      *
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.singleton;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Enumerates the {@link ReadWriteLock} implementations available to singleton beans using container managed concurrency.
+ */
+public enum EJBReadWriteLockFactory implements Supplier<ReadWriteLock> {
+    /**
+     * A {@link EJBReadWriteLock}, backed by a {@link java.util.concurrent.locks.ReentrantReadWriteLock}.
+     */
+    REENTRANT("reentrant") {
+        @Override
+        public ReadWriteLock get() {
+            return new EJBReadWriteLock();
+        }
+    },
+    /**
+     * A {@link StripedEJBReadWriteLock}, whose read lock scales with the number of concurrent readers.
+     */
+    STRIPED("striped") {
+        @Override
+        public ReadWriteLock get() {
+            return new StripedEJBReadWriteLock();
+        }
+    },
+    ;
+
+    private final String name;
+
+    EJBReadWriteLockFactory(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of this lock implementation, as referenced by deployment descriptors.
+     * @return a lock implementation name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Resolves the lock implementation with the specified name.
+     * @param name a lock implementation name
+     * @return the lock implementation with the specified name, or null, if no such implementation exists
+     */
+    public static EJBReadWriteLockFactory forName(String name) {
+        for (EJBReadWriteLockFactory factory : values()) {
+            if (factory.name.equals(name)) {
+                return factory;
+            }
+        }
+        return null;
+    }
+}
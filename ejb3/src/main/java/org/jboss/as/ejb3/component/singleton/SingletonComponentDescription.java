@@ -82,6 +82,8 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
     private final List<ServiceName> dependsOn = new ArrayList<ServiceName>();
 
+    private EJBReadWriteLockFactory readWriteLockFactory = EJBReadWriteLockFactory.REENTRANT;
+
     /**
      * Construct a new instance.
      *
@@ -196,6 +198,24 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
     }
 
+    /**
+     * Returns the factory of the read-write lock used for container managed concurrency.
+     *
+     * @return a read-write lock factory
+     */
+    public EJBReadWriteLockFactory getReadWriteLockFactory() {
+        return this.readWriteLockFactory;
+    }
+
+    /**
+     * Sets the factory of the read-write lock used for container managed concurrency.
+     *
+     * @param readWriteLockFactory a read-write lock factory
+     */
+    public void setReadWriteLockFactory(EJBReadWriteLockFactory readWriteLockFactory) {
+        this.readWriteLockFactory = readWriteLockFactory;
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.SINGLETON;
@@ -0,0 +1,342 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.singleton;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * A reader-scalable implementation of {@link ReadWriteLock}, intended for read-mostly singleton beans.
+ * Unlike {@link EJBReadWriteLock}, readers do not contend on a shared state word; instead, each reader registers itself with one of several padded reader counters, selected by thread.
+ * Writers are mutually exclusive, take precedence over new readers, and wait for registered readers to drain.
+ * As with {@link EJBReadWriteLock}, read and write locks are reentrant, a write lock holder may also obtain a read lock,
+ * and a thread holding a read lock that tries to obtain a write lock results in an {@link jakarta.ejb.IllegalLoopbackException}.
+ */
+public class StripedEJBReadWriteLock implements ReadWriteLock {
+    // Distance, in array elements, between reader counters, so that each occupies its own cache line
+    private static final int PADDING = 16;
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray readers = new AtomicLongArray(STRIPES * PADDING);
+    // Read lock holds of the current thread, mutable to avoid boxing
+    private final ThreadLocal<int[]> readHolds = ThreadLocal.withInitial(() -> new int[1]);
+    // Excludes concurrent writers
+    private final ReentrantLock writerLock = new ReentrantLock();
+    // Used to park readers waiting for a writer, and writers waiting for readers
+    private final ReentrantLock monitor = new ReentrantLock();
+    private final Condition writerReleased = this.monitor.newCondition();
+    private final Condition readersDrained = this.monitor.newCondition();
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    private volatile Thread writer;
+    // Only accessed by the writer thread
+    private int writeHolds;
+
+    private static int stripes(int processors) {
+        int stripes = 1;
+        while (stripes < processors) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+
+    private static int index(Thread thread) {
+        return ((int) thread.getId() & (STRIPES - 1)) * PADDING;
+    }
+
+    private long readers() {
+        long readers = 0;
+        for (int i = 0; i < STRIPES; ++i) {
+            readers += this.readers.get(i * PADDING);
+        }
+        return readers;
+    }
+
+    /**
+     * Registers a reader, unless a writer holds, or is waiting for, the lock.
+     */
+    private boolean tryAcquireRead(int index) {
+        if (this.writer != null) return false;
+        this.readers.incrementAndGet(index);
+        if (this.writer == null) return true;
+        // A writer arrived concurrently, back off
+        this.releaseRead(index);
+        return false;
+    }
+
+    private void releaseRead(int index) {
+        // Only the reader that empties its counter can be the last reader
+        if ((this.readers.decrementAndGet(index) == 0) && (this.writer != null)) {
+            this.monitor.lock();
+            try {
+                this.readersDrained.signalAll();
+            } finally {
+                this.monitor.unlock();
+            }
+        }
+    }
+
+    /**
+     * Awaits the specified condition.
+     * @param nanos the remaining time to wait, if timed
+     * @return the remaining time to wait, if timed
+     */
+    private static long await(Condition condition, boolean timed, boolean interruptible, long nanos) throws InterruptedException {
+        if (timed) {
+            return condition.awaitNanos(nanos);
+        }
+        if (interruptible) {
+            condition.await();
+        } else {
+            condition.awaitUninterruptibly();
+        }
+        return nanos;
+    }
+
+    private boolean acquireRead(boolean timed, boolean interruptible, long nanos) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        int index = index(current);
+        int[] holds = this.readHolds.get();
+        if ((holds[0] > 0) || (this.writer == current)) {
+            // Reentrant read or write lock holder, which must not wait for a waiting writer
+            this.readers.incrementAndGet(index);
+            holds[0] += 1;
+            return true;
+        }
+        if (!this.tryAcquireRead(index)) {
+            if (timed && (nanos <= 0)) return false;
+            if (interruptible) {
+                this.monitor.lockInterruptibly();
+            } else {
+                this.monitor.lock();
+            }
+            try {
+                long remaining = nanos;
+                while (!this.tryAcquireRead(index)) {
+                    if (timed && (remaining <= 0)) return false;
+                    remaining = await(this.writerReleased, timed, interruptible, remaining);
+                }
+            } finally {
+                this.monitor.unlock();
+            }
+        }
+        holds[0] += 1;
+        return true;
+    }
+
+    private void unlockRead() {
+        int[] holds = this.readHolds.get();
+        if (holds[0] == 0) {
+            throw new IllegalMonitorStateException();
+        }
+        holds[0] -= 1;
+        this.releaseRead(index(Thread.currentThread()));
+    }
+
+    /**
+     * Ensures that the current thread doesn't hold any read locks. If
+     * the thread holds any read locks, this method throws a {@link jakarta.ejb.IllegalLoopbackException}.
+     */
+    private void checkLoopback() {
+        if (this.readHolds.get()[0] > 0) {
+            throw EjbLogger.ROOT_LOGGER.failToUpgradeToWriteLock();
+        }
+    }
+
+    private boolean acquireWrite(boolean timed, boolean interruptible, long nanos) throws InterruptedException {
+        this.checkLoopback();
+        Thread current = Thread.currentThread();
+        if (this.writer == current) {
+            this.writeHolds += 1;
+            return true;
+        }
+        long start = timed ? System.nanoTime() : 0L;
+        if (timed) {
+            if (!this.writerLock.tryLock(nanos, TimeUnit.NANOSECONDS)) return false;
+        } else if (interruptible) {
+            this.writerLock.lockInterruptibly();
+        } else {
+            this.writerLock.lock();
+        }
+        // Announce ourselves to new readers, then wait for existing readers to drain
+        this.writer = current;
+        boolean acquired = false;
+        try {
+            if (this.readers() != 0) {
+                this.monitor.lock();
+                try {
+                    long remaining = timed ? nanos - (System.nanoTime() - start) : nanos;
+                    while (this.readers() != 0) {
+                        if (timed && (remaining <= 0)) return false;
+                        remaining = await(this.readersDrained, timed, interruptible, remaining);
+                    }
+                } finally {
+                    this.monitor.unlock();
+                }
+            }
+            this.writeHolds = 1;
+            acquired = true;
+            return true;
+        } finally {
+            if (!acquired) {
+                this.releaseWrite();
+            }
+        }
+    }
+
+    private boolean tryAcquireWrite() {
+        this.checkLoopback();
+        Thread current = Thread.currentThread();
+        if (this.writer == current) {
+            this.writeHolds += 1;
+            return true;
+        }
+        if (!this.writerLock.tryLock()) return false;
+        this.writer = current;
+        if (this.readers() != 0) {
+            this.releaseWrite();
+            return false;
+        }
+        this.writeHolds = 1;
+        return true;
+    }
+
+    private void unlockWrite() {
+        if (this.writer != Thread.currentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        this.writeHolds -= 1;
+        if (this.writeHolds == 0) {
+            this.releaseWrite();
+        }
+    }
+
+    private void releaseWrite() {
+        this.writer = null;
+        this.monitor.lock();
+        try {
+            this.writerReleased.signalAll();
+        } finally {
+            this.monitor.unlock();
+        }
+        this.writerLock.unlock();
+    }
+
+    private class ReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            try {
+                StripedEJBReadWriteLock.this.acquireRead(false, false, 0L);
+            } catch (InterruptedException e) {
+                // Uninterruptible
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            StripedEJBReadWriteLock.this.acquireRead(false, true, 0L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            try {
+                return StripedEJBReadWriteLock.this.acquireRead(true, true, 0L);
+            } catch (InterruptedException e) {
+                // Never waits
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return StripedEJBReadWriteLock.this.acquireRead(true, true, unit.toNanos(time));
+        }
+
+        @Override
+        public void unlock() {
+            StripedEJBReadWriteLock.this.unlockRead();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class WriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            try {
+                StripedEJBReadWriteLock.this.acquireWrite(false, false, 0L);
+            } catch (InterruptedException e) {
+                // Uninterruptible
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            StripedEJBReadWriteLock.this.acquireWrite(false, true, 0L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            return StripedEJBReadWriteLock.this.tryAcquireWrite();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return StripedEJBReadWriteLock.this.acquireWrite(true, true, unit.toNanos(time));
+        }
+
+        @Override
+        public void unlock() {
+            StripedEJBReadWriteLock.this.unlockWrite();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.jboss.as.ejb3.component.stateful.cache;
 
+import java.time.Duration;
 import java.util.function.Supplier;
 
 import org.wildfly.clustering.ee.Restartable;
@@ -62,4 +63,36 @@ public interface StatefulSessionBeanCache<K, V extends StatefulSessionBeanInstan
      * @return an identifier factory
      */
     Supplier<K> getIdentifierFactory();
+
+    /**
+     * Returns the number of bean instances passivated by this cache, if tracked by this cache.
+     * @return a passivation count
+     */
+    default long getPassivationCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the cumulative time spent passivating bean instances, if tracked by this cache.
+     * @return a duration
+     */
+    default Duration getPassivationTime() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Returns the number of bean instances activated by this cache, if tracked by this cache.
+     * @return an activation count
+     */
+    default long getActivationCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the cumulative time spent activating bean instances, if tracked by this cache.
+     * @return a duration
+     */
+    default Duration getActivationTime() {
+        return Duration.ZERO;
+    }
 }
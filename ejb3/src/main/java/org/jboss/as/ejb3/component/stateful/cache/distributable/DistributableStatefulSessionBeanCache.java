@@ -34,6 +34,7 @@ import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstanceFac
 import org.jboss.ejb.client.Affinity;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.SchedulerStatistics;
 import org.wildfly.clustering.ejb.bean.Bean;
 import org.wildfly.clustering.ejb.bean.BeanManager;
 
@@ -139,6 +140,11 @@ public class DistributableStatefulSessionBeanCache<K, V extends StatefulSessionB
         return this.manager.getPassiveCount();
     }
 
+    @Override
+    public SchedulerStatistics getExpirationStatistics() {
+        return this.manager.getExpirationStatistics();
+    }
+
     @Override
     public Supplier<K> getIdentifierFactory() {
         return this.manager.getIdentifierFactory();
@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache.simple;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only local file to which passivated bean instances are written.
+ * Records are never updated in place; space occupied by activated or expired records is reclaimed via {@link #truncate()},
+ * once no passivated records remain, or by copying the remaining records into a new file.
+ * The file is deleted when closed.
+ */
+class PassivationFile implements AutoCloseable {
+
+    /**
+     * The location of a record within the file.
+     */
+    static class Record {
+        private final long position;
+        private final int length;
+
+        Record(long position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+
+        long getPosition() {
+            return this.position;
+        }
+
+        int getLength() {
+            return this.length;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Creates a new passivation file within the specified directory.
+     */
+    static PassivationFile create(Path directory, String prefix) throws IOException {
+        Files.createDirectories(directory);
+        return new PassivationFile(Files.createTempFile(directory, prefix, ".passivated"));
+    }
+
+    PassivationFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Appends the remaining content of the specified buffer to this file.
+     * May be invoked concurrently, since each append reserves a distinct region of the file.
+     * @return the location of the written record
+     */
+    Record append(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        long position = this.size.getAndAdd(length);
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += this.channel.write(buffer, offset);
+        }
+        return new Record(position, length);
+    }
+
+    /**
+     * Reads the specified record.
+     * @return a buffer containing the content of the record
+     */
+    ByteBuffer read(Record record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(record.getLength());
+        long offset = record.getPosition();
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException(this.path.toString());
+            }
+            offset += read;
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Returns the current size of this file.
+     * @return the number of bytes appended since this file was created or last truncated
+     */
+    long size() {
+        return this.size.get();
+    }
+
+    /**
+     * Discards the content of this file.
+     * Must not be invoked concurrently with any other method.
+     */
+    void truncate() throws IOException {
+        this.channel.truncate(0);
+        this.size.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -19,13 +19,22 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.jboss.as.ejb3.component.stateful.cache.simple;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -40,10 +49,14 @@ import org.jboss.ejb.client.NodeAffinity;
 import org.wildfly.clustering.ee.Scheduler;
 import org.wildfly.clustering.ee.cache.scheduler.LinkedScheduledEntries;
 import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
 
 /**
  * A simple stateful session bean cache implementation.
  * Bean instances are stored in memory and are lost on undeploy, shutdown, or server crash.
+ * If a maximum size is configured, idle bean instances in excess of this size are passivated to a local append-only file,
+ * in order of least recent use, and are activated again on demand.
+ * The file is compacted once activated or removed bean instances occupy more of it than passivated bean instances.
  * @author Paul Ferraro
  * @param <K> the bean identifier type
  * @param <V> the bean instance type
@@ -51,24 +64,59 @@ import org.wildfly.clustering.ee.cache.scheduler.LocalScheduler;
 public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInstance<K>> implements StatefulSessionBeanCache<K, V>, Predicate<K>, Consumer<StatefulSessionBean<K, V>> {
 
     private final Map<K, V> instances = new ConcurrentHashMap<>();
-    private final Consumer<K> remover = this.instances::remove;
+    private final Consumer<K> remover = this::remove;
     private final StatefulSessionBeanInstanceFactory<V> factory;
     private final Supplier<K> identifierFactory;
     private final Duration timeout;
     private final Affinity strongAffinity;
+    private final Integer maxSize;
+    private final ByteBufferMarshaller marshaller;
+    private final Path directory;
+
+    // The following are only used if a maximum size is configured, and are guarded by the monitor of the idle map
+    // Bean instances not currently in use, ordered by least recent use
+    private final Map<K, V> idle = new LinkedHashMap<>();
+    // Number of concurrent references to bean instances currently in use
+    private final Map<K, Integer> references = new HashMap<>();
+    // Locations of passivated bean instances
+    private final Map<K, PassivationFile.Record> passivated = new HashMap<>();
+    // Number of bytes of the passivation file occupied by passivated bean instances
+    private long passivatedBytes = 0;
+    // Bean instances currently being passivated or activated
+    private final Set<K> transitioning = new HashSet<>();
+    // Indicates whether the passivation file is being compacted
+    private boolean compacting = false;
+    // Indicates whether the passivation file is about to be replaced by its compacted copy
+    private boolean swapping = false;
+
+    private final LongAdder passivationCount = new LongAdder();
+    private final LongAdder passivationTime = new LongAdder();
+    private final LongAdder activationCount = new LongAdder();
+    private final LongAdder activationTime = new LongAdder();
 
     private volatile Scheduler<K, Instant> scheduler;
+    private volatile PassivationFile file;
 
     public SimpleStatefulSessionBeanCache(SimpleStatefulSessionBeanCacheConfiguration<K, V> configuration) {
         this.factory = configuration.getInstanceFactory();
         this.identifierFactory = configuration.getIdentifierFactory();
         this.timeout = configuration.getTimeout();
         this.strongAffinity = new NodeAffinity(configuration.getEnvironment().getNodeName());
+        this.maxSize = configuration.getMaxSize();
+        this.marshaller = configuration.getMarshaller();
+        this.directory = configuration.getEnvironment().getServerTempDir().toPath().resolve("ejb3");
     }
 
     @Override
     public void start() {
         this.scheduler = (this.timeout != null) && !this.timeout.isZero() ? new LocalScheduler<>(new LinkedScheduledEntries<>(), this, Duration.ZERO) : null;
+        if (this.maxSize != null) {
+            try {
+                this.file = PassivationFile.create(this.directory, "sfsb");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     @Override
@@ -80,6 +128,20 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
             instance.removed();
         }
         this.instances.clear();
+        if (this.file != null) {
+            // Passivated bean instances are discarded along with their file
+            synchronized (this.idle) {
+                this.idle.clear();
+                this.references.clear();
+                this.passivated.clear();
+                this.passivatedBytes = 0;
+            }
+            try {
+                this.file.close();
+            } catch (IOException e) {
+                EjbLogger.ROOT_LOGGER.debug(e.getLocalizedMessage(), e);
+            }
+        }
     }
 
     @Override
@@ -94,8 +156,8 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
 
     @Override
     public void accept(StatefulSessionBean<K, V> bean) {
+        K id = bean.getId();
         if (this.timeout != null) {
-            K id = bean.getId();
             if (this.scheduler != null) {
                 // Timeout > 0, schedule bean to expire
                 this.scheduler.schedule(id, Instant.now().plus(this.timeout));
@@ -104,11 +166,14 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
                 this.test(id);
             }
         }
+        if (this.maxSize != null) {
+            this.release(id);
+        }
     }
 
     @Override
     public boolean test(K id) {
-        V instance = this.instances.remove(id);
+        V instance = this.remove(id);
         if (instance != null) {
             instance.removed();
         }
@@ -123,13 +188,21 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
         }
         V instance = this.factory.createInstance();
         K id = instance.getId();
-        this.instances.put(id, instance);
+        if (this.maxSize == null) {
+            this.instances.put(id, instance);
+            return id;
+        }
+        synchronized (this.idle) {
+            this.instances.put(id, instance);
+            this.idle.put(id, instance);
+        }
+        this.evict();
         return id;
     }
 
     @Override
     public StatefulSessionBean<K, V> findStatefulSessionBean(K id) {
-        V instance = this.instances.get(id);
+        V instance = (this.maxSize != null) ? this.acquire(id) : this.instances.get(id);
         if (instance == null) return null;
         if (this.scheduler != null) {
             this.scheduler.cancel(id);
@@ -144,11 +217,303 @@ public class SimpleStatefulSessionBeanCache<K, V extends StatefulSessionBeanInst
 
     @Override
     public int getPassiveCount() {
-        return 0;
+        if (this.maxSize == null) return 0;
+        synchronized (this.idle) {
+            return this.passivated.size();
+        }
+    }
+
+    @Override
+    public long getPassivationCount() {
+        return this.passivationCount.sum();
+    }
+
+    @Override
+    public Duration getPassivationTime() {
+        return Duration.ofNanos(this.passivationTime.sum());
+    }
+
+    @Override
+    public long getActivationCount() {
+        return this.activationCount.sum();
+    }
+
+    @Override
+    public Duration getActivationTime() {
+        return Duration.ofNanos(this.activationTime.sum());
     }
 
     @Override
     public Supplier<K> getIdentifierFactory() {
         return this.identifierFactory;
     }
+
+    /**
+     * Returns the file to which bean instances are currently passivated, if a maximum size is configured.
+     */
+    PassivationFile getPassivationFile() {
+        return this.file;
+    }
+
+    private V remove(K id) {
+        if (this.maxSize == null) {
+            return this.instances.remove(id);
+        }
+        V instance;
+        boolean compact = false;
+        synchronized (this.idle) {
+            this.await(id);
+            this.idle.remove(id);
+            this.references.remove(id);
+            PassivationFile.Record record = this.passivated.remove(id);
+            if (record != null) {
+                this.passivatedBytes -= record.getLength();
+                compact = this.reclaim();
+            }
+            instance = this.instances.remove(id);
+        }
+        if (compact) {
+            this.compact();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the bean instance with the specified identifier, activating it if necessary, and marks it as in use.
+     */
+    private V acquire(K id) {
+        PassivationFile.Record record = null;
+        synchronized (this.idle) {
+            this.await(id);
+            V instance = this.instances.get(id);
+            if (instance != null) {
+                this.idle.remove(id);
+                this.references.merge(id, 1, Integer::sum);
+                return instance;
+            }
+            record = this.passivated.remove(id);
+            if (record == null) return null;
+            this.passivatedBytes -= record.getLength();
+            this.transitioning.add(id);
+        }
+        V instance = null;
+        boolean compact = false;
+        try {
+            instance = this.activate(id, record);
+        } finally {
+            synchronized (this.idle) {
+                this.transitioning.remove(id);
+                if (instance != null) {
+                    this.instances.put(id, instance);
+                    this.references.put(id, 1);
+                } else {
+                    // Activation failed, so the bean instance remains passivated
+                    this.passivated.put(id, record);
+                    this.passivatedBytes += record.getLength();
+                }
+                compact = this.reclaim();
+                this.idle.notifyAll();
+            }
+            if (compact) {
+                this.compact();
+            }
+        }
+        // Activation may have pushed us beyond our maximum size
+        this.evict();
+        return instance;
+    }
+
+    /**
+     * Marks the bean instance with the specified identifier as no longer in use by a given caller.
+     * Once no longer in use by any caller, the bean instance becomes eligible for passivation.
+     */
+    private void release(K id) {
+        synchronized (this.idle) {
+            if (this.references.computeIfPresent(id, (key, count) -> (count > 1) ? count - 1 : null) == null) {
+                V instance = this.instances.get(id);
+                if (instance != null) {
+                    this.idle.put(id, instance);
+                }
+            }
+        }
+        this.evict();
+    }
+
+    /**
+     * Passivates least recently used idle bean instances until the number of bean instances in memory no longer exceeds our maximum size.
+     * Bean instances that are in use are never passivated.
+     */
+    private void evict() {
+        while (true) {
+            K id;
+            V instance;
+            synchronized (this.idle) {
+                this.await(() -> this.swapping);
+                if ((this.instances.size() <= this.maxSize) || this.idle.isEmpty()) return;
+                Iterator<Map.Entry<K, V>> entries = this.idle.entrySet().iterator();
+                Map.Entry<K, V> entry = entries.next();
+                entries.remove();
+                id = entry.getKey();
+                instance = entry.getValue();
+                this.instances.remove(id);
+                this.transitioning.add(id);
+            }
+            PassivationFile.Record record = this.passivate(id, instance);
+            synchronized (this.idle) {
+                this.transitioning.remove(id);
+                if (record != null) {
+                    this.passivated.put(id, record);
+                    this.passivatedBytes += record.getLength();
+                } else {
+                    // Retain bean instance in memory as most recently used
+                    this.instances.put(id, instance);
+                    this.idle.put(id, instance);
+                }
+                this.idle.notifyAll();
+            }
+            if (record == null) return;
+        }
+    }
+
+    private PassivationFile.Record passivate(K id, V instance) {
+        long start = System.nanoTime();
+        boolean passivating = false;
+        try {
+            instance.prePassivate();
+            passivating = true;
+            PassivationFile.Record record = this.file.append(this.marshaller.write(instance));
+            this.passivationTime.add(System.nanoTime() - start);
+            this.passivationCount.increment();
+            return record;
+        } catch (IOException | RuntimeException e) {
+            EjbLogger.ROOT_LOGGER.failedToPassivateBean(e, id);
+            if (passivating) {
+                instance.postActivate();
+            }
+            return null;
+        }
+    }
+
+    private V activate(K id, PassivationFile.Record record) {
+        long start = System.nanoTime();
+        try {
+            @SuppressWarnings("unchecked")
+            V instance = (V) this.marshaller.read(this.file.read(record));
+            instance.postActivate();
+            this.activationTime.add(System.nanoTime() - start);
+            this.activationCount.increment();
+            return instance;
+        } catch (IOException e) {
+            throw EjbLogger.ROOT_LOGGER.activationFailed(e, id);
+        }
+    }
+
+    /**
+     * Reclaims the space occupied by activated or removed bean instances within the passivation file.
+     * The file is truncated once it no longer contains any passivated bean instances,
+     * or, once activated or removed bean instances occupy more of the file than passivated bean instances, is replaced by a compacted copy.
+     * Must be invoked while holding the monitor of the idle map.
+     * @return true, if the caller must {@link #compact()} the passivation file, once it no longer holds the monitor of the idle map.
+     */
+    private boolean reclaim() {
+        // The location of a bean instance being passivated or activated is not yet, or no longer, tracked
+        if (!this.transitioning.isEmpty() || this.compacting) return false;
+        if (this.passivated.isEmpty()) {
+            if (this.file.size() > 0) {
+                try {
+                    this.file.truncate();
+                } catch (IOException e) {
+                    EjbLogger.ROOT_LOGGER.debug(e.getLocalizedMessage(), e);
+                }
+            }
+            return false;
+        }
+        this.compacting = this.file.size() - this.passivatedBytes > this.passivatedBytes;
+        return this.compacting;
+    }
+
+    /**
+     * Copies all passivated bean instances into a new passivation file, which replaces the current one.
+     * Bean instances are copied without holding the monitor of the idle map, thus concurrently with passivation and activation of other bean instances.
+     * Only the replacement of the current file waits for any passivation or activation in progress.
+     * Must only be invoked if {@link #reclaim()} returned true, and while not holding the monitor of the idle map.
+     */
+    private void compact() {
+        PassivationFile file;
+        Map<K, PassivationFile.Record> records;
+        synchronized (this.idle) {
+            file = this.file;
+            records = new HashMap<>(this.passivated);
+        }
+        PassivationFile compacted = null;
+        try {
+            compacted = PassivationFile.create(this.directory, "sfsb");
+            Map<K, PassivationFile.Record> copies = new HashMap<>();
+            for (Map.Entry<K, PassivationFile.Record> entry : records.entrySet()) {
+                copies.put(entry.getKey(), compacted.append(file.read(entry.getValue())));
+            }
+            synchronized (this.idle) {
+                // Passivation and activation use the current file, so prevent any new ones, and wait for those in progress
+                this.swapping = true;
+                try {
+                    this.await(() -> !this.transitioning.isEmpty());
+                    if (!this.passivated.isEmpty()) {
+                        Map<K, PassivationFile.Record> replacements = new HashMap<>();
+                        for (Map.Entry<K, PassivationFile.Record> entry : this.passivated.entrySet()) {
+                            K id = entry.getKey();
+                            PassivationFile.Record record = entry.getValue();
+                            // Bean instances passivated since copying began are copied now
+                            replacements.put(id, (records.get(id) == record) ? copies.get(id) : compacted.append(file.read(record)));
+                        }
+                        this.passivated.putAll(replacements);
+                        this.file = compacted;
+                        compacted = file;
+                    }
+                } finally {
+                    this.swapping = false;
+                    this.idle.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            EjbLogger.ROOT_LOGGER.debug(e.getLocalizedMessage(), e);
+        } finally {
+            synchronized (this.idle) {
+                this.compacting = false;
+            }
+            // Close the replaced file, or the discarded copy
+            if (compacted != null) {
+                try {
+                    compacted.close();
+                } catch (IOException e) {
+                    EjbLogger.ROOT_LOGGER.debug(e.getLocalizedMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for any passivation or activation of the bean instance with the specified identifier to complete.
+     * Must be invoked while holding the monitor of the idle map.
+     */
+    private void await(K id) {
+        this.await(() -> this.swapping || this.transitioning.contains(id));
+    }
+
+    /**
+     * Waits while the specified condition holds.
+     * Must be invoked while holding the monitor of the idle map.
+     */
+    private void await(BooleanSupplier condition) {
+        boolean interrupted = false;
+        while (condition.getAsBoolean()) {
+            try {
+                this.idle.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
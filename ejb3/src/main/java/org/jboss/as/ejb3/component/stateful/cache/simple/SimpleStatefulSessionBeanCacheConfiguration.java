@@ -25,6 +25,7 @@ package org.jboss.as.ejb3.component.stateful.cache.simple;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanCacheConfiguration;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstance;
 import org.jboss.as.server.ServerEnvironment;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
 
 /**
  * Configuration of a simple stateful session bean cache.
@@ -35,4 +36,16 @@ import org.jboss.as.server.ServerEnvironment;
 public interface SimpleStatefulSessionBeanCacheConfiguration<K, V extends StatefulSessionBeanInstance<K>> extends StatefulSessionBeanCacheConfiguration<K, V> {
 
     ServerEnvironment getEnvironment();
+
+    /**
+     * Returns the maximum number of bean instances to retain in memory, beyond which idle instances are passivated.
+     * @return a maximum size, or null, if the number of bean instances in memory is unbounded.
+     */
+    Integer getMaxSize();
+
+    /**
+     * Returns the marshaller used to passivate bean instances.
+     * @return a marshaller, or null, if passivation is disabled.
+     */
+    ByteBufferMarshaller getMarshaller();
 }
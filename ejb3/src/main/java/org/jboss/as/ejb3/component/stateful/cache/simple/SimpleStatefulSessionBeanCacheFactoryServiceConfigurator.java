@@ -39,6 +39,7 @@ import org.jboss.msc.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
 import org.wildfly.clustering.service.ServiceSupplierDependency;
 import org.wildfly.clustering.service.SimpleServiceNameProvider;
 import org.wildfly.clustering.service.SupplierDependency;
@@ -53,9 +54,13 @@ import org.wildfly.clustering.service.SupplierDependency;
 public class SimpleStatefulSessionBeanCacheFactoryServiceConfigurator<K, V extends StatefulSessionBeanInstance<K>> extends SimpleServiceNameProvider implements CapabilityServiceConfigurator, StatefulSessionBeanCacheFactory<K, V> {
 
     private final SupplierDependency<ServerEnvironment> environment = new ServiceSupplierDependency<>(ServerEnvironmentService.SERVICE_NAME);
+    private final Integer maxSize;
+    private final ByteBufferMarshaller marshaller;
 
-    public SimpleStatefulSessionBeanCacheFactoryServiceConfigurator(StatefulComponentDescription description) {
+    public SimpleStatefulSessionBeanCacheFactoryServiceConfigurator(StatefulComponentDescription description, Integer maxSize, ByteBufferMarshaller marshaller) {
         super(description.getCacheFactoryServiceName());
+        this.maxSize = maxSize;
+        this.marshaller = marshaller;
     }
 
     @Override
@@ -70,6 +75,8 @@ public class SimpleStatefulSessionBeanCacheFactoryServiceConfigurator<K, V exten
     @Override
     public StatefulSessionBeanCache<K, V> createStatefulBeanCache(StatefulSessionBeanCacheConfiguration<K, V> configuration) {
         ServerEnvironment environment = this.environment.get();
+        Integer maxSize = this.maxSize;
+        ByteBufferMarshaller marshaller = this.marshaller;
         return new SimpleStatefulSessionBeanCache<>(new SimpleStatefulSessionBeanCacheConfiguration<>() {
             @Override
             public StatefulSessionBeanInstanceFactory<V> getInstanceFactory() {
@@ -95,6 +102,16 @@ public class SimpleStatefulSessionBeanCacheFactoryServiceConfigurator<K, V exten
             public String getComponentName() {
                 return configuration.getComponentName();
             }
+
+            @Override
+            public Integer getMaxSize() {
+                return maxSize;
+            }
+
+            @Override
+            public ByteBufferMarshaller getMarshaller() {
+                return marshaller;
+            }
         });
     }
 }
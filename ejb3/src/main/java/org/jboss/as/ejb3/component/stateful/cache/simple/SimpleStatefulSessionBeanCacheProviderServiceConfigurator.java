@@ -23,10 +23,14 @@
 package org.jboss.as.ejb3.component.stateful.cache.simple;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.jboss.as.clustering.controller.CapabilityServiceConfigurator;
 import org.jboss.as.clustering.controller.ResourceServiceConfigurator;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.EEModuleConfiguration;
@@ -34,11 +38,24 @@ import org.jboss.as.ejb3.component.stateful.StatefulComponentDescription;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanCacheProvider;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanCacheProviderServiceNameProvider;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstance;
+import org.jboss.as.ejb3.subsystem.SimpleStatefulSessionBeanCacheProviderResourceDefinition;
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.dmr.ModelNode;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.modules.Module;
 import org.jboss.msc.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.wildfly.clustering.marshalling.jboss.DynamicClassTable;
+import org.wildfly.clustering.marshalling.jboss.DynamicExternalizerObjectTable;
+import org.wildfly.clustering.marshalling.jboss.JBossByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.jboss.SimpleSerializabilityChecker;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+import org.wildfly.clustering.service.ServiceConfigurator;
 
 /**
  * Configures a service that provides a simple stateful session bean cache provider.
@@ -48,10 +65,19 @@ import org.jboss.msc.service.ServiceTarget;
  */
 public class SimpleStatefulSessionBeanCacheProviderServiceConfigurator<K, V extends StatefulSessionBeanInstance<K>> extends StatefulSessionBeanCacheProviderServiceNameProvider implements ResourceServiceConfigurator, StatefulSessionBeanCacheProvider<K, V> {
 
+    private volatile Integer maxSize;
+
     public SimpleStatefulSessionBeanCacheProviderServiceConfigurator(PathAddress address) {
         super(address.getLastElement().getValue());
     }
 
+    @Override
+    public ServiceConfigurator configure(OperationContext context, ModelNode model) throws OperationFailedException {
+        ModelNode maxSize = SimpleStatefulSessionBeanCacheProviderResourceDefinition.Attribute.MAX_SIZE.resolveModelAttribute(context, model);
+        this.maxSize = maxSize.isDefined() ? maxSize.asInt() : null;
+        return this;
+    }
+
     @Override
     public ServiceBuilder<?> build(ServiceTarget target) {
         ServiceName name = this.getServiceName();
@@ -68,11 +94,31 @@ public class SimpleStatefulSessionBeanCacheProviderServiceConfigurator<K, V exte
 
     @Override
     public CapabilityServiceConfigurator getStatefulBeanCacheFactoryServiceConfigurator(DeploymentUnit unit, StatefulComponentDescription description, ComponentConfiguration configuration) {
-        return new SimpleStatefulSessionBeanCacheFactoryServiceConfigurator<>(description);
+        Integer maxSize = this.maxSize;
+        return new SimpleStatefulSessionBeanCacheFactoryServiceConfigurator<>(description, maxSize, (maxSize != null) ? createMarshaller(unit, configuration) : null);
     }
 
     @Override
     public boolean supportsPassivation() {
-        return false;
+        return this.maxSize != null;
+    }
+
+    /**
+     * Creates a marshaller for passivating bean instances, configured equivalently to the marshaller used by the distributable cache.
+     */
+    private static ByteBufferMarshaller createMarshaller(DeploymentUnit unit, ComponentConfiguration configuration) {
+        Module module = unit.getAttachment(Attachments.MODULE);
+        Set<Class<?>> beanClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+        Class<?> componentClass = configuration.getComponentClass();
+        while (componentClass != Object.class) {
+            beanClasses.add(componentClass);
+            componentClass = componentClass.getSuperclass();
+        }
+        MarshallingConfiguration config = new MarshallingConfiguration();
+        config.setClassResolver(ModularClassResolver.getInstance(module.getModuleLoader()));
+        config.setSerializabilityChecker(new SimpleSerializabilityChecker(beanClasses));
+        config.setClassTable(new DynamicClassTable(module.getClassLoader()));
+        config.setObjectTable(new DynamicExternalizerObjectTable(module.getClassLoader()));
+        return new JBossByteBufferMarshaller(new SimpleMarshallingConfigurationRepository(config), module.getClassLoader());
     }
 }
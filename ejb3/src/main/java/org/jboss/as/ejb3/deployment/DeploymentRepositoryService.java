@@ -52,6 +52,13 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
      */
     private volatile Map<DeploymentModuleIdentifier, DeploymentHolder> modules;
 
+    /**
+     * Copy on write snapshots of all deployed, and started, modules, published whenever {@link #modules} changes, or a deployment starts.
+     * These are read on every remote invocation, and so must not be computed per request.
+     */
+    private volatile Map<DeploymentModuleIdentifier, ModuleDeployment> deployments = Collections.emptyMap();
+    private volatile Map<DeploymentModuleIdentifier, ModuleDeployment> startedDeployments = Collections.emptyMap();
+
     private final List<DeploymentRepositoryListener> listeners = new ArrayList<DeploymentRepositoryListener>();
 
     /**
@@ -61,13 +68,32 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
 
 
     @Override
-    public void start(StartContext context) throws StartException {
+    public synchronized void start(StartContext context) throws StartException {
         modules = Collections.emptyMap();
+        this.publish();
     }
 
     @Override
-    public void stop(StopContext context) {
+    public synchronized void stop(StopContext context) {
         modules = Collections.emptyMap();
+        this.publish();
+    }
+
+    /**
+     * Publishes snapshots of the current modules.  Must be called while holding the monitor of this repository.
+     */
+    private void publish() {
+        assert Thread.holdsLock(this);
+        final Map<DeploymentModuleIdentifier, ModuleDeployment> deployments = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
+        final Map<DeploymentModuleIdentifier, ModuleDeployment> startedDeployments = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
+        for (Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
+            deployments.put(entry.getKey(), entry.getValue().deployment);
+            if (entry.getValue().started) {
+                startedDeployments.put(entry.getKey(), entry.getValue().deployment);
+            }
+        }
+        this.deployments = Collections.unmodifiableMap(deployments);
+        this.startedDeployments = Collections.unmodifiableMap(startedDeployments);
     }
 
     @Override
@@ -83,6 +109,7 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
             final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
             modules.put(identifier, new DeploymentHolder(deployment));
             this.modules = Collections.unmodifiableMap(modules);
+            this.publish();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
             suspended = this.suspended;
         }
@@ -106,6 +133,7 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
             deployment = modules.get(identifier);
             if (deployment == null) return false;
             deployment.started = true;
+            this.publish();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
         }
         for (final DeploymentRepositoryListener listener : listeners) {
@@ -138,6 +166,7 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
             final Map<DeploymentModuleIdentifier, DeploymentHolder> modules = new HashMap<DeploymentModuleIdentifier, DeploymentHolder>(this.modules);
             modules.remove(identifier);
             this.modules = Collections.unmodifiableMap(modules);
+            this.publish();
             listeners = new ArrayList<DeploymentRepositoryListener>(this.listeners);
         }
         for (final DeploymentRepositoryListener listener : listeners) {
@@ -194,22 +223,12 @@ public class DeploymentRepositoryService implements DeploymentRepository, Servic
 
     @Override
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getModules() {
-        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
-        for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
-            modules.put(entry.getKey(), entry.getValue().deployment);
-        }
-        return modules;
+        return this.deployments;
     }
 
     @Override
     public Map<DeploymentModuleIdentifier, ModuleDeployment> getStartedModules() {
-        Map<DeploymentModuleIdentifier, ModuleDeployment> modules = new HashMap<DeploymentModuleIdentifier, ModuleDeployment>();
-        for(Map.Entry<DeploymentModuleIdentifier, DeploymentHolder> entry : this.modules.entrySet()) {
-            if(entry.getValue().started) {
-                modules.put(entry.getKey(), entry.getValue().deployment);
-            }
-        }
-        return modules;
+        return this.startedDeployments;
     }
 
     private static final class DeploymentHolder {
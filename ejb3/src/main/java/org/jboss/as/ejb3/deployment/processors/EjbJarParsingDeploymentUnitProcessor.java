@@ -39,7 +39,9 @@ import org.jboss.as.ee.component.EEModuleDescription;
 import org.jboss.as.ee.metadata.MetadataCompleteMarker;
 import org.jboss.as.ee.structure.JBossDescriptorPropertyReplacement;
 import org.jboss.as.ee.structure.SpecDescriptorPropertyReplacement;
+import org.jboss.as.ejb3.bulkhead.EJBBoundBulkheadParser;
 import org.jboss.as.ejb3.cache.EJBBoundCacheParser;
+import org.jboss.as.ejb3.concurrency.EJBBoundConcurrencyParser;
 import org.jboss.as.ejb3.clustering.ClusteringSchema;
 import org.jboss.as.ejb3.clustering.EJBBoundClusteringMetaDataParser;
 import org.jboss.as.ejb3.deliveryactive.parser.EJBBoundMdbDeliveryMetaDataParser;
@@ -341,6 +343,10 @@ public class EjbJarParsingDeploymentUnitProcessor implements DeploymentUnitProce
         parsers.put(EJBBoundCacheParser.NAMESPACE_URI_1_0, new EJBBoundCacheParser());
         parsers.put(EJBBoundCacheParser.NAMESPACE_URI_2_0, new EJBBoundCacheParser());
 
+        parsers.put(EJBBoundConcurrencyParser.NAMESPACE_URI_1_0, new EJBBoundConcurrencyParser());
+
+        parsers.put(EJBBoundBulkheadParser.NAMESPACE_URI_1_0, new EJBBoundBulkheadParser());
+
         parsers.put(ContainerInterceptorsParser.NAMESPACE_URI_1_0, ContainerInterceptorsParser.INSTANCE);
         parsers.put(ContainerInterceptorsParser.NAMESPACE_URI_2_0, ContainerInterceptorsParser.INSTANCE);
 
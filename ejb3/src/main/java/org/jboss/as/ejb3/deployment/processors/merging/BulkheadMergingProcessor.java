@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment.processors.merging;
+
+import java.util.List;
+
+import org.jboss.as.ee.component.EEApplicationClasses;
+import org.jboss.as.ejb3.bulkhead.BulkheadConfiguration;
+import org.jboss.as.ejb3.bulkhead.EJBBoundBulkheadMetaData;
+import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
+import org.jboss.metadata.ejb.spec.AssemblyDescriptorMetaData;
+import org.jboss.metadata.ejb.spec.EjbJarMetaData;
+
+/**
+ * Sets up the session bean component description with the bulkhead configured via the jboss-ejb3.xml deployment descriptor,
+ * either for the specific bean, or for all beans of the deployment
+ */
+public class BulkheadMergingProcessor extends AbstractMergingProcessor<SessionBeanComponentDescription> {
+
+    public BulkheadMergingProcessor() {
+        super(SessionBeanComponentDescription.class);
+    }
+
+    @Override
+    protected void handleAnnotations(final DeploymentUnit deploymentUnit, final EEApplicationClasses applicationClasses, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription description) throws DeploymentUnitProcessingException {
+        // a bulkhead can only be configured via the deployment descriptor
+    }
+
+    @Override
+    protected void handleDeploymentDescriptor(final DeploymentUnit deploymentUnit, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription description) throws DeploymentUnitProcessingException {
+        final EjbJarMetaData metaData = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        if (metaData == null) {
+            return;
+        }
+        final AssemblyDescriptorMetaData assemblyDescriptor = metaData.getAssemblyDescriptor();
+        if (assemblyDescriptor == null) {
+            return;
+        }
+        final List<EJBBoundBulkheadMetaData> bulkheads = assemblyDescriptor.getAny(EJBBoundBulkheadMetaData.class);
+        if (bulkheads == null) {
+            return;
+        }
+        final String ejbName = description.getEJBName();
+        EJBBoundBulkheadMetaData bulkhead = null;
+        for (final EJBBoundBulkheadMetaData candidate : bulkheads) {
+            if (ejbName.equals(candidate.getEjbName())) {
+                bulkhead = candidate;
+                break;
+            }
+            // applies to all beans, unless explicitly specified for the specific bean
+            if ("*".equals(candidate.getEjbName()) && bulkhead == null) {
+                bulkhead = candidate;
+            }
+        }
+        if (bulkhead != null) {
+            try {
+                final int minConcurrency = parseInt(bulkhead.getMinConcurrency(), 1);
+                // max-concurrency is required
+                final int maxConcurrency = parseInt(bulkhead.getMaxConcurrency(), 0);
+                final int queueSize = parseInt(bulkhead.getQueueSize(), 0);
+                description.setBulkheadConfiguration(new BulkheadConfiguration(minConcurrency, maxConcurrency, queueSize));
+            } catch (IllegalArgumentException e) {
+                throw EjbLogger.ROOT_LOGGER.invalidBulkheadConfiguration(e, ejbName);
+            }
+        }
+    }
+
+    private static int parseInt(final String value, final int defaultValue) {
+        return (value != null) ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+}
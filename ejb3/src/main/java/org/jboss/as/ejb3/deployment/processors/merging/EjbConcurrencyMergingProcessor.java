@@ -35,14 +35,20 @@ import org.jboss.as.ee.metadata.MethodAnnotationAggregator;
 import org.jboss.as.ee.metadata.RuntimeAnnotationInformation;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.component.singleton.EJBReadWriteLockFactory;
+import org.jboss.as.ejb3.component.singleton.SingletonComponentDescription;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.EJBBoundConcurrencyMetaData;
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.reflect.ClassReflectionIndex;
 import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.invocation.proxy.MethodIdentifier;
+import org.jboss.metadata.ejb.spec.AssemblyDescriptorMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodMetaData;
 import org.jboss.metadata.ejb.spec.ConcurrentMethodsMetaData;
+import org.jboss.metadata.ejb.spec.EjbJarMetaData;
 import org.jboss.metadata.ejb.spec.NamedMethodMetaData;
 import org.jboss.metadata.ejb.spec.SessionBean31MetaData;
 import org.jboss.metadata.ejb.spec.SessionBeanMetaData;
@@ -90,6 +96,10 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
 
     protected void handleDeploymentDescriptor(final DeploymentUnit deploymentUnit, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) throws DeploymentUnitProcessingException {
 
+        if (componentConfiguration instanceof SingletonComponentDescription) {
+            handleReadWriteLock(deploymentUnit, (SingletonComponentDescription) componentConfiguration);
+        }
+
         if (componentConfiguration.getDescriptorData() == null) {
             return;
         }
@@ -126,6 +136,42 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
         }
     }
 
+    /**
+     * Applies the read-write lock implementation configured via the jboss-ejb3.xml deployment descriptor, either for the specific bean, or for all beans of the deployment
+     */
+    private void handleReadWriteLock(final DeploymentUnit deploymentUnit, final SingletonComponentDescription componentConfiguration) throws DeploymentUnitProcessingException {
+        final EjbJarMetaData metaData = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        if (metaData == null) {
+            return;
+        }
+        final AssemblyDescriptorMetaData assemblyDescriptor = metaData.getAssemblyDescriptor();
+        if (assemblyDescriptor == null) {
+            return;
+        }
+        final List<EJBBoundConcurrencyMetaData> concurrencies = assemblyDescriptor.getAny(EJBBoundConcurrencyMetaData.class);
+        if (concurrencies == null) {
+            return;
+        }
+        final String ejbName = componentConfiguration.getEJBName();
+        String readWriteLock = null;
+        for (final EJBBoundConcurrencyMetaData concurrency : concurrencies) {
+            if (ejbName.equals(concurrency.getEjbName())) {
+                readWriteLock = concurrency.getReadWriteLock();
+                break;
+            }
+            // applies to all beans, unless explicitly specified for the specific bean
+            if ("*".equals(concurrency.getEjbName()) && readWriteLock == null) {
+                readWriteLock = concurrency.getReadWriteLock();
+            }
+        }
+        if (readWriteLock != null) {
+            final EJBReadWriteLockFactory factory = EJBReadWriteLockFactory.forName(readWriteLock);
+            if (factory == null) {
+                throw EjbLogger.ROOT_LOGGER.unknownReadWriteLock(readWriteLock, ejbName);
+            }
+            componentConfiguration.setReadWriteLockFactory(factory);
+        }
+    }
 
     private Method resolveMethod(final DeploymentReflectionIndex index, final Class<?> currentClass, final Class<?> componentClass, final NamedMethodMetaData methodData) throws DeploymentUnitProcessingException {
         if (currentClass == null) {
@@ -38,6 +38,7 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import javax.naming.Context;
@@ -2738,7 +2739,6 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 400, value = "Failed to passivate %s")
     RuntimeException passivationFailed(@Cause Throwable cause, Object id);
 
-    @Deprecated
     @Message(id = 401, value = "Failed to activate %s")
     RuntimeException activationFailed(@Cause Throwable cause, Object id);
 
@@ -3261,4 +3261,41 @@ public interface EjbLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 532, value = "Database detected from configuration is: '%s'. If this is incorrect, please specify the correct database.")
     void unknownDatabaseName(String name);
+
+    @Message(id = 533, value = "Unknown read-write lock '%s' configured for singleton bean %s")
+    DeploymentUnitProcessingException unknownReadWriteLock(String lock, String ejbName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 534, value = "Discarding corrupt or incomplete timer journal records in %s following position %d")
+    void timerJournalRecordCorrupt(File segment, long position);
+
+    @LogMessage(level = INFO)
+    @Message(id = 535, value = "Migrated %d persistent timers for %s from %s to the timer journal")
+    void timerJournalMigrated(int count, String timedObjectId, File directory);
+
+    @LogMessage(level = WARN)
+    @Message(id = 536, value = "Failed to delete timer file %s following its migration to the timer journal")
+    void failToDeleteMigratedTimerFile(File file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 537, value = "Cannot add the last modified column to the timer persistence table, timers will be refreshed by reloading all timers")
+    void couldNotUpgradeTable(@Cause SQLException e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 538, value = "Failed to passivate stateful session bean %s, it will remain in memory")
+    void failedToPassivateBean(@Cause Throwable cause, Object id);
+
+    @Message(id = 539, value = "Invocation of %s rejected, as its concurrency limit was reached and its queue is full")
+    EJBException bulkheadSaturated(String componentName);
+
+    @Message(id = 540, value = "Invalid bulkhead configured for session bean %s")
+    DeploymentUnitProcessingException invalidBulkheadConfiguration(@Cause Throwable cause, String ejbName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 541, value = "Execution of an expired timer task was rejected, it will be retried until accepted")
+    void timerTaskRejected(@Cause RejectedExecutionException e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 542, value = "Ignoring invalid value '%s' of system property %s, using %s instead")
+    void invalidSystemProperty(String value, String property, Object defaultValue);
 }
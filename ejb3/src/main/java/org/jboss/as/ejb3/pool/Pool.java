@@ -57,6 +57,34 @@ public interface Pool<T> {
 
     int getRemoveCount();
 
+    /**
+     * Returns the number of objects that this pool currently permits to be in use.
+     * For a pool that adapts its size to load, this may be less than {@link #getMaxSize()}.
+     *
+     * @return the target size of this pool
+     */
+    default int getTargetSize() {
+        return this.getMaxSize();
+    }
+
+    /**
+     * Returns the number of times this pool increased its target size.
+     *
+     * @return the number of grow events
+     */
+    default int getGrowCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of times this pool decreased its target size.
+     *
+     * @return the number of shrink events
+     */
+    default int getShrinkCount() {
+        return 0;
+    }
+
     /**
      * Release the object from use.
      *
@@ -0,0 +1,407 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.lifo;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size whose idle instances are held in thread-affine LIFO stripes.
+ * A released instance is pushed onto the stripe of the releasing thread, and is thus likely to be reused (while still cache-hot) by the next invocation on the same thread.
+ * A thread whose stripe is empty steals the least recently used instance from another stripe before creating a new instance.
+ * Unlike {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}, permits are tracked via a single atomic counter, such that threads only contend on a lock while waiting for an instance to be released.
+ * <p>
+ * If the minimum size of the pool is less than its maximum size, the pool adapts its target size, i.e. its number of permits, to the time invocations spend waiting to acquire an instance.
+ * The target size grows geometrically while the mean acquisition wait time exceeds a threshold, and shrinks gradually toward the peak number of concurrently used instances when invocations no longer wait.
+ * Adaptation is triggered, at most once per interval, by both the acquisition and the release of an instance, such that a pool whose load subsides still shrinks.
+ * Idle instances in excess of a reduced target size are destroyed eagerly, as are released instances in excess of the target size.
+ * @param <T> the pooled instance type
+ */
+public class LifoPool<T> extends AbstractPool<T> {
+    // Minimum interval between successive adaptations of the target size
+    private static final long DEFAULT_ADAPT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Mean acquisition wait time above which the target size will grow
+    private static final long GROW_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    private final Deque<T>[] stripes;
+    private final int mask;
+    // Number of available permits, which is negative if the target size was reduced below the number of instances in use
+    private final AtomicInteger permits;
+    // Number of threads waiting for a permit
+    private final AtomicInteger waiters = new AtomicInteger(0);
+    private final Lock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+
+    // Modified while holding the lock
+    private volatile int minSize;
+    private volatile int maxSize;
+    private volatile int targetSize;
+    private volatile int growCount = 0;
+    private volatile int shrinkCount = 0;
+
+    // Acquisition metrics sampled since the last adaptation
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator peakInUse = new LongAccumulator(Math::max, 0L);
+    private final long adaptIntervalNanos;
+    private final AtomicLong nextAdaptNanos;
+
+    public LifoPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, maxSize, timeout, timeUnit);
+    }
+
+    public LifoPool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, minSize, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors(), DEFAULT_ADAPT_INTERVAL_NANOS);
+    }
+
+    @SuppressWarnings("unchecked")
+    LifoPool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long timeout, TimeUnit timeUnit, int concurrency, long adaptIntervalNanos) {
+        super(factory);
+        this.minSize = Math.min(minSize, maxSize);
+        this.maxSize = maxSize;
+        // An adaptive pool starts at its minimum size
+        this.targetSize = this.minSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        this.permits = new AtomicInteger(this.targetSize);
+        // Use a power of 2 number of stripes, such that there are no more stripes than permits
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(concurrency, maxSize)));
+        this.stripes = new Deque[stripes];
+        for (int i = 0; i < stripes; ++i) {
+            this.stripes[i] = new ArrayDeque<>();
+        }
+        this.mask = stripes - 1;
+        this.adaptIntervalNanos = adaptIntervalNanos;
+        this.nextAdaptNanos = new AtomicLong(System.nanoTime() + adaptIntervalNanos);
+    }
+
+    @Override
+    public T get() {
+        this.acquire();
+
+        T bean = this.poll();
+
+        if (bean != null) {
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = this.create();
+        } finally {
+            if (bean == null) {
+                this.releasePermit();
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void release(T bean) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.targetSize - this.permits.get(), this.targetSize, this);
+        }
+
+        if (this.minSize < this.maxSize) {
+            // Include the released instance in the sampled usage
+            this.peakInUse.accumulate(this.targetSize - this.permits.get());
+            this.adaptIfDue();
+        }
+
+        // Destroy, rather than pool, an instance in excess of a reduced target size
+        if (this.getCurrentSize() > this.targetSize) {
+            this.releasePermit();
+            this.destroy(bean);
+            return;
+        }
+
+        Deque<T> stripe = this.stripes[this.index()];
+        synchronized (stripe) {
+            stripe.addLast(bean);
+        }
+
+        this.releasePermit();
+    }
+
+    @Override
+    public void discard(T bean) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, bean);
+        }
+
+        this.releasePermit();
+
+        this.doRemove(bean);
+    }
+
+    @Deprecated
+    @Override
+    public void remove(T bean) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, bean);
+        }
+
+        this.releasePermit();
+
+        this.doRemove(bean);
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return this.getCreateCount() - this.getRemoveCount();
+    }
+
+    @Override
+    public int getAvailableCount() {
+        return Math.max(0, this.permits.get());
+    }
+
+    @Override
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    @Override
+    public int getTargetSize() {
+        return this.targetSize;
+    }
+
+    @Override
+    public int getGrowCount() {
+        return this.growCount;
+    }
+
+    @Override
+    public int getShrinkCount() {
+        return this.shrinkCount;
+    }
+
+    @Override
+    public void setMaxSize(int maxSize) {
+        int targetSize = 0;
+        this.lock.lock();
+        try {
+            // A pool with a fixed size remains fixed
+            this.minSize = (this.minSize < this.maxSize) ? Math.min(this.minSize, maxSize) : maxSize;
+            this.maxSize = maxSize;
+            targetSize = Math.max(this.minSize, Math.min(this.targetSize, maxSize));
+        } finally {
+            this.lock.unlock();
+        }
+        this.resize(targetSize);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        for (Deque<T> stripe : this.stripes) {
+            synchronized (stripe) {
+                for (T bean = stripe.pollLast(); bean != null; bean = stripe.pollLast()) {
+                    this.destroy(bean);
+                }
+            }
+        }
+    }
+
+    private int index() {
+        return (int) Thread.currentThread().getId() & this.mask;
+    }
+
+    /**
+     * Pops the most recently released instance from the stripe of the current thread.
+     * If that stripe is empty, steals the least recently released instance from the other stripes.
+     * @return a pooled instance, or null, if the pool is empty
+     */
+    private T poll() {
+        int index = this.index();
+        for (int i = 0; i < this.stripes.length; ++i) {
+            Deque<T> stripe = this.stripes[(index + i) & this.mask];
+            synchronized (stripe) {
+                T bean = (i == 0) ? stripe.pollLast() : stripe.pollFirst();
+                if (bean != null) {
+                    return bean;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean tryAcquire() {
+        int available = this.permits.get();
+        while (available > 0) {
+            if (this.permits.compareAndSet(available, available - 1)) {
+                return true;
+            }
+            available = this.permits.get();
+        }
+        return false;
+    }
+
+    private void acquire() {
+        boolean adaptive = this.minSize < this.maxSize;
+        // Fast path, uncontended
+        if (this.tryAcquire()) {
+            if (adaptive) {
+                this.record(0L);
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long nanos = this.timeUnit.toNanos(this.timeout);
+            this.lock.lock();
+            try {
+                // Register as a waiter before re-checking, so that a concurrent release will signal us
+                this.waiters.incrementAndGet();
+                try {
+                    while (!this.tryAcquire()) {
+                        if (nanos <= 0L) {
+                            throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+                        }
+                        nanos = this.released.awaitNanos(nanos);
+                    }
+                } finally {
+                    this.waiters.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+            } finally {
+                this.lock.unlock();
+            }
+        } finally {
+            // A timed out acquisition is also a signal to grow
+            if (adaptive) {
+                this.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void releasePermit() {
+        this.permits.incrementAndGet();
+        // Only contend for the lock if some thread is waiting for a permit
+        if (this.waiters.get() > 0) {
+            this.lock.lock();
+            try {
+                this.released.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Records the wait time of an acquisition, and adapts the target size of this pool once per interval.
+     */
+    private void record(long waitNanos) {
+        this.acquisitions.increment();
+        if (waitNanos > 0L) {
+            this.waitNanos.add(waitNanos);
+        }
+        this.peakInUse.accumulate(this.targetSize - this.permits.get());
+        this.adaptIfDue();
+    }
+
+    /**
+     * Adapts the target size of this pool to the acquisition metrics sampled since the last adaptation, if the adaptation interval has elapsed.
+     */
+    private void adaptIfDue() {
+        long now = System.nanoTime();
+        long next = this.nextAdaptNanos.get();
+        if ((now - next >= 0L) && this.nextAdaptNanos.compareAndSet(next, now + this.adaptIntervalNanos)) {
+            this.adapt(this.acquisitions.sumThenReset(), this.waitNanos.sumThenReset(), (int) this.peakInUse.getThenReset());
+        }
+    }
+
+    void adapt(long acquisitions, long waitNanos, int peakInUse) {
+        int targetSize = this.targetSize;
+        if ((acquisitions > 0L) && (waitNanos / acquisitions > GROW_THRESHOLD_NANOS)) {
+            // Invocations are waiting for instances, grow geometrically
+            this.resize(Math.min(this.maxSize, targetSize + Math.max(1, targetSize / 2)));
+        } else if ((waitNanos == 0L) && (peakInUse < targetSize)) {
+            // Invocations no longer wait, shrink gradually toward the peak usage
+            this.resize(Math.max(this.minSize, targetSize - Math.max(1, (targetSize - peakInUse) / 2)));
+        }
+    }
+
+    private void resize(int targetSize) {
+        int delta = 0;
+        this.lock.lock();
+        try {
+            delta = targetSize - this.targetSize;
+            if (delta != 0) {
+                this.targetSize = targetSize;
+                this.permits.addAndGet(delta);
+                if (delta > 0) {
+                    this.growCount += 1;
+                    this.released.signalAll();
+                } else {
+                    this.shrinkCount += 1;
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (delta != 0) {
+            ROOT_LOGGER.tracef("Resized %s from %d to %d", this, targetSize - delta, targetSize);
+        }
+        if (delta < 0) {
+            this.evict();
+        }
+    }
+
+    /**
+     * Destroys the least recently used idle instances in excess of the target size.
+     */
+    private void evict() {
+        for (Deque<T> stripe : this.stripes) {
+            while (this.getCurrentSize() > this.targetSize) {
+                T bean = null;
+                synchronized (stripe) {
+                    bean = stripe.pollFirst();
+                }
+                if (bean == null) break;
+                this.destroy(bean);
+            }
+        }
+    }
+}
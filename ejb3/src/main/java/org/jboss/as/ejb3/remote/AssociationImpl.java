@@ -46,6 +46,7 @@ import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentIsStoppedException;
 import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ee.component.interceptors.InvocationType;
+import org.jboss.as.ejb3.bulkhead.Bulkhead;
 import org.jboss.as.ejb3.component.EJBComponentUnavailableException;
 import org.jboss.as.ejb3.component.interceptors.CancellationFlag;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
@@ -270,8 +271,21 @@ final class AssociationImpl implements Association, AutoCloseable {
                 EjbLogger.REMOTE_LOGGER.couldNotWriteMethodInvocation(ioe, invokedMethod, beanName, appName, moduleName, distinctName);
             }
         };
-        // invoke the method and write out the response, possibly on a separate thread
-        execute(invocationRequest, runnable, isAsync, false);
+        final Bulkhead bulkhead = (component instanceof SessionBeanComponent) ? ((SessionBeanComponent) component).getBulkhead() : null;
+        if (bulkhead != null && (isAsync || !invocationRequest.getProtocol().equals("local"))) {
+            // invocations subject to admission control are always dispatched, so that they can wait for a permit
+            final Executor executor = this.executor;
+            try {
+                bulkhead.execute((executor != null) ? executor : invocationRequest.getRequestExecutor(), runnable, e -> {
+                    if (! oneWay) invocationRequest.writeException(e);
+                });
+            } catch (EJBException e) {
+                if (! oneWay) invocationRequest.writeException(e);
+            }
+        } else {
+            // invoke the method and write out the response, possibly on a separate thread
+            execute(invocationRequest, runnable, isAsync, false);
+        }
         return cancellationFlag::cancel;
     }
 
@@ -655,6 +669,10 @@ final class AssociationImpl implements Association, AutoCloseable {
     }
 
     private static Method findMethod(final ComponentView componentView, final EJBMethodLocator ejbMethodLocator) {
+        final EJBMethodLocatorIndex index = componentView.getPrivateData(EJBMethodLocatorIndex.class);
+        if (index != null) {
+            return index.getMethod(ejbMethodLocator);
+        }
         final Set<Method> viewMethods = componentView.getViewMethods();
         for (final Method method : viewMethods) {
             if (method.getName().equals(ejbMethodLocator.getMethodName())) {
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.ejb.client.EJBMethodLocator;
+
+/**
+ * Immutable index of the methods of a component view, keyed by the {@link EJBMethodLocator} (i.e. method name and parameter type names) with which remote clients reference them.
+ * Attached to remotely accessible views, so that remote invocations need not scan the methods of the view.
+ */
+public class EJBMethodLocatorIndex {
+
+    private final Map<EJBMethodLocator, Method> methods;
+
+    public EJBMethodLocatorIndex(final Collection<Method> methods) {
+        final Map<EJBMethodLocator, Method> index = new HashMap<>();
+        for (Method method : methods) {
+            final EJBMethodLocator locator = EJBMethodLocator.forMethod(method);
+            final Method existing = index.get(locator);
+            // Methods differing only by return type, e.g. covariant overrides, are indistinguishable to clients - prefer the non-bridge method
+            if (existing == null || (existing.isBridge() && !method.isBridge())) {
+                index.put(locator, method);
+            }
+        }
+        this.methods = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Returns the view method referenced by the specified locator.
+     *
+     * @param locator a method locator
+     * @return the referenced view method, or null, if the view has no such method
+     */
+    public Method getMethod(final EJBMethodLocator locator) {
+        return this.methods.get(locator);
+    }
+}
@@ -36,10 +36,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import jakarta.ejb.EJBException;
+
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ee.component.deployers.StartupCountdown;
 import org.jboss.as.ee.utils.DescriptorUtils;
+import org.jboss.as.ejb3.bulkhead.Bulkhead;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.interceptors.CancellationFlag;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
@@ -108,8 +111,7 @@ public class LocalEjbReceiver extends EJBReceiver {
         final ClonerConfiguration paramConfig = new ClonerConfiguration();
         paramConfig.setClassCloner(new ClassLoaderClassCloner(ejb.getDeploymentClassLoader()));
         final ObjectCloner parameterCloner = createCloner(paramConfig);
-        //TODO: this is not very efficient
-        final Method method = view.getMethod(invocation.getInvokedMethod().getName(), DescriptorUtils.methodDescriptor(invocation.getInvokedMethod()));
+        final Method method = findMethod(view, invocation);
 
         final boolean async = view.isAsynchronous(method) || invocation.isClientAsync();
 
@@ -248,7 +250,17 @@ public class LocalEjbReceiver extends EJBReceiver {
                 } else {
                     // this normally isn't necessary unless the client didn't detect that it was an async method for some reason
                     receiverContext.proceedAsynchronously();
-                    executor.execute(securityIdentity == null ? task : () -> securityIdentity.runAs(task));
+                    final Runnable asyncTask = securityIdentity == null ? task : () -> securityIdentity.runAs(task);
+                    final Bulkhead bulkhead = component.getBulkhead();
+                    if (bulkhead != null) {
+                        try {
+                            bulkhead.execute(executor, asyncTask, e -> receiverContext.resultReady(new EJBReceiverInvocationContext.ResultProducer.Failed(e)));
+                        } catch (EJBException e) {
+                            receiverContext.resultReady(new EJBReceiverInvocationContext.ResultProducer.Failed(e));
+                        }
+                    } else {
+                        executor.execute(asyncTask);
+                    }
                 }
             } else {
                 throw EjbLogger.ROOT_LOGGER.asyncInvocationOnlyApplicableForSessionBeans();
@@ -299,6 +311,18 @@ public class LocalEjbReceiver extends EJBReceiver {
         }
     }
 
+    private static Method findMethod(final ComponentView view, final EJBClientInvocationContext invocation) {
+        final EJBMethodLocatorIndex index = view.getPrivateData(EJBMethodLocatorIndex.class);
+        if (index != null) {
+            final Method method = index.getMethod(invocation.getMethodLocator());
+            if (method != null) {
+                return method;
+            }
+        }
+        // Fallback to method descriptor, which reports missing methods
+        return view.getMethod(invocation.getInvokedMethod().getName(), DescriptorUtils.methodDescriptor(invocation.getInvokedMethod()));
+    }
+
     protected boolean cancelInvocation(final EJBReceiverInvocationContext receiverContext, final boolean cancelIfRunning) {
         CancellationFlag flag = receiverContext.getClientInvocationContext().getAttachment(CANCELLATION_FLAG_ATTACHMENT_KEY);
         return flag != null && flag.cancel(cancelIfRunning);
@@ -0,0 +1,233 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.http;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketAddress;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import jakarta.ejb.EJBException;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.SameThreadExecutor;
+import io.undertow.util.StatusCodes;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.ejb.server.Association;
+import org.wildfly.httpclient.common.ElytronIdentityHandler;
+import org.wildfly.security.auth.server.SecurityIdentity;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Handles a batch of remote invocations sent within the body of a single request.
+ * Each invocation is dispatched to the {@link Association}, via the specified executor, as soon as its frame was read, and its response is streamed back
+ * as an individually framed chunk (or HTTP/2 data frame) as soon as the invocation completes.
+ * Consequently, responses are not necessarily written in the order of their invocations.
+ * Once the maximum number of incomplete invocations of a batch is reached, reading of its request body pauses until an invocation completes.
+ * Since the worker thread reading the request body may block, invocations must never execute via the I/O worker of the connection.
+ * See {@link BatchInvocationProtocol} for the format of the request and response bodies.
+ */
+class BatchInvocationHandler implements HttpHandler {
+
+    static final String PATH = "/ejb/batch";
+
+    /**
+     * System property {@code jboss.ejb.http.batch.maxPayloadLength}
+     * to configure the maximum length, in bytes, of the marshalled parameters and attachments of a batched invocation.
+     * A batch containing a longer invocation is truncated, i.e. only the invocations preceding it are processed.
+     * The default value is 16 MiB.
+     */
+    private static final int MAX_PAYLOAD_LENGTH = resolvePositiveInteger("jboss.ejb.http.batch.maxPayloadLength", 16 * 1024 * 1024);
+
+    /**
+     * System property {@code jboss.ejb.http.batch.maxConcurrentInvocations}
+     * to configure the maximum number of incomplete invocations of a single batch.
+     * The default value is 64.
+     */
+    private static final int MAX_CONCURRENT_INVOCATIONS = resolvePositiveInteger("jboss.ejb.http.batch.maxConcurrentInvocations", 64);
+
+    private final Association association;
+    private final Function<String, Boolean> classResolverFilter;
+    private final Executor executor;
+    private final int maxPayloadLength;
+    private final int maxConcurrentInvocations;
+
+    BatchInvocationHandler(Association association, Function<String, Boolean> classResolverFilter, Executor executor) {
+        this(association, classResolverFilter, executor, MAX_PAYLOAD_LENGTH, MAX_CONCURRENT_INVOCATIONS);
+    }
+
+    BatchInvocationHandler(Association association, Function<String, Boolean> classResolverFilter, Executor executor, int maxPayloadLength, int maxConcurrentInvocations) {
+        this.association = association;
+        this.classResolverFilter = classResolverFilter;
+        this.executor = executor;
+        this.maxPayloadLength = maxPayloadLength;
+        this.maxConcurrentInvocations = maxConcurrentInvocations;
+    }
+
+    static int resolvePositiveInteger(String property, int defaultValue) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value != null) {
+            try {
+                int result = Integer.parseInt(value.trim());
+                if (result > 0) {
+                    return result;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through
+            }
+            EjbLogger.ROOT_LOGGER.invalidSystemProperty(value, property, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (exchange.isInIoThread()) {
+            exchange.dispatch(this);
+            return;
+        }
+        if (!exchange.getRequestMethod().equals(Methods.POST)) {
+            exchange.setStatusCode(StatusCodes.METHOD_NOT_ALLOWED);
+            return;
+        }
+        exchange.startBlocking();
+        DataInputStream input = new DataInputStream(exchange.getInputStream());
+        if (input.read() != BatchInvocationProtocol.VERSION) {
+            exchange.setStatusCode(StatusCodes.BAD_REQUEST);
+            return;
+        }
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, BatchInvocationProtocol.CONTENT_TYPE);
+        ResponseStream responses = new ResponseStream(exchange, this.maxConcurrentInvocations);
+        // Invocations may complete after this handler returns, so the exchange is ended by the last response instead
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> this.receive(exchange, input, responses));
+    }
+
+    private void receive(HttpServerExchange exchange, DataInputStream input, ResponseStream responses) {
+        SecurityIdentity identity = exchange.getAttachment(ElytronIdentityHandler.IDENTITY_KEY);
+        SocketAddress peerAddress = exchange.getConnection().getPeerAddress();
+        SocketAddress localAddress = exchange.getConnection().getLocalAddress();
+        try {
+            BatchInvocationProtocol.Invocation invocation = BatchInvocationProtocol.readInvocation(input, this.maxPayloadLength);
+            while (invocation != null) {
+                BatchInvocationRequest request = new BatchInvocationRequest(invocation, responses, this.classResolverFilter, identity, this.executor, peerAddress, localAddress);
+                responses.begin();
+                try {
+                    this.executor.execute(() -> this.invoke(request));
+                } catch (RejectedExecutionException e) {
+                    request.writeException(new EJBException(e));
+                }
+                invocation = BatchInvocationProtocol.readInvocation(input, this.maxPayloadLength);
+            }
+        } catch (IOException e) {
+            // Responses to any invocations read thus far will still be written
+            EjbLogger.REMOTE_LOGGER.debugf(e, "Failed to read batched invocation request from %s", peerAddress);
+        } finally {
+            responses.end();
+        }
+    }
+
+    private void invoke(BatchInvocationRequest request) {
+        try {
+            this.association.receiveInvocationRequest(request);
+        } catch (RuntimeException e) {
+            request.writeException(new EJBException(e));
+        }
+    }
+
+    /**
+     * The response body of a batch, shared by all of its invocations.
+     * Ends the exchange once the request body was fully read and every invocation has written its final response.
+     */
+    static class ResponseStream {
+        private final HttpServerExchange exchange;
+        private final DataOutputStream output;
+        // Number of incomplete invocations, plus 1 while the request body is being read
+        private final AtomicInteger pending = new AtomicInteger(1);
+        // Bounds the number of incomplete invocations
+        private final Semaphore invocations;
+        private boolean failed = false; // guarded by this
+
+        ResponseStream(HttpServerExchange exchange, int maxConcurrentInvocations) throws IOException {
+            this.exchange = exchange;
+            this.invocations = new Semaphore(maxConcurrentInvocations);
+            this.output = new DataOutputStream(exchange.getOutputStream());
+            // Commit response headers, so that the client can start reading responses immediately
+            this.output.writeByte(BatchInvocationProtocol.VERSION);
+            this.output.flush();
+        }
+
+        /**
+         * Registers a new invocation, waiting until the number of incomplete invocations is below its maximum.
+         */
+        void begin() throws InterruptedIOException {
+            try {
+                this.invocations.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            this.pending.incrementAndGet();
+        }
+
+        void write(BatchInvocationProtocol.Response response, boolean complete) {
+            synchronized (this) {
+                if (!this.failed) {
+                    try {
+                        BatchInvocationProtocol.writeResponse(this.output, response);
+                        this.output.flush();
+                    } catch (IOException e) {
+                        // Client has likely gone away, discard all remaining responses
+                        this.failed = true;
+                        EjbLogger.REMOTE_LOGGER.debugf(e, "Failed to write response of batched invocation %d", response.getId());
+                    }
+                }
+            }
+            if (complete) {
+                this.invocations.release();
+                this.end();
+            }
+        }
+
+        void end() {
+            if (this.pending.decrementAndGet() == 0) {
+                synchronized (this) {
+                    try {
+                        this.output.close();
+                    } catch (IOException e) {
+                        EjbLogger.REMOTE_LOGGER.debugf(e, "Failed to complete batched invocation response");
+                    }
+                }
+                this.exchange.endExchange();
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import org.jboss.ejb.client.EJBIdentifier;
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.jboss.ejb.client.SessionID;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+
+/**
+ * Wire format of the batched invocation endpoint.
+ * A request body consists of a version byte, followed by any number of invocation frames:
+ * <pre>
+ * int    invocation id
+ * UTF    application, module, distinct and bean name
+ * UTF    view class name
+ * UTF    method name
+ * byte   parameter count, followed by the UTF type name of each parameter
+ * int    length of the encoded session id, or -1 for a stateless invocation, followed by the encoded session id
+ * int    payload length, followed by the marshalled parameters and attachments
+ * </pre>
+ * A response body consists of a version byte, followed by a response frame per invocation, in order of completion:
+ * <pre>
+ * int    invocation id
+ * byte   status
+ * int    payload length, followed by the payload
+ * </pre>
+ * The payload of a {@link #SUCCESS} response contains the marshalled session id, strong affinity, weak affinity, attachments and result.
+ * The payload of an {@link #EXCEPTION} response contains the marshalled exception.
+ * All other responses have an empty payload.
+ * A frame whose length is negative, other than -1, or exceeds the maximum accepted by the reader, is rejected as corrupt.
+ */
+final class BatchInvocationProtocol {
+
+    static final String CONTENT_TYPE = "application/x-wf-ejb-batch";
+    static final byte VERSION = 1;
+
+    static final byte SUCCESS = 0;
+    static final byte EXCEPTION = 1;
+    static final byte NO_SUCH_EJB = 2;
+    static final byte NO_SUCH_METHOD = 3;
+    static final byte WRONG_VIEW_TYPE = 4;
+    static final byte NOT_STATEFUL = 5;
+    static final byte SESSION_NOT_ACTIVE = 6;
+    static final byte CANCELLED = 7;
+    // Informational only, the invocation will be followed by another response
+    static final byte PROCEED_ASYNC = 8;
+
+    // Encoded session ids are typically less than 32 bytes
+    static final int MAX_SESSION_ID_LENGTH = 256;
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final MarshallerFactory FACTORY = new RiverMarshallerFactory();
+
+    private BatchInvocationProtocol() {
+        // Hide
+    }
+
+    /**
+     * An invocation frame of a request body.
+     */
+    static class Invocation {
+        private final int id;
+        private final EJBIdentifier identifier;
+        private final String viewClassName;
+        private final EJBMethodLocator methodLocator;
+        private final SessionID sessionId;
+        private final byte[] payload;
+
+        Invocation(int id, EJBIdentifier identifier, String viewClassName, EJBMethodLocator methodLocator, SessionID sessionId, byte[] payload) {
+            this.id = id;
+            this.identifier = identifier;
+            this.viewClassName = viewClassName;
+            this.methodLocator = methodLocator;
+            this.sessionId = sessionId;
+            this.payload = payload;
+        }
+
+        int getId() {
+            return this.id;
+        }
+
+        EJBIdentifier getIdentifier() {
+            return this.identifier;
+        }
+
+        String getViewClassName() {
+            return this.viewClassName;
+        }
+
+        EJBMethodLocator getMethodLocator() {
+            return this.methodLocator;
+        }
+
+        SessionID getSessionId() {
+            return this.sessionId;
+        }
+
+        byte[] getPayload() {
+            return this.payload;
+        }
+    }
+
+    /**
+     * A response frame of a response body.
+     */
+    static class Response {
+        private final int id;
+        private final byte status;
+        private final byte[] payload;
+
+        Response(int id, byte status, byte[] payload) {
+            this.id = id;
+            this.status = status;
+            this.payload = payload;
+        }
+
+        int getId() {
+            return this.id;
+        }
+
+        byte getStatus() {
+            return this.status;
+        }
+
+        byte[] getPayload() {
+            return this.payload;
+        }
+    }
+
+    static void writeInvocation(DataOutputStream output, Invocation invocation) throws IOException {
+        output.writeInt(invocation.getId());
+        EJBIdentifier identifier = invocation.getIdentifier();
+        output.writeUTF(identifier.getAppName());
+        output.writeUTF(identifier.getModuleName());
+        output.writeUTF(identifier.getDistinctName());
+        output.writeUTF(identifier.getBeanName());
+        output.writeUTF(invocation.getViewClassName());
+        EJBMethodLocator locator = invocation.getMethodLocator();
+        output.writeUTF(locator.getMethodName());
+        output.writeByte(locator.getParameterCount());
+        for (int i = 0; i < locator.getParameterCount(); ++i) {
+            output.writeUTF(locator.getParameterTypeName(i));
+        }
+        writeBytes(output, (invocation.getSessionId() != null) ? invocation.getSessionId().getEncodedForm() : null);
+        writeBytes(output, invocation.getPayload());
+    }
+
+    /**
+     * Reads the next invocation frame of a request body.
+     * @param maxPayloadLength the maximum accepted length of the invocation payload
+     * @return the next invocation, or null if the request body was fully consumed
+     * @throws StreamCorruptedException if the length of the session id or payload is invalid
+     */
+    static Invocation readInvocation(DataInputStream input, int maxPayloadLength) throws IOException {
+        int first = input.read();
+        if (first < 0) return null;
+        int id = readFrameId(first, input);
+        String appName = input.readUTF();
+        String moduleName = input.readUTF();
+        String distinctName = input.readUTF();
+        String beanName = input.readUTF();
+        String viewClassName = input.readUTF();
+        String methodName = input.readUTF();
+        String[] parameterTypeNames = new String[input.readUnsignedByte()];
+        for (int i = 0; i < parameterTypeNames.length; ++i) {
+            parameterTypeNames[i] = input.readUTF();
+        }
+        byte[] sessionId = readBytes(input, MAX_SESSION_ID_LENGTH);
+        byte[] payload = readBytes(input, maxPayloadLength);
+        return new Invocation(id, new EJBIdentifier(appName, moduleName, beanName, distinctName), viewClassName, new EJBMethodLocator(methodName, parameterTypeNames), (sessionId != null) ? SessionID.createSessionID(sessionId) : null, (payload != null) ? payload : EMPTY);
+    }
+
+    static void writeResponse(DataOutputStream output, Response response) throws IOException {
+        output.writeInt(response.getId());
+        output.writeByte(response.getStatus());
+        writeBytes(output, response.getPayload());
+    }
+
+    /**
+     * Reads the next response frame of a response body.
+     * @return the next response, or null if the response body was fully consumed
+     */
+    static Response readResponse(DataInputStream input) throws IOException {
+        int first = input.read();
+        if (first < 0) return null;
+        int id = readFrameId(first, input);
+        byte status = input.readByte();
+        byte[] payload = readBytes(input, Integer.MAX_VALUE);
+        return new Response(id, status, (payload != null) ? payload : EMPTY);
+    }
+
+    /**
+     * Creates a marshalling configuration resolving classes via the specified class loader, restricted by the specified filter.
+     */
+    static MarshallingConfiguration createMarshallingConfiguration(ClassLoader loader, Function<String, Boolean> classResolverFilter) {
+        MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(new SimpleClassResolver(loader) {
+            @Override
+            public Class<?> resolveClass(Unmarshaller unmarshaller, String name, long serialVersionUID) throws IOException, ClassNotFoundException {
+                if ((classResolverFilter != null) && !Boolean.TRUE.equals(classResolverFilter.apply(name))) {
+                    throw new InvalidClassException(name, "Class rejected by class resolver filter");
+                }
+                return super.resolveClass(unmarshaller, name, serialVersionUID);
+            }
+        });
+        configuration.setVersion(3);
+        return configuration;
+    }
+
+    static byte[] marshal(MarshallingConfiguration configuration, Object... values) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Marshaller marshaller = FACTORY.createMarshaller(configuration)) {
+            marshaller.start(new OutputStreamByteOutput(out));
+            for (Object value : values) {
+                marshaller.writeObject(value);
+            }
+            marshaller.finish();
+        }
+        return out.toByteArray();
+    }
+
+    static Object[] unmarshal(MarshallingConfiguration configuration, byte[] payload, int count) throws IOException, ClassNotFoundException {
+        Object[] values = new Object[count];
+        try (Unmarshaller unmarshaller = FACTORY.createUnmarshaller(configuration)) {
+            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(payload)));
+            for (int i = 0; i < count; ++i) {
+                values[i] = unmarshaller.readObject();
+            }
+            unmarshaller.finish();
+        }
+        return values;
+    }
+
+    private static int readFrameId(int first, DataInputStream input) throws IOException {
+        try {
+            return (first << 24) | (input.readUnsignedByte() << 16) | (input.readUnsignedByte() << 8) | input.readUnsignedByte();
+        } catch (EOFException e) {
+            throw new EOFException("Truncated frame");
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        if (bytes != null) {
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else {
+            output.writeInt(-1);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream input, int maxLength) throws IOException {
+        int length = input.readInt();
+        if (length == -1) return null;
+        if ((length < 0) || (length > maxLength)) {
+            throw new StreamCorruptedException(String.format("Invalid frame length %d, maximum is %d", length, maxLength));
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.http;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import jakarta.ejb.EJBException;
+import jakarta.transaction.Transaction;
+
+import org.jboss.ejb.client.Affinity;
+import org.jboss.ejb.client.EJBIdentifier;
+import org.jboss.ejb.client.EJBLocator;
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.jboss.ejb.client.SessionID;
+import org.jboss.ejb.client.StatefulEJBLocator;
+import org.jboss.ejb.client.StatelessEJBLocator;
+import org.jboss.ejb.server.InvocationRequest;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.wildfly.common.annotation.NotNull;
+import org.wildfly.security.auth.server.SecurityIdentity;
+
+/**
+ * An {@link InvocationRequest} for a single invocation frame of a batch, whose response is written as a frame of the shared response stream.
+ * The parameters and attachments of the invocation are only unmarshalled once the target deployment, and therefore its class loader, is known.
+ * Transaction propagation is not supported by batched invocations.
+ */
+class BatchInvocationRequest implements InvocationRequest {
+
+    private final BatchInvocationProtocol.Invocation invocation;
+    private final BatchInvocationHandler.ResponseStream responses;
+    private final Function<String, Boolean> classResolverFilter;
+    private final SecurityIdentity identity;
+    private final Executor executor;
+    private final SocketAddress peerAddress;
+    private final SocketAddress localAddress;
+    private final AtomicBoolean complete = new AtomicBoolean(false);
+
+    private volatile SessionID sessionId;
+    private volatile Affinity strongAffinity;
+    private volatile Affinity weakAffinity;
+    private volatile MarshallingConfiguration configuration;
+
+    BatchInvocationRequest(BatchInvocationProtocol.Invocation invocation, BatchInvocationHandler.ResponseStream responses, Function<String, Boolean> classResolverFilter, SecurityIdentity identity, Executor executor, SocketAddress peerAddress, SocketAddress localAddress) {
+        this.invocation = invocation;
+        this.responses = responses;
+        this.classResolverFilter = classResolverFilter;
+        this.identity = identity;
+        this.executor = executor;
+        this.peerAddress = peerAddress;
+        this.localAddress = localAddress;
+        this.sessionId = invocation.getSessionId();
+    }
+
+    @Override
+    public Resolved getRequestContent(ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        MarshallingConfiguration configuration = BatchInvocationProtocol.createMarshallingConfiguration(classLoader, this.classResolverFilter);
+        this.configuration = configuration;
+        Object[] content = BatchInvocationProtocol.unmarshal(configuration, this.invocation.getPayload(), 2);
+        Object[] parameters = (Object[]) content[0];
+        @SuppressWarnings("unchecked")
+        Map<String, Object> attachments = (Map<String, Object>) content[1];
+        Class<?> viewClass = Class.forName(this.invocation.getViewClassName(), false, classLoader);
+        EJBIdentifier identifier = this.invocation.getIdentifier();
+        SessionID sessionId = this.invocation.getSessionId();
+        EJBLocator<?> locator = (sessionId != null) ? new StatefulEJBLocator<>(viewClass, identifier, sessionId) : new StatelessEJBLocator<>(viewClass, identifier);
+        return new Resolved() {
+            @Override
+            public Map<String, Object> getAttachments() {
+                return attachments;
+            }
+
+            @Override
+            public Object[] getParameters() {
+                return parameters;
+            }
+
+            @Override
+            public EJBLocator<?> getEJBLocator() {
+                return locator;
+            }
+
+            @Override
+            public boolean hasTransaction() {
+                return false;
+            }
+
+            @Override
+            public Transaction getTransaction() {
+                return null;
+            }
+
+            @Override
+            public void writeInvocationResult(Object result) {
+                BatchInvocationRequest request = BatchInvocationRequest.this;
+                byte[] payload;
+                try {
+                    payload = BatchInvocationProtocol.marshal(configuration, request.sessionId, request.strongAffinity, request.weakAffinity, attachments, result);
+                } catch (IOException e) {
+                    request.writeException(new EJBException(e));
+                    return;
+                }
+                request.write(BatchInvocationProtocol.SUCCESS, payload);
+            }
+        };
+    }
+
+    @Override
+    public EJBMethodLocator getMethodLocator() {
+        return this.invocation.getMethodLocator();
+    }
+
+    @Override
+    public EJBIdentifier getEJBIdentifier() {
+        return this.invocation.getIdentifier();
+    }
+
+    @Override
+    public Executor getRequestExecutor() {
+        return this.executor;
+    }
+
+    @Override
+    public SocketAddress getPeerAddress() {
+        return this.peerAddress;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+        return this.localAddress;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "http";
+    }
+
+    @Override
+    public boolean isBlockingCaller() {
+        return false;
+    }
+
+    @Override
+    public SecurityIdentity getSecurityIdentity() {
+        return this.identity;
+    }
+
+    @Override
+    public void convertToStateful(@NotNull SessionID sessionId) throws IllegalArgumentException, IllegalStateException {
+        if (this.sessionId != null) {
+            throw new IllegalStateException();
+        }
+        this.sessionId = sessionId;
+    }
+
+    @Override
+    public void updateStrongAffinity(@NotNull Affinity affinity) {
+        this.strongAffinity = affinity;
+    }
+
+    @Override
+    public void updateWeakAffinity(@NotNull Affinity affinity) {
+        this.weakAffinity = affinity;
+    }
+
+    @Override
+    public void writeException(@NotNull Exception exception) {
+        MarshallingConfiguration configuration = this.configuration;
+        if (configuration == null) {
+            configuration = BatchInvocationProtocol.createMarshallingConfiguration(BatchInvocationRequest.class.getClassLoader(), this.classResolverFilter);
+        }
+        byte[] payload;
+        try {
+            payload = BatchInvocationProtocol.marshal(configuration, exception);
+        } catch (IOException e) {
+            // Exception is not marshallable, send its message only
+            try {
+                payload = BatchInvocationProtocol.marshal(configuration, new EJBException(exception.getLocalizedMessage()));
+            } catch (IOException ignored) {
+                payload = new byte[0];
+            }
+        }
+        this.write(BatchInvocationProtocol.EXCEPTION, payload);
+    }
+
+    @Override
+    public void writeNoSuchEJB() {
+        this.write(BatchInvocationProtocol.NO_SUCH_EJB);
+    }
+
+    @Override
+    public void writeNoSuchMethod() {
+        this.write(BatchInvocationProtocol.NO_SUCH_METHOD);
+    }
+
+    @Override
+    public void writeWrongViewType() {
+        this.write(BatchInvocationProtocol.WRONG_VIEW_TYPE);
+    }
+
+    @Override
+    public void writeNotStateful() {
+        this.write(BatchInvocationProtocol.NOT_STATEFUL);
+    }
+
+    @Override
+    public void writeSessionNotActive() {
+        this.write(BatchInvocationProtocol.SESSION_NOT_ACTIVE);
+    }
+
+    @Override
+    public void writeCancelResponse() {
+        this.write(BatchInvocationProtocol.CANCELLED);
+    }
+
+    @Override
+    public void writeProceedAsync() {
+        this.responses.write(new BatchInvocationProtocol.Response(this.invocation.getId(), BatchInvocationProtocol.PROCEED_ASYNC, new byte[0]), false);
+    }
+
+    private void write(byte status) {
+        this.write(status, new byte[0]);
+    }
+
+    private void write(byte status, byte[] payload) {
+        // Only the first final response of an invocation is written
+        if (this.complete.compareAndSet(false, true)) {
+            this.responses.write(new BatchInvocationProtocol.Response(this.invocation.getId(), status, payload), true);
+        }
+    }
+}
@@ -22,10 +22,12 @@
 
 package org.jboss.as.ejb3.remote.http;
 
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 import io.undertow.server.handlers.PathHandler;
 import org.jboss.as.ejb3.remote.AssociationService;
+import org.jboss.ejb.server.Association;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
@@ -44,6 +46,7 @@ public class EJB3RemoteHTTPService implements Service<EJB3RemoteHTTPService> {
     private final InjectedValue<PathHandler> pathHandlerInjectedValue = new InjectedValue<>();
     private final InjectedValue<AssociationService> associationServiceInjectedValue = new InjectedValue<>();
     private final InjectedValue<LocalTransactionContext> localTransactionContextInjectedValue = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<>();
     private final Function<String, Boolean> classResolverFilter;
 
     public EJB3RemoteHTTPService(final Function<String, Boolean> classResolverFilter) {
@@ -52,13 +55,21 @@ public class EJB3RemoteHTTPService implements Service<EJB3RemoteHTTPService> {
 
     @Override
     public void start(StartContext context) throws StartException {
-        EjbHttpService service = new EjbHttpService(associationServiceInjectedValue.getValue().getAssociation(),
+        Association association = associationServiceInjectedValue.getValue().getAssociation();
+        EjbHttpService service = new EjbHttpService(association,
                 null, localTransactionContextInjectedValue.getValue(), classResolverFilter);
         pathHandlerInjectedValue.getValue().addPrefixPath("/ejb", service.createHttpHandler());
+        // Batched invocations cannot execute via the I/O worker, so they are only supported if the default thread pool exists
+        ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
+        if (executor != null) {
+            // Matched in preference to the above, as the longer prefix
+            pathHandlerInjectedValue.getValue().addPrefixPath(BatchInvocationHandler.PATH, new BatchInvocationHandler(association, classResolverFilter, executor));
+        }
     }
 
     @Override
     public void stop(StopContext context) {
+        pathHandlerInjectedValue.getValue().removePrefixPath(BatchInvocationHandler.PATH);
         pathHandlerInjectedValue.getValue().removePrefixPath("/ejb");
     }
 
@@ -78,4 +89,8 @@ public class EJB3RemoteHTTPService implements Service<EJB3RemoteHTTPService> {
     public InjectedValue<LocalTransactionContext> getLocalTransactionContextInjectedValue() {
         return localTransactionContextInjectedValue;
     }
+
+    public InjectedValue<ExecutorService> getExecutorServiceInjectedValue() {
+        return executorServiceInjectedValue;
+    }
 }
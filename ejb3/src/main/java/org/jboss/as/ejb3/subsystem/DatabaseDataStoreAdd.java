@@ -22,7 +22,6 @@
 
 package org.jboss.as.ejb3.subsystem;
 
-import java.util.Timer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -33,6 +32,7 @@ import org.jboss.as.controller.CapabilityServiceTarget;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.server.ServerEnvironment;
@@ -79,7 +79,7 @@ public class DatabaseDataStoreAdd extends AbstractAddStepHandler {
         final Consumer<DatabaseTimerPersistence> consumer = builder.provides(TimerServiceResourceDefinition.TIMER_PERSISTENCE_CAPABILITY);
         final Supplier<ManagedReferenceFactory> dataSourceSupplier = builder.requires(ContextNames.bindInfoFor(jndiName).getBinderServiceName());
         final Supplier<ModuleLoader> moduleLoaderSupplier = builder.requires(Services.JBOSS_SERVICE_MODULE_LOADER);
-        final Supplier<Timer> timerSupplier = builder.requiresCapability(TIMER_SERVICE_CAPABILITY_NAME, java.util.Timer.class);
+        final Supplier<TimerScheduler> timerSupplier = builder.requiresCapability(TIMER_SERVICE_CAPABILITY_NAME, TimerScheduler.class);
         final DatabaseTimerPersistence databaseTimerPersistence = new DatabaseTimerPersistence(consumer, dataSourceSupplier, moduleLoaderSupplier, timerSupplier, database, partition, nodeName, refreshInterval, allowExecution);
         builder.setInstance(databaseTimerPersistence);
         builder.install();
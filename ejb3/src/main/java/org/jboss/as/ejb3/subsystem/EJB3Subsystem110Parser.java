@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.parsing.ParseUtils.missingRequired;
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoContent;
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+
+/**
+ * Parser for ejb3:11.0 namespace.
+ */
+public class EJB3Subsystem110Parser extends EJB3Subsystem100Parser {
+
+    @Override
+    protected EJB3SubsystemNamespace getExpectedNamespace() {
+        return EJB3SubsystemNamespace.EJB3_11_0;
+    }
+
+    @Override
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        // no attributes expected
+        requireNoAttributes(reader);
+
+        while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
+                case STRICT_MAX_POOL: {
+                    this.parseStrictMaxPool(reader, operations);
+                    break;
+                }
+                case POOL: {
+                    this.parsePool(reader, operations);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+    }
+
+    private void parsePool(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        String name = null;
+        ModelNode operation = Util.createAddOperation();
+        boolean sizeAttribute = false;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i))) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                case MIN_POOL_SIZE: {
+                    LifoPoolResourceDefinition.MIN_POOL_SIZE.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case MAX_POOL_SIZE: {
+                    if (sizeAttribute) {
+                        throw EjbLogger.ROOT_LOGGER.mutuallyExclusiveAttributes(reader.getLocation(), EJB3SubsystemModel.MAX_POOL_SIZE, EJB3SubsystemModel.DERIVE_SIZE);
+                    }
+                    sizeAttribute = true;
+                    StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case DERIVE_SIZE: {
+                    if (sizeAttribute) {
+                        throw EjbLogger.ROOT_LOGGER.mutuallyExclusiveAttributes(reader.getLocation(), EJB3SubsystemModel.MAX_POOL_SIZE, EJB3SubsystemModel.DERIVE_SIZE);
+                    }
+                    sizeAttribute = true;
+                    StrictMaxPoolResourceDefinition.DERIVE_SIZE.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case INSTANCE_ACQUISITION_TIMEOUT: {
+                    StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case INSTANCE_ACQUISITION_TIMEOUT_UNIT: {
+                    StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                default: {
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+        requireNoContent(reader);
+        if (name == null) {
+            throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
+        }
+        // create /subsystem=ejb3/pool=name:add(...)
+        final PathAddress address = this.getEJB3SubsystemAddress().append(EJB3SubsystemModel.POOL, name);
+        operation.get(OP_ADDR).set(address.toModelNode());
+        operations.add(operation);
+    }
+
+    @Override
+    protected void parseSimpleCache(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        String name = null;
+        ModelNode operation = Util.createAddOperation();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            switch (EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i))) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                case MAX_SIZE: {
+                    AttributeDefinition definition = SimpleStatefulSessionBeanCacheProviderResourceDefinition.Attribute.MAX_SIZE.getDefinition();
+                    definition.getParser().parseAndSetParameter(definition, value, operation, reader);
+                    break;
+                }
+                default: {
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+        requireNoContent(reader);
+        if (name == null) {
+            throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
+        }
+        // create /subsystem=ejb3/simple-cache=name:add(...)
+        final PathAddress address = this.getEJB3SubsystemAddress().append(EJB3SubsystemModel.SIMPLE_CACHE, name);
+        operation.get(OP_ADDR).set(address.toModelNode());
+        operations.add(operation);
+    }
+
+    @Override
+    protected void parseDataStores(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
+                case FILE_DATA_STORE: {
+                    this.parseFileDataStore(reader, operations);
+                    break;
+                }
+                case JOURNAL_FILE_DATA_STORE: {
+                    this.parseJournalFileDataStore(reader, operations);
+                    break;
+                }
+                case DATABASE_DATA_STORE: {
+                    this.parseDatabaseDataStore(reader, operations);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+    }
+
+    private void parseJournalFileDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        String name = null;
+        ModelNode operation = Util.createAddOperation();
+        final EnumSet<EJB3SubsystemXMLAttribute> required = EnumSet.of(EJB3SubsystemXMLAttribute.NAME, EJB3SubsystemXMLAttribute.PATH);
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                case PATH: {
+                    JournalFileDataStoreResourceDefinition.PATH.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case RELATIVE_TO: {
+                    JournalFileDataStoreResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                case MAX_SEGMENT_SIZE: {
+                    JournalFileDataStoreResourceDefinition.MAX_SEGMENT_SIZE.parseAndSetParameter(value, operation, reader);
+                    break;
+                }
+                default: {
+                    throw unexpectedAttribute(reader, i);
+                }
+            }
+        }
+        requireNoContent(reader);
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        // create /subsystem=ejb3/service=timer-service/journal-file-data-store=name:add(...)
+        final PathAddress address = this.getEJB3SubsystemAddress().append(EJB3SubsystemModel.TIMER_SERVICE_PATH).append(EJB3SubsystemModel.JOURNAL_FILE_DATA_STORE, name);
+        operation.get(OP_ADDR).set(address.toModelNode());
+        operations.add(operation);
+    }
+}
@@ -411,7 +411,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         }
     }
 
-    private void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
         requireNoAttributes(reader);
 
@@ -199,7 +199,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         }
     }
 
-    private void parseFileDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+    protected void parseFileDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
         String name = null;
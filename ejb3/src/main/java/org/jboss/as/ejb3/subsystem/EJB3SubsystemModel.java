@@ -70,12 +70,16 @@ public interface EJB3SubsystemModel {
     String STATISTICS_ENABLED = "statistics-enabled";
 
     String FILE_DATA_STORE = "file-data-store";
+    String JOURNAL_FILE_DATA_STORE = "journal-file-data-store";
+    String MAX_SEGMENT_SIZE = "max-segment-size";
 
     String MAX_POOL_SIZE = "max-pool-size";
+    String MIN_POOL_SIZE = "min-pool-size";
     String DERIVE_SIZE = "derive-size";
     String DERIVED_SIZE = "derived-size";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String POOL = "pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -153,9 +157,11 @@ public interface EJB3SubsystemModel {
     PathElement THREAD_POOL_PATH = PathElement.pathElement(THREAD_POOL);
     PathElement IIOP_PATH = PathElement.pathElement(SERVICE, IIOP);
     PathElement FILE_DATA_STORE_PATH = PathElement.pathElement(FILE_DATA_STORE);
+    PathElement JOURNAL_FILE_DATA_STORE_PATH = PathElement.pathElement(JOURNAL_FILE_DATA_STORE);
     PathElement DATABASE_DATA_STORE_PATH = PathElement.pathElement(DATABASE_DATA_STORE);
     PathElement MDB_DELIVERY_GROUP_PATH = PathElement.pathElement(MDB_DELIVERY_GROUP);
     PathElement STRICT_MAX_BEAN_INSTANCE_POOL_PATH = PathElement.pathElement(STRICT_MAX_BEAN_INSTANCE_POOL);
+    PathElement POOL_PATH = PathElement.pathElement(POOL);
     PathElement REMOTING_PROFILE_PATH = PathElement.pathElement(REMOTING_PROFILE);
     PathElement SIMPLE_CACHE_PATH = PathElement.pathElement(SIMPLE_CACHE);
     PathElement DISTRIBUTABLE_CACHE_PATH = PathElement.pathElement(DISTRIBUTABLE_CACHE);
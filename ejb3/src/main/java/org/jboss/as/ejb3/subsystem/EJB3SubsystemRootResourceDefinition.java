@@ -407,6 +407,8 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
 
         // subsystem=ejb3/strict-max-bean-instance-pool=*
         subsystemRegistration.registerSubModel(new StrictMaxPoolResourceDefinition());
+        // subsystem=ejb3/pool=*
+        subsystemRegistration.registerSubModel(new LifoPoolResourceDefinition());
 
         // subsystem=ejb3/{cache=*, simple-cache=*, distributable-cache=*}
         subsystemRegistration.registerSubModel(new LegacyCacheFactoryResourceDefinition());
@@ -418,7 +420,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         subsystemRegistration.registerSubModel(new ClusterPassivationStoreResourceDefinition());
 
         // subsystem=ejb3/service=timerservice
-        subsystemRegistration.registerSubModel(new TimerServiceResourceDefinition(pathManager));
+        subsystemRegistration.registerSubModel(new TimerServiceResourceDefinition(pathManager, registerRuntimeOnly));
 
         // subsystem=ejb3/thread-pool=*
         subsystemRegistration.registerSubModel(EnhancedQueueExecutorResourceDefinition.create(
@@ -72,7 +72,9 @@ public enum EJB3SubsystemXMLAttribute {
     LOCAL_RECEIVER_PASS_BY_VALUE("local-receiver-pass-by-value"),
 
     MAX_POOL_SIZE("max-pool-size"),
+    MIN_POOL_SIZE("min-pool-size"),
     MAX_SIZE("max-size"),
+    MAX_SEGMENT_SIZE("max-segment-size"),
     DERIVE_SIZE("derive-size"),
     MAX_THREADS("max-threads"),
 
@@ -52,12 +52,14 @@ public enum EJB3SubsystemXMLElement {
     ENABLE_GRACEFUL_TXN_SHUTDOWN(EJB3SubsystemModel.ENABLE_GRACEFUL_TXN_SHUTDOWN),
 
     FILE_DATA_STORE("file-data-store"),
+    JOURNAL_FILE_DATA_STORE("journal-file-data-store"),
 
     IIOP("iiop"),
     IN_VM_REMOTE_INTERFACE_INVOCATION("in-vm-remote-interface-invocation"),
 
     MDB("mdb"),
 
+    POOL("pool"),
     POOLS("pools"),
 
     @Deprecated CACHE("cache"),
@@ -80,7 +80,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
     @Override
     public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
 
-        context.startSubsystemElement(EJB3SubsystemNamespace.EJB3_10_0.getUriString(), false);
+        context.startSubsystemElement(EJB3SubsystemNamespace.EJB3_11_0.getUriString(), false);
         writeElements(writer, context);
         // write the subsystem end element
         writer.writeEndElement();
@@ -149,7 +149,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeEndElement();
         }
         // write the pools element
-        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)) {
+        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL) || model.hasDefined(EJB3SubsystemModel.POOL)) {
             // <pools>
             writer.writeStartElement(EJB3SubsystemXMLElement.POOLS.getLocalName());
             // <bean-instance-pools>
@@ -504,6 +504,17 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeEndElement();
             }
         }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.POOL)) {
+            for (Property property : beanInstancePoolModelNode.get(EJB3SubsystemModel.POOL).asPropertyList()) {
+                // <pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.POOL.getLocalName());
+                // contents of pool, whose attributes are those of strict-max-pool, plus min-pool-size
+                this.writeStrictMaxPoolConfig(writer, property);
+                LifoPoolResourceDefinition.MIN_POOL_SIZE.marshallAsAttribute(property.getValue(), writer);
+                // </pool>
+                writer.writeEndElement();
+            }
+        }
     }
 
     private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final Property strictMaxPoolModel) throws XMLStreamException {
@@ -549,7 +560,9 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeStartElement(EJB3SubsystemXMLElement.SIMPLE_CACHE.getLocalName());
                 ModelNode simpleCache = property.getValue();
                 writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
-                // no attributes
+                for (Attribute attribute : EnumSet.allOf(SimpleStatefulSessionBeanCacheProviderResourceDefinition.Attribute.class)) {
+                    attribute.getDefinition().getMarshaller().marshallAsAttribute(attribute.getDefinition(), simpleCache, false, writer);
+                }
                 writer.writeEndElement();
             }
         }
@@ -648,6 +661,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
 
         writer.writeStartElement(EJB3SubsystemXMLElement.DATA_STORES.getLocalName());
         writeFileDataStores(writer, timerServiceModel);
+        writeJournalFileDataStores(writer, timerServiceModel);
         writeDatabaseDataStores(writer, timerServiceModel);
         writer.writeEndElement();
 
@@ -684,6 +698,21 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
         }
     }
 
+    private void writeJournalFileDataStores(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
+        if (timerServiceModel.hasDefined(EJB3SubsystemModel.JOURNAL_FILE_DATA_STORE)) {
+            List<Property> stores = timerServiceModel.get(EJB3SubsystemModel.JOURNAL_FILE_DATA_STORE).asPropertyList();
+            for (Property property : stores) {
+                writer.writeStartElement(EJB3SubsystemXMLElement.JOURNAL_FILE_DATA_STORE.getLocalName());
+                ModelNode store = property.getValue();
+                writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
+                JournalFileDataStoreResourceDefinition.PATH.marshallAsAttribute(store, writer);
+                JournalFileDataStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
+                JournalFileDataStoreResourceDefinition.MAX_SEGMENT_SIZE.marshallAsAttribute(store, writer);
+                writer.writeEndElement();
+            }
+        }
+    }
+
     private void writeChannelCreationOptions(final XMLExtendedStreamWriter writer, final ModelNode node) throws XMLStreamException {
         writer.writeStartElement(EJB3SubsystemXMLElement.CHANNEL_CREATION_OPTIONS.getLocalName());
         for (final Property optionPropertyModelNode : node.asPropertyList()) {
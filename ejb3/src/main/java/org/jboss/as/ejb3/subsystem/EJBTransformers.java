@@ -22,6 +22,7 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import static org.jboss.as.ejb3.subsystem.EJB3Model.VERSION_10_0_0;
 import static org.jboss.as.ejb3.subsystem.EJB3Model.VERSION_9_0_0;
 
 import org.jboss.as.controller.ModelVersion;
@@ -55,11 +56,27 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(currentModel);
 
         // register the transformations required for each legacy version after 9.0.0
-        registerTransformers_9_0_0(chainedBuilder.createBuilder(currentModel, VERSION_9_0_0.getVersion()));
+        registerTransformers_10_0_0(chainedBuilder.createBuilder(currentModel, VERSION_10_0_0.getVersion()));
+        registerTransformers_9_0_0(chainedBuilder.createBuilder(VERSION_10_0_0.getVersion(), VERSION_9_0_0.getVersion()));
 
         // create the chained builder which incorporates all transformations
         chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[] {
-                VERSION_9_0_0.getVersion() });
+                VERSION_10_0_0.getVersion(), VERSION_9_0_0.getVersion() });
+    }
+
+    /*
+     * Transformers for changes in model version 11.0.0
+     */
+    private static void registerTransformers_10_0_0(ResourceTransformationDescriptionBuilder subsystemBuilder) {
+        // Reject ejb3/pools/bean-instance-pools/pool element
+        subsystemBuilder.rejectChildResource(EJB3SubsystemModel.POOL_PATH);
+        // Reject ejb3/timer-service/data-stores/journal-file-data-store element
+        subsystemBuilder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH).rejectChildResource(EJB3SubsystemModel.JOURNAL_FILE_DATA_STORE_PATH);
+        // Reject ejb3/caches/simple-cache max-size attribute
+        subsystemBuilder.addChildResource(EJB3SubsystemModel.SIMPLE_CACHE_PATH).getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, SimpleStatefulSessionBeanCacheProviderResourceDefinition.Attribute.MAX_SIZE.getDefinition())
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SimpleStatefulSessionBeanCacheProviderResourceDefinition.Attribute.MAX_SIZE.getDefinition())
+                .end();
     }
 
     /*
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ServiceRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.component.pool.LifoPoolConfig;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * {@link org.jboss.as.controller.ResourceDefinition} for the pool resource, i.e. a strict max bean instance pool whose idle instances are held in thread-affine LIFO stripes.
+ * This resource shares its attributes and capability with the strict-max-bean-instance-pool resource, such that a bean instance pool reference may refer to either.
+ * If a min-pool-size is defined, the pool adapts its size to load, within the bounds of its min and max pool sizes.
+ */
+public class LifoPoolResourceDefinition extends SimpleResourceDefinition {
+
+    public static final SimpleAttributeDefinition MIN_POOL_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MIN_POOL_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    private static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { MIN_POOL_SIZE, StrictMaxPoolResourceDefinition.MAX_POOL_SIZE, StrictMaxPoolResourceDefinition.DERIVE_SIZE, StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT, StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT };
+    private static final AttributeDefinition[] STRICT_MAX_POOL_ATTRIBUTES = new AttributeDefinition[] { StrictMaxPoolResourceDefinition.MAX_POOL_SIZE, StrictMaxPoolResourceDefinition.DERIVE_SIZE, StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT, StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT };
+    private static final StrictMaxPoolAdd ADD_HANDLER = new StrictMaxPoolAdd(ATTRIBUTES) {
+        @Override
+        protected StrictMaxPoolConfig createPoolConfig(OperationContext context, ModelNode model, String poolName, int maxPoolSize, long timeout, TimeUnit unit) throws OperationFailedException {
+            int minPoolSize = MIN_POOL_SIZE.resolveModelAttribute(context, model).asInt(0);
+            return new LifoPoolConfig(poolName, minPoolSize, maxPoolSize, timeout, unit);
+        }
+    };
+
+    LifoPoolResourceDefinition() {
+        super(new Parameters(EJB3SubsystemModel.POOL_PATH, EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.POOL))
+                .setAddHandler(ADD_HANDLER)
+                .setRemoveHandler(new ServiceRemoveStepHandler(null, ADD_HANDLER))
+                .setAddRestartLevel(OperationEntry.Flag.RESTART_NONE)
+                .setRemoveRestartLevel(OperationEntry.Flag.RESTART_RESOURCE_SERVICES)
+                .setCapabilities(StrictMaxPoolResourceDefinition.STRICT_MAX_POOL_CONFIG_CAPABILITY));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration registration) {
+        registration.registerReadWriteAttribute(MIN_POOL_SIZE, null, new MinPoolSizeWriteHandler());
+        OperationStepHandler handler = new StrictMaxPoolWriteHandler(STRICT_MAX_POOL_ATTRIBUTES);
+        for (AttributeDefinition attribute : STRICT_MAX_POOL_ATTRIBUTES) {
+            registration.registerReadWriteAttribute(attribute, null, handler);
+        }
+        registration.registerReadOnlyAttribute(StrictMaxPoolResourceDefinition.DERIVED_SIZE, new StrictMaxPoolDerivedSizeReadHandler());
+    }
+
+    /**
+     * Applies the min-pool-size to the configuration of subsequently created pools.
+     */
+    private static class MinPoolSizeWriteHandler extends AbstractWriteAttributeHandler<Void> {
+
+        MinPoolSizeWriteHandler() {
+            super(MIN_POOL_SIZE);
+        }
+
+        @Override
+        protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+            apply(context, operation, resolvedValue);
+            return false;
+        }
+
+        @Override
+        protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Void handback) throws OperationFailedException {
+            apply(context, operation, MIN_POOL_SIZE.resolveValue(context, valueToRestore));
+        }
+
+        private static void apply(OperationContext context, ModelNode operation, ModelNode value) {
+            String poolName = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+            ServiceName name = context.getCapabilityServiceName(StrictMaxPoolResourceDefinition.STRICT_MAX_POOL_CONFIG_CAPABILITY_NAME, poolName, StrictMaxPoolConfigService.class);
+            ServiceController<?> controller = context.getServiceRegistry(true).getService(name);
+            if (controller != null) {
+                StrictMaxPoolConfigService service = (StrictMaxPoolConfigService) controller.getService();
+                if (service != null) {
+                    ((LifoPoolConfig) service.getValue()).setMinPoolSize(value.asInt(0));
+                }
+            }
+        }
+    }
+}
@@ -21,20 +21,46 @@
  */
 package org.jboss.as.ejb3.subsystem;
 
-import java.util.function.UnaryOperator;
-
+import org.jboss.as.clustering.controller.SimpleResourceDescriptorConfigurator;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.ParameterValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.ejb3.component.stateful.cache.simple.SimpleStatefulSessionBeanCacheProviderServiceConfigurator;
+import org.jboss.dmr.ModelType;
 
 /**
  * Defines a CacheFactoryBuilder instance which, during deployment, is used to configure, build and install a CacheFactory for the SFSB being deployed.
- * The CacheFactory resource instances defined here produce bean caches which are non distributed and do not have passivation-enabled.
+ * The CacheFactory resource instances defined here produce bean caches which are non distributed.
+ * If a max-size is defined, idle bean instances in excess of this size are passivated to local storage.
  *
  * @author Paul Ferraro
  * @author Richard Achmatowicz
  */
 public class SimpleStatefulSessionBeanCacheProviderResourceDefinition extends StatefulSessionBeanCacheProviderResourceDefinition {
 
+    public enum Attribute implements org.jboss.as.clustering.controller.Attribute {
+        MAX_SIZE(EJB3SubsystemModel.MAX_SIZE, ModelType.INT, new IntRangeValidator(1, Integer.MAX_VALUE, true, true)),
+        ;
+        private final AttributeDefinition definition;
+
+        Attribute(String name, ModelType type, ParameterValidator validator) {
+            this.definition = new SimpleAttributeDefinitionBuilder(name, type)
+                    .setAllowExpression(true)
+                    .setRequired(false)
+                    .setValidator(validator)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .build();
+        }
+
+        @Override
+        public AttributeDefinition getDefinition() {
+            return this.definition;
+        }
+    }
+
     public SimpleStatefulSessionBeanCacheProviderResourceDefinition() {
-        super(EJB3SubsystemModel.SIMPLE_CACHE_PATH, UnaryOperator.identity(), SimpleStatefulSessionBeanCacheProviderServiceConfigurator::new);
+        super(EJB3SubsystemModel.SIMPLE_CACHE_PATH, new SimpleResourceDescriptorConfigurator<>(Attribute.class), SimpleStatefulSessionBeanCacheProviderServiceConfigurator::new);
     }
 }
@@ -70,8 +70,15 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         if (context.hasOptionalCapability(IO_MAX_THREADS_RUNTIME_CAPABILITY_NAME, null, null)) {
             maxThreadsSupplier = sb.requiresCapability(IO_MAX_THREADS_RUNTIME_CAPABILITY_NAME, Integer.class);
         }
-        final StrictMaxPoolConfigService poolConfigService = new StrictMaxPoolConfigService(configConsumer, maxThreadsSupplier, poolName, maxPoolSize, derive, timeout, TimeUnit.valueOf(unit));
+        final StrictMaxPoolConfigService poolConfigService = new StrictMaxPoolConfigService(configConsumer, maxThreadsSupplier, this.createPoolConfig(context, strictMaxPoolModel, poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit)), derive);
         sb.setInstance(poolConfigService);
         sb.install();
     }
+
+    /**
+     * Creates the configuration of the pool installed by this handler.
+     */
+    protected StrictMaxPoolConfig createPoolConfig(OperationContext context, ModelNode model, String poolName, int maxPoolSize, long timeout, TimeUnit unit) throws OperationFailedException {
+        return new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, unit);
+    }
 }
@@ -24,9 +24,14 @@ package org.jboss.as.ejb3.subsystem;
 
 import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 
-import java.util.Timer;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
+import org.jboss.as.controller.CapabilityServiceBuilder;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingProcessor;
@@ -34,6 +39,9 @@ import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
 import org.jboss.as.ejb3.timerservice.TimerServiceMetaData;
+import org.jboss.as.ejb3.timerservice.scheduler.TimingWheelTimerScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.UtilTimerScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -42,6 +50,8 @@ import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Adds the timer service
@@ -50,6 +60,16 @@ import org.jboss.msc.service.StopContext;
  */
 public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
 
+    /**
+     * Selects the {@link TimerScheduler} implementation, i.e. "timer" (the default), for a single {@link java.util.Timer}, or "timing-wheel".
+     */
+    private static final String TIMER_SCHEDULER = "jboss.ejb.timer.scheduler";
+    /**
+     * The tick duration, in milliseconds, of the timing wheel scheduler.
+     */
+    private static final String TIMER_SCHEDULER_TICK = "jboss.ejb.timer.scheduler.tick";
+    private static final long DEFAULT_TIMER_SCHEDULER_TICK = 10;
+
     public static final TimerServiceAdd INSTANCE = new TimerServiceAdd();
 
     private TimerServiceAdd() {
@@ -79,28 +99,56 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         }, OperationContext.Stage.RUNTIME);
 
         if (threadPoolName != null) {
-            context.getCapabilityServiceTarget().addCapability(TimerServiceResourceDefinition.TIMER_SERVICE_CAPABILITY).setInstance(new TimerValueService()).install();
+            final CapabilityServiceBuilder<?> builder = context.getCapabilityServiceTarget().addCapability(TimerServiceResourceDefinition.TIMER_SERVICE_CAPABILITY);
+            final Consumer<TimerScheduler> scheduler = builder.provides(TimerServiceResourceDefinition.TIMER_SERVICE_CAPABILITY);
+            final Supplier<ExecutorService> executor = builder.requiresCapability(TimerServiceResourceDefinition.THREAD_POOL_CAPABILITY_NAME, ExecutorService.class, threadPoolName);
+            builder.setInstance(new TimerSchedulerService(scheduler, executor)).install();
         }
     }
 
-    private static final class TimerValueService implements Service<Timer> {
+    private static final class TimerSchedulerService implements Service {
 
-        private Timer timer;
+        private final Consumer<TimerScheduler> schedulerConsumer;
+        private final Supplier<ExecutorService> executor;
+        private volatile TimerScheduler scheduler;
 
-        @Override
-        public synchronized void start(final StartContext context) throws StartException {
-            timer = new Timer();
+        TimerSchedulerService(final Consumer<TimerScheduler> schedulerConsumer, final Supplier<ExecutorService> executor) {
+            this.schedulerConsumer = schedulerConsumer;
+            this.executor = executor;
         }
 
         @Override
-        public synchronized void stop(final StopContext context) {
-            timer.cancel();
-            timer = null;
+        public void start(final StartContext context) throws StartException {
+            if ("timing-wheel".equals(WildFlySecurityManager.getPropertyPrivileged(TIMER_SCHEDULER, null))) {
+                final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("EJB timer scheduler"), Boolean.TRUE, null, "%G - %t", null, null);
+                this.scheduler = new TimingWheelTimerScheduler(Duration.ofMillis(resolveTick()), this.executor.get(), threadFactory);
+            } else {
+                this.scheduler = new UtilTimerScheduler();
+            }
+            this.schedulerConsumer.accept(this.scheduler);
+        }
+
+        private static long resolveTick() {
+            final String value = WildFlySecurityManager.getPropertyPrivileged(TIMER_SCHEDULER_TICK, null);
+            if (value != null) {
+                try {
+                    final long tick = Long.parseLong(value.trim());
+                    if (tick > 0) {
+                        return tick;
+                    }
+                } catch (NumberFormatException e) {
+                    // Fall through
+                }
+                ROOT_LOGGER.invalidSystemProperty(value, TIMER_SCHEDULER_TICK, DEFAULT_TIMER_SCHEDULER_TICK);
+            }
+            return DEFAULT_TIMER_SCHEDULER_TICK;
         }
 
         @Override
-        public synchronized Timer getValue() throws IllegalStateException, IllegalArgumentException {
-            return timer;
+        public void stop(final StopContext context) {
+            this.schedulerConsumer.accept(null);
+            this.scheduler.close();
+            this.scheduler = null;
         }
     }
 }
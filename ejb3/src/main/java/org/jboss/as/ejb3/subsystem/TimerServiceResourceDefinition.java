@@ -22,24 +22,31 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
 import org.jboss.as.threads.ThreadsServices;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.wildfly.clustering.ejb.timer.TimerServiceRequirement;
 
-import java.util.Timer;
 import java.util.concurrent.ExecutorService;
+import java.util.function.ToLongFunction;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the timer-service resource.
@@ -60,7 +67,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .build();
 
     public static final String TIMER_SERVICE_CAPABILITY_NAME = "org.wildfly.ejb3.timer-service";
-    public static final RuntimeCapability<Void> TIMER_SERVICE_CAPABILITY = RuntimeCapability.Builder.of(TIMER_SERVICE_CAPABILITY_NAME, Timer.class).build();
+    public static final RuntimeCapability<Void> TIMER_SERVICE_CAPABILITY = RuntimeCapability.Builder.of(TIMER_SERVICE_CAPABILITY_NAME, TimerScheduler.class).build();
 
     static final SimpleAttributeDefinition THREAD_POOL_NAME =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.THREAD_POOL_NAME, ModelType.STRING)
@@ -97,9 +104,21 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
 
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] { THREAD_POOL_NAME, DEFAULT_DATA_STORE, DEFAULT_PERSISTENT_TIMER_MANAGEMENT, DEFAULT_TRANSIENT_TIMER_MANAGEMENT };
 
+    static final SimpleAttributeDefinition SCHEDULE_LAG = new SimpleAttributeDefinitionBuilder("schedule-lag", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    static final SimpleAttributeDefinition QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder("queue-depth", ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
     private final PathManager pathManager;
+    private final boolean registerRuntimeOnly;
 
-    public TimerServiceResourceDefinition(final PathManager pathManager) {
+    public TimerServiceResourceDefinition(final PathManager pathManager, final boolean registerRuntimeOnly) {
         super(new SimpleResourceDefinition.Parameters(EJB3SubsystemModel.TIMER_SERVICE_PATH, EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.TIMER_SERVICE))
                 .setAddHandler(TimerServiceAdd.INSTANCE)
                 .setRemoveHandler(ReloadRequiredRemoveStepHandler.INSTANCE)
@@ -107,6 +126,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                 .setRemoveRestartLevel(OperationEntry.Flag.RESTART_ALL_SERVICES)
                 .setCapabilities(TIMER_SERVICE_CAPABILITY));
         this.pathManager = pathManager;
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -114,11 +134,34 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        if (this.registerRuntimeOnly) {
+            resourceRegistration.registerMetric(SCHEDULE_LAG, new TimerSchedulerMetricHandler(TimerScheduler::getScheduleLag));
+            resourceRegistration.registerMetric(QUEUE_DEPTH, new TimerSchedulerMetricHandler(TimerScheduler::getQueueDepth));
+        }
+    }
+
+    private static class TimerSchedulerMetricHandler extends AbstractRuntimeOnlyHandler {
+        private final ToLongFunction<TimerScheduler> metric;
+
+        TimerSchedulerMetricHandler(ToLongFunction<TimerScheduler> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            // The timer scheduler is only installed if the timer service defines a thread pool
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(context.getCapabilityServiceName(TIMER_SERVICE_CAPABILITY_NAME, TimerScheduler.class));
+            TimerScheduler scheduler = (controller != null) ? (TimerScheduler) controller.getValue() : null;
+            if (scheduler != null) {
+                context.getResult().set(this.metric.applyAsLong(scheduler));
+            }
+        }
     }
 
     @Override
     public void registerChildren(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerSubModel(new FileDataStoreResourceDefinition(pathManager));
+        resourceRegistration.registerSubModel(new JournalFileDataStoreResourceDefinition(pathManager));
         resourceRegistration.registerSubModel(new DatabaseDataStoreResourceDefinition());
     }
 
@@ -30,6 +30,7 @@ import static org.jboss.as.ejb3.subsystem.deployment.TimerResourceDefinition.SCH
 import static org.jboss.as.ejb3.subsystem.deployment.TimerResourceDefinition.TIME_REMAINING;
 
 import java.util.Map;
+import java.util.function.ToLongFunction;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ObjectListAttributeDefinition;
@@ -41,11 +42,14 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ejb3.bulkhead.Bulkhead;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
+import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponentInstance;
 import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanCache;
@@ -53,6 +57,7 @@ import org.jboss.as.ejb3.subsystem.EJB3Extension;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.ejb.client.SessionID;
+import org.wildfly.clustering.ee.SchedulerStatistics;
 
 /**
  * Base class for {@link org.jboss.as.controller.ResourceDefinition}s describing runtime {@link EJBComponent}s.
@@ -114,9 +119,18 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
             .build();
 
+    // Latency percentiles
+    private static final AttributeDefinition EXECUTION_TIME_P50 = createPercentileAttribute("execution-time-p50");
+    private static final AttributeDefinition EXECUTION_TIME_P99 = createPercentileAttribute("execution-time-p99");
+    private static final AttributeDefinition EXECUTION_TIME_P999 = createPercentileAttribute("execution-time-p999");
+    private static final AttributeDefinition WAIT_TIME_P50 = createPercentileAttribute("wait-time-p50");
+    private static final AttributeDefinition WAIT_TIME_P99 = createPercentileAttribute("wait-time-p99");
+    private static final AttributeDefinition WAIT_TIME_P999 = createPercentileAttribute("wait-time-p999");
+
     private static final AttributeDefinition METHODS = ObjectMapAttributeDefinition.Builder.of(
             "methods",
-            ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+            ObjectTypeAttributeDefinition.Builder.of("complex", EXECUTION_TIME, INVOCATIONS, WAIT_TIME,
+                    EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_P999, WAIT_TIME_P50, WAIT_TIME_P99, WAIT_TIME_P999)
             .build())
             .setRequired(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -149,6 +163,77 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition PASSIVATION_COUNT = new SimpleAttributeDefinitionBuilder("passivation-count", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition PASSIVATION_TIME = new SimpleAttributeDefinitionBuilder("passivation-time", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition ACTIVATION_COUNT = new SimpleAttributeDefinitionBuilder("activation-count", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition ACTIVATION_TIME = new SimpleAttributeDefinitionBuilder("activation-time", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_COUNT = new SimpleAttributeDefinitionBuilder("expiration-count", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_FAILURE_COUNT = new SimpleAttributeDefinitionBuilder("expiration-failure-count", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_BACKLOG = new SimpleAttributeDefinitionBuilder("expiration-backlog", ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_DRAIN_TIME = new SimpleAttributeDefinitionBuilder("expiration-drain-time", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    private static final AttributeDefinition EXPIRATION_DRAIN_THROUGHPUT = new SimpleAttributeDefinitionBuilder("expiration-drain-throughput", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setMeasurementUnit(MeasurementUnit.PER_SECOND)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    // Bulkhead attributes
+
+    private static final AttributeDefinition BULKHEAD_CONCURRENCY_LIMIT = new SimpleAttributeDefinitionBuilder("bulkhead-concurrency-limit", ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    private static final AttributeDefinition BULKHEAD_ACTIVE_INVOCATIONS = new SimpleAttributeDefinitionBuilder("bulkhead-active-invocations", ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    private static final AttributeDefinition BULKHEAD_QUEUED_INVOCATIONS = new SimpleAttributeDefinitionBuilder("bulkhead-queued-invocations", ModelType.INT)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+            .build();
+
+    private static final AttributeDefinition BULKHEAD_REJECTED_INVOCATIONS = new SimpleAttributeDefinitionBuilder("bulkhead-rejected-invocations", ModelType.LONG)
+            .setUndefinedMetricValue(ModelNode.ZERO)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC)
+            .build();
+
     // Pool attributes
 
     public static final SimpleAttributeDefinition POOL_AVAILABLE_COUNT = new SimpleAttributeDefinitionBuilder("pool-available-count", ModelType.INT, false)
@@ -164,6 +249,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_TARGET_SIZE = new SimpleAttributeDefinitionBuilder("pool-target-size", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_GROW_COUNT = new SimpleAttributeDefinitionBuilder("pool-grow-count", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
+    public static final SimpleAttributeDefinition POOL_SHRINK_COUNT = new SimpleAttributeDefinitionBuilder("pool-shrink-count", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.COUNTER_METRIC).build();
 
     static final ObjectTypeAttributeDefinition TIMER = new ObjectTypeAttributeDefinition.Builder("timer",
             TIME_REMAINING, NEXT_TIMEOUT, CALENDAR_TIMER, PERSISTENT, INFO, new ObjectTypeAttributeDefinition.Builder(SCHEDULE.getName(), SCHEDULE.getValueTypes()).setSuffix("schedule").build())
@@ -196,6 +287,10 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(BUSINESS_LOCAL, handler);
             resourceRegistration.registerReadOnlyAttribute(BUSINESS_REMOTE, handler);
             resourceRegistration.registerReadOnlyAttribute(ASYNC_METHODS, handler);
+            resourceRegistration.registerMetric(BULKHEAD_CONCURRENCY_LIMIT, new BulkheadMetricsHandler(Bulkhead::getConcurrencyLimit));
+            resourceRegistration.registerMetric(BULKHEAD_ACTIVE_INVOCATIONS, new BulkheadMetricsHandler(Bulkhead::getActiveCount));
+            resourceRegistration.registerMetric(BULKHEAD_QUEUED_INVOCATIONS, new BulkheadMetricsHandler(Bulkhead::getQueuedCount));
+            resourceRegistration.registerMetric(BULKHEAD_REJECTED_INVOCATIONS, new BulkheadMetricsHandler(Bulkhead::getRejectedCount));
         }
 
         if (componentType.hasTimer()) {
@@ -210,6 +305,9 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_TARGET_SIZE, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_GROW_COUNT, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_SHRINK_COUNT, handler);
         }
 
         if (componentType.equals(EJBComponentType.STATEFUL)) {
@@ -234,6 +332,15 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     context.getResult().set(cache.getActiveCount() + cache.getPassiveCount());
                 }
             });
+            resourceRegistration.registerMetric(PASSIVATION_COUNT, new CacheMetricsHandler(StatefulSessionBeanCache::getPassivationCount));
+            resourceRegistration.registerMetric(PASSIVATION_TIME, new CacheMetricsHandler(cache -> cache.getPassivationTime().toMillis()));
+            resourceRegistration.registerMetric(ACTIVATION_COUNT, new CacheMetricsHandler(StatefulSessionBeanCache::getActivationCount));
+            resourceRegistration.registerMetric(ACTIVATION_TIME, new CacheMetricsHandler(cache -> cache.getActivationTime().toMillis()));
+            resourceRegistration.registerMetric(EXPIRATION_COUNT, new ExpirationMetricsHandler(SchedulerStatistics::getExecutedCount));
+            resourceRegistration.registerMetric(EXPIRATION_FAILURE_COUNT, new ExpirationMetricsHandler(SchedulerStatistics::getFailedCount));
+            resourceRegistration.registerMetric(EXPIRATION_BACKLOG, new ExpirationMetricsHandler(SchedulerStatistics::getBacklog));
+            resourceRegistration.registerMetric(EXPIRATION_DRAIN_TIME, new ExpirationMetricsHandler(statistics -> statistics.getLastDrainDuration().toMillis()));
+            resourceRegistration.registerMetric(EXPIRATION_DRAIN_THROUGHPUT, new ExpirationMetricsHandler(statistics -> Math.round(statistics.getLastDrainThroughput())));
         }
 
         resourceRegistration.registerMetric(EXECUTION_TIME, new AbstractRuntimeMetricsHandler() {
@@ -260,6 +367,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        resourceRegistration.registerMetric(EXECUTION_TIME_P50, new InvocationMetricsHandler(metrics -> metrics.getExecutionTimePercentile(50d)));
+        resourceRegistration.registerMetric(EXECUTION_TIME_P99, new InvocationMetricsHandler(metrics -> metrics.getExecutionTimePercentile(99d)));
+        resourceRegistration.registerMetric(EXECUTION_TIME_P999, new InvocationMetricsHandler(metrics -> metrics.getExecutionTimePercentile(99.9d)));
+        resourceRegistration.registerMetric(WAIT_TIME_P50, new InvocationMetricsHandler(metrics -> metrics.getWaitTimePercentile(50d)));
+        resourceRegistration.registerMetric(WAIT_TIME_P99, new InvocationMetricsHandler(metrics -> metrics.getWaitTimePercentile(99d)));
+        resourceRegistration.registerMetric(WAIT_TIME_P999, new InvocationMetricsHandler(metrics -> metrics.getWaitTimePercentile(99.9d)));
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
@@ -270,6 +383,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     result.get("execution-time").set(values.getExecutionTime());
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    result.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimePercentile(50d));
+                    result.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimePercentile(99d));
+                    result.get(EXECUTION_TIME_P999.getName()).set(values.getExecutionTimePercentile(99.9d));
+                    result.get(WAIT_TIME_P50.getName()).set(values.getWaitTimePercentile(50d));
+                    result.get(WAIT_TIME_P99.getName()).set(values.getWaitTimePercentile(99d));
+                    result.get(WAIT_TIME_P999.getName()).set(values.getWaitTimePercentile(99.9d));
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
@@ -289,4 +408,66 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerSubModel(new TimerServiceResourceDefinition(handler));
         }
     }
+
+    private static AttributeDefinition createPercentileAttribute(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setUndefinedMetricValue(ModelNode.ZERO)
+                .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME, AttributeAccess.Flag.GAUGE_METRIC)
+                .build();
+    }
+
+    private static class InvocationMetricsHandler extends AbstractRuntimeMetricsHandler {
+        private final ToLongFunction<InvocationMetrics> metric;
+
+        InvocationMetricsHandler(ToLongFunction<InvocationMetrics> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+            context.getResult().set(this.metric.applyAsLong(component.getInvocationMetrics()));
+        }
+    }
+
+    private static class CacheMetricsHandler extends AbstractRuntimeMetricsHandler {
+        private final ToLongFunction<StatefulSessionBeanCache<SessionID, StatefulSessionComponentInstance>> metric;
+
+        CacheMetricsHandler(ToLongFunction<StatefulSessionBeanCache<SessionID, StatefulSessionComponentInstance>> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+            context.getResult().set(this.metric.applyAsLong(((StatefulSessionComponent) component).getCache()));
+        }
+    }
+
+    private static class ExpirationMetricsHandler extends AbstractRuntimeMetricsHandler {
+        private final ToLongFunction<SchedulerStatistics> metric;
+
+        ExpirationMetricsHandler(ToLongFunction<SchedulerStatistics> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+            SchedulerStatistics statistics = ((StatefulSessionComponent) component).getCache().getExpirationStatistics();
+            context.getResult().set((statistics != null) ? this.metric.applyAsLong(statistics) : 0L);
+        }
+    }
+
+    private static class BulkheadMetricsHandler extends AbstractRuntimeMetricsHandler {
+        private final ToLongFunction<Bulkhead> metric;
+
+        BulkheadMetricsHandler(ToLongFunction<Bulkhead> metric) {
+            this.metric = metric;
+        }
+
+        @Override
+        protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) {
+            Bulkhead bulkhead = ((SessionBeanComponent) component).getBulkhead();
+            context.getResult().set((bulkhead != null) ? this.metric.applyAsLong(bulkhead) : 0L);
+        }
+    }
 }
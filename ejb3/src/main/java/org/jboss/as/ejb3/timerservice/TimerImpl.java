@@ -29,6 +29,7 @@ import jakarta.ejb.ScheduleExpression;
 import jakarta.ejb.TimerHandle;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.timerservice.persistence.DeferredTimerInfo;
 import org.jboss.as.ejb3.timerservice.spi.ManagedTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 
@@ -215,6 +216,7 @@ public class TimerImpl implements ManagedTimer {
      * @return the timer info; if not available in-memory, retrieve it from persistence
      */
     public Serializable getTimerInfo() {
+        Serializable info = this.getCachedTimerInfo();
         if (info != Object.class) {
             return info;
         }
@@ -223,10 +225,16 @@ public class TimerImpl implements ManagedTimer {
 
     /**
      * Obtains the timer info cached in memory, without checking the persistent store.
+     * Cached timer info whose unmarshalling was deferred by the persistent store is unmarshalled on demand.
      *
      * @return the cached timer info
      */
     public Serializable getCachedTimerInfo() {
+        Serializable info = this.info;
+        if (info instanceof DeferredTimerInfo) {
+            info = ((DeferredTimerInfo) info).resolve();
+            this.info = info;
+        }
         return info;
     }
 
@@ -568,7 +576,8 @@ public class TimerImpl implements ManagedTimer {
         sb.append(" timerState=");
         sb.append(this.timerState);
         sb.append(" info=");
-        sb.append(this.info);
+        // Do not unmarshal deferred info just to describe this timer
+        sb.append((this.info instanceof DeferredTimerInfo) ? "<deferred>" : this.info);
         sb.append("]");
         return sb.toString();
    }
@@ -22,11 +22,11 @@
 
 package org.jboss.as.ejb3.timerservice;
 
-import java.util.Timer;
 import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ManagedTimerServiceConfiguration;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
 
 /**
  * @author Paul Ferraro
@@ -35,7 +35,7 @@ public interface TimerServiceConfiguration extends ManagedTimerServiceConfigurat
 
     ExecutorService getExecutor();
 
-    Timer getTimer();
+    TimerScheduler getTimerScheduler();
 
     TimerPersistence getTimerPersistence();
 }
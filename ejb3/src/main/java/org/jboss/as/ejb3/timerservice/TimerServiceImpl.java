@@ -38,6 +38,7 @@ import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 
@@ -62,6 +63,7 @@ import org.jboss.as.ejb3.timerservice.spi.ManagedTimer;
 import org.jboss.as.ejb3.timerservice.spi.ManagedTimerService;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.spi.TimerListener;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceRegistry;
 import org.jboss.invocation.InterceptorContext;
 import org.wildfly.extension.requestcontroller.ControlPoint;
@@ -87,9 +89,9 @@ public class TimerServiceImpl implements ManagedTimerService {
     private final ConcurrentMap<String, TimerImpl> timers = new ConcurrentHashMap<>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds each of the timer tasks that have been scheduled
      */
-    private final ConcurrentMap<String, java.util.TimerTask> scheduledTimerFutures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Task> scheduledTimerFutures = new ConcurrentHashMap<>();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -97,7 +99,9 @@ public class TimerServiceImpl implements ManagedTimerService {
     private final Object waitingOnTxCompletionKey = new Object();
 
     private final ExecutorService executor;
-    private final java.util.Timer timer;
+    // Executor to which timer tasks dispatch their work, which runs inline if the scheduler already runs them via our executor
+    private final Executor dispatcher;
+    private final TimerScheduler scheduler;
     private final TimedObjectInvoker invoker;
     private final TimerPersistence persistence;
     private final TimerServiceRegistry timerServiceRegistry;
@@ -117,7 +121,8 @@ public class TimerServiceImpl implements ManagedTimerService {
     public TimerServiceImpl(TimerServiceConfiguration configuration) {
         this.invoker = configuration.getInvoker();
         this.executor = configuration.getExecutor();
-        this.timer = configuration.getTimer();
+        this.scheduler = configuration.getTimerScheduler();
+        this.dispatcher = this.scheduler.isExecutedBy(this.executor) ? Runnable::run : this.executor;
         this.persistence = configuration.getTimerPersistence();
         this.timerServiceRegistry = configuration.getTimerServiceRegistry();
         this.timerListener = configuration.getTimerListener();
@@ -172,7 +177,7 @@ public class TimerServiceImpl implements ManagedTimerService {
         started = false;
         safeClose(listenerHandle);
         listenerHandle = null;
-        this.timer.purge(); //WFLY-3823
+        this.scheduler.purge(); //WFLY-3823
     }
 
     @Override
@@ -679,7 +684,7 @@ public class TimerServiceImpl implements ManagedTimerService {
             if (delay < 0) {
                 delay = 0;
             }
-            this.timer.scheduleAtFixedRate(task, delay, intervalDuration);
+            task.setScheduledTask(this.scheduler.scheduleAtFixedRate(task, delay, intervalDuration));
         } else {
             EJB3_TIMER_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
             // if in past, then trigger immediately; if overdue by 5 minutes, set next expiration to current time
@@ -689,12 +694,12 @@ public class TimerServiceImpl implements ManagedTimerService {
                 }
                 delay = 0;
             }
-            this.timer.schedule(task, delay);
+            task.setScheduledTask(this.scheduler.schedule(task, delay));
         }
     }
 
     /**
-     * Cancels any scheduled {@link java.util.concurrent.Future} corresponding to the passed <code>timer</code>
+     * Cancels any scheduled task corresponding to the passed <code>timer</code>
      *
      * @param timer the timer to cancel
      */
@@ -929,7 +934,7 @@ public class TimerServiceImpl implements ManagedTimerService {
         }
     }
 
-    private class TaskPostPersist extends java.util.TimerTask {
+    private class TaskPostPersist implements Runnable {
         private final TimerImpl timer;
         private long delta = 0;
         private long nextExpirationPristine = 0;
@@ -949,7 +954,7 @@ public class TimerServiceImpl implements ManagedTimerService {
 
         @Override
         public void run() {
-            executor.submit(this::persistTimer);
+            dispatcher.execute(this::persistTimer);
         }
 
         void persistTimer() {
@@ -971,7 +976,7 @@ public class TimerServiceImpl implements ManagedTimerService {
                     if (delta == 0L) {
                         delta = nextExpirationDelay / (1L + MAX_RETRY.longValue());
                     }
-                    TimerServiceImpl.this.timer.schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
+                    TimerServiceImpl.this.scheduler.schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
                 } else {
                     EJB3_TIMER_LOGGER.exceptionPersistPostTimerState(timer, e);
                 }
@@ -979,10 +984,12 @@ public class TimerServiceImpl implements ManagedTimerService {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask delegate;
         private final ControlPoint controlPoint;
+        private volatile TimerScheduler.ScheduledTask scheduledTask;
+        private volatile boolean canceled = false;
         /**
          * This is true if a task is queued up to be run by the request controller,
          * used to stop timer tasks banking up when the container is suspended.
@@ -998,7 +1005,7 @@ public class TimerServiceImpl implements ManagedTimerService {
         public void run() {
             if (executor != null) {
                 if (controlPoint == null) {
-                    executor.submit(delegate);
+                    dispatcher.execute(delegate);
                 } else if (!queued) {
                     queued = true;
                     controlPoint.queueTask(new Runnable() {
@@ -1014,10 +1021,19 @@ public class TimerServiceImpl implements ManagedTimerService {
             }
         }
 
-        @Override
+        void setScheduledTask(TimerScheduler.ScheduledTask scheduledTask) {
+            this.scheduledTask = scheduledTask;
+            // Handle cancellation prior to scheduling
+            if (this.canceled) {
+                scheduledTask.cancel();
+            }
+        }
+
         public boolean cancel() {
             delegate.cancel();
-            return super.cancel();
+            this.canceled = true;
+            TimerScheduler.ScheduledTask scheduledTask = this.scheduledTask;
+            return (scheduledTask != null) && scheduledTask.cancel();
         }
     }
 
@@ -51,13 +51,13 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -69,15 +69,20 @@ import jakarta.transaction.HeuristicMixedException;
 import jakarta.transaction.HeuristicRollbackException;
 import jakarta.transaction.NotSupportedException;
 import jakarta.transaction.RollbackException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
 import jakarta.transaction.SystemException;
+import jakarta.transaction.Transaction;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
 import org.jboss.as.ejb3.timerservice.TimerImpl;
 import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
 import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.DeferredTimerInfo;
 import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.marshalling.InputStreamByteInput;
@@ -109,7 +114,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private final Consumer<DatabaseTimerPersistence> dbConsumer;
     private final Supplier<ManagedReferenceFactory> dataSourceSupplier;
     private final Supplier<ModuleLoader> moduleLoaderSupplier;
-    private final Supplier<Timer> timerSupplier;
+    private final Supplier<TimerScheduler> timerSupplier;
+    /** Provides the active transaction of the current thread, if any */
+    private final Supplier<Transaction> transactionSupplier;
     private final Map<String, TimerChangeListener> changeListeners = Collections.synchronizedMap(new HashMap<String, TimerChangeListener>());
 
 
@@ -131,6 +138,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
     private RefreshTask refreshTask;
+    private TimerScheduler.ScheduledTask scheduledRefreshTask;
+    /** Flag whether the timer table provides the last modified column required for an incremental refresh */
+    private volatile boolean lastModifiedAvailable;
+    /** Flag whether the info column of the timer table is binary, rather than a Base64 encoded string */
+    private volatile boolean binaryInfo;
+    /** Timer writes deferred until the completion of their transaction */
+    private final Map<Transaction, TimerWriteBatch> writeBatches = new ConcurrentHashMap<>();
 
     /** database values */
     private static final String POSTGRES = "postgres";
@@ -149,6 +163,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
 
     /** Names for the different SQL commands stored in the properties*/
     private static final String CREATE_TABLE = "create-table";
+    private static final String CREATE_BINARY_TABLE = "create-binary-table";
     private static final String CREATE_TIMER = "create-timer";
     private static final String CREATE_AUTO_TIMER = "create-auto-timer";
     private static final String UPDATE_TIMER = "update-timer";
@@ -157,10 +172,17 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
     private static final String GET_TIMER_INFO = "get-timer-info";
+    private static final String ADD_LAST_MODIFIED = "add-last-modified";
+    private static final String LOAD_CHANGED_TIMERS = "load-changed-timers";
+    private static final String LOAD_TIMER_STATES = "load-timer-states";
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    /** The number of rows fetched per round trip while loading the timers of a timed object, whose info is unmarshalled on demand */
+    private static final int LOAD_FETCH_SIZE = 256;
     /** Pattern to pickout MSSQL */
     private static final Pattern MSSQL_PATTERN = Pattern.compile("(sqlserver|microsoft|mssql)");
+    /** Pattern to pickout the assignment of the last modified column of an update statement */
+    private static final Pattern LAST_MODIFIED_ASSIGNMENT = Pattern.compile(",\\s*LAST_MODIFIED\\s*=\\s*[^,\\s]+", Pattern.CASE_INSENSITIVE);
 
     /**
      * System property {@code jboss.ejb.timer.database.clearTimerInfoCacheBeyond}
@@ -184,15 +206,45 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     private final long clearTimerInfoCacheBeyond = TimeUnit.MINUTES.toMillis(Long.parseLong(
             WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.timer.database.clearTimerInfoCacheBeyond", "15")));
 
+    /**
+     * System property {@code jboss.ejb.timer.database.incrementalRefresh}
+     * to configure whether the periodic refresh loads only the timers changed since the previous refresh,
+     * in a single query across all timed objects of the partition.
+     * If disabled, all timers of each timed object are reloaded on every refresh.
+     * The default value is true.
+     */
+    private final boolean incrementalRefresh = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.timer.database.incrementalRefresh", "true"));
+
+    /**
+     * System property {@code jboss.ejb.timer.database.binaryInfo}
+     * to configure whether a new timer table is created using the create-binary-table statement,
+     * which stores the marshalled timer info in a binary column rather than as a Base64 encoded string.
+     * An existing timer table is used according to the type of its info column, regardless of this property.
+     * The default value is false.
+     */
+    private final boolean binaryInfoRequested = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.timer.database.binaryInfo", "false"));
+
     public DatabaseTimerPersistence(final Consumer<DatabaseTimerPersistence> dbConsumer,
                                     final Supplier<ManagedReferenceFactory> dataSourceSupplier,
                                     final Supplier<ModuleLoader> moduleLoaderSupplier,
-                                    final Supplier<Timer> timerSupplier,
+                                    final Supplier<TimerScheduler> timerSupplier,
                                     final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution) {
+        this(dbConsumer, dataSourceSupplier, moduleLoaderSupplier, timerSupplier, DatabaseTimerPersistence::activeTransaction, database, partition, nodeName, refreshInterval, allowExecution);
+    }
+
+    DatabaseTimerPersistence(final Consumer<DatabaseTimerPersistence> dbConsumer,
+                             final Supplier<ManagedReferenceFactory> dataSourceSupplier,
+                             final Supplier<ModuleLoader> moduleLoaderSupplier,
+                             final Supplier<TimerScheduler> timerSupplier,
+                             final Supplier<Transaction> transactionSupplier,
+                             final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution) {
         this.dbConsumer = dbConsumer;
         this.dataSourceSupplier = dataSourceSupplier;
         this.moduleLoaderSupplier = moduleLoaderSupplier;
         this.timerSupplier = timerSupplier;
+        this.transactionSupplier = transactionSupplier;
         this.database = database;
         this.partition = partition;
         this.nodeName = nodeName;
@@ -212,16 +264,20 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         investigateDialect();
         loadSqlProperties();
         checkDatabase();
+        checkLastModified();
         refreshTask = new RefreshTask();
         if (refreshInterval > 0) {
-            timerSupplier.get().schedule(refreshTask, refreshInterval, refreshInterval);
+            scheduledRefreshTask = timerSupplier.get().scheduleAtFixedRate(refreshTask, refreshInterval, refreshInterval);
         }
     }
 
     @Override
     public synchronized void stop(final StopContext context) {
         dbConsumer.accept(null);
-        refreshTask.cancel();
+        if (scheduledRefreshTask != null) {
+            scheduledRefreshTask.cancel();
+            scheduledRefreshTask = null;
+        }
         knownTimerIds.clear();
         managedReference.release();
         managedReference = null;
@@ -284,6 +340,11 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
                 iterator.remove();
             }
         }
+
+        final String createBinaryTable = sql.getProperty(CREATE_BINARY_TABLE);
+        if (binaryInfoRequested && createBinaryTable != null) {
+            sql.setProperty(CREATE_TABLE, createBinaryTable);
+        }
     }
 
     /**
@@ -371,6 +432,15 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         }
     }
 
+    /**
+     * Removes the assignment of the last modified column from the update-timer statement,
+     * so that timers can still be persisted to a table without this column.
+     */
+    private void adjustUpdateTimerStatement() {
+        final String updateQuery = sql.getProperty(UPDATE_TIMER);
+        sql.setProperty(UPDATE_TIMER, LAST_MODIFIED_ASSIGNMENT.matcher(updateQuery).replaceFirst(""));
+    }
+
     /**
      * Checks whether the database transaction configuration is appropriate
      * and create the timer table if necessary.
@@ -392,6 +462,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             preparedStatement.setString(2, "NON-EXISTENT");
             preparedStatement.setString(3, "NON-EXISTENT");
             resultSet = preparedStatement.executeQuery();
+            binaryInfo = isBinary(resultSet.getMetaData().getColumnType(8));
         } catch (SQLException e) {
             //the query failed, assume it is because the table does not exist
             if (connection != null) {
@@ -403,6 +474,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
                         statement.addBatch(sql);
                     }
                     statement.executeBatch();
+                    binaryInfo = binaryInfoRequested && sql.getProperty(CREATE_BINARY_TABLE) != null;
                 } catch (SQLException e1) {
                     EjbLogger.EJB3_TIMER_LOGGER.couldNotCreateTable(e1);
                 }
@@ -417,6 +489,68 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         }
     }
 
+    private static boolean isBinary(final int columnType) {
+        switch (columnType) {
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether the timer table provides the last modified column used by the incremental refresh,
+     * and adds this column if the table was created by a previous version.
+     */
+    private void checkLastModified() {
+        String loadChangedTimers = sql.getProperty(LOAD_CHANGED_TIMERS);
+        if (loadChangedTimers == null || sql.getProperty(LOAD_TIMER_STATES) == null) {
+            // customized timer-sql.properties without the statements required for an incremental refresh
+            lastModifiedAvailable = false;
+            return;
+        }
+        Connection connection = null;
+        Statement statement = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            preparedStatement = connection.prepareStatement(loadChangedTimers);
+            preparedStatement.setString(1, "NON-EXISTENT");
+            preparedStatement.setTimestamp(2, new Timestamp(0));
+            resultSet = preparedStatement.executeQuery();
+            lastModifiedAvailable = true;
+        } catch (SQLException e) {
+            //the query failed, assume it is because the table predates the last modified column
+            String addLastModified = sql.getProperty(ADD_LAST_MODIFIED);
+            if (connection != null && addLastModified != null) {
+                try {
+                    statement = connection.createStatement();
+                    for (final String alter : addLastModified.split(";")) {
+                        statement.addBatch(alter);
+                    }
+                    statement.executeBatch();
+                    lastModifiedAvailable = true;
+                } catch (SQLException e1) {
+                    EjbLogger.EJB3_TIMER_LOGGER.couldNotUpgradeTable(e1);
+                }
+            } else {
+                EjbLogger.EJB3_TIMER_LOGGER.couldNotUpgradeTable(e);
+            }
+        } finally {
+            if (!lastModifiedAvailable) {
+                adjustUpdateTimerStatement();
+            }
+            safeClose(resultSet);
+            safeClose(preparedStatement);
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
     /**
      * Loads a timer from database by its id and timed object id.
      *
@@ -426,6 +560,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
      * @return the timer loaded from database; null if nothing can be loaded
      */
     public TimerImpl loadTimer(final String timedObjectId, final String timerId, final TimerServiceImpl timerService) {
+        flushWrites();
         String loadTimer = sql.getProperty(LOAD_TIMER);
         Connection connection = null;
         PreparedStatement preparedStatement = null;
@@ -469,6 +604,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             return;
         }
 
+        final TimerWriteBatch batch = writeBatch();
+        if (batch != null) {
+            batch.insert(timerEntity);
+            return;
+        }
+
         String createTimer = sql.getProperty(CREATE_TIMER);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -481,7 +622,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             statementParameters(timerEntity, statement);
             statement.execute();
 
-            if (isClearTimerInfoCache(timerEntity)) {
+            if (isClearTimerInfoCache(timerEntity, timerEntity.getCachedTimerInfo())) {
                 timerEntity.setCachedTimerInfo(Object.class);
                 EjbLogger.EJB3_TIMER_LOGGER.debugf("Cleared timer info for timer: %s", timerEntity.getId());
             }
@@ -496,12 +637,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
+        final TimerWriteBatch batch = writeBatch();
+        if (batch != null) {
+            batch.update(timerEntity);
+            return;
+        }
         Connection connection = null;
         PreparedStatement statement = null;
         try {
             connection = dataSource.getConnection();
-            if (timerEntity.getState() == TimerState.CANCELED ||
-                    timerEntity.getState() == TimerState.EXPIRED) {
+            if (isRemoved(timerEntity)) {
                 String deleteTimer = sql.getProperty(DELETE_TIMER);
                 statement = connection.prepareStatement(deleteTimer);
                 statement.setString(1, timerEntity.getTimedObjectId());
@@ -517,15 +662,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
                 }
                 String updateTimer = sql.getProperty(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
+                updateStatementParameters(timerEntity, statement);
                 statement.execute();
             }
         } catch (SQLException e) {
@@ -536,6 +673,70 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         }
     }
 
+    private static boolean isRemoved(final TimerImpl timerEntity) {
+        return timerEntity.getState() == TimerState.CANCELED || timerEntity.getState() == TimerState.EXPIRED;
+    }
+
+    private void updateStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+    }
+
+    /**
+     * Returns the batch collecting the timer writes of the current transaction,
+     * registering it with the transaction if necessary.
+     *
+     * @return the write batch of the current transaction, or null if the writes should be executed immediately
+     */
+    private TimerWriteBatch writeBatch() {
+        final Transaction transaction = transactionSupplier.get();
+        if (transaction == null) {
+            return null;
+        }
+        TimerWriteBatch batch = writeBatches.get(transaction);
+        if (batch == null) {
+            batch = new TimerWriteBatch(transaction);
+            try {
+                transaction.registerSynchronization(batch);
+            } catch (RollbackException | SystemException | IllegalStateException e) {
+                return null;
+            }
+            writeBatches.put(transaction, batch);
+        }
+        return batch;
+    }
+
+    /**
+     * Flushes the timer writes pending for the current transaction, so that they are visible to subsequent queries.
+     */
+    private void flushWrites() {
+        final Transaction transaction = transactionSupplier.get();
+        final TimerWriteBatch batch = (transaction != null) ? writeBatches.get(transaction) : null;
+        if (batch != null) {
+            try {
+                batch.flush();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static Transaction activeTransaction() {
+        try {
+            final Transaction transaction = ContextTransactionManager.getInstance().getTransaction();
+            return (transaction != null && transaction.getStatus() == Status.STATUS_ACTIVE) ? transaction : null;
+        } catch (SystemException e) {
+            return null;
+        }
+    }
+
     @Override
     public boolean shouldRun(TimerImpl timer) {
         final ContextTransactionManager tm = ContextTransactionManager.getInstance();
@@ -611,6 +812,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             EjbLogger.EJB3_TIMER_LOGGER.timerNotDeployed(timedObjectId);
             return Collections.emptyList();
         }
+        flushWrites();
         String loadTimer = sql.getProperty(LOAD_ALL_TIMERS);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -618,6 +820,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         try {
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(loadTimer);
+            statement.setFetchSize(LOAD_FETCH_SIZE);
             statement.setString(1, timedObjectId);
             statement.setString(2, partition);
             resultSet = statement.executeQuery();
@@ -711,6 +914,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         boolean calendarTimer = resultSet.getBoolean(24);
         final String nodeName = resultSet.getString(25);
         boolean requiresReset = false;
+        boolean autoTimer = false;
 
         TimerImpl.Builder builder;
         if (calendarTimer) {
@@ -730,7 +934,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             scheduleExpression.timezone(resultSet.getString(19));
 
             cb.setScheduleExpression(scheduleExpression);
-            cb.setAutoTimer(resultSet.getBoolean(20));
+            autoTimer = resultSet.getBoolean(20);
+            cb.setAutoTimer(autoTimer);
 
             final String clazz = resultSet.getString(21);
             final String methodName = resultSet.getString(22);
@@ -756,12 +961,15 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         builder.setNextDate(resultSet.getTimestamp(5));
         builder.setPreviousRun(resultSet.getTimestamp(6));
 //        builder.setPrimaryKey(deSerialize(resultSet.getString(7)));
-        builder.setInfo((Serializable) deSerialize(resultSet.getString(8)));
+        final byte[] info = readInfo(resultSet, 8);
+        // the info of an auto timer is compared with its deployment descriptor on every deployment, so is not deferred
+        final Serializable cachedInfo = (info == null) ? null : autoTimer ? (Serializable) unmarshal(info) : new MarshalledTimerInfo(info, factory, configuration);
+        builder.setInfo(cachedInfo);
         builder.setTimerState(timerState != null ? timerState : TimerState.valueOf(resultSet.getString(9)));
         builder.setPersistent(true);
 
         TimerImpl ret =  builder.build(timerService);
-        if (isClearTimerInfoCache(ret)) {
+        if (isClearTimerInfoCache(ret, cachedInfo)) {
             ret.setCachedTimerInfo(Object.class);
             EjbLogger.EJB3_TIMER_LOGGER.debugf("Cleared timer info for timer: %s", timerId);
         }
@@ -782,8 +990,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         statement.setLong(4, timerEntity.getInterval());
         statement.setTimestamp(5, timestamp(timerEntity.getNextExpiration()));
         statement.setTimestamp(6, timestamp(timerEntity.getPreviousRun()));
-        statement.setString(7, null);
-        statement.setString(8, serialize(timerEntity.getTimerInfo()));
+        if (binaryInfo) {
+            statement.setBytes(7, null);
+        } else {
+            statement.setString(7, null);
+        }
+        setInfo(statement, 8, marshal(timerEntity.getTimerInfo()));
         statement.setString(9, timerEntity.getState().name());
 
         if (timerEntity instanceof CalendarTimer) {
@@ -832,7 +1044,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         String createTimer = sql.getProperty(CREATE_AUTO_TIMER);
         Connection connection = null;
         PreparedStatement statement = null;
-        final String timerInfoString = serialize(timer.getTimerInfo());
+        final byte[] timerInfo = marshal(timer.getTimerInfo());
         final Method timeoutMethod = timer.getTimeoutMethod();
         final String timeoutMethodClassName = timeoutMethod.getDeclaringClass().getName();
         final String timeoutMethodParam = timeoutMethod.getParameterCount() == 0 ? null : TIMER_PARAM_1;
@@ -847,7 +1059,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             statement.setString(1, timer.getId());
             statement.setString(2, timer.getTimedObjectId());
             statement.setTimestamp(3, timestamp(timer.getNextExpiration()));
-            statement.setString(4, timerInfoString);
+            setInfo(statement, 4, timerInfo);
             statement.setString(5, exp.getSecond());
             statement.setString(6, exp.getMinute());
             statement.setString(7, exp.getHour());
@@ -915,6 +1127,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
      * @return the timer info from database; null if {@code SQLException}
      */
     public Serializable getPersistedTimerInfo(final TimerImpl timer) {
+        flushWrites();
         String getTimerInfo = sql.getProperty(GET_TIMER_INFO);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -927,7 +1140,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
             statement.setString(2, timer.getId());
             resultSet = statement.executeQuery();
             if (resultSet.next()) {
-                result = (Serializable) deSerialize(resultSet.getString(1));
+                final byte[] info = readInfo(resultSet, 1);
+                result = (info != null) ? (Serializable) unmarshal(info) : null;
             }
         } catch (SQLException e) {
             EjbLogger.EJB3_TIMER_LOGGER.failedToRetrieveTimerInfo(timer, e);
@@ -942,13 +1156,13 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
     /**
      * Determines if the cached info in the timer should be cleared.
      * @param timer the timer to check
+     * @param info the cached info of the timer, which is not unmarshalled if deferred
      * @return true if the cached info in the timer should be cleared; otherwise false
      */
-    private boolean isClearTimerInfoCache(final TimerImpl timer) {
+    private boolean isClearTimerInfoCache(final TimerImpl timer, final Serializable info) {
         if (timer.isAutoTimer()) {
             return false;
         }
-        final Serializable info = timer.getCachedTimerInfo();
         if (info == null || info instanceof String || info instanceof Number
                 || info instanceof Enum || info instanceof java.util.Date
                 || info instanceof Character) {
@@ -965,7 +1179,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         return true;
     }
 
-    private String serialize(final Serializable serializable) {
+    private byte[] marshal(final Serializable serializable) {
         if (serializable == null) {
             return null;
         }
@@ -979,14 +1193,22 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return Base64.getEncoder().encodeToString(out.toByteArray());
+        return out.toByteArray();
     }
 
     public Object deSerialize(final String data) throws SQLException {
         if (data == null) {
             return null;
         }
-        InputStream in = new ByteArrayInputStream(Base64.getDecoder().decode(data));
+        return unmarshal(Base64.getDecoder().decode(data));
+    }
+
+    private Object unmarshal(final byte[] data) {
+        return unmarshal(factory, configuration, data);
+    }
+
+    private static Object unmarshal(final MarshallerFactory factory, final MarshallingConfiguration configuration, final byte[] data) {
+        InputStream in = new ByteArrayInputStream(data);
         try {
             final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
             unmarshaller.start(new InputStreamByteInput(in));
@@ -1000,6 +1222,26 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         }
     }
 
+    /**
+     * Sets the marshalled timer info as a statement parameter, either as is or Base64 encoded,
+     * depending on the type of the info column.
+     */
+    private void setInfo(final PreparedStatement statement, final int paramIndex, final byte[] info) throws SQLException {
+        if (binaryInfo) {
+            statement.setBytes(paramIndex, info);
+        } else {
+            statement.setString(paramIndex, (info != null) ? Base64.getEncoder().encodeToString(info) : null);
+        }
+    }
+
+    private byte[] readInfo(final ResultSet resultSet, final int columnIndex) throws SQLException {
+        if (binaryInfo) {
+            return resultSet.getBytes(columnIndex);
+        }
+        final String data = resultSet.getString(columnIndex);
+        return (data != null) ? Base64.getDecoder().decode(data) : null;
+    }
+
     private String schedulerDateAsString(final Date date) {
         if (date == null) {
             return null;
@@ -1046,103 +1288,404 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service {
         }
     }
 
-    private class RefreshTask extends TimerTask {
+    private class RefreshTask implements Runnable {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
+        /** The most recent modification time of the timers loaded by the previous incremental refresh */
+        private Timestamp watermark = new Timestamp(0);
 
         @Override
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
+                    if (incrementalRefresh && lastModifiedAvailable) {
+                        refreshChangedTimers();
+                    } else {
+                        refreshAllTimers();
+                    }
+                } finally {
+                    running.set(false);
+                }
+            }
+
+        }
+
+        /**
+         * Reloads all timers of each timed object, and applies the differences to its listener.
+         */
+        private void refreshAllTimers() {
+            Set<String> timedObjects;
+            synchronized (DatabaseTimerPersistence.this) {
+                timedObjects = new HashSet<>(knownTimerIds.keySet());
+            }
+            for (String timedObjectId : timedObjects) {
+                TimerChangeListener listener = changeListeners.get(timedObjectId);
+                if (listener == null) {
+                    continue;
+                }
+                final Set<String> existing;
+                synchronized (DatabaseTimerPersistence.this) {
+                    existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+                }
+                String loadTimer = sql.getProperty(LOAD_ALL_TIMERS);
+                Connection connection = null;
+                PreparedStatement statement = null;
+                ResultSet resultSet = null;
+                try {
+                    connection = dataSource.getConnection();
+                    statement = connection.prepareStatement(loadTimer);
+                    statement.setString(1, timedObjectId);
+                    statement.setString(2, partition);
+                    resultSet = statement.executeQuery();
+                    final TimerServiceImpl timerService = listener.getTimerService();
+                    while (resultSet.next()) {
+                        String id = null;
+                        try {
+                            id = resultSet.getString(1);
+                            refreshTimer(resultSet, timedObjectId, id, existing.remove(id), listener, timerService);
+                        } catch (Exception e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), id, e);
+                        }
+                    }
+                    removeTimers(timedObjectId, existing, listener);
+                } catch (SQLException e) {
+                    EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
+                } finally {
+                    safeClose(resultSet);
+                    safeClose(statement);
+                    safeClose(connection);
+                }
+            }
+        }
+
+        /**
+         * Applies only the changes since the previous refresh, across all timed objects of this partition.
+         * Timers inserted or updated since the watermark are loaded by a single query.
+         * Removed timers, and timers whose in-memory state diverged from the database, are detected by a second query
+         * which selects only the id and state of each timer, and never its info.
+         */
+        private void refreshChangedTimers() {
+            final Map<String, TimerChangeListener> listeners = new HashMap<>();
+            final Map<String, Set<String>> existing = new HashMap<>();
+            synchronized (DatabaseTimerPersistence.this) {
+                for (Map.Entry<String, Set<String>> entry : knownTimerIds.entrySet()) {
+                    TimerChangeListener listener = changeListeners.get(entry.getKey());
+                    if (listener != null) {
+                        listeners.put(entry.getKey(), listener);
+                        existing.put(entry.getKey(), new HashSet<>(entry.getValue()));
+                    }
+                }
+            }
+            if (listeners.isEmpty()) {
+                return;
+            }
+            // ids of the timers already applied from the changed rows
+            final Set<String> refreshed = new HashSet<>();
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql.getProperty(LOAD_CHANGED_TIMERS));
+                statement.setString(1, partition);
+                statement.setTimestamp(2, watermark);
+                resultSet = statement.executeQuery();
+                Timestamp latest = watermark;
+                while (resultSet.next()) {
+                    final Timestamp lastModified = resultSet.getTimestamp(26);
+                    if (lastModified != null && lastModified.after(latest)) {
+                        latest = lastModified;
+                    }
+                    final String timedObjectId = resultSet.getString(2);
+                    final TimerChangeListener listener = listeners.get(timedObjectId);
+                    if (listener == null) {
+                        continue;
                     }
-                    for (String timedObjectId : timedObjects) {
-                        TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
+                    String id = null;
+                    try {
+                        id = resultSet.getString(1);
+                        refreshed.add(id);
+                        refreshTimer(resultSet, timedObjectId, id, existing.get(timedObjectId).contains(id), listener, listener.getTimerService());
+                    } catch (Exception e) {
+                        EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                    }
+                }
+                watermark = latest;
+                safeClose(resultSet);
+                safeClose(statement);
+
+                statement = connection.prepareStatement(sql.getProperty(LOAD_TIMER_STATES));
+                statement.setString(1, partition);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    final String timedObjectId = resultSet.getString(2);
+                    final Set<String> ids = existing.get(timedObjectId);
+                    if (ids == null) {
+                        continue;
+                    }
+                    String id = null;
+                    try {
+                        id = resultSet.getString(1);
+                        final boolean known = ids.remove(id);
+                        if (refreshed.contains(id)) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+                        final TimerChangeListener listener = listeners.get(timedObjectId);
+                        final TimerServiceImpl timerService = listener.getTimerService();
+                        if (known && !requiresSync(timerService.getTimer(id), TimerState.valueOf(resultSet.getString(3)))) {
+                            continue;
                         }
-                        String loadTimer = sql.getProperty(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
-                        try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            final TimerServiceImpl timerService = listener.getTimerService();
-                            while (resultSet.next()) {
-                                String id = null;
-                                try {
-                                    id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        final Holder holder = timerFromResult(resultSet, timerService, id, null);
-                                        if(holder != null) {
-                                            synchronized (DatabaseTimerPersistence.this) {
-                                                knownTimerIds.get(timedObjectId).add(id);
-                                                listener.timerAdded(holder.timer);
-                                            }
-                                        }
-                                    } else {
-                                        TimerImpl oldTimer = timerService.getTimer(id);
-                                        // if it is already in memory but it is not in sync we have a problem
-                                        // remove and add -> the probable cause is db glitch
-                                        boolean invalidMemoryTimer = oldTimer != null && !TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(oldTimer.getState());
-
-                                        // if timers memory - db are in non intersect subsets of valid/invalid states. we put them in sync
-                                        if (invalidMemoryTimer) {
-                                            TimerState dbTimerState = TimerState.valueOf(resultSet.getString(9));
-                                            boolean validDBTimer = TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(dbTimerState);
-                                            if (validDBTimer) {
-                                                final Holder holder = timerFromResult(resultSet, timerService, id, dbTimerState);
-                                                if (holder != null) {
-                                                    synchronized (DatabaseTimerPersistence.this) {
-                                                        knownTimerIds.get(timedObjectId).add(id);
-                                                        listener.timerSync(oldTimer, holder.timer);
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), id, e);
+                        // either not modified since the watermark, or committed after the changed rows were loaded
+                        try (PreparedStatement loadStatement = connection.prepareStatement(sql.getProperty(LOAD_TIMER))) {
+                            loadStatement.setString(1, timedObjectId);
+                            loadStatement.setString(2, id);
+                            loadStatement.setString(3, partition);
+                            try (ResultSet timerResult = loadStatement.executeQuery()) {
+                                if (timerResult.next()) {
+                                    refreshTimer(timerResult, timedObjectId, id, known, listener, timerService);
                                 }
                             }
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+                    }
+                }
+                for (Map.Entry<String, Set<String>> entry : existing.entrySet()) {
+                    removeTimers(entry.getKey(), entry.getValue(), listeners.get(entry.getKey()));
+                }
+            } catch (SQLException e) {
+                for (String timedObjectId : listeners.keySet()) {
+                    EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
+                }
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
 
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    TimerImpl timer1 = timerService.getTimer(timer);
-                                    if (timer1 != null && timer1.getState() != TimerState.CREATED) {
-                                        timers.remove(timer);
-                                        listener.timerRemoved(timer);
-                                    }
-                                }
-                            }
-                        } catch (SQLException e) {
-                            EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
-                        } finally {
-                            safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
+        /**
+         * Applies the timer of the current row of the {@code ResultSet} to the listener of its timed object.
+         * An unknown timer is added, while a known timer is only synchronized if its in-memory state is no longer valid,
+         * but its persistent state is.
+         */
+        private void refreshTimer(final ResultSet resultSet, final String timedObjectId, final String id, final boolean known,
+                                  final TimerChangeListener listener, final TimerServiceImpl timerService) throws SQLException {
+            if (!known) {
+                final Holder holder = timerFromResult(resultSet, timerService, id, null);
+                if(holder != null) {
+                    synchronized (DatabaseTimerPersistence.this) {
+                        knownTimerIds.get(timedObjectId).add(id);
+                        listener.timerAdded(holder.timer);
+                    }
+                }
+            } else {
+                TimerImpl oldTimer = timerService.getTimer(id);
+                // if it is already in memory but it is not in sync we have a problem
+                // remove and add -> the probable cause is db glitch
+                TimerState dbTimerState = TimerState.valueOf(resultSet.getString(9));
+                // if timers memory - db are in non intersect subsets of valid/invalid states. we put them in sync
+                if (requiresSync(oldTimer, dbTimerState)) {
+                    final Holder holder = timerFromResult(resultSet, timerService, id, dbTimerState);
+                    if (holder != null) {
+                        synchronized (DatabaseTimerPersistence.this) {
+                            knownTimerIds.get(timedObjectId).add(id);
+                            listener.timerSync(oldTimer, holder.timer);
                         }
                     }
-                } finally {
-                    running.set(false);
                 }
             }
+        }
 
+        private boolean requiresSync(final TimerImpl oldTimer, final TimerState dbTimerState) {
+            boolean invalidMemoryTimer = oldTimer != null && !TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(oldTimer.getState());
+            return invalidMemoryTimer && TimerState.CREATED_ACTIVE_IN_TIMEOUT_RETRY_TIMEOUT.contains(dbTimerState);
+        }
+
+        /**
+         * Removes the known timers which no longer exist in the database.
+         */
+        private void removeTimers(final String timedObjectId, final Set<String> removed, final TimerChangeListener listener) {
+            final TimerServiceImpl timerService = listener.getTimerService();
+            synchronized (DatabaseTimerPersistence.this) {
+                Set<String> timers = knownTimerIds.get(timedObjectId);
+                if (timers == null) {
+                    return;
+                }
+                for (String timer : removed) {
+                    TimerImpl timer1 = timerService.getTimer(timer);
+                    if (timer1 != null && timer1.getState() != TimerState.CREATED) {
+                        timers.remove(timer);
+                        listener.timerRemoved(timer);
+                    }
+                }
+            }
         }
     }
 
 
+    /**
+     * Marshalled timer info, along with the marshalling configuration with which it is unmarshalled on demand.
+     */
+    private static class MarshalledTimerInfo implements DeferredTimerInfo {
+        private static final long serialVersionUID = -3464398563487925358L;
+
+        private final byte[] data;
+        private final transient MarshallerFactory factory;
+        private final transient MarshallingConfiguration configuration;
+
+        MarshalledTimerInfo(byte[] data, MarshallerFactory factory, MarshallingConfiguration configuration) {
+            this.data = data;
+            this.factory = factory;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public Serializable resolve() {
+            return (Serializable) unmarshal(this.factory, this.configuration, this.data);
+        }
+
+        // Serialize the timer info itself, rather than this placeholder
+        private Object writeReplace() {
+            return this.resolve();
+        }
+    }
+
+    /**
+     * The timer writes of a transaction, which are executed as JDBC batches before the transaction completes.
+     * Repeated writes of the same timer within a transaction are coalesced, such that only its final state is written.
+     * The known timer ids are only updated once the transaction commits.
+     */
+    private class TimerWriteBatch implements Synchronization {
+        private final Transaction transaction;
+        private final Map<String, TimerImpl> inserts = new LinkedHashMap<>();
+        private final Map<String, TimerImpl> updates = new LinkedHashMap<>();
+        // Every timer written by this transaction, retained beyond any flush
+        private final Map<String, TimerImpl> written = new LinkedHashMap<>();
+
+        TimerWriteBatch(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        synchronized void insert(TimerImpl timer) {
+            this.updates.remove(timer.getId());
+            this.inserts.put(timer.getId(), timer);
+            this.written.put(timer.getId(), timer);
+        }
+
+        synchronized void update(TimerImpl timer) {
+            // a timer inserted by this batch is written with its final state anyway
+            if (!this.inserts.containsKey(timer.getId())) {
+                this.updates.put(timer.getId(), timer);
+            }
+            this.written.put(timer.getId(), timer);
+        }
+
+        synchronized void flush() throws SQLException {
+            if (this.inserts.isEmpty() && this.updates.isEmpty()) {
+                return;
+            }
+            final List<TimerImpl> inserted = new ArrayList<>(this.inserts.size());
+            Connection connection = null;
+            PreparedStatement insertStatement = null;
+            PreparedStatement updateStatement = null;
+            PreparedStatement deleteStatement = null;
+            try {
+                connection = dataSource.getConnection();
+                for (TimerImpl timer : this.inserts.values()) {
+                    // skip timers created and removed within the same transaction
+                    if (!isRemoved(timer)) {
+                        if (insertStatement == null) {
+                            insertStatement = connection.prepareStatement(sql.getProperty(CREATE_TIMER));
+                        }
+                        statementParameters(timer, insertStatement);
+                        insertStatement.addBatch();
+                        inserted.add(timer);
+                    }
+                }
+                for (TimerImpl timer : this.updates.values()) {
+                    if (isRemoved(timer)) {
+                        if (deleteStatement == null) {
+                            deleteStatement = connection.prepareStatement(sql.getProperty(DELETE_TIMER));
+                        }
+                        deleteStatement.setString(1, timer.getTimedObjectId());
+                        deleteStatement.setString(2, timer.getId());
+                        deleteStatement.setString(3, partition);
+                        deleteStatement.addBatch();
+                    } else {
+                        if (updateStatement == null) {
+                            updateStatement = connection.prepareStatement(sql.getProperty(UPDATE_TIMER));
+                        }
+                        updateStatementParameters(timer, updateStatement);
+                        updateStatement.addBatch();
+                    }
+                }
+                if (insertStatement != null) {
+                    insertStatement.executeBatch();
+                }
+                if (updateStatement != null) {
+                    updateStatement.executeBatch();
+                }
+                if (deleteStatement != null) {
+                    deleteStatement.executeBatch();
+                }
+                for (TimerImpl timer : inserted) {
+                    if (isClearTimerInfoCache(timer, timer.getCachedTimerInfo())) {
+                        timer.setCachedTimerInfo(Object.class);
+                        EjbLogger.EJB3_TIMER_LOGGER.debugf("Cleared timer info for timer: %s", timer.getId());
+                    }
+                }
+            } catch (SQLException e) {
+                for (TimerImpl timer : inserted) {
+                    timer.setCachedTimerInfo(null);
+                }
+                throw e;
+            } finally {
+                this.inserts.clear();
+                this.updates.clear();
+                safeClose(insertStatement);
+                safeClose(updateStatement);
+                safeClose(deleteStatement);
+                safeClose(connection);
+            }
+        }
+
+        @Override
+        public void beforeCompletion() {
+            writeBatches.remove(this.transaction);
+            try {
+                this.flush();
+            } catch (SQLException e) {
+                try {
+                    this.transaction.setRollbackOnly();
+                } catch (IllegalStateException | SystemException ex) {
+                    EjbLogger.EJB3_TIMER_LOGGER.timerUpdateFailedAndRollbackNotPossible(ex);
+                }
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public synchronized void afterCompletion(int status) {
+            writeBatches.remove(this.transaction);
+            if (status == Status.STATUS_COMMITTED) {
+                synchronized (DatabaseTimerPersistence.this) {
+                    for (TimerImpl timer : this.written.values()) {
+                        Set<String> ids = knownTimerIds.get(timer.getTimedObjectId());
+                        // timed object may have been undeployed in the meantime
+                        if (ids != null) {
+                            if (isRemoved(timer)) {
+                                ids.remove(timer.getId());
+                            } else {
+                                ids.add(timer.getId());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     static final class Holder {
         final TimerImpl timer;
         final boolean requiresReset;
@@ -0,0 +1,458 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+import static org.jboss.as.ejb3.timerservice.TimerServiceImpl.safeClose;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.jboss.staxmapper.XMLMapper;
+import org.wildfly.security.manager.WildFlySecurityManager;
+import org.wildfly.transaction.client.ContextTransactionManager;
+
+/**
+ * Persistent timer store backed by a {@link TimerJournal}.
+ * <p/>
+ * Unlike {@link FileTimerPersistence}, which rewrites and fsyncs one XML file per timer state transition and re-parses every file on each lookup,
+ * each state transition is appended to a shared log, and concurrent transitions share a single fsync.
+ * Timers previously persisted by {@link FileTimerPersistence} to the same directory are migrated into the journal when their timed object is first loaded.
+ * <p/>
+ * Transactional semantics are identical to those of {@link FileTimerPersistence}.
+ */
+public class JournalTimerPersistence implements TimerPersistence, Service {
+
+    private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private final Consumer<JournalTimerPersistence> consumer;
+    private final Supplier<TransactionSynchronizationRegistry> txnRegistrySupplier;
+    private final Supplier<ModuleLoader> moduleLoaderSupplier;
+    private final Supplier<PathManager> pathManagerSupplier;
+    private final String path;
+    private final String pathRelativeTo;
+    private final long maxSegmentSize;
+    private RiverMarshallerFactory factory;
+    private MarshallingConfiguration configuration;
+    private TimerRecordCodec codec;
+    private TimerJournal journal;
+    private File baseDir;
+    private PathManager.Callback.Handle callbackHandle;
+
+    private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<>();
+    private final Set<String> migrated = ConcurrentHashMap.newKeySet();
+
+    public JournalTimerPersistence(final Consumer<JournalTimerPersistence> consumer,
+                                   final Supplier<TransactionSynchronizationRegistry> txnRegistrySupplier,
+                                   final Supplier<ModuleLoader> moduleLoaderSupplier,
+                                   final Supplier<PathManager> pathManagerSupplier,
+                                   final String path, final String pathRelativeTo, final long maxSegmentSize) {
+        this.consumer = consumer;
+        this.txnRegistrySupplier = txnRegistrySupplier;
+        this.moduleLoaderSupplier = moduleLoaderSupplier;
+        this.pathManagerSupplier = pathManagerSupplier;
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(FILE_PERMISSION);
+        }
+        this.path = path;
+        this.pathRelativeTo = pathRelativeTo;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    @Override
+    public void start(final StartContext context) {
+        if (WildFlySecurityManager.isChecking()) {
+            WildFlySecurityManager.doUnchecked(new PrivilegedAction<Void>() {
+                public Void run() {
+                    doStart();
+                    return null;
+                }
+            });
+        } else {
+            doStart();
+        }
+        consumer.accept(this);
+    }
+
+    private void doStart() {
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoaderSupplier.get()));
+        configuration.setVersion(3);
+
+        this.configuration = configuration;
+        this.factory = new RiverMarshallerFactory();
+        this.codec = new TimerRecordCodec(this.factory, configuration);
+        if (pathRelativeTo != null) {
+            callbackHandle = pathManagerSupplier.get().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
+        }
+        baseDir = new File(pathManagerSupplier.get().resolveRelativePathEntry(path, pathRelativeTo));
+        if (!baseDir.exists() && !baseDir.mkdirs()) {
+            throw EJB3_TIMER_LOGGER.failToCreateTimerFileStoreDir(baseDir);
+        }
+        if (!baseDir.isDirectory()) {
+            throw EJB3_TIMER_LOGGER.invalidTimerFileStoreDir(baseDir);
+        }
+        try {
+            this.journal = TimerJournal.open(baseDir.toPath(), maxSegmentSize);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        consumer.accept(null);
+        locks.clear();
+        migrated.clear();
+        if (callbackHandle != null) {
+            callbackHandle.remove();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.failToCloseFile(e);
+        }
+        journal = null;
+        codec = null;
+        factory = null;
+        configuration = null;
+    }
+
+    @Override
+    public void addTimer(final TimerImpl timer) {
+        if (WildFlySecurityManager.isChecking()) {
+            WildFlySecurityManager.doUnchecked(new PrivilegedAction<Object>() {
+                @Override
+                public Object run() {
+                    persistTimer(timer, true);
+                    return null;
+                }
+            });
+        } else {
+            persistTimer(timer, true);
+        }
+    }
+
+    @Override
+    public void persistTimer(final TimerImpl timer) {
+        if (WildFlySecurityManager.isChecking()) {
+            WildFlySecurityManager.doUnchecked(new PrivilegedAction<Object>() {
+                @Override
+                public Object run() {
+                    persistTimer(timer, false);
+                    return null;
+                }
+            });
+        } else {
+            persistTimer(timer, false);
+        }
+    }
+
+    @Override
+    public boolean shouldRun(TimerImpl timer) {
+        return true;
+    }
+
+    private void persistTimer(final TimerImpl timer, boolean newTimer) {
+        final Lock lock = getLock(timer.getTimedObjectId());
+        try {
+            final int status = ContextTransactionManager.getInstance().getStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
+                    status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+
+            lock.lock();
+            if (status == Status.STATUS_NO_TRANSACTION ||
+                    status == Status.STATUS_UNKNOWN || isBeforeCompletion()
+                    || status == Status.STATUS_COMMITTED) {
+                writeTimer(timer, newTimer);
+            } else {
+                final String key = timerTransactionKey(timer);
+                Object existing = txnRegistrySupplier.get().getResource(key);
+                //check is there is already a persist sync for this timer
+                if (existing == null) {
+                    txnRegistrySupplier.get().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                }
+                //update the most recent version of the timer to be persisted
+                txnRegistrySupplier.get().putResource(key, timer);
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the current state of the timer to the journal. Should be called under lock.
+     */
+    private void writeTimer(final TimerImpl timer, final boolean newTimer) {
+        try {
+            if (timer.getState() == TimerState.CANCELED ||
+                    timer.getState() == TimerState.EXPIRED) {
+                journal.remove(timer.getTimedObjectId(), timer.getId());
+            } else if (newTimer || journal.contains(timer.getTimedObjectId(), timer.getId())) {
+                //if it is not a new timer and is not in the journal then it has
+                //been removed by another thread.
+                journal.put(timer.getTimedObjectId(), timer.getId(), codec.encode(timer));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String timerTransactionKey(final TimerImpl timer) {
+        return "org.jboss.as.ejb3.timerTransactionKey." + timer.getId();
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            locks.remove(timedObjectId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isBeforeCompletion() {
+        final CurrentSynchronizationCallback.CallbackType type = CurrentSynchronizationCallback.get();
+        if (type != null) {
+            return type == CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION;
+        }
+        return false;
+    }
+
+    @Override
+    public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            if (migrated.add(timedObjectId)) {
+                migrateTimers(timedObjectId, timerService);
+            }
+            final ClassLoader classLoader = timerService.getInvoker().getClassLoader();
+            final List<TimerImpl> entities = new ArrayList<>();
+            for (Map.Entry<String, byte[]> entry : journal.read(timedObjectId).entrySet()) {
+                final String timerId = entry.getKey();
+                try {
+                    final TimerImpl timer = codec.decode(timedObjectId, timerId, entry.getValue(), timerService, classLoader);
+                    if (timer != null) {
+                        entities.add(mostRecentEntityVersion(timer));
+                    } else {
+                        // Timeout method no longer exists
+                        EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, timerId, null);
+                        journal.remove(timedObjectId, timerId);
+                    }
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, timerId, e);
+                }
+            }
+            return entities;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Closeable registerChangeListener(String timedObjectId, TimerChangeListener listener) {
+        return new Closeable() {
+            @Override
+            public void close() throws IOException {
+            }
+        };
+    }
+
+    /**
+     * Returns either the loaded entity or the most recent version of the entity that has
+     * been persisted in this transaction.
+     */
+    private TimerImpl mostRecentEntityVersion(final TimerImpl timerImpl) {
+        try {
+            final int status = ContextTransactionManager.getInstance().getStatus();
+            if (status == Status.STATUS_UNKNOWN ||
+                    status == Status.STATUS_NO_TRANSACTION) {
+                return timerImpl;
+            }
+            final String key = timerTransactionKey(timerImpl);
+            TimerImpl existing = (TimerImpl) txnRegistrySupplier.get().getResource(key);
+            return existing != null ? existing : timerImpl;
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Lock getLock(final String timedObjectId) {
+        return locks.computeIfAbsent(timedObjectId, key -> new ReentrantLock());
+    }
+
+    /**
+     * Imports any timers persisted by {@link FileTimerPersistence} for the given timed object into the journal,
+     * and deletes the imported files. Should be called under lock.
+     *
+     * @param timedObjectId The timed object id
+     */
+    private void migrateTimers(final String timedObjectId, final TimerServiceImpl timerService) throws IOException {
+        final File directory = new File(baseDir, timedObjectId.replace(File.separator, "-"));
+        if (!directory.isDirectory()) {
+            return;
+        }
+        final List<TimerImpl> timers = new ArrayList<>(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory.getAbsolutePath(), factory, configuration).values());
+        final List<File> files = new ArrayList<>();
+        final XMLMapper mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(EjbTimerXmlParser_1_0.NAMESPACE, EjbTimerXmlPersister.TIMERS), new EjbTimerXmlParser_1_0(timerService, factory, configuration, timerService.getInvoker().getClassLoader()));
+        final File[] timerFiles = directory.listFiles();
+        for (File timerFile : (timerFiles != null) ? timerFiles : new File[0]) {
+            if (!timerFile.getName().endsWith(".xml")) {
+                continue;
+            }
+            FileInputStream in = null;
+            try {
+                in = new FileInputStream(timerFile);
+                setIfSupported(INPUT_FACTORY, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+                setIfSupported(INPUT_FACTORY, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+                final XMLStreamReader streamReader = INPUT_FACTORY.createXMLStreamReader(in);
+                final List<TimerImpl> timerList = new ArrayList<>();
+                mapper.parseDocument(timerList, streamReader);
+                for (TimerImpl timer : timerList) {
+                    if (!timer.getId().equals("deleted-timer")) {
+                        timers.add(timer);
+                    }
+                }
+                files.add(timerFile);
+            } catch (Exception e) {
+                // Leave file in place, so that it is not lost
+                EJB3_TIMER_LOGGER.failToRestoreTimersFromFile(timerFile, e);
+            } finally {
+                safeClose(in);
+            }
+        }
+        for (TimerImpl timer : timers) {
+            // Journal is authoritative for any timer it already contains
+            if (!journal.contains(timedObjectId, timer.getId())) {
+                journal.put(timedObjectId, timer.getId(), codec.encode(timer));
+            }
+        }
+        // Only remove files once their timers are durable in the journal
+        for (File file : files) {
+            if (!file.delete()) {
+                EJB3_TIMER_LOGGER.failToDeleteMigratedTimerFile(file);
+            }
+        }
+        final String[] remaining = directory.list();
+        if (remaining != null && remaining.length == 0) {
+            directory.delete();
+        }
+        if (!timers.isEmpty()) {
+            EJB3_TIMER_LOGGER.timerJournalMigrated(timers.size(), timedObjectId, directory);
+        }
+    }
+
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        private final String transactionKey;
+        private final Lock lock;
+        private final boolean newTimer;
+        private volatile TimerImpl timer;
+
+        PersistTransactionSynchronization(final Lock lock, final String transactionKey, final boolean newTimer) {
+            this.lock = lock;
+            this.transactionKey = transactionKey;
+            this.newTimer = newTimer;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            //get the latest version of the entity
+            timer = (TimerImpl) txnRegistrySupplier.get().getResource(transactionKey);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    if (timer == null) {
+                        return null;
+                    }
+                    try {
+                        lock.lock();
+                        if (status == Status.STATUS_COMMITTED) {
+                            writeTimer(timer, newTimer);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    private static void setIfSupported(final XMLInputFactory inputFactory, final String property, final Object value) {
+        if (inputFactory.isPropertySupported(property)) {
+            inputFactory.setProperty(property, value);
+        }
+    }
+}
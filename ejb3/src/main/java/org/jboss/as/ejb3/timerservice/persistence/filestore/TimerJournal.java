@@ -0,0 +1,600 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * Segmented, append-only log of timer state transitions.
+ * <p>
+ * Each record is framed as {@code [length][crc32][type][timed-object-id][timer-id][payload]}, where the checksum covers everything following it.
+ * On recovery, a record with an invalid checksum or length marks the end of its segment, i.e. a torn write, and the segment is truncated at that position.
+ * Once the active segment exceeds its maximum size, a new segment is started, and if the log contains more superseded than live records,
+ * all live records are copied into the new segment and all older segments are deleted.
+ * <p>
+ * Writers are made durable via group commit: a thread appending a record waits until the active segment is forced to disk,
+ * but a single force satisfies every record appended before it, so concurrent writers share the cost of an fsync.
+ * <p>
+ * Following compaction and on close, the location of every live record is checkpointed to an index file.
+ * This allows recovery to skip all records preceding the checkpoint, rather than re-reading the entire log.
+ */
+public class TimerJournal implements AutoCloseable {
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    static final String SEGMENT_PREFIX = "timers-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String INDEX_FILE_NAME = "timers.index";
+
+    // Record length + checksum
+    private static final int FRAME_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int INDEX_MAGIC = 0x454a4249;
+    private static final int INDEX_VERSION = 1;
+
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, Map<String, Location>> locations = new HashMap<>();
+    private final Object syncLock = new Object();
+    private final AtomicLong durable = new AtomicLong();
+    private Segment active;
+    private long appended = 0;
+    private long liveBytes = 0;
+    private long deadBytes = 0;
+
+    /**
+     * Opens the journal within the specified directory, recovering any existing records.
+     * @param directory the directory containing the journal segments
+     * @param maxSegmentSize the size, in bytes, beyond which a new segment is started
+     * @return an open journal
+     * @throws IOException if the journal could not be recovered
+     */
+    public static TimerJournal open(Path directory, long maxSegmentSize) throws IOException {
+        TimerJournal journal = new TimerJournal(directory, maxSegmentSize);
+        try {
+            journal.recover();
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+    }
+
+    private TimerJournal(Path directory, long maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Durably records the current state of the specified timer.
+     * @param timedObjectId a timed object identifier
+     * @param timerId a timer identifier
+     * @param payload the serialized timer
+     * @throws IOException if the record could not be written
+     */
+    public void put(String timedObjectId, String timerId, byte[] payload) throws IOException {
+        this.sync(this.append(PUT, timedObjectId, timerId, payload));
+    }
+
+    /**
+     * Durably records the removal of the specified timer.
+     * @param timedObjectId a timed object identifier
+     * @param timerId a timer identifier
+     * @throws IOException if the record could not be written
+     */
+    public void remove(String timedObjectId, String timerId) throws IOException {
+        long sequence;
+        synchronized (this) {
+            // Nothing to remove
+            if (!this.contains(timedObjectId, timerId)) return;
+            sequence = this.append(REMOVE, timedObjectId, timerId, new byte[0]);
+        }
+        this.sync(sequence);
+    }
+
+    /**
+     * Indicates whether the journal contains a live record for the specified timer.
+     * @param timedObjectId a timed object identifier
+     * @param timerId a timer identifier
+     * @return true, if a live record exists, false otherwise
+     */
+    public synchronized boolean contains(String timedObjectId, String timerId) {
+        Map<String, Location> timers = this.locations.get(timedObjectId);
+        return (timers != null) && timers.containsKey(timerId);
+    }
+
+    /**
+     * Reads the payloads of all live records for the specified timed object.
+     * @param timedObjectId a timed object identifier
+     * @return a map of payloads, keyed by timer identifier
+     * @throws IOException if the records could not be read
+     */
+    public synchronized Map<String, byte[]> read(String timedObjectId) throws IOException {
+        Map<String, Location> timers = this.locations.get(timedObjectId);
+        if (timers == null) return Collections.emptyMap();
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<String, Location> entry : timers.entrySet()) {
+            Record record = this.read(entry.getValue());
+            if (record == null) {
+                throw new IOException(String.format("Corrupt record for timer %s in %s", entry.getKey(), entry.getValue().segment.path));
+            }
+            result.put(entry.getKey(), record.payload);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes occupied by superseded records.
+     * @return a number of bytes
+     */
+    public synchronized long getDeadBytes() {
+        return this.deadBytes;
+    }
+
+    /**
+     * Returns the number of segments comprising this journal.
+     * @return a number of segments
+     */
+    public synchronized int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * Copies all live records into a new segment, and deletes all older segments.
+     * @throws IOException if compaction failed
+     */
+    public synchronized void compact() throws IOException {
+        this.roll();
+        Segment target = this.active;
+        for (Map<String, Location> timers : this.locations.values()) {
+            for (Map.Entry<String, Location> entry : timers.entrySet()) {
+                Location location = entry.getValue();
+                ByteBuffer frame = ByteBuffer.allocate(location.length);
+                readFully(location.segment.channel, frame, location.offset);
+                frame.flip();
+                entry.setValue(target.write(frame));
+            }
+        }
+        target.channel.force(false);
+        this.durable.accumulateAndGet(this.appended, Math::max);
+        for (Segment segment : new ArrayList<>(this.segments.headMap(target.id, false).values())) {
+            this.segments.remove(segment.id);
+            segment.delete();
+        }
+        this.deadBytes = 0;
+        this.checkpoint();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (this.active != null) {
+                this.active.channel.force(false);
+                this.durable.accumulateAndGet(this.appended, Math::max);
+                this.checkpoint();
+            }
+        } finally {
+            for (Segment segment : this.segments.values()) {
+                segment.close();
+            }
+            this.segments.clear();
+            this.locations.clear();
+            this.active = null;
+        }
+    }
+
+    private synchronized long append(byte type, String timedObjectId, String timerId, byte[] payload) throws IOException {
+        if (this.active == null) {
+            throw new ClosedChannelException();
+        }
+        if (this.active.size >= this.maxSegmentSize) {
+            if (this.deadBytes > this.liveBytes) {
+                this.compact();
+            } else {
+                this.roll();
+            }
+        }
+        Location location = this.active.write(encode(type, timedObjectId, timerId, payload));
+        this.apply(type, timedObjectId, timerId, location);
+        return ++this.appended;
+    }
+
+    /**
+     * Waits until the record with the specified sequence is durable.
+     * Whichever waiting thread acquires the sync lock first forces the active segment on behalf of all records appended so far.
+     */
+    private void sync(long sequence) throws IOException {
+        if (this.durable.get() >= sequence) return;
+        synchronized (this.syncLock) {
+            // Another thread may have forced our record while we waited for the lock
+            if (this.durable.get() >= sequence) return;
+            FileChannel channel;
+            long target;
+            synchronized (this) {
+                if (this.active == null) {
+                    throw new ClosedChannelException();
+                }
+                channel = this.active.channel;
+                target = this.appended;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Segment was forced before it was closed by compaction
+                if (this.durable.get() < sequence) {
+                    throw e;
+                }
+                return;
+            }
+            this.durable.accumulateAndGet(target, Math::max);
+        }
+    }
+
+    private void roll() throws IOException {
+        this.active.channel.force(false);
+        this.durable.accumulateAndGet(this.appended, Math::max);
+        this.active = this.createSegment(this.active.id + 1);
+    }
+
+    private void apply(byte type, String timedObjectId, String timerId, Location location) {
+        Map<String, Location> timers = this.locations.computeIfAbsent(timedObjectId, key -> new HashMap<>());
+        Location previous = (type == PUT) ? timers.put(timerId, location) : timers.remove(timerId);
+        if (timers.isEmpty()) {
+            this.locations.remove(timedObjectId);
+        }
+        if (previous != null) {
+            this.liveBytes -= previous.length;
+            this.deadBytes += previous.length;
+        }
+        if (type == PUT) {
+            this.liveBytes += location.length;
+        } else {
+            this.deadBytes += location.length;
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()), 16);
+                    this.segments.put(id, new Segment(id, path));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Checkpoint checkpoint = this.readCheckpoint();
+        if (checkpoint != null) {
+            // Replay only those records following the checkpoint
+            long total = 0;
+            for (Segment segment : this.segments.headMap(checkpoint.segment, true).values()) {
+                total += (segment.id == checkpoint.segment) ? checkpoint.position : segment.size;
+            }
+            this.deadBytes = total - this.liveBytes;
+            for (Segment segment : this.segments.tailMap(checkpoint.segment, true).values()) {
+                this.replay(segment, (segment.id == checkpoint.segment) ? checkpoint.position : 0);
+            }
+        } else {
+            this.locations.clear();
+            this.liveBytes = 0;
+            this.deadBytes = 0;
+            for (Segment segment : this.segments.values()) {
+                this.replay(segment, 0);
+            }
+        }
+        this.active = this.segments.isEmpty() ? this.createSegment(1) : this.segments.lastEntry().getValue();
+        if ((this.active.size >= this.maxSegmentSize) && (this.deadBytes > this.liveBytes)) {
+            this.compact();
+        }
+    }
+
+    private void replay(Segment segment, long start) throws IOException {
+        long position = start;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        while (position < segment.size) {
+            Location location = null;
+            header.clear();
+            if (readFully(segment.channel, header, position)) {
+                int length = header.getInt(0);
+                if ((length > 0) && (position + FRAME_HEADER_SIZE + length <= segment.size)) {
+                    location = new Location(segment, position, FRAME_HEADER_SIZE + length);
+                }
+            }
+            Record record = (location != null) ? this.read(location) : null;
+            if (record == null) {
+                EjbLogger.EJB3_TIMER_LOGGER.timerJournalRecordCorrupt(segment.path.toFile(), position);
+                segment.truncate(position);
+                return;
+            }
+            this.apply(record.type, record.timedObjectId, record.timerId, location);
+            position += location.length;
+        }
+    }
+
+    /**
+     * Reads and verifies the record at the specified location.
+     * @return the record, or null if the record is corrupt
+     */
+    private Record read(Location location) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(location.length);
+        if (!readFully(location.segment.channel, frame, location.offset)) return null;
+        frame.flip();
+        int length = frame.getInt();
+        int checksum = frame.getInt();
+        if (length != location.length - FRAME_HEADER_SIZE) return null;
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), FRAME_HEADER_SIZE, length);
+        if ((int) crc.getValue() != checksum) return null;
+        try {
+            byte type = frame.get();
+            if ((type != PUT) && (type != REMOVE)) return null;
+            String timedObjectId = readString(frame);
+            String timerId = readString(frame);
+            byte[] payload = new byte[frame.remaining()];
+            frame.get(payload);
+            return new Record(type, timedObjectId, timerId, payload);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = new Segment(id, this.directory.resolve(String.format("%s%016x%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+        this.segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Writes the location of every live record, along with the current end of the log, to the index file.
+     * The index is written to a temporary file first, so that a crash cannot leave a partially written index behind.
+     * Neither file is memory-mapped, since a mapped file cannot be replaced on some platforms until its mapping is garbage collected.
+     */
+    private void checkpoint() throws IOException {
+        int size = Integer.BYTES * 4 + Long.BYTES * 2;
+        int count = 0;
+        for (Map.Entry<String, Map<String, Location>> entry : this.locations.entrySet()) {
+            int timedObjectIdLength = entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+            for (String timerId : entry.getValue().keySet()) {
+                size += Long.BYTES * 2 + Integer.BYTES * 3 + timedObjectIdLength + timerId.getBytes(StandardCharsets.UTF_8).length;
+                count += 1;
+            }
+        }
+        Path index = this.directory.resolve(INDEX_FILE_NAME);
+        Path temp = this.directory.resolve(INDEX_FILE_NAME + ".tmp");
+        Files.deleteIfExists(temp);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(INDEX_MAGIC);
+        buffer.putInt(INDEX_VERSION);
+        buffer.putLong(this.active.id);
+        buffer.putLong(this.active.size);
+        buffer.putInt(count);
+        for (Map.Entry<String, Map<String, Location>> timers : this.locations.entrySet()) {
+            byte[] timedObjectId = timers.getKey().getBytes(StandardCharsets.UTF_8);
+            for (Map.Entry<String, Location> entry : timers.getValue().entrySet()) {
+                Location location = entry.getValue();
+                buffer.putLong(location.segment.id);
+                buffer.putLong(location.offset);
+                buffer.putInt(location.length);
+                buffer.putInt(timedObjectId.length);
+                buffer.put(timedObjectId);
+                byte[] timerId = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(timerId.length);
+                buffer.put(timerId);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores live record locations from the index file, if it exists and is consistent with the segments on disk.
+     * @return the checkpointed end of the log, or null if the index is absent or unusable
+     */
+    private Checkpoint readCheckpoint() throws IOException {
+        Path index = this.directory.resolve(INDEX_FILE_NAME);
+        if (!Files.isRegularFile(index)) return null;
+        if (this.segments.isEmpty()) {
+            // Index is stale, since it references segments that no longer exist
+            Files.delete(index);
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES * 4 + Long.BYTES * 2 || size > Integer.MAX_VALUE) return null;
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            if (!readFully(channel, buffer, 0)) return null;
+            buffer.flip();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, (int) size - Integer.BYTES);
+            if ((int) crc.getValue() != buffer.getInt((int) size - Integer.BYTES)) return null;
+            if (buffer.getInt() != INDEX_MAGIC || buffer.getInt() != INDEX_VERSION) return null;
+            Segment checkpointSegment = this.segments.get(buffer.getLong());
+            long position = buffer.getLong();
+            if (checkpointSegment == null || position > checkpointSegment.size) return null;
+            int count = buffer.getInt();
+            for (int i = 0; i < count; ++i) {
+                Segment segment = this.segments.get(buffer.getLong());
+                long offset = buffer.getLong();
+                int length = buffer.getInt();
+                String timedObjectId = readString(buffer);
+                String timerId = readString(buffer);
+                // Referenced segment was removed since the checkpoint
+                if (segment == null || offset + length > segment.size) return null;
+                this.locations.computeIfAbsent(timedObjectId, key -> new HashMap<>()).put(timerId, new Location(segment, offset, length));
+                this.liveBytes += length;
+            }
+            return new Checkpoint(checkpointSegment.id, position);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Ignoring invalid timer journal index %s", index);
+            return null;
+        }
+    }
+
+    private static ByteBuffer encode(byte type, String timedObjectId, String timerId, byte[] payload) {
+        byte[] timedObjectIdBytes = timedObjectId.getBytes(StandardCharsets.UTF_8);
+        byte[] timerIdBytes = timerId.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Integer.BYTES + timedObjectIdBytes.length + Integer.BYTES + timerIdBytes.length + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER_SIZE + length);
+        buffer.putInt(length);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putInt(timedObjectIdBytes.length);
+        buffer.put(timedObjectIdBytes);
+        buffer.putInt(timerIdBytes.length);
+        buffer.put(timerIdBytes);
+        buffer.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), FRAME_HEADER_SIZE, length);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) return false;
+            offset += read;
+        }
+        return true;
+    }
+
+    private static class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        long size;
+
+        Segment(long id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = this.channel.size();
+        }
+
+        Location write(ByteBuffer frame) throws IOException {
+            long offset = this.size;
+            int length = frame.remaining();
+            while (frame.hasRemaining()) {
+                this.size += this.channel.write(frame, this.size);
+            }
+            return new Location(this, offset, length);
+        }
+
+        void truncate(long position) throws IOException {
+            this.channel.truncate(position);
+            this.channel.force(false);
+            this.size = position;
+        }
+
+        void close() throws IOException {
+            this.channel.close();
+        }
+
+        void delete() throws IOException {
+            this.close();
+            Files.deleteIfExists(this.path);
+        }
+    }
+
+    private static class Location {
+        final Segment segment;
+        final long offset;
+        final int length;
+
+        Location(Segment segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Record {
+        final byte type;
+        final String timedObjectId;
+        final String timerId;
+        final byte[] payload;
+
+        Record(byte type, String timedObjectId, String timerId, byte[] payload) {
+            this.type = type;
+            this.timedObjectId = timedObjectId;
+            this.timerId = timerId;
+            this.payload = payload;
+        }
+    }
+
+    private static class Checkpoint {
+        final long segment;
+        final long position;
+
+        Checkpoint(long segment, long position) {
+            this.segment = segment;
+            this.position = position;
+        }
+    }
+}
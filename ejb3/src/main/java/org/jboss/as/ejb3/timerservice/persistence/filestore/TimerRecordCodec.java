@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import jakarta.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Binary encoding of a persistent timer, used as the payload of a {@link TimerJournal} record.
+ * Contains the same fields as written by {@link EjbTimerXmlPersister}, while the timer info is marshalled, but not base64 encoded.
+ */
+class TimerRecordCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte TIMER = 0;
+    private static final byte CALENDAR_TIMER = 1;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    TimerRecordCodec(MarshallerFactory factory, MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    byte[] encode(TimerImpl timer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeByte((timer instanceof CalendarTimer) ? CALENDAR_TIMER : TIMER);
+            writeDate(output, timer.getInitialExpiration());
+            writeDate(output, timer.getNextExpiration());
+            writeDate(output, timer.getPreviousRun());
+            output.writeUTF(timer.getState().name());
+            Serializable info = timer.getTimerInfo();
+            if (info != null) {
+                byte[] marshalled = this.marshal(info);
+                output.writeInt(marshalled.length);
+                output.write(marshalled);
+            } else {
+                output.writeInt(-1);
+            }
+            if (timer instanceof CalendarTimer) {
+                CalendarTimer calendarTimer = (CalendarTimer) timer;
+                ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+                output.writeUTF(schedule.getSecond());
+                output.writeUTF(schedule.getMinute());
+                output.writeUTF(schedule.getHour());
+                output.writeUTF(schedule.getDayOfWeek());
+                output.writeUTF(schedule.getDayOfMonth());
+                output.writeUTF(schedule.getMonth());
+                output.writeUTF(schedule.getYear());
+                writeDate(output, schedule.getStart());
+                writeDate(output, schedule.getEnd());
+                writeString(output, schedule.getTimezone());
+                output.writeBoolean(calendarTimer.isAutoTimer());
+                if (calendarTimer.isAutoTimer()) {
+                    Method method = calendarTimer.getTimeoutMethod();
+                    output.writeUTF(method.getDeclaringClass().getName());
+                    output.writeUTF(method.getName());
+                    Class<?>[] parameterTypes = method.getParameterTypes();
+                    output.writeByte(parameterTypes.length);
+                    for (Class<?> parameterType : parameterTypes) {
+                        output.writeUTF(parameterType.getName());
+                    }
+                }
+            } else {
+                output.writeLong(timer.getInterval());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a timer previously encoded via {@link #encode(TimerImpl)}.
+     * @return the decoded timer, or null if the timeout method of an auto timer no longer exists
+     */
+    TimerImpl decode(String timedObjectId, String timerId, byte[] payload, TimerServiceImpl timerService, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported timer record version %d", version));
+            }
+            boolean calendar = input.readByte() == CALENDAR_TIMER;
+            TimerImpl.Builder builder = calendar ? CalendarTimer.builder() : TimerImpl.builder();
+            builder.setTimedObjectId(timedObjectId);
+            builder.setId(timerId);
+            builder.setPersistent(true);
+            builder.setInitialDate(readDate(input));
+            builder.setNextDate(readDate(input));
+            builder.setPreviousRun(readDate(input));
+            builder.setTimerState(TimerState.valueOf(input.readUTF()));
+            int infoLength = input.readInt();
+            if (infoLength >= 0) {
+                byte[] marshalled = new byte[infoLength];
+                input.readFully(marshalled);
+                builder.setInfo((Serializable) this.unmarshal(marshalled));
+            }
+            if (!calendar) {
+                builder.setRepeatInterval(input.readLong());
+                return builder.build(timerService);
+            }
+            CalendarTimer.Builder calendarBuilder = (CalendarTimer.Builder) builder;
+            ScheduleExpression schedule = new ScheduleExpression()
+                    .second(input.readUTF())
+                    .minute(input.readUTF())
+                    .hour(input.readUTF())
+                    .dayOfWeek(input.readUTF())
+                    .dayOfMonth(input.readUTF())
+                    .month(input.readUTF())
+                    .year(input.readUTF());
+            Date start = readDate(input);
+            if (start != null) {
+                schedule.start(start);
+            }
+            Date end = readDate(input);
+            if (end != null) {
+                schedule.end(end);
+            }
+            String timezone = readString(input);
+            if (timezone != null) {
+                schedule.timezone(timezone);
+            }
+            calendarBuilder.setScheduleExpression(schedule);
+            boolean autoTimer = input.readBoolean();
+            calendarBuilder.setAutoTimer(autoTimer);
+            if (autoTimer) {
+                String declaringClass = input.readUTF();
+                String methodName = input.readUTF();
+                String[] parameterTypes = new String[input.readByte()];
+                for (int i = 0; i < parameterTypes.length; ++i) {
+                    parameterTypes[i] = input.readUTF();
+                }
+                Method timeoutMethod = CalendarTimer.getTimeoutMethod(new TimeoutMethod(declaringClass, methodName, parameterTypes), classLoader);
+                if (timeoutMethod == null) {
+                    return null;
+                }
+                calendarBuilder.setTimeoutMethod(timeoutMethod);
+            }
+            return calendarBuilder.build(timerService);
+        }
+    }
+
+    private byte[] marshal(Serializable info) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Marshaller marshaller = this.factory.createMarshaller(this.configuration)) {
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(info);
+            marshaller.finish();
+        }
+        return out.toByteArray();
+    }
+
+    private Object unmarshal(byte[] marshalled) throws IOException, ClassNotFoundException {
+        try (Unmarshaller unmarshaller = this.factory.createUnmarshaller(this.configuration)) {
+            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(marshalled)));
+            return unmarshaller.readObject();
+        }
+    }
+
+    private static void writeDate(DataOutputStream output, Date date) throws IOException {
+        output.writeBoolean(date != null);
+        if (date != null) {
+            output.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream input) throws IOException {
+        return input.readBoolean() ? new Date(input.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
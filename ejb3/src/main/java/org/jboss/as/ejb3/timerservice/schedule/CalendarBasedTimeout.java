@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.timerservice.schedule;
 
 import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
 
+import java.time.OffsetDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -39,6 +40,7 @@ import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
 import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * CalendarBasedTimeout
@@ -51,6 +53,12 @@ import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
 public class CalendarBasedTimeout {
     private static final TimeZone DEFAULT_TIMEZONE = TimeZone.getDefault();
 
+    /**
+     * Whether to compute timeouts using a {@link CompiledSchedule}, rather than by walking the fields of a {@link Calendar}.
+     */
+    private static final boolean COMPILED = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.ejb.timer.schedule.compiled", "true"));
+
     /**
      * The {@link jakarta.ejb.ScheduleExpression} from which this {@link CalendarBasedTimeout}
      * was created
@@ -106,6 +114,11 @@ public class CalendarBasedTimeout {
     private final Date start;
     private final Date end;
 
+    /**
+     * The compiled form of the schedule attributes, or null if timeouts are computed via {@link Calendar}
+     */
+    private final CompiledSchedule schedule;
+
     /**
      * Creates a {@link CalendarBasedTimeout} from the passed <code>schedule</code>.
      * <p>
@@ -147,6 +160,7 @@ public class CalendarBasedTimeout {
         this.timezone = timezone;
         this.start = start;
         this.end = end;
+        this.schedule = COMPILED ? new CompiledSchedule(second, minute, hour, dayOfMonth, month, dayOfWeek, year, timezone.toZoneId()) : null;
 
         // Now that we have parsed the values from the ScheduleExpression,
         // determine and set the first timeout (relative to the current time)
@@ -218,6 +232,41 @@ public class CalendarBasedTimeout {
     }
 
     private Calendar getNextTimeout(Calendar currentCal, boolean increment) {
+        if (this.schedule == null) {
+            return this.computeNextTimeout(currentCal, increment);
+        }
+        long current = currentCal.getTimeInMillis();
+        long time;
+        if (this.start != null && current < this.start.getTime()) {
+            // retain any millisecond component of the start time, see WFLY-6561
+            time = this.start.getTime();
+        } else {
+            time = increment ? current + 1000L : current;
+            time -= Math.floorMod(time, 1000L);
+        }
+        OffsetDateTime next = this.schedule.getNextMatch(time);
+        if (next == null || (this.end != null && next.toInstant().toEpochMilli() > this.end.getTime())) {
+            return null;
+        }
+        Calendar nextCal = (Calendar) currentCal.clone();
+        nextCal.setTimeZone(this.timezone);
+        nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
+        if (this.schedule.isValid(next)) {
+            nextCal.setTimeInMillis(next.toInstant().toEpochMilli());
+        } else {
+            // the local time was skipped at the start of summertime, so retain the preceding summertime offset, see WFLY-9537
+            nextCal.clear();
+            nextCal.set(next.getYear(), next.getMonthValue() - 1, next.getDayOfMonth(), next.getHour(), next.getMinute(), next.getSecond());
+            nextCal.set(Calendar.MILLISECOND, next.getNano() / 1000000);
+            nextCal.set(Calendar.DST_OFFSET, this.schedule.getDaylightSavings(next));
+        }
+        return nextCal;
+    }
+
+    /**
+     * Computes the next timeout by walking the fields of a {@link Calendar}.
+     */
+    Calendar computeNextTimeout(Calendar currentCal, boolean increment) {
         if (this.noMoreTimeouts(currentCal)) {
             return null;
         }
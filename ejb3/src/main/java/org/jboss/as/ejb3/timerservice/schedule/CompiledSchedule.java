@@ -0,0 +1,307 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.BitSet;
+
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.IntegerBasedExpression;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
+
+/**
+ * Compiled form of the attributes of a schedule expression, where each of second, minute, hour, day-of-month, month, and day-of-week
+ * is represented as a bit mask, and the year as a bit set.
+ * Unlike the {@link java.util.Calendar} based computation, the next matching time is computed on the primitive fields of a local date-time,
+ * consulting the rules of the time zone only to resolve offsets and their transitions.
+ */
+class CompiledSchedule {
+
+    private static final int DAYS_PER_WEEK = 7;
+    // Bits 0, 7, 14, 21, 28, i.e. every 7th day, starting from day 0
+    private static final long WEEKLY = 0x10204081L;
+    private static final long UNRESOLVED = -1L;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long daysOfWeek;
+    private final long months;
+    // Null if any year matches
+    private final BitSet years;
+    private final DayOfMonth dayOfMonth;
+    private final boolean relativeDaysOfMonth;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+    private final ZoneRules rules;
+
+    // Relative days of the most recently resolved month, encoded as (epoch month << 32) | days
+    private volatile long resolvedDaysOfMonth = UNRESOLVED;
+
+    CompiledSchedule(Second second, Minute minute, Hour hour, DayOfMonth dayOfMonth, Month month, DayOfWeek dayOfWeek, Year year, ZoneId zone) {
+        this.seconds = toMask(second);
+        this.minutes = toMask(minute);
+        this.hours = toMask(hour);
+        this.daysOfMonth = toMask(dayOfMonth);
+        // Sunday is represented by both 0 and 7
+        long daysOfWeek = toMask(dayOfWeek);
+        this.daysOfWeek = (daysOfWeek | (daysOfWeek >>> DAYS_PER_WEEK)) & ((1L << DAYS_PER_WEEK) - 1);
+        this.months = toMask(month);
+        this.years = (year.getType() == ScheduleExpressionType.WILDCARD) ? null : year.toBitSet();
+        this.dayOfMonth = dayOfMonth;
+        this.relativeDaysOfMonth = dayOfMonth.hasRelativeDayOfMonth();
+        this.anyDayOfMonth = dayOfMonth.getType() == ScheduleExpressionType.WILDCARD;
+        this.anyDayOfWeek = dayOfWeek.getType() == ScheduleExpressionType.WILDCARD;
+        this.rules = zone.getRules();
+    }
+
+    private static long toMask(IntegerBasedExpression expression) {
+        long[] words = expression.toBitSet().toLongArray();
+        return (words.length > 0) ? words[0] : 0;
+    }
+
+    /**
+     * Computes the earliest time, no earlier than the specified time, matching this schedule.
+     * The millisecond component of the specified time is retained.
+     * <p>
+     * Local date-times are compared within a period of constant offset.
+     * A local time skipped at the start of daylight saving time matches using the offset preceding the transition, see WFLY-9537.
+     * A local time repeated at the end of daylight saving time matches again only if the next match would otherwise fall later that same day,
+     * i.e. a schedule firing several times per hour continues throughout the repeated hour, while a daily schedule fires only once.
+     * </p>
+     *
+     * @param time a time, in milliseconds since the epoch
+     * @return the next matching time, or null if there is no such time up to {@link Year#MAX_YEAR}
+     */
+    OffsetDateTime getNextMatch(long time) {
+        int millis = (int) Math.floorMod(time, 1000L);
+        Instant instant = Instant.ofEpochMilli(time);
+        // Earliest local date-time to consider, if later than the local date-time of the current instant
+        LocalDateTime floor = null;
+        while (true) {
+            ZoneOffset offset = this.rules.getOffset(instant);
+            LocalDateTime current = LocalDateTime.ofEpochSecond(instant.getEpochSecond(), 0, offset);
+            if (floor != null && floor.isAfter(current)) {
+                current = floor;
+            }
+            OffsetDateTime skipped = this.rules.isFixedOffset() ? null : this.getNextSkippedMatch(instant);
+            LocalDateTime match = this.getNextMatch(current);
+            ZoneOffsetTransition transition = this.rules.isFixedOffset() ? null : this.rules.nextTransition(instant);
+            if (match == null || transition == null || match.toEpochSecond(offset) < transition.toEpochSecond()) {
+                OffsetDateTime result = (match != null) ? OffsetDateTime.of(match, offset) : null;
+                if (skipped != null && (result == null || skipped.isBefore(result))) {
+                    result = skipped;
+                }
+                return (result != null) ? result.plus(millis, ChronoUnit.MILLIS) : null;
+            }
+            if (skipped != null) {
+                return skipped.plus(millis, ChronoUnit.MILLIS);
+            }
+            // Match lies beyond the next transition, so resume search using the subsequent offset
+            floor = (transition.isOverlap() && !match.toLocalDate().equals(current.toLocalDate())) ? current : null;
+            instant = transition.getInstant().plusMillis(millis);
+        }
+    }
+
+    /**
+     * Computes the earliest local time skipped by a gap transition at or before the specified instant, matching this schedule,
+     * whose time using the offset preceding the transition is no earlier than the specified instant.
+     */
+    private OffsetDateTime getNextSkippedMatch(Instant instant) {
+        ZoneOffsetTransition transition = this.rules.previousTransition(instant.plusNanos(1));
+        if (transition == null || !transition.isGap()) {
+            return null;
+        }
+        LocalDateTime current = LocalDateTime.ofEpochSecond(instant.getEpochSecond(), 0, transition.getOffsetBefore());
+        if (!current.isBefore(transition.getDateTimeAfter())) {
+            return null;
+        }
+        LocalDateTime match = this.getNextMatch(current);
+        return (match != null && match.isBefore(transition.getDateTimeAfter())) ? OffsetDateTime.of(match, transition.getOffsetBefore()) : null;
+    }
+
+    /**
+     * Indicates whether the local date-time of the specified match exists, with its offset, in the time zone of this schedule.
+     * This is not the case for a local time skipped at the start of daylight saving time.
+     */
+    boolean isValid(OffsetDateTime match) {
+        return this.rules.isValidOffset(match.toLocalDateTime(), match.getOffset());
+    }
+
+    /**
+     * Returns the daylight saving amount, in milliseconds, of the specified match.
+     */
+    int getDaylightSavings(OffsetDateTime match) {
+        return (match.getOffset().getTotalSeconds() - this.rules.getStandardOffset(match.toInstant()).getTotalSeconds()) * 1000;
+    }
+
+    /**
+     * Computes the earliest local date-time, no earlier than the specified local date-time, matching this schedule.
+     */
+    private LocalDateTime getNextMatch(LocalDateTime current) {
+        int year = current.getYear();
+        int month = current.getMonthValue();
+        int day = current.getDayOfMonth();
+        int hour = current.getHour();
+        int minute = current.getMinute();
+        int second = current.getSecond();
+
+        while (year <= Year.MAX_YEAR) {
+            if (this.years != null && !this.years.get(year)) {
+                year = this.years.nextSetBit(year);
+                if (year < 0) {
+                    return null;
+                }
+                month = 1;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            int nextMonth = nextMatch(this.months, month);
+            if (nextMonth != month) {
+                if (nextMonth < 0) {
+                    year += 1;
+                    month = 1;
+                } else {
+                    month = nextMonth;
+                }
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            int nextDay = nextMatch(this.getDays(year, month), day);
+            if (nextDay != day) {
+                if (nextDay < 0) {
+                    month += 1;
+                    day = 1;
+                } else {
+                    day = nextDay;
+                }
+                hour = minute = second = 0;
+                continue;
+            }
+            int nextHour = nextMatch(this.hours, hour);
+            if (nextHour != hour) {
+                if (nextHour < 0) {
+                    day += 1;
+                    hour = 0;
+                } else {
+                    hour = nextHour;
+                }
+                minute = second = 0;
+                continue;
+            }
+            int nextMinute = nextMatch(this.minutes, minute);
+            if (nextMinute != minute) {
+                if (nextMinute < 0) {
+                    hour += 1;
+                    minute = 0;
+                } else {
+                    minute = nextMinute;
+                }
+                second = 0;
+                continue;
+            }
+            int nextSecond = nextMatch(this.seconds, second);
+            if (nextSecond != second) {
+                if (nextSecond < 0) {
+                    minute += 1;
+                    second = 0;
+                } else {
+                    second = nextSecond;
+                }
+                continue;
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the days of the specified month matching both the day-of-month and day-of-week attributes of this schedule.
+     * If neither attribute is a wildcard, a day need only match one of them.
+     */
+    private long getDays(int year, int month) {
+        int length = java.time.Month.of(month).length(java.time.Year.isLeap(year));
+        long days = (-1L >>> (63 - length)) & ~1L;
+        if (this.anyDayOfMonth && this.anyDayOfWeek) {
+            return days;
+        }
+        long matches = 0;
+        if (!this.anyDayOfMonth) {
+            matches |= this.daysOfMonth;
+            if (this.relativeDaysOfMonth) {
+                matches |= this.getRelativeDaysOfMonth(year, month);
+            }
+        }
+        if (!this.anyDayOfWeek) {
+            // Day-of-week of the first of the month, where 0 is Sunday
+            int first = LocalDate.of(year, month, 1).getDayOfWeek().getValue() % DAYS_PER_WEEK;
+            long daysOfWeek = this.daysOfWeek;
+            while (daysOfWeek != 0) {
+                int dayOfWeek = Long.numberOfTrailingZeros(daysOfWeek);
+                matches |= WEEKLY << (1 + Math.floorMod(dayOfWeek - first, DAYS_PER_WEEK));
+                daysOfWeek &= daysOfWeek - 1;
+            }
+        }
+        return matches & days;
+    }
+
+    private long getRelativeDaysOfMonth(int year, int month) {
+        long epochMonth = year * 12L + month;
+        long resolved = this.resolvedDaysOfMonth;
+        if ((resolved >>> 32) == epochMonth) {
+            return resolved & 0xFFFFFFFFL;
+        }
+        long days = this.dayOfMonth.getRelativeDaysOfMonth(YearMonth.of(year, month)) & 0xFFFFFFFFL;
+        this.resolvedDaysOfMonth = (epochMonth << 32) | days;
+        return days;
+    }
+
+    /**
+     * Returns the smallest value set in the specified mask that is greater than or equal to the specified value, or -1 if there is none.
+     */
+    private static int nextMatch(long mask, int value) {
+        if (value >= Long.SIZE) {
+            return -1;
+        }
+        long remaining = mask & (-1L << value);
+        return (remaining != 0) ? Long.numberOfTrailingZeros(remaining) : -1;
+    }
+}
@@ -21,6 +21,9 @@
  */
 package org.jboss.as.ejb3.timerservice.schedule.attribute;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Locale;
@@ -166,10 +169,44 @@ public class DayOfMonth extends IntegerBasedExpression {
         super.assertValid(value);
     }
 
-    private boolean hasRelativeDayOfMonth() {
+    public boolean hasRelativeDayOfMonth() {
         return !this.relativeValues.isEmpty();
     }
 
+    /**
+     * Resolves the relative values of this expression against the specified month.
+     *
+     * @param month a month
+     * @return a bit mask, in which bit <code>n</code> is set if the relative values match day <code>n</code> of the month
+     */
+    public long getRelativeDaysOfMonth(YearMonth month) {
+        long days = 0;
+        for (ScheduleValue relativeValue : this.relativeValues) {
+            if (relativeValue instanceof SingleValue) {
+                days |= 1L << this.getAbsoluteDayOfMonth(month, ((SingleValue) relativeValue).getValue());
+            } else if (relativeValue instanceof RangeValue) {
+                RangeValue range = (RangeValue) relativeValue;
+                String start = range.getStart();
+                String end = range.getEnd();
+                Integer dayOfMonthStart = this.isRelativeValue(start) ? Integer.valueOf(this.getAbsoluteDayOfMonth(month, start)) : this.parseInt(start);
+                Integer dayOfMonthEnd = this.isRelativeValue(end) ? Integer.valueOf(this.getAbsoluteDayOfMonth(month, end)) : this.parseInt(end);
+                this.assertValid(dayOfMonthStart);
+                this.assertValid(dayOfMonthEnd);
+                if (dayOfMonthStart > dayOfMonthEnd) {
+                    // "x-y" where x > y is equivalent to "x-max, min-y"
+                    days |= daysBetween(dayOfMonthStart, this.getMaxValue()) | daysBetween(1, dayOfMonthEnd);
+                } else {
+                    days |= daysBetween(dayOfMonthStart, dayOfMonthEnd);
+                }
+            }
+        }
+        return days;
+    }
+
+    private static long daysBetween(int start, int end) {
+        return (end < start) ? 0 : (-1L >>> (63 - end)) & (-1L << start);
+    }
+
     private SortedSet<Integer> getEligibleDaysOfMonth(Calendar cal) {
         if (!this.hasRelativeDayOfMonth()) {
             return this.absoluteValues;
@@ -281,6 +318,39 @@ public class DayOfMonth extends IntegerBasedExpression {
         throw EjbLogger.EJB3_TIMER_LOGGER.invalidScheduleValue(DayOfMonth.class.getSimpleName(), trimmedRelativeDayOfMonth);
     }
 
+    /**
+     * Gets the absolute day of the specified month.
+     * @param month the month
+     * @param trimmedRelativeDayOfMonth a non-null, trimmed, relative day of month
+     * @return the absolute day of month
+     */
+    private int getAbsoluteDayOfMonth(YearMonth month, String trimmedRelativeDayOfMonth) {
+        if (trimmedRelativeDayOfMonth.isEmpty()) {
+            throw EjbLogger.EJB3_TIMER_LOGGER.invalidScheduleValue(DayOfMonth.class.getSimpleName(), trimmedRelativeDayOfMonth);
+        }
+        trimmedRelativeDayOfMonth = trimmedRelativeDayOfMonth.toLowerCase(Locale.ROOT);
+        int lastDayOfMonth = month.lengthOfMonth();
+        if (trimmedRelativeDayOfMonth.equals("last")) {
+            return lastDayOfMonth;
+        }
+        if (this.isValidNegativeDayOfMonth(trimmedRelativeDayOfMonth)) {
+            return lastDayOfMonth + Integer.parseInt(trimmedRelativeDayOfMonth);
+        }
+        String[] parts = splitDayOfWeekBased(trimmedRelativeDayOfMonth);
+        if (parts != null) {
+            // DAY_OF_WEEK_ALIAS value is 0-based, starting with Sunday
+            int alias = DayOfWeek.DAY_OF_WEEK_ALIAS.get(parts[1]);
+            java.time.DayOfWeek dayOfWeek = java.time.DayOfWeek.of((alias == 0) ? 7 : alias);
+            if (parts[0].equals("last")) {
+                return month.atEndOfMonth().with(TemporalAdjusters.previousOrSame(dayOfWeek)).getDayOfMonth();
+            }
+            LocalDate date = month.atDay(1).with(TemporalAdjusters.dayOfWeekInMonth(ORDINAL_TO_WEEK_NUMBER_MAPPING.get(parts[0]), dayOfWeek));
+            // As per getAbsoluteDayOfMonth(Calendar, String), e.g. 5th Wed, which does not exist in every month, resolves to the last date of the month
+            return (date.getMonthValue() == month.getMonthValue()) ? date.getDayOfMonth() : lastDayOfMonth;
+        }
+        throw EjbLogger.EJB3_TIMER_LOGGER.invalidScheduleValue(DayOfMonth.class.getSimpleName(), trimmedRelativeDayOfMonth);
+    }
+
     private boolean isValidNegativeDayOfMonth(String dayOfMonth) {
         try {
             int val = Integer.parseInt(dayOfMonth.trim());
@@ -21,6 +21,7 @@
  */
 package org.jboss.as.ejb3.timerservice.schedule.attribute;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.SortedSet;
@@ -222,4 +223,26 @@ public abstract class IntegerBasedExpression {
     public ScheduleExpressionType getType() {
         return this.scheduleExpressionType;
     }
+
+    /**
+     * Returns the absolute values of this expression as a bit set, in which bit <code>n</code> is set if value <code>n</code> matches.
+     * A wildcard matches all non-negative values up to {@link #getMaxValue()}.
+     * Relative values are not included.
+     *
+     * @return a bit set of absolute values
+     */
+    public BitSet toBitSet() {
+        int max = this.getMaxValue();
+        BitSet values = new BitSet(max + 1);
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            values.set(Math.max(this.getMinValue(), 0), max + 1);
+        } else {
+            for (Integer value : this.absoluteValues) {
+                if (value >= 0) {
+                    values.set(value);
+                }
+            }
+        }
+        return values;
+    }
 }
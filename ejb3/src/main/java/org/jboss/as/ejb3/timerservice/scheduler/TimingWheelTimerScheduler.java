@@ -0,0 +1,351 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
+
+/**
+ * {@link TimerScheduler} implemented via a hierarchical timing wheel.
+ * Scheduling and cancellation are O(1) and never contend on a shared lock.
+ * New tasks are handed to a single ticker thread via a lock-free queue, while cancelled tasks are removed lazily.
+ * On each tick, the ticker thread cascades the timing wheels and dispatches expired tasks to an executor,
+ * so that a slow task cannot delay the expiration of other tasks.
+ * If the executor rejects an expired task, its execution is retried with an exponential backoff, up to 64 ticks.
+ * Expirations are accurate to the resolution of a tick, and never early.
+ */
+public class TimingWheelTimerScheduler implements TimerScheduler, Runnable {
+
+    // Each wheel has 64 slots
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    // 6 wheels span 2^36 ticks, i.e. ~21 years using 10ms ticks
+    private static final int LEVELS = 6;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+    // Minimum number of cancelled tasks before we sweep the wheels
+    private static final int PURGE_THRESHOLD = 1024;
+    // Maximum number of ticks between retries of a rejected task
+    private static final int MAX_RETRY_TICKS = 64;
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Executor executor;
+    private final Thread thread;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    // Only accessed by ticker thread
+    private final List<List<Entry>> wheels = new ArrayList<>(LEVELS * WHEEL_SIZE);
+    private List<Entry> spare = new ArrayList<>();
+    private long tick = 0;
+
+    private volatile boolean idle = false;
+    private volatile boolean purge = false;
+    private volatile boolean closed = false;
+    private volatile long lag = 0;
+
+    /**
+     * Creates a timing wheel scheduler.
+     * @param tick the duration of a tick, i.e. the resolution of this scheduler
+     * @param executor the executor to which expired tasks are dispatched
+     * @param threadFactory the factory for the ticker thread
+     */
+    public TimingWheelTimerScheduler(Duration tick, Executor executor, ThreadFactory threadFactory) {
+        this.tickNanos = Math.max(tick.toNanos(), 1L);
+        this.executor = executor;
+        for (int i = 0; i < LEVELS * WHEEL_SIZE; ++i) {
+            this.wheels.add(new ArrayList<>());
+        }
+        this.thread = threadFactory.newThread(this);
+        this.thread.start();
+    }
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay) {
+        return this.add(task, delay, 0);
+    }
+
+    @Override
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long delay, long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException(Long.toString(period));
+        }
+        return this.add(task, delay, period);
+    }
+
+    private ScheduledTask add(Runnable task, long delay, long period) {
+        if (this.closed) {
+            throw new IllegalStateException();
+        }
+        Entry entry = new Entry(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0)), TimeUnit.MILLISECONDS.toNanos(period));
+        this.size.incrementAndGet();
+        this.pending.add(entry);
+        if (this.idle) {
+            LockSupport.unpark(this.thread);
+        }
+        return entry;
+    }
+
+    @Override
+    public boolean isExecutedBy(Executor executor) {
+        return this.executor == executor;
+    }
+
+    @Override
+    public void purge() {
+        this.purge = true;
+        LockSupport.unpark(this.thread);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return this.size.get();
+    }
+
+    @Override
+    public long getScheduleLag() {
+        return this.lag;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.thread);
+        boolean interrupted = false;
+        while (this.thread.isAlive()) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!this.closed) {
+            this.drain();
+            if (this.purge || (this.cancelled.get() > PURGE_THRESHOLD && this.cancelled.get() > this.size.get())) {
+                this.sweep();
+            }
+            long now = System.nanoTime() - this.startNanos;
+            long currentTick = now / this.tickNanos;
+            if (this.size.get() == 0) {
+                // Nothing is scheduled, so anything still in our wheels was cancelled
+                this.clear();
+                this.tick = currentTick;
+                this.idle = true;
+                // Recheck, to avoid missing a concurrently scheduled task
+                if (this.pending.isEmpty() && !this.purge && !this.closed) {
+                    LockSupport.park(this);
+                }
+                this.idle = false;
+                continue;
+            }
+            while (this.tick < currentTick) {
+                this.advance();
+            }
+            LockSupport.parkNanos(this, ((currentTick + 1) * this.tickNanos) - now);
+        }
+        this.clear();
+        this.pending.clear();
+        this.size.set(0);
+    }
+
+    private void drain() {
+        Entry entry = this.pending.poll();
+        while (entry != null) {
+            if (entry.state.get() == WAITING) {
+                this.place(entry, this.tick + 1);
+            } else {
+                this.cancelled.decrementAndGet();
+            }
+            entry = this.pending.poll();
+        }
+    }
+
+    private void advance() {
+        long tick = ++this.tick;
+        // Cascade entries from higher wheels, whose current slot just came due, starting with the highest
+        for (int level = LEVELS - 1; level > 0; --level) {
+            if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                List<Entry> entries = this.swap(level, (int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                for (Entry entry : entries) {
+                    if (entry.state.get() == WAITING) {
+                        this.place(entry, tick);
+                    } else {
+                        this.cancelled.decrementAndGet();
+                    }
+                }
+                entries.clear();
+            }
+        }
+        List<Entry> entries = this.swap(0, (int) tick & WHEEL_MASK);
+        for (Entry entry : entries) {
+            this.expire(entry);
+        }
+        entries.clear();
+    }
+
+    private void expire(Entry entry) {
+        if (entry.period > 0) {
+            if (entry.state.get() != WAITING) {
+                this.cancelled.decrementAndGet();
+                return;
+            }
+            if (this.dispatch(entry)) {
+                entry.deadline += entry.period;
+                this.place(entry, this.tick + 1);
+            } else {
+                this.place(entry, this.retryTick(entry));
+            }
+        } else if (entry.state.compareAndSet(WAITING, EXPIRED)) {
+            this.size.decrementAndGet();
+            if (!this.dispatch(entry) && entry.state.compareAndSet(EXPIRED, WAITING)) {
+                this.size.incrementAndGet();
+                this.place(entry, this.retryTick(entry));
+            }
+        } else {
+            this.cancelled.decrementAndGet();
+        }
+    }
+
+    private boolean dispatch(Entry entry) {
+        this.lag = TimeUnit.NANOSECONDS.toMillis(Math.max(System.nanoTime() - entry.deadline, 0));
+        try {
+            this.executor.execute(entry.task);
+            entry.rejections = 0;
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Log only the first of consecutive rejections of a given task
+            if (entry.rejections++ == 0) {
+                EjbLogger.EJB3_TIMER_LOGGER.timerTaskRejected(e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the tick on which to retry the specified rejected entry, doubling the interval between consecutive retries.
+     * @param entry a rejected entry
+     * @return the tick on which to retry
+     */
+    private long retryTick(Entry entry) {
+        return this.tick + Math.min(1L << Math.min(entry.rejections - 1, Integer.SIZE - 2), MAX_RETRY_TICKS);
+    }
+
+    /**
+     * Places the specified entry into the appropriate wheel.
+     * The wheel is selected by the distance of the entry's deadline from the next tick to be processed (including its cascades),
+     * such that the selected slot comes due precisely at the start of the period containing the deadline.
+     * @param entry a scheduled entry
+     * @param next the next tick to be processed
+     */
+    private void place(Entry entry, long next) {
+        // Round up, so that an entry never expires early, and expire overdue entries on the next tick
+        long deadlineTick = Math.max(-Math.floorDiv(this.startNanos - entry.deadline, this.tickNanos), next);
+        // Entries beyond the span of our wheels are parked in the highest wheel, and re-evaluated when it cascades
+        long delta = Math.min(deadlineTick - next, MAX_DELTA);
+        deadlineTick = next + delta;
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level += 1;
+        }
+        this.wheels.get((level << WHEEL_BITS) + ((int) (deadlineTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)).add(entry);
+    }
+
+    private List<Entry> swap(int level, int slot) {
+        int index = (level << WHEEL_BITS) + slot;
+        List<Entry> entries = this.wheels.get(index);
+        if (entries.isEmpty()) return entries;
+        this.wheels.set(index, this.spare);
+        this.spare = entries;
+        return entries;
+    }
+
+    private void sweep() {
+        this.purge = false;
+        int removed = 0;
+        for (List<Entry> entries : this.wheels) {
+            int size = entries.size();
+            entries.removeIf(entry -> entry.state.get() != WAITING);
+            removed += size - entries.size();
+        }
+        this.cancelled.addAndGet(-removed);
+    }
+
+    private void clear() {
+        int removed = 0;
+        for (List<Entry> entries : this.wheels) {
+            removed += entries.size();
+            entries.clear();
+        }
+        this.cancelled.addAndGet(-removed);
+    }
+
+    private class Entry implements ScheduledTask {
+        final Runnable task;
+        final long period;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        long deadline;
+        // Number of consecutive rejections, only accessed by ticker thread
+        int rejections = 0;
+
+        Entry(Runnable task, long deadline, long period) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (this.state.compareAndSet(WAITING, CANCELLED)) {
+                TimingWheelTimerScheduler.this.size.decrementAndGet();
+                TimingWheelTimerScheduler.this.cancelled.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
+
+/**
+ * {@link TimerScheduler} backed by a single {@link java.util.Timer}, whose dispatch thread runs all scheduled tasks.
+ */
+public class UtilTimerScheduler implements TimerScheduler {
+
+    private final Timer timer = new Timer("EJB timer scheduler", true);
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile long lag = 0;
+
+    @Override
+    public ScheduledTask schedule(Runnable task, long delay) {
+        ScheduledTimerTask timerTask = new ScheduledTimerTask(task, false);
+        this.size.incrementAndGet();
+        this.timer.schedule(timerTask, Math.max(delay, 0));
+        return timerTask;
+    }
+
+    @Override
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long delay, long period) {
+        ScheduledTimerTask timerTask = new ScheduledTimerTask(task, true);
+        this.size.incrementAndGet();
+        this.timer.scheduleAtFixedRate(timerTask, Math.max(delay, 0), period);
+        return timerTask;
+    }
+
+    @Override
+    public void purge() {
+        this.timer.purge();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return this.size.get();
+    }
+
+    @Override
+    public long getScheduleLag() {
+        return this.lag;
+    }
+
+    @Override
+    public void close() {
+        this.timer.cancel();
+        this.size.set(0);
+    }
+
+    private class ScheduledTimerTask extends TimerTask implements ScheduledTask {
+        private final Runnable task;
+        private final boolean periodic;
+
+        ScheduledTimerTask(Runnable task, boolean periodic) {
+            this.task = task;
+            this.periodic = periodic;
+        }
+
+        @Override
+        public void run() {
+            UtilTimerScheduler.this.lag = Math.max(System.currentTimeMillis() - this.scheduledExecutionTime(), 0);
+            if (!this.periodic) {
+                UtilTimerScheduler.this.size.decrementAndGet();
+            }
+            try {
+                this.task.run();
+            } catch (RuntimeException | Error e) {
+                // An uncaught exception would otherwise terminate the timer thread
+                EjbLogger.EJB3_TIMER_LOGGER.error(e.getLocalizedMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            boolean cancelled = super.cancel();
+            if (cancelled) {
+                UtilTimerScheduler.this.size.decrementAndGet();
+            }
+            return cancelled;
+        }
+    }
+}
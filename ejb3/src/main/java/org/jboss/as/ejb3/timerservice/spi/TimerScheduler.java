@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.spi;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Schedules the expiration of timer tasks on behalf of all timer services.
+ * Scheduled tasks are expected to be short-lived, i.e. they should dispatch any real work to a separate executor,
+ * unless this scheduler already runs its tasks via that executor.
+ */
+public interface TimerScheduler extends AutoCloseable {
+
+    /**
+     * A handle to a scheduled task.
+     */
+    interface ScheduledTask {
+        /**
+         * Cancels any future executions of the associated task.
+         * @return true, if the task was cancelled, false if the task was already cancelled, or a one-time task already ran.
+         */
+        boolean cancel();
+    }
+
+    /**
+     * Schedules a task to run once after the specified delay.
+     * @param task a task
+     * @param delay a delay in milliseconds, where a non-positive delay indicates immediate execution
+     * @return a handle to the scheduled task
+     */
+    ScheduledTask schedule(Runnable task, long delay);
+
+    /**
+     * Schedules a task to run repeatedly, at a fixed rate, following the specified delay.
+     * If an execution is delayed, subsequent executions run in rapid succession to "catch up".
+     * @param task a task
+     * @param delay a delay in milliseconds, before the first execution
+     * @param period the interval in milliseconds between successive executions
+     * @return a handle to the scheduled task
+     */
+    ScheduledTask scheduleAtFixedRate(Runnable task, long delay, long period);
+
+    /**
+     * Indicates whether this scheduler runs expired tasks via the specified executor, in which case a task may perform its work inline.
+     * @param executor an executor
+     * @return true, if expired tasks run via the specified executor, false otherwise
+     */
+    default boolean isExecutedBy(Executor executor) {
+        return false;
+    }
+
+    /**
+     * Releases any references to cancelled tasks retained by this scheduler.
+     */
+    void purge();
+
+    /**
+     * Returns the number of tasks currently scheduled.
+     * @return the number of scheduled tasks
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the delay between the scheduled and the actual execution time of the most recently executed task.
+     * @return a lag in milliseconds
+     */
+    long getScheduleLag();
+
+    /**
+     * Cancels all scheduled tasks and releases any resources of this scheduler.
+     */
+    @Override
+    void close();
+}
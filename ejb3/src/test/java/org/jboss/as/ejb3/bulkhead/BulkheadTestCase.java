@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.bulkhead;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.ejb.EJBException;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Bulkhead} and {@link GradientConcurrencyLimit}.
+ */
+public class BulkheadTestCase {
+
+    @Test
+    public void saturation() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("foo", new BulkheadConfiguration(1, 2, 1));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CountDownLatch started = new CountDownLatch(2);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch completed = new CountDownLatch(3);
+            Runnable task = () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                completed.countDown();
+            };
+            bulkhead.execute(executor, task, e -> fail(e.getMessage()));
+            bulkhead.execute(executor, task, e -> fail(e.getMessage()));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(2, bulkhead.getActiveCount());
+
+            // Exceeds concurrency limit
+            bulkhead.execute(executor, task, e -> fail(e.getMessage()));
+            assertEquals(2, bulkhead.getActiveCount());
+            assertEquals(1, bulkhead.getQueuedCount());
+
+            // Exceeds queue size
+            try {
+                bulkhead.execute(executor, task, e -> fail(e.getMessage()));
+                fail("Saturated bulkhead should reject invocation");
+            } catch (EJBException e) {
+                assertEquals(1, bulkhead.getRejectedCount());
+            }
+
+            release.countDown();
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0, bulkhead.getActiveCount());
+        assertEquals(0, bulkhead.getQueuedCount());
+        assertEquals(1, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    public void rejectedExecution() {
+        Bulkhead bulkhead = new Bulkhead("foo", new BulkheadConfiguration(1, 1, 2));
+        AtomicInteger executed = new AtomicInteger();
+        List<EJBException> failures = new ArrayList<>();
+        Runnable[] pending = new Runnable[1];
+        bulkhead.execute(task -> pending[0] = task, executed::incrementAndGet, failures::add);
+        // Exceeds concurrency limit, so their executors are only used once a permit is available
+        bulkhead.execute(task -> {
+            throw new RejectedExecutionException();
+        }, executed::incrementAndGet, failures::add);
+        bulkhead.execute(task -> {
+            throw new RejectedExecutionException();
+        }, executed::incrementAndGet, failures::add);
+        assertEquals(2, bulkhead.getQueuedCount());
+
+        // Queued tasks, rejected by their executor, fail via their rejection handler, rather than run on the completing thread
+        pending[0].run();
+        assertEquals(1, executed.get());
+        assertEquals(2, failures.size());
+        assertEquals(2, bulkhead.getRejectedCount());
+        assertEquals(0, bulkhead.getActiveCount());
+        assertEquals(0, bulkhead.getQueuedCount());
+    }
+
+    @Test
+    public void adaptiveLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 100);
+        assertEquals(100, limit.getLimit());
+
+        // Stable latency does not reduce the limit
+        for (int i = 0; i < 1000; ++i) {
+            limit.sample(TimeUnit.MILLISECONDS.toNanos(10), limit.getLimit());
+        }
+        assertEquals(100, limit.getLimit());
+
+        // Rising latency reduces the limit, but not below its lower bound
+        for (int i = 0; i < 100; ++i) {
+            limit.sample(TimeUnit.MILLISECONDS.toNanos(100), limit.getLimit());
+        }
+        int reduced = limit.getLimit();
+        assertTrue(String.valueOf(reduced), reduced < 10);
+        assertTrue(String.valueOf(reduced), reduced >= 2);
+
+        // Underutilized limit does not grow
+        for (int i = 0; i < 100; ++i) {
+            limit.sample(TimeUnit.MILLISECONDS.toNanos(10), 0);
+        }
+        assertEquals(reduced, limit.getLimit());
+
+        // Recovered latency restores the limit
+        for (int i = 0; i < 1000; ++i) {
+            limit.sample(TimeUnit.MILLISECONDS.toNanos(10), limit.getLimit());
+        }
+        assertEquals(100, limit.getLimit());
+    }
+}
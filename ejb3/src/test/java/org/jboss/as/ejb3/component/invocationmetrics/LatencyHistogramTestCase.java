@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getValueAtPercentile(50d));
+        assertEquals(0L, histogram.getValueAtPercentile(99.9d));
+    }
+
+    @Test
+    public void index() {
+        long previous = -1L;
+        for (int index = 0; index <= LatencyHistogram.index(LatencyHistogram.MAX_VALUE); ++index) {
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            // Buckets must be contiguous
+            assertEquals(index, LatencyHistogram.index(previous + 1));
+            assertEquals(index, LatencyHistogram.index(highest));
+            // Relative error is bounded
+            assertTrue(highest - (previous + 1) <= (previous + 1) / LatencyHistogram.SUB_BUCKETS);
+            previous = highest;
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE, previous);
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; ++value) {
+            histogram.record(value);
+        }
+        assertEquals(1000L, histogram.getCount());
+        assertWithinError(500L, histogram.getValueAtPercentile(50d));
+        assertWithinError(990L, histogram.getValueAtPercentile(99d));
+        assertWithinError(999L, histogram.getValueAtPercentile(99.9d));
+        assertWithinError(1000L, histogram.getValueAtPercentile(100d));
+        assertEquals(1L, histogram.getValueAtPercentile(0d));
+    }
+
+    @Test
+    public void clamp() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1L);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2L, histogram.getCount());
+        assertEquals(0L, histogram.getValueAtPercentile(50d));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100d));
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue(String.valueOf(actual), actual >= expected);
+        assertTrue(String.valueOf(actual), actual <= expected + expected / LatencyHistogram.SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.stateful.cache.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBean;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstance;
+import org.jboss.as.ejb3.component.stateful.cache.StatefulSessionBeanInstanceFactory;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.clustering.marshalling.jboss.JBossByteBufferMarshaller;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.spi.ByteBufferMarshaller;
+
+/**
+ * Unit test for passivation by {@link SimpleStatefulSessionBeanCache}.
+ */
+public class SimpleStatefulSessionBeanCacheTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void passivate() throws IOException {
+        SimpleStatefulSessionBeanCache<UUID, TestInstance> cache = this.createCache(2);
+        cache.start();
+        try {
+            UUID first = cache.createStatefulSessionBean();
+            UUID second = cache.createStatefulSessionBean();
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(0, cache.getPassiveCount());
+
+            // Exceeding max-size passivates the least recently used idle bean
+            UUID third = cache.createStatefulSessionBean();
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(1, cache.getPassivationCount());
+
+            // Activation, in turn, passivates the next least recently used idle bean
+            StatefulSessionBean<UUID, TestInstance> bean = cache.findStatefulSessionBean(first);
+            assertNotNull(bean);
+            assertEquals(first, bean.getId());
+            assertEquals(1, bean.getInstance().getPassivations());
+            assertEquals(1, bean.getInstance().getActivations());
+            assertEquals(1, cache.getActivationCount());
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(2, cache.getPassivationCount());
+            bean.close();
+
+            // Accessing the third bean marks it as most recently used, thus the first bean is passivated next
+            cache.findStatefulSessionBean(third).close();
+            bean = cache.findStatefulSessionBean(second);
+            assertNotNull(bean);
+            assertEquals(1, bean.getInstance().getPassivations());
+            bean.close();
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+
+            bean = cache.findStatefulSessionBean(first);
+            assertNotNull(bean);
+            assertEquals(2, bean.getInstance().getPassivations());
+            assertEquals(2, bean.getInstance().getActivations());
+            bean.close();
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void inUse() throws IOException {
+        SimpleStatefulSessionBeanCache<UUID, TestInstance> cache = this.createCache(1);
+        cache.start();
+        try {
+            UUID first = cache.createStatefulSessionBean();
+            UUID second = cache.createStatefulSessionBean();
+            assertEquals(1, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+
+            // Bean instances in use are never passivated, even if this exceeds max-size
+            StatefulSessionBean<UUID, TestInstance> secondBean = cache.findStatefulSessionBean(second);
+            StatefulSessionBean<UUID, TestInstance> firstBean = cache.findStatefulSessionBean(first);
+            assertNotNull(firstBean);
+            assertNotNull(secondBean);
+            assertEquals(2, cache.getActiveCount());
+            assertEquals(0, cache.getPassiveCount());
+
+            // Beans are eligible for passivation once no longer referenced by any caller
+            StatefulSessionBean<UUID, TestInstance> concurrentBean = cache.findStatefulSessionBean(second);
+            secondBean.close();
+            assertEquals(2, cache.getActiveCount());
+            concurrentBean.close();
+            assertEquals(1, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+
+            firstBean.remove();
+            assertEquals(0, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(1, firstBean.getInstance().getRemovals());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void expire() throws IOException {
+        SimpleStatefulSessionBeanCache<UUID, TestInstance> cache = this.createCache(1);
+        cache.start();
+        try {
+            UUID first = cache.createStatefulSessionBean();
+            UUID second = cache.createStatefulSessionBean();
+            assertEquals(1, cache.getPassiveCount());
+
+            // Expiration of a passivated bean discards its passivated state
+            cache.test(first);
+            assertEquals(1, cache.getActiveCount());
+            assertEquals(0, cache.getPassiveCount());
+            assertNull(cache.findStatefulSessionBean(first));
+
+            cache.test(second);
+            assertEquals(0, cache.getActiveCount());
+            assertNull(cache.findStatefulSessionBean(second));
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+        SimpleStatefulSessionBeanCache<UUID, TestInstance> cache = this.createCache(1);
+        cache.start();
+        try {
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 5; ++i) {
+                ids.add(cache.createStatefulSessionBean());
+            }
+            assertEquals(4, cache.getPassiveCount());
+            PassivationFile file = cache.getPassivationFile();
+            long size = file.size();
+
+            // Removed bean instances occupy as much of the passivation file as passivated bean instances
+            cache.test(ids.get(0));
+            cache.test(ids.get(1));
+            assertEquals(2, cache.getPassiveCount());
+            assertSame(file, cache.getPassivationFile());
+            assertEquals(size, file.size());
+
+            // Removed bean instances now occupy more of the passivation file, so it is replaced by a compacted copy
+            cache.test(ids.get(2));
+            assertEquals(1, cache.getPassiveCount());
+            assertNotSame(file, cache.getPassivationFile());
+            assertEquals(size / 4, cache.getPassivationFile().size());
+
+            // Passivated bean instances survive compaction
+            StatefulSessionBean<UUID, TestInstance> bean = cache.findStatefulSessionBean(ids.get(3));
+            assertNotNull(bean);
+            assertEquals(ids.get(3), bean.getInstance().getId());
+            assertEquals(1, bean.getInstance().getPassivations());
+            assertEquals(1, bean.getInstance().getActivations());
+            bean.close();
+            assertEquals(1, cache.getPassiveCount());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void failedActivation() throws IOException {
+        SimpleStatefulSessionBeanCache<UUID, TestInstance> cache = this.createCache(1);
+        cache.start();
+        try {
+            UUID first = cache.createStatefulSessionBean();
+            UUID second = cache.createStatefulSessionBean();
+            assertEquals(1, cache.getPassiveCount());
+            long size = cache.getPassivationFile().size();
+
+            TestInstance.ACTIVATION_FAILURES.set(1);
+            try {
+                cache.findStatefulSessionBean(first);
+                fail();
+            } catch (IllegalStateException e) {
+                // Expected
+            }
+            // Bean instance remains passivated, and its passivated state is retained
+            assertEquals(1, cache.getActiveCount());
+            assertEquals(1, cache.getPassiveCount());
+            assertEquals(size, cache.getPassivationFile().size());
+
+            StatefulSessionBean<UUID, TestInstance> bean = cache.findStatefulSessionBean(first);
+            assertNotNull(bean);
+            assertEquals(first, bean.getInstance().getId());
+            assertEquals(1, bean.getInstance().getActivations());
+            bean.close();
+            assertEquals(1, cache.getPassiveCount());
+            assertNotNull(cache.findStatefulSessionBean(second));
+        } finally {
+            TestInstance.ACTIVATION_FAILURES.set(0);
+            cache.stop();
+        }
+    }
+
+    private SimpleStatefulSessionBeanCache<UUID, TestInstance> createCache(int maxSize) throws IOException {
+        ServerEnvironment environment = mock(ServerEnvironment.class);
+        when(environment.getNodeName()).thenReturn("node");
+        when(environment.getServerTempDir()).thenReturn(this.folder.newFolder());
+        ByteBufferMarshaller marshaller = new JBossByteBufferMarshaller(new SimpleMarshallingConfigurationRepository(new MarshallingConfiguration()), TestInstance.class.getClassLoader());
+        return new SimpleStatefulSessionBeanCache<>(new SimpleStatefulSessionBeanCacheConfiguration<>() {
+            @Override
+            public String getComponentName() {
+                return "component";
+            }
+
+            @Override
+            public Supplier<UUID> getIdentifierFactory() {
+                return UUID::randomUUID;
+            }
+
+            @Override
+            public StatefulSessionBeanInstanceFactory<TestInstance> getInstanceFactory() {
+                return () -> new TestInstance(UUID.randomUUID());
+            }
+
+            @Override
+            public Duration getTimeout() {
+                return null;
+            }
+
+            @Override
+            public ServerEnvironment getEnvironment() {
+                return environment;
+            }
+
+            @Override
+            public Integer getMaxSize() {
+                return maxSize;
+            }
+
+            @Override
+            public ByteBufferMarshaller getMarshaller() {
+                return marshaller;
+            }
+        });
+    }
+
+    static class TestInstance implements StatefulSessionBeanInstance<UUID>, Serializable {
+        private static final long serialVersionUID = -4328962212580196374L;
+        // Number of subsequent activations that should fail
+        static final AtomicInteger ACTIVATION_FAILURES = new AtomicInteger();
+
+        private final UUID id;
+        private int passivations = 0;
+        private int activations = 0;
+        private transient int removals = 0;
+
+        TestInstance(UUID id) {
+            this.id = id;
+        }
+
+        @Override
+        public UUID getId() {
+            return this.id;
+        }
+
+        @Override
+        public void prePassivate() {
+            this.passivations += 1;
+        }
+
+        @Override
+        public void postActivate() {
+            if (ACTIVATION_FAILURES.getAndUpdate(failures -> Math.max(failures - 1, 0)) > 0) {
+                throw new IllegalStateException();
+            }
+            this.activations += 1;
+        }
+
+        @Override
+        public void removed() {
+            this.removals += 1;
+        }
+
+        int getPassivations() {
+            return this.passivations;
+        }
+
+        int getActivations() {
+            return this.activations;
+        }
+
+        int getRemovals() {
+            return this.removals;
+        }
+    }
+}
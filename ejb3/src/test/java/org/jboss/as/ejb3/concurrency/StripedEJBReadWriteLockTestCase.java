@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import jakarta.ejb.IllegalLoopbackException;
+
+import org.jboss.as.ejb3.component.singleton.StripedEJBReadWriteLock;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link StripedEJBReadWriteLock}.
+ */
+public class StripedEJBReadWriteLockTestCase {
+
+    private final StripedEJBReadWriteLock lock = new StripedEJBReadWriteLock();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void illegalLoopback() {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            this.lock.writeLock().lock();
+            this.lock.writeLock().unlock();
+            fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException e) {
+            // expected
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Test
+    public void writeThenRead() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        Lock readLock = this.lock.readLock();
+        writeLock.lock();
+        try {
+            // Reentrant
+            assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+            writeLock.unlock();
+            assertTrue(readLock.tryLock(1, TimeUnit.SECONDS));
+            readLock.unlock();
+        } finally {
+            writeLock.unlock();
+        }
+        // Lock should now be available to other threads
+        assertTrue(this.executor.submit(() -> this.tryLock(this.lock.writeLock(), 0)).get());
+    }
+
+    @Test
+    public void concurrentReaders() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            assertTrue(this.executor.submit(() -> this.tryLock(this.lock.readLock(), 0)).get());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Test
+    public void readTimeout() throws Exception {
+        Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            assertFalse(this.executor.submit(() -> this.tryLock(this.lock.readLock(), 100)).get());
+        } finally {
+            writeLock.unlock();
+        }
+        assertTrue(this.executor.submit(() -> this.tryLock(this.lock.readLock(), 100)).get());
+    }
+
+    @Test
+    public void writeTimeout() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            assertFalse(this.executor.submit(() -> this.tryLock(this.lock.writeLock(), 100)).get());
+            // A timed out writer must not block subsequent readers
+            assertTrue(this.executor.submit(() -> this.tryLock(this.lock.readLock(), 0)).get());
+        } finally {
+            readLock.unlock();
+        }
+        assertTrue(this.executor.submit(() -> this.tryLock(this.lock.writeLock(), 100)).get());
+    }
+
+    @Test
+    public void writerPreference() throws Exception {
+        Lock readLock = this.lock.readLock();
+        readLock.lock();
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> result = writer.submit(() -> this.tryLock(this.lock.writeLock(), TimeUnit.SECONDS.toMillis(10)));
+            // Wait for writer to block
+            while (this.executor.submit(() -> this.tryLock(this.lock.readLock(), 0)).get()) {
+                Thread.sleep(10);
+            }
+            // Reentrant reader must not wait for waiting writer
+            assertTrue(readLock.tryLock(0, TimeUnit.SECONDS));
+            readLock.unlock();
+            readLock.unlock();
+            assertTrue(result.get());
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    private boolean tryLock(Lock lock, long millis) throws InterruptedException {
+        if (lock.tryLock(millis, TimeUnit.MILLISECONDS)) {
+            lock.unlock();
+            return true;
+        }
+        return false;
+    }
+}
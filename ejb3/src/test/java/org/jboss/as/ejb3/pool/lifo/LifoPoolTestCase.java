@@ -0,0 +1,348 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.lifo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LifoPool}.
+ */
+public class LifoPoolTestCase {
+
+    @Before
+    public void init() {
+        MockBean.reset();
+    }
+
+    @Test
+    public void lifo() {
+        Pool<MockBean> pool = new LifoPool<>(new MockFactory(), 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean first = pool.get();
+        MockBean second = pool.get();
+        pool.release(first);
+        pool.release(second);
+
+        // Most recently released instance should be reused first
+        assertSame(second, pool.get());
+        assertSame(first, pool.get());
+        assertEquals(2, pool.getCurrentSize());
+        assertEquals(8, pool.getAvailableCount());
+
+        pool.release(first);
+        pool.release(second);
+        pool.stop();
+
+        assertEquals(2, MockBean.getPostConstructs());
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void steal() throws Exception {
+        // Use as many stripes as threads, so that each thread has a distinct stripe
+        Pool<MockBean> pool = new LifoPool<>(new MockFactory(), 10, 10, 1, TimeUnit.SECONDS, 2, TimeUnit.HOURS.toNanos(1));
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Another thread with an empty stripe should steal rather than create
+            assertSame(bean, executor.submit(pool::get).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        pool.release(bean);
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    /**
+     * More threads than the pool size.
+     */
+    @Test
+    public void multiThread() throws Exception {
+        Pool<MockBean> pool = new LifoPool<>(new MockFactory(), 10, 60, TimeUnit.SECONDS);
+        pool.start();
+
+        AtomicInteger used = new AtomicInteger(0);
+        CountDownLatch in = new CountDownLatch(1);
+        CountDownLatch ready = new CountDownLatch(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        try {
+            Future<?>[] results = new Future<?>[20];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = executor.submit(() -> {
+                    MockBean bean = pool.get();
+                    ready.countDown();
+                    in.await();
+                    pool.release(bean);
+                    used.incrementAndGet();
+                    return null;
+                });
+            }
+
+            ready.await(120, TimeUnit.SECONDS);
+            in.countDown();
+
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        pool.stop();
+
+        assertEquals(20, used.get());
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void tooMany() {
+        Pool<MockBean> pool = new LifoPool<>(new MockFactory(), 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (Exception e) {
+            assertEquals(EjbLogger.ROOT_LOGGER.failedToAcquirePermit(1, TimeUnit.SECONDS).getMessage(), e.getMessage());
+        }
+
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void adapt() {
+        // Disable periodic adaptation, so that we can adapt deterministically
+        LifoPool<MockBean> pool = new LifoPool<>(new MockFactory(), 2, 10, 1, TimeUnit.SECONDS, 1, TimeUnit.HOURS.toNanos(1));
+        pool.start();
+
+        assertEquals(2, pool.getTargetSize());
+        assertEquals(10, pool.getMaxSize());
+
+        MockBean[] beans = new MockBean[2];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(0, pool.getAvailableCount());
+
+        // Invocations waiting longer than threshold should grow the pool
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 2);
+        assertEquals(3, pool.getTargetSize());
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(1, pool.getGrowCount());
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+        for (int i = 0; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(3, pool.getCurrentSize());
+
+        // Growth is bounded by max size
+        pool.adapt(10, TimeUnit.SECONDS.toNanos(10), 3);
+        pool.adapt(10, TimeUnit.SECONDS.toNanos(10), 4);
+        pool.adapt(10, TimeUnit.SECONDS.toNanos(10), 6);
+        pool.adapt(10, TimeUnit.SECONDS.toNanos(10), 9);
+        assertEquals(10, pool.getTargetSize());
+        assertEquals(5, pool.getGrowCount());
+
+        // Shrink toward peak usage, destroying excess idle instances
+        pool.adapt(10, 0, 1);
+        assertEquals(6, pool.getTargetSize());
+        assertEquals(1, pool.getShrinkCount());
+        pool.adapt(10, 0, 1);
+        pool.adapt(10, 0, 1);
+        pool.adapt(10, 0, 1);
+        // Shrink is bounded by min size
+        assertEquals(2, pool.getTargetSize());
+        assertEquals(2, pool.getCurrentSize());
+        assertEquals(1, MockBean.getPreDestroys());
+
+        pool.stop();
+
+        assertEquals(3, MockBean.getPostConstructs());
+        assertEquals(3, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void shrinkOnRelease() {
+        // Disable periodic adaptation, so that we can adapt deterministically
+        LifoPool<MockBean> pool = new LifoPool<>(new MockFactory(), 1, 10, 1, TimeUnit.SECONDS, 1, TimeUnit.HOURS.toNanos(1));
+        pool.start();
+
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 1);
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 2);
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 3);
+        assertEquals(4, pool.getTargetSize());
+
+        MockBean[] beans = new MockBean[4];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(4, pool.getCurrentSize());
+
+        // Shrink while all instances are in use
+        pool.adapt(10, 0, 1);
+        assertEquals(3, pool.getTargetSize());
+        assertEquals(0, pool.getAvailableCount());
+
+        // Released instance in excess of target size should be destroyed
+        pool.release(beans[0]);
+        assertEquals(3, pool.getCurrentSize());
+        assertEquals(0, pool.getAvailableCount());
+        assertEquals(1, MockBean.getPreDestroys());
+
+        for (int i = 1; i < beans.length; i++) {
+            pool.release(beans[i]);
+            beans[i] = null;
+        }
+        assertEquals(3, pool.getCurrentSize());
+        assertEquals(3, pool.getAvailableCount());
+        assertEquals(1, MockBean.getPreDestroys());
+
+        pool.stop();
+
+        assertEquals(4, MockBean.getPostConstructs());
+        assertEquals(4, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void adaptOnRelease() throws InterruptedException {
+        long interval = TimeUnit.MILLISECONDS.toNanos(100);
+        LifoPool<MockBean> pool = new LifoPool<>(new MockFactory(), 1, 10, 1, TimeUnit.SECONDS, 1, interval);
+        pool.start();
+
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 1);
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 2);
+        pool.adapt(10, TimeUnit.MILLISECONDS.toNanos(20), 3);
+        assertEquals(4, pool.getTargetSize());
+
+        MockBean[] beans = new MockBean[4];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+
+        // Usage at its peak, so the first release of the interval should not shrink the pool
+        TimeUnit.NANOSECONDS.sleep(interval * 3 / 2);
+        pool.release(beans[0]);
+        pool.release(beans[1]);
+        assertEquals(4, pool.getTargetSize());
+
+        // Usage has since declined, and no further acquisitions occur, so the next release of the interval should shrink the pool
+        TimeUnit.NANOSECONDS.sleep(interval * 3 / 2);
+        pool.release(beans[2]);
+        assertEquals(3, pool.getTargetSize());
+        assertEquals(1, pool.getShrinkCount());
+        assertEquals(3, pool.getCurrentSize());
+        assertEquals(1, MockBean.getPreDestroys());
+
+        pool.release(beans[3]);
+        assertEquals(3, pool.getCurrentSize());
+
+        pool.stop();
+
+        assertEquals(4, MockBean.getPostConstructs());
+        assertEquals(4, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void setMaxSize() {
+        Pool<MockBean> pool = new LifoPool<>(new MockFactory(), 2, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+
+        pool.setMaxSize(1);
+        assertEquals(1, pool.getMaxSize());
+        assertEquals(1, pool.getTargetSize());
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(1, pool.getCurrentSize());
+
+        pool.setMaxSize(3);
+        assertEquals(3, pool.getTargetSize());
+        assertEquals(3, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void discard() {
+        Pool<MockBean> pool = new LifoPool<>(new MockFactory(), 1, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.discard(bean);
+        assertEquals(1, pool.getAvailableCount());
+
+        // Discarded permit should be available again
+        pool.release(pool.get());
+        pool.stop();
+
+        assertEquals(2, MockBean.getPostConstructs());
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+}
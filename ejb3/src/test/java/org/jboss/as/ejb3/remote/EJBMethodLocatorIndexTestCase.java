@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link EJBMethodLocatorIndex}.
+ */
+public class EJBMethodLocatorIndexTestCase {
+
+    public interface View {
+        Object get();
+        void put(String key, Object value);
+        void put(String key, int value);
+        void put(String[] keys, Object value);
+    }
+
+    public abstract static class CovariantView implements View {
+        @Override
+        public abstract String get();
+    }
+
+    @Test
+    public void overloads() throws NoSuchMethodException {
+        EJBMethodLocatorIndex index = new EJBMethodLocatorIndex(Arrays.asList(View.class.getMethods()));
+
+        assertEquals(View.class.getMethod("get"), index.getMethod(new EJBMethodLocator("get")));
+        assertEquals(View.class.getMethod("put", String.class, Object.class), index.getMethod(new EJBMethodLocator("put", String.class.getName(), Object.class.getName())));
+        assertEquals(View.class.getMethod("put", String.class, int.class), index.getMethod(new EJBMethodLocator("put", String.class.getName(), int.class.getName())));
+        assertEquals(View.class.getMethod("put", String[].class, Object.class), index.getMethod(new EJBMethodLocator("put", String[].class.getName(), Object.class.getName())));
+
+        assertNull(index.getMethod(new EJBMethodLocator("put", String.class.getName())));
+        assertNull(index.getMethod(new EJBMethodLocator("remove", String.class.getName())));
+    }
+
+    @Test
+    public void bridge() {
+        for (Method[] methods : Arrays.asList(CovariantView.class.getDeclaredMethods(), reverse(CovariantView.class.getDeclaredMethods()))) {
+            EJBMethodLocatorIndex index = new EJBMethodLocatorIndex(Arrays.asList(methods));
+
+            Method method = index.getMethod(new EJBMethodLocator("get"));
+            assertFalse(method.isBridge());
+            assertEquals(String.class, method.getReturnType());
+        }
+    }
+
+    private static Method[] reverse(Method[] methods) {
+        Method[] result = new Method[methods.length];
+        for (int i = 0; i < methods.length; ++i) {
+            result[i] = methods[methods.length - 1 - i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.undertow.Undertow;
+import io.undertow.server.handlers.PathHandler;
+import org.jboss.ejb.client.EJBIdentifier;
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.jboss.ejb.server.Association;
+import org.jboss.ejb.server.CancelHandle;
+import org.jboss.ejb.server.InvocationRequest;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the {@link BatchInvocationHandler} via a local Undertow listener.
+ */
+public class BatchInvocationHandlerTestCase {
+
+    private static final EJBMethodLocator ECHO = new EJBMethodLocator("echo", String.class.getName());
+    private static final int MAX_PAYLOAD_LENGTH = 1024;
+    private static final int MAX_CONCURRENT_INVOCATIONS = 2;
+    private static final String THREAD_NAME = "batch-invocation";
+
+    private final MarshallingConfiguration configuration = BatchInvocationProtocol.createMarshallingConfiguration(BatchInvocationHandlerTestCase.class.getClassLoader(), null);
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final AtomicInteger concurrentInvocations = new AtomicInteger();
+    private final AtomicInteger maxConcurrentInvocations = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(task -> new Thread(task, THREAD_NAME));
+    private Undertow server;
+    private URL url;
+
+    @Before
+    public void init() throws Exception {
+        Association association = mock(Association.class);
+        when(association.receiveInvocationRequest(any())).thenAnswer(invocation -> {
+            InvocationRequest request = invocation.getArgument(0);
+            String beanName = request.getEJBIdentifier().getBeanName();
+            if (beanName.equals("missing")) {
+                request.writeNoSuchEJB();
+                return CancelHandle.NULL;
+            }
+            InvocationRequest.Resolved content = request.getRequestContent(BatchInvocationHandlerTestCase.class.getClassLoader());
+            String parameter = (String) content.getParameters()[0];
+            if (beanName.equals("failing")) {
+                request.writeException(new IllegalStateException(parameter));
+            } else if (beanName.equals("slow")) {
+                this.maxConcurrentInvocations.accumulateAndGet(this.concurrentInvocations.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                this.concurrentInvocations.decrementAndGet();
+                content.writeInvocationResult(parameter);
+            } else if (beanName.equals("thread")) {
+                content.writeInvocationResult(Thread.currentThread().getName());
+            } else if (beanName.equals("blocking")) {
+                // Completes only after the invocation that follows it in the batch
+                assertTrue(this.latch.await(10, TimeUnit.SECONDS));
+                content.writeInvocationResult(parameter);
+            } else {
+                content.writeInvocationResult(parameter);
+                this.latch.countDown();
+            }
+            return CancelHandle.NULL;
+        });
+        PathHandler handler = new PathHandler().addPrefixPath(BatchInvocationHandler.PATH, new BatchInvocationHandler(association, null, this.executor, MAX_PAYLOAD_LENGTH, MAX_CONCURRENT_INVOCATIONS));
+        this.server = Undertow.builder().addHttpListener(0, "localhost").setHandler(handler).build();
+        this.server.start();
+        InetSocketAddress address = (InetSocketAddress) this.server.getListenerInfo().get(0).getAddress();
+        this.url = new URL("http", address.getHostString(), address.getPort(), BatchInvocationHandler.PATH);
+    }
+
+    @After
+    public void destroy() {
+        this.server.stop();
+        this.executor.shutdown();
+    }
+
+    @Test
+    public void batch() throws Exception {
+        List<BatchInvocationProtocol.Invocation> invocations = new ArrayList<>();
+        invocations.add(this.createInvocation(0, "blocking", "foo"));
+        invocations.add(this.createInvocation(1, "echo", "bar"));
+        invocations.add(this.createInvocation(2, "missing", "baz"));
+        invocations.add(this.createInvocation(3, "failing", "qux"));
+
+        List<BatchInvocationProtocol.Response> responses = this.invoke(invocations);
+        assertEquals(invocations.size(), responses.size());
+        Map<Integer, BatchInvocationProtocol.Response> results = new HashMap<>();
+        for (BatchInvocationProtocol.Response response : responses) {
+            results.put(response.getId(), response);
+        }
+        // Blocked invocation must not prevent the response to the subsequent invocation
+        assertEquals(0, responses.get(responses.size() - 1).getId());
+
+        this.assertResult(results.get(0), "foo");
+        this.assertResult(results.get(1), "bar");
+
+        assertEquals(BatchInvocationProtocol.NO_SUCH_EJB, results.get(2).getStatus());
+        assertArrayEquals(new byte[0], results.get(2).getPayload());
+
+        BatchInvocationProtocol.Response failure = results.get(3);
+        assertEquals(BatchInvocationProtocol.EXCEPTION, failure.getStatus());
+        Exception exception = (Exception) BatchInvocationProtocol.unmarshal(this.configuration, failure.getPayload(), 1)[0];
+        assertTrue(exception instanceof IllegalStateException);
+        assertEquals("qux", exception.getMessage());
+    }
+
+    @Test
+    public void concurrentInvocations() throws Exception {
+        List<BatchInvocationProtocol.Invocation> invocations = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            invocations.add(this.createInvocation(i, "slow", Integer.toString(i)));
+        }
+        List<BatchInvocationProtocol.Response> responses = this.invoke(invocations);
+        assertEquals(invocations.size(), responses.size());
+        for (BatchInvocationProtocol.Response response : responses) {
+            this.assertResult(response, Integer.toString(response.getId()));
+        }
+        // Reading of the batch pauses while the maximum number of invocations are incomplete
+        assertTrue(this.maxConcurrentInvocations.get() <= MAX_CONCURRENT_INVOCATIONS);
+    }
+
+    @Test
+    public void executor() throws Exception {
+        // Invocations execute via the specified executor, never via the I/O worker reading the batch
+        List<BatchInvocationProtocol.Response> responses = this.invoke(Collections.singletonList(this.createInvocation(0, "thread", "")));
+        assertEquals(1, responses.size());
+        this.assertResult(responses.get(0), THREAD_NAME);
+    }
+
+    @Test
+    public void resolvePositiveInteger() {
+        String property = "test.batch.property";
+        assertEquals(8, BatchInvocationHandler.resolvePositiveInteger(property, 8));
+        try {
+            System.setProperty(property, "4");
+            assertEquals(4, BatchInvocationHandler.resolvePositiveInteger(property, 8));
+            System.setProperty(property, "0");
+            assertEquals(8, BatchInvocationHandler.resolvePositiveInteger(property, 8));
+            System.setProperty(property, "four");
+            assertEquals(8, BatchInvocationHandler.resolvePositiveInteger(property, 8));
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void oversizedPayload() throws Exception {
+        List<BatchInvocationProtocol.Invocation> invocations = new ArrayList<>();
+        invocations.add(this.createInvocation(0, "echo", "foo"));
+        invocations.add(new BatchInvocationProtocol.Invocation(1, new EJBIdentifier("app", "module", "echo", ""), Runnable.class.getName(), ECHO, null, new byte[MAX_PAYLOAD_LENGTH + 1]));
+        invocations.add(this.createInvocation(2, "echo", "bar"));
+
+        // Batch is truncated at the invocation whose payload exceeds the maximum length
+        List<BatchInvocationProtocol.Response> responses = this.invoke(invocations);
+        assertEquals(1, responses.size());
+        this.assertResult(responses.get(0), "foo");
+    }
+
+    @Test
+    public void invalidPayloadLength() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            BatchInvocationProtocol.writeInvocation(output, new BatchInvocationProtocol.Invocation(0, new EJBIdentifier("app", "module", "echo", ""), Runnable.class.getName(), ECHO, null, null));
+        }
+        byte[] frame = bytes.toByteArray();
+        // Replace the -1 length of the absent payload with -2
+        frame[frame.length - 1] = (byte) 0xFE;
+
+        assertEquals(-2, new DataInputStream(new ByteArrayInputStream(frame, frame.length - 4, 4)).readInt());
+        try {
+            BatchInvocationProtocol.readInvocation(new DataInputStream(new ByteArrayInputStream(frame)), MAX_PAYLOAD_LENGTH);
+            fail("Negative payload length accepted");
+        } catch (StreamCorruptedException e) {
+            // Expected
+        }
+        assertTrue(this.invoke(Collections.emptyList(), frame).isEmpty());
+    }
+
+    @Test
+    public void empty() throws Exception {
+        assertTrue(this.invoke(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void unsupportedVersion() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) this.url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(BatchInvocationProtocol.VERSION + 1);
+        }
+        assertEquals(400, connection.getResponseCode());
+    }
+
+    private BatchInvocationProtocol.Invocation createInvocation(int id, String beanName, String parameter) throws IOException {
+        byte[] payload = BatchInvocationProtocol.marshal(this.configuration, new Object[] { parameter }, new HashMap<String, Object>());
+        return new BatchInvocationProtocol.Invocation(id, new EJBIdentifier("app", "module", beanName, ""), Runnable.class.getName(), ECHO, null, payload);
+    }
+
+    private void assertResult(BatchInvocationProtocol.Response response, String expected) throws Exception {
+        assertEquals(BatchInvocationProtocol.SUCCESS, response.getStatus());
+        Object[] values = BatchInvocationProtocol.unmarshal(this.configuration, response.getPayload(), 5);
+        // No session id nor affinities
+        assertEquals(null, values[0]);
+        assertEquals(null, values[1]);
+        assertEquals(null, values[2]);
+        assertTrue(values[3] instanceof Map);
+        assertEquals(expected, values[4]);
+    }
+
+    private List<BatchInvocationProtocol.Response> invoke(List<BatchInvocationProtocol.Invocation> invocations) throws IOException {
+        return this.invoke(invocations, new byte[0]);
+    }
+
+    /**
+     * Invokes the specified invocations, followed by the specified raw bytes, within a single batch.
+     */
+    private List<BatchInvocationProtocol.Response> invoke(List<BatchInvocationProtocol.Invocation> invocations, byte[] trailer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(BatchInvocationProtocol.VERSION);
+            for (BatchInvocationProtocol.Invocation invocation : invocations) {
+                BatchInvocationProtocol.writeInvocation(output, invocation);
+            }
+            output.write(trailer);
+        }
+        HttpURLConnection connection = (HttpURLConnection) this.url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", BatchInvocationProtocol.CONTENT_TYPE);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(bytes.toByteArray());
+        }
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(BatchInvocationProtocol.CONTENT_TYPE, connection.getContentType());
+        List<BatchInvocationProtocol.Response> responses = new ArrayList<>();
+        try (InputStream stream = connection.getInputStream(); DataInputStream input = new DataInputStream(stream)) {
+            assertEquals(BatchInvocationProtocol.VERSION, input.readByte());
+            BatchInvocationProtocol.Response response = BatchInvocationProtocol.readResponse(input);
+            while (response != null) {
+                responses.add(response);
+                response = BatchInvocationProtocol.readResponse(input);
+            }
+        }
+        return responses;
+    }
+}
@@ -64,7 +64,7 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-ejb3_10_0.xsd";
+        return "schema/wildfly-ejb3_11_0.xsd";
     }
 
     /*
@@ -143,6 +143,15 @@ public class Ejb3TransformersTestCase extends AbstractSubsystemBaseTest {
         FailedOperationTransformationConfig config = new FailedOperationTransformationConfig();
         PathAddress subsystemAddress = PathAddress.pathAddress(EJB3Extension.SUBSYSTEM_PATH);
 
+        // need to include all changes from current to 10.0.0
+        if (EJB3Model.VERSION_10_0_0.requiresTransformation(version)) {
+            // reject the resource /subsystem=ejb3/pool
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.POOL_PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
+            // reject the resource /subsystem=ejb3/service=timer-service/journal-file-data-store
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.TIMER_SERVICE_PATH, EJB3SubsystemModel.JOURNAL_FILE_DATA_STORE_PATH), FailedOperationTransformationConfig.REJECTED_RESOURCE);
+            // reject the max-size attribute of /subsystem=ejb3/simple-cache
+            config.addFailedAttribute(subsystemAddress.append(EJB3SubsystemModel.SIMPLE_CACHE_PATH), new FailedOperationTransformationConfig.NewAttributesConfig(SimpleStatefulSessionBeanCacheProviderResourceDefinition.Attribute.MAX_SIZE.getDefinition()));
+        }
         // need to include all changes from current to 9.0.0
         if (EJB3Model.VERSION_9_0_0.requiresTransformation(version)) {
             // reject the resource /subsystem=ejb3/simple-cache
@@ -163,4 +163,19 @@ public class DatabaseTimerPersistenceTestCase {
         Assert.assertEquals("sybase", field.get(object));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void updateTimerWithoutLastModifiedTest() throws Exception {
+        final Field sqlField = object.getClass().getDeclaredField("sql");
+        sqlField.setAccessible(true);
+        final Properties sql = (Properties) sqlField.get(object);
+        sql.setProperty("update-timer", "UPDATE JBOSS_EJB_TIMER SET NEXT_DATE=?, PREVIOUS_RUN=?, TIMER_STATE=?, NODE_NAME=?, LAST_MODIFIED=CURRENT_TIMESTAMP WHERE TIMED_OBJECT_ID=? and ID=?");
+        final Method adjust = object.getClass().getDeclaredMethod("adjustUpdateTimerStatement");
+        adjust.setAccessible(true);
+        adjust.invoke(object);
+        Assert.assertEquals("UPDATE JBOSS_EJB_TIMER SET NEXT_DATE=?, PREVIOUS_RUN=?, TIMER_STATE=?, NODE_NAME=? WHERE TIMED_OBJECT_ID=? and ID=?", sql.getProperty("update-timer"));
+
+        sql.setProperty("update-timer", "UPDATE JBOSS_EJB_TIMER SET NEXT_DATE=?, PREVIOUS_RUN=?, TIMER_STATE=?, NODE_NAME=?, LAST_MODIFIED=getdate() WHERE TIMED_OBJECT_ID=? and ID=?");
+        adjust.invoke(object);
+        Assert.assertEquals("UPDATE JBOSS_EJB_TIMER SET NEXT_DATE=?, PREVIOUS_RUN=?, TIMER_STATE=?, NODE_NAME=? WHERE TIMED_OBJECT_ID=? and ID=?", sql.getProperty("update-timer"));
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transaction;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.DeferredTimerInfo;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence.TimerChangeListener;
+import org.jboss.as.naming.ImmediateManagedReferenceFactory;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link DatabaseTimerPersistence} against an H2 database, shared by the persistence instances of two nodes.
+ */
+public class H2DatabaseTimerPersistenceTestCase {
+
+    private static final String PARTITION = "partition";
+    private static final String TIMED_OBJECT_ID = "app.module.Bean";
+
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+    private final TimerServiceImpl timerService = mock(TimerServiceImpl.class);
+    private final TimerServiceImpl remoteTimerService = mock(TimerServiceImpl.class);
+    private final RecordingTimerChangeListener listener = new RecordingTimerChangeListener(this.timerService);
+    // The transaction of the local node, if any
+    private volatile Transaction transaction;
+    private DatabaseTimerPersistence persistence;
+    private DatabaseTimerPersistence remotePersistence;
+
+    @Before
+    public void init() {
+        this.dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @After
+    public void destroy() throws SQLException {
+        if (this.remotePersistence != null) {
+            this.remotePersistence.stop(null);
+        }
+        if (this.persistence != null) {
+            this.persistence.stop(null);
+        }
+        try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    public void refreshChangedTimers() throws Exception {
+        this.deploy();
+        this.remotePersistence.addTimer(this.createTimer("1", TimerState.ACTIVE, null));
+        this.persistence.refreshTimers();
+        assertEquals(List.of("1"), this.listener.added);
+        // Watermark advances to the most recent modification
+        assertEquals(this.lastModified("1"), this.watermark());
+
+        // Unchanged timers are not reloaded
+        this.persistence.refreshTimers();
+        assertEquals(List.of("1"), this.listener.added);
+
+        // Emulate a timer whose transaction committed after a refresh loaded the changed rows, i.e. modified prior to the watermark
+        Timestamp watermark = this.watermark();
+        this.remotePersistence.addTimer(this.createTimer("2", TimerState.ACTIVE, null));
+        this.setLastModified("2", new Timestamp(watermark.getTime() - TimeUnit.SECONDS.toMillis(1)));
+        this.persistence.refreshTimers();
+        assertEquals(List.of("1", "2"), this.listener.added);
+        assertEquals(watermark, this.watermark());
+
+        // Removals are detected, even though removed rows are never returned by the changed timers query
+        TimerImpl timer = this.listener.timers.get(0);
+        when(this.timerService.getTimer("1")).thenReturn(timer);
+        this.remotePersistence.persistTimer(this.createTimer("1", TimerState.CANCELED, null));
+        this.persistence.refreshTimers();
+        assertEquals(List.of("1"), this.listener.removed);
+        assertEquals(List.of("1", "2"), this.listener.added);
+        assertEquals(watermark, this.watermark());
+    }
+
+    @Test
+    public void binaryInfo() throws Exception {
+        // Table created by a previous deployment, whose info column is binary
+        Properties sql = new Properties();
+        try (InputStream input = DatabaseTimerPersistence.class.getClassLoader().getResourceAsStream("timer-sql.properties")) {
+            sql.load(input);
+        }
+        try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql.getProperty("create-binary-table"));
+        }
+        this.deploy();
+        this.remotePersistence.addTimer(this.createTimer("1", TimerState.ACTIVE, "foo"));
+
+        // Info is stored as is, rather than Base64 encoded
+        try (Connection connection = this.dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement("SELECT INFO FROM JBOSS_EJB_TIMER WHERE ID=?")) {
+            statement.setString(1, "1");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                assertEquals(Types.BLOB, resultSet.getMetaData().getColumnType(1));
+                assertEquals("foo", unmarshal(resultSet.getBytes(1)));
+            }
+        }
+        List<TimerImpl> timers = this.persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService);
+        assertEquals(1, timers.size());
+        assertEquals("foo", timers.get(0).getTimerInfo());
+    }
+
+    @Test
+    public void writeBatch() throws Exception {
+        this.deploy();
+        TimerImpl timer = this.createTimer("1", TimerState.ACTIVE, null);
+        this.persistence.addTimer(timer);
+
+        List<Synchronization> synchronizations = new ArrayList<>();
+        Transaction transaction = mock(Transaction.class);
+        doAnswer(invocation -> synchronizations.add(invocation.getArgument(0))).when(transaction).registerSynchronization(any());
+        this.transaction = transaction;
+
+        // Repeated writes of the same timer are coalesced into its final state
+        timer.setTimerState(TimerState.IN_TIMEOUT, Thread.currentThread());
+        this.persistence.persistTimer(timer);
+        timer.setTimerState(TimerState.RETRY_TIMEOUT, Thread.currentThread());
+        this.persistence.persistTimer(timer);
+        TimerImpl insertedTimer = this.createTimer("2", TimerState.ACTIVE, null);
+        this.persistence.addTimer(insertedTimer);
+        // Timers created and cancelled within the same transaction are never written
+        TimerImpl cancelledTimer = this.createTimer("3", TimerState.ACTIVE, null);
+        this.persistence.addTimer(cancelledTimer);
+        cancelledTimer.setTimerState(TimerState.CANCELED, null);
+        this.persistence.persistTimer(cancelledTimer);
+
+        assertEquals(1, synchronizations.size());
+        // Nothing is written until the transaction completes
+        assertEquals(Map.of("1", TimerState.ACTIVE), this.states());
+
+        // Queries within the transaction flush its pending writes
+        assertNotNull(this.persistence.loadTimer(TIMED_OBJECT_ID, "2", this.timerService));
+        assertEquals(Map.of("1", TimerState.RETRY_TIMEOUT, "2", TimerState.ACTIVE), this.states());
+
+        insertedTimer.setTimerState(TimerState.IN_TIMEOUT, Thread.currentThread());
+        this.persistence.persistTimer(insertedTimer);
+        assertEquals(Map.of("1", TimerState.RETRY_TIMEOUT, "2", TimerState.ACTIVE), this.states());
+
+        synchronizations.get(0).beforeCompletion();
+        assertEquals(Map.of("1", TimerState.RETRY_TIMEOUT, "2", TimerState.IN_TIMEOUT), this.states());
+        synchronizations.get(0).afterCompletion(Status.STATUS_COMMITTED);
+    }
+
+    @Test
+    public void rollbackWriteBatch() throws Exception {
+        this.deploy();
+        List<Synchronization> synchronizations = new ArrayList<>();
+        Transaction transaction = mock(Transaction.class);
+        doAnswer(invocation -> synchronizations.add(invocation.getArgument(0))).when(transaction).registerSynchronization(any());
+        this.transaction = transaction;
+
+        this.persistence.addTimer(this.createTimer("1", TimerState.ACTIVE, null));
+        synchronizations.get(0).afterCompletion(Status.STATUS_ROLLEDBACK);
+        this.transaction = null;
+
+        // A timer whose creation was rolled back remains unknown, thus the same timer created by another member is added
+        this.remotePersistence.addTimer(this.createTimer("1", TimerState.ACTIVE, null));
+        this.persistence.refreshTimers();
+        assertEquals(List.of("1"), this.listener.added);
+    }
+
+    @Test
+    public void deferredInfo() throws Exception {
+        this.deploy();
+        this.remotePersistence.addTimer(this.createTimer("1", TimerState.ACTIVE, "foo"));
+        List<TimerImpl> timers = this.persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService);
+        assertEquals(1, timers.size());
+        TimerImpl timer = timers.get(0);
+
+        Field infoField = TimerImpl.class.getDeclaredField("info");
+        infoField.setAccessible(true);
+        // Info is not unmarshalled on load
+        assertTrue(infoField.get(timer) instanceof DeferredTimerInfo);
+        // Nor to describe the timer
+        assertTrue(timer.toString().contains("info=<deferred>"));
+        assertTrue(infoField.get(timer) instanceof DeferredTimerInfo);
+
+        // Info is unmarshalled once first accessed
+        assertEquals("foo", timer.getCachedTimerInfo());
+        assertEquals("foo", infoField.get(timer));
+        assertTrue(timer.toString().contains("info=foo"));
+    }
+
+    private void deploy() throws Exception {
+        this.persistence = this.start("nodeA", () -> this.transaction);
+        this.remotePersistence = this.start("nodeB", () -> null);
+        this.persistence.registerChangeListener(TIMED_OBJECT_ID, this.listener);
+        assertTrue(this.persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService).isEmpty());
+        assertTrue(this.remotePersistence.loadActiveTimers(TIMED_OBJECT_ID, this.remoteTimerService).isEmpty());
+    }
+
+    private DatabaseTimerPersistence start(String nodeName, Supplier<Transaction> transaction) throws Exception {
+        DatabaseTimerPersistence persistence = new DatabaseTimerPersistence(value -> {}, () -> new ImmediateManagedReferenceFactory(this.dataSource), () -> mock(ModuleLoader.class), null, transaction, "h2", PARTITION, nodeName, 0, true);
+        persistence.start(null);
+        persistence.timerDeployed(TIMED_OBJECT_ID);
+        return persistence;
+    }
+
+    private TimerImpl createTimer(String id, TimerState state, Serializable info) {
+        return TimerImpl.builder()
+                .setId(id)
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                // Expires soon enough that its info is retained in memory
+                .setInitialDate(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)))
+                .setRepeatInterval(0)
+                .setInfo(info)
+                .setTimerState(state)
+                .setPersistent(true)
+                .setNewTimer(true)
+                .build(this.remoteTimerService);
+    }
+
+    private Map<String, TimerState> states() throws SQLException {
+        Map<String, TimerState> states = new HashMap<>();
+        try (Connection connection = this.dataSource.getConnection(); Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT ID, TIMER_STATE FROM JBOSS_EJB_TIMER")) {
+            while (resultSet.next()) {
+                states.put(resultSet.getString(1), TimerState.valueOf(resultSet.getString(2)));
+            }
+        }
+        return states;
+    }
+
+    private static Object unmarshal(byte[] data) throws Exception {
+        try (Unmarshaller unmarshaller = new RiverMarshallerFactory().createUnmarshaller(new MarshallingConfiguration())) {
+            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(data)));
+            return unmarshaller.readObject();
+        }
+    }
+
+    private Timestamp watermark() throws ReflectiveOperationException {
+        Field refreshTaskField = DatabaseTimerPersistence.class.getDeclaredField("refreshTask");
+        refreshTaskField.setAccessible(true);
+        Object refreshTask = refreshTaskField.get(this.persistence);
+        Field watermarkField = refreshTask.getClass().getDeclaredField("watermark");
+        watermarkField.setAccessible(true);
+        return (Timestamp) watermarkField.get(refreshTask);
+    }
+
+    private Timestamp lastModified(String id) throws SQLException {
+        try (Connection connection = this.dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement("SELECT LAST_MODIFIED FROM JBOSS_EJB_TIMER WHERE ID=?")) {
+            statement.setString(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getTimestamp(1);
+            }
+        }
+    }
+
+    private void setLastModified(String id, Timestamp lastModified) throws SQLException {
+        try (Connection connection = this.dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement("UPDATE JBOSS_EJB_TIMER SET LAST_MODIFIED=? WHERE ID=?")) {
+            statement.setTimestamp(1, lastModified);
+            statement.setString(2, id);
+            assertEquals(1, statement.executeUpdate());
+        }
+    }
+
+    private static class RecordingTimerChangeListener implements TimerChangeListener {
+        private final TimerServiceImpl timerService;
+        final List<TimerImpl> timers = new ArrayList<>();
+        final List<String> added = new ArrayList<>();
+        final List<String> removed = new ArrayList<>();
+
+        RecordingTimerChangeListener(TimerServiceImpl timerService) {
+            this.timerService = timerService;
+        }
+
+        @Override
+        public void timerAdded(TimerImpl timer) {
+            this.timers.add(timer);
+            this.added.add(timer.getId());
+        }
+
+        @Override
+        public void timerSync(TimerImpl oldTimer, TimerImpl newTimer) {
+        }
+
+        @Override
+        public void timerRemoved(String timerId) {
+            this.removed.add(timerId);
+        }
+
+        @Override
+        public TimerServiceImpl getTimerService() {
+            return this.timerService;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link JournalTimerPersistence}.
+ */
+public class JournalTimerPersistenceTestCase {
+
+    private static final String TIMED_OBJECT_ID = "app.module.Bean";
+    private static final long INITIAL_DATE = 1672531200000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TimerServiceImpl timerService = mock(TimerServiceImpl.class);
+    private final PathManager pathManager = mock(PathManager.class);
+    private final ModuleLoader moduleLoader = mock(ModuleLoader.class);
+
+    @Before
+    public void init() {
+        TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+        when(invoker.getClassLoader()).thenReturn(this.getClass().getClassLoader());
+        when(this.timerService.getInvoker()).thenReturn(invoker);
+        when(this.pathManager.resolveRelativePathEntry("timers", null)).thenReturn(this.folder.getRoot().getAbsolutePath());
+    }
+
+    @Test
+    public void migrate() throws IOException {
+        File directory = this.folder.newFolder(TIMED_OBJECT_ID);
+        File timerFile = new File(directory, "1.xml");
+        File calendarTimerFile = new File(directory, "2.xml");
+        File invalidFile = new File(directory, "3.xml");
+        write(timerFile, String.format("<timer timed-object-id=\"%s\" timer-id=\"1\" initial-date=\"%d\" repeat-interval=\"1000\" next-date=\"%d\" timer-state=\"ACTIVE\"><info>%s</info></timer>", TIMED_OBJECT_ID, INITIAL_DATE, INITIAL_DATE + 1000, marshal("foo")));
+        write(calendarTimerFile, String.format("<calendar-timer timed-object-id=\"%s\" timer-id=\"2\" next-date=\"%d\" timer-state=\"ACTIVE\" schedule-expr-second=\"0\" schedule-expr-minute=\"30\" schedule-expr-hour=\"2\" schedule-expr-day-of-week=\"*\" schedule-expr-day-of-month=\"*\" schedule-expr-month=\"*\" schedule-expr-year=\"*\"/>", TIMED_OBJECT_ID, INITIAL_DATE));
+        Files.write(invalidFile.toPath(), "<timers".getBytes(StandardCharsets.UTF_8));
+
+        JournalTimerPersistence persistence = this.start();
+        try {
+            verify(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService));
+            // Files are only removed once their timers are durable within the journal
+            assertFalse(timerFile.exists());
+            assertFalse(calendarTimerFile.exists());
+            // Unreadable files are retained
+            assertTrue(invalidFile.exists());
+            // Subsequent loads read from the journal
+            verify(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService));
+        } finally {
+            persistence.stop(null);
+        }
+
+        assertTrue(invalidFile.delete());
+
+        // Migrated timers must survive a restart
+        persistence = this.start();
+        try {
+            verify(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService));
+            // Empty legacy directory is removed
+            assertFalse(directory.exists());
+        } finally {
+            persistence.stop(null);
+        }
+    }
+
+    @Test
+    public void journalSupersedesLegacyFile() throws IOException {
+        JournalTimerPersistence persistence = this.start();
+        try {
+            assertTrue(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService).isEmpty());
+            TimerImpl timer = TimerImpl.builder()
+                    .setId("1")
+                    .setTimedObjectId(TIMED_OBJECT_ID)
+                    .setInitialDate(new Date(INITIAL_DATE))
+                    .setRepeatInterval(2000)
+                    .setTimerState(TimerState.ACTIVE)
+                    .setPersistent(true)
+                    .build(this.timerService);
+            persistence.addTimer(timer);
+        } finally {
+            persistence.stop(null);
+        }
+
+        // Stale legacy file for a timer already contained in the journal
+        File directory = this.folder.newFolder(TIMED_OBJECT_ID);
+        File timerFile = new File(directory, "1.xml");
+        write(timerFile, String.format("<timer timed-object-id=\"%s\" timer-id=\"1\" initial-date=\"%d\" repeat-interval=\"1000\" timer-state=\"ACTIVE\"/>", TIMED_OBJECT_ID, INITIAL_DATE));
+
+        persistence = this.start();
+        try {
+            Map<String, TimerImpl> timers = index(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.timerService));
+            assertEquals(1, timers.size());
+            assertEquals(2000L, timers.get("1").getInterval());
+            assertFalse(timerFile.exists());
+        } finally {
+            persistence.stop(null);
+        }
+    }
+
+    private JournalTimerPersistence start() {
+        JournalTimerPersistence persistence = new JournalTimerPersistence(value -> {}, () -> null, () -> this.moduleLoader, () -> this.pathManager, "timers", null, 1 << 20);
+        persistence.start(null);
+        return persistence;
+    }
+
+    private static void verify(Iterable<TimerImpl> loaded) {
+        Map<String, TimerImpl> timers = index(loaded);
+        assertEquals(2, timers.size());
+
+        TimerImpl timer = timers.get("1");
+        assertFalse(timer instanceof CalendarTimer);
+        assertEquals(new Date(INITIAL_DATE), timer.getInitialExpiration());
+        assertEquals(new Date(INITIAL_DATE + 1000), timer.getNextExpiration());
+        assertEquals(1000L, timer.getInterval());
+        assertEquals(TimerState.ACTIVE, timer.getState());
+        assertEquals("foo", timer.getTimerInfo());
+
+        TimerImpl calendarTimer = timers.get("2");
+        assertTrue(calendarTimer instanceof CalendarTimer);
+        assertEquals(new Date(INITIAL_DATE), calendarTimer.getNextExpiration());
+        assertEquals("30", ((CalendarTimer) calendarTimer).getScheduleExpression().getMinute());
+        assertEquals("2", ((CalendarTimer) calendarTimer).getScheduleExpression().getHour());
+        assertFalse(((CalendarTimer) calendarTimer).isAutoTimer());
+        assertNull(calendarTimer.getTimerInfo());
+    }
+
+    private static Map<String, TimerImpl> index(Iterable<TimerImpl> timers) {
+        Map<String, TimerImpl> result = new HashMap<>();
+        for (TimerImpl timer : timers) {
+            result.put(timer.getId(), timer);
+        }
+        return result;
+    }
+
+    private static void write(File file, String timer) throws IOException {
+        String content = String.format("<?xml version=\"1.0\" ?><timers xmlns=\"%s\">%s</timers>", EjbTimerXmlParser_1_0.NAMESPACE, timer);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String marshal(Object info) throws IOException {
+        MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setVersion(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Marshaller marshaller = new RiverMarshallerFactory().createMarshaller(configuration)) {
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(info);
+            marshaller.finish();
+        }
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+}
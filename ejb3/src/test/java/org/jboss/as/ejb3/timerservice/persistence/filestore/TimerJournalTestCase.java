@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private static final long SEGMENT_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void recover() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            journal.put("foo", "1", bytes("a"));
+            journal.put("foo", "2", bytes("b"));
+            journal.put("bar", "1", bytes("c"));
+            journal.put("foo", "1", bytes("d"));
+            journal.remove("foo", "2");
+            journal.remove("foo", "3");
+            assertTrue(journal.contains("foo", "1"));
+            assertFalse(journal.contains("foo", "2"));
+        }
+        // Recover via index
+        assertTrue(Files.exists(directory.resolve(TimerJournal.INDEX_FILE_NAME)));
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            verify(journal);
+        }
+        // Recover via full scan
+        Files.delete(directory.resolve(TimerJournal.INDEX_FILE_NAME));
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            verify(journal);
+        }
+    }
+
+    @Test
+    public void recoverAfterCheckpoint() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            journal.put("foo", "1", bytes("a"));
+            journal.put("foo", "2", bytes("b"));
+        }
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            // Records following checkpoint must be replayed
+            journal.put("bar", "1", bytes("c"));
+            journal.put("foo", "1", bytes("d"));
+            journal.remove("foo", "2");
+            // Simulate crash, i.e. no checkpoint
+            copy(directory, this.folder.newFolder("crash").toPath());
+        }
+        try (TimerJournal journal = TimerJournal.open(this.folder.getRoot().toPath().resolve("crash"), SEGMENT_SIZE)) {
+            verify(journal);
+        }
+    }
+
+    @Test
+    public void tornWrite() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            journal.put("foo", "1", bytes("a"));
+            journal.put("foo", "2", bytes("b"));
+        }
+        Files.delete(directory.resolve(TimerJournal.INDEX_FILE_NAME));
+        Path segment = segments(directory).get(0);
+        long size = Files.size(segment);
+        // Corrupt last byte of the second record, and append a partial frame
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'x' }), size - 1);
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 1 }), size);
+        }
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            assertTrue(journal.contains("foo", "1"));
+            assertFalse(journal.contains("foo", "2"));
+            // Journal remains writable following truncation
+            journal.put("foo", "3", bytes("c"));
+        }
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            Map<String, byte[]> timers = journal.read("foo");
+            assertEquals(2, timers.size());
+            assertArrayEquals(bytes("a"), timers.get("1"));
+            assertArrayEquals(bytes("c"), timers.get("3"));
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+        Path directory = this.folder.getRoot().toPath();
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            // Repeatedly supersede the same few records, spanning many segments
+            for (int i = 0; i < 1000; ++i) {
+                journal.put("foo", Integer.toString(i % 4), bytes(Integer.toString(i)));
+            }
+            assertTrue(journal.getSegmentCount() <= 2);
+            journal.compact();
+            assertEquals(0, journal.getDeadBytes());
+            assertEquals(1, journal.getSegmentCount());
+            assertEquals(1, segments(directory).size());
+        }
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            Map<String, byte[]> timers = journal.read("foo");
+            assertEquals(4, timers.size());
+            for (int i = 996; i < 1000; ++i) {
+                assertArrayEquals(bytes(Integer.toString(i)), timers.get(Integer.toString(i % 4)));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentWriters() throws Exception {
+        Path directory = this.folder.getRoot().toPath();
+        int threads = 8;
+        int timers = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; ++i) {
+                String timedObjectId = Integer.toString(i);
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < timers; ++j) {
+                        journal.put(timedObjectId, Integer.toString(j), bytes(timedObjectId + j));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try (TimerJournal journal = TimerJournal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < threads; ++i) {
+                Map<String, byte[]> result = journal.read(Integer.toString(i));
+                assertEquals(timers, result.size());
+                for (int j = 0; j < timers; ++j) {
+                    assertArrayEquals(bytes(Integer.toString(i) + j), result.get(Integer.toString(j)));
+                }
+            }
+        }
+    }
+
+    private static void verify(TimerJournal journal) throws IOException {
+        Map<String, byte[]> foo = journal.read("foo");
+        assertEquals(1, foo.size());
+        assertArrayEquals(bytes("d"), foo.get("1"));
+        Map<String, byte[]> bar = journal.read("bar");
+        assertEquals(1, bar.size());
+        assertArrayEquals(bytes("c"), bar.get("1"));
+        assertTrue(journal.read("baz").isEmpty());
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(TimerJournal.SEGMENT_SUFFIX)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        for (Path segment : segments(source)) {
+            Files.copy(segment, target.resolve(segment.getFileName()));
+        }
+        Path index = source.resolve(TimerJournal.INDEX_FILE_NAME);
+        if (Files.exists(index)) {
+            Files.copy(index, target.resolve(TimerJournal.INDEX_FILE_NAME));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
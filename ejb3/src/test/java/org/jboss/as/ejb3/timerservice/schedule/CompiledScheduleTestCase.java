@@ -0,0 +1,461 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Differential test of {@link CompiledSchedule}, which compares the timeouts computed by {@link CalendarBasedTimeout}
+ * for randomly generated schedules against those computed by walking the fields of a {@link Calendar}.
+ * Around offset transitions, which the {@link Calendar} based computation does not resolve consistently,
+ * timeouts are instead compared against those computed by scanning local date-times.
+ */
+public class CompiledScheduleTestCase {
+
+    private static final long SEED = 20231016L;
+    private static final int SCHEDULES = 2000;
+    private static final int TIMEOUTS = 20;
+    private static final String[] TIME_ZONES = { "UTC", "Europe/Berlin", "America/New_York", "Australia/Sydney", "Asia/Kolkata" };
+    private static final String[] DAYS_OF_WEEK = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
+    private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+    private static final String[] ORDINALS = { "1st", "2nd", "3rd", "4th", "5th", "Last" };
+    // Both the first and last timeouts of a day containing an offset transition are subject to the transition
+    private static final Duration TRANSITION_MARGIN = Duration.ofDays(2);
+    // Bounds the scan of local date-times, beyond the last year of any generated schedule that matches at all
+    private static final int LAST_YEAR = 2100;
+
+    @Test
+    public void randomSchedules() {
+        Random random = new Random(SEED);
+        long from = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2035-01-01T00:00:00Z").toEpochMilli();
+        for (int i = 0; i < SCHEDULES; ++i) {
+            String zone = TIME_ZONES[random.nextInt(TIME_ZONES.length)];
+            ScheduleExpression expression = new ScheduleExpression()
+                    .second(timeValue(random, 60))
+                    .minute(timeValue(random, 60))
+                    .hour(timeValue(random, 24))
+                    .dayOfMonth(dayOfMonthValue(random))
+                    .month(monthValue(random))
+                    .dayOfWeek(dayOfWeekValue(random))
+                    .year(yearValue(random))
+                    .timezone(zone);
+            if (random.nextInt(4) == 0) {
+                expression.start(new Date(from + (long) (random.nextDouble() * (to - from))));
+            }
+            if (random.nextInt(4) == 0) {
+                expression.end(new Date(from + (long) (random.nextDouble() * (to - from))));
+            }
+            CalendarBasedTimeout timeout = new CalendarBasedTimeout(expression);
+            ZoneRules rules = ZoneId.of(zone).getRules();
+
+            Calendar current = new GregorianCalendar(TimeZone.getTimeZone(zone));
+            current.setTimeInMillis(from + (long) (random.nextDouble() * (to - from)));
+            for (int j = 0; j < TIMEOUTS && current != null; ++j) {
+                Calendar expected = timeout.computeNextTimeout((Calendar) current.clone(), true);
+                Calendar result = timeout.getNextTimeout((Calendar) current.clone());
+                Long expectedTime = (expected != null) ? expected.getTimeInMillis() : null;
+                Long resultTime = (result != null) ? result.getTimeInMillis() : null;
+                if (nearTransition(rules, current, expected, result)) {
+                    String message = String.format("%s, from %s", describe(expression), current.toInstant());
+                    Assert.assertEquals(message, nextTimeout(expression, rules, current.getTimeInMillis()), toInstant(resultTime));
+                } else if (!Objects.equals(expectedTime, resultTime)) {
+                    String message = String.format("%s, from %s: expected %s, but was %s", describe(expression), current.toInstant(), toInstant(expectedTime), toInstant(resultTime));
+                    // The Calendar based computation is known to skip to the wrong day in some cases, e.g. when advancing to a new month
+                    // Consequently, a mismatch is only tolerated if the expected timeout does not actually match the schedule
+                    Assert.assertFalse(message, matches(expression, expected));
+                    Assert.assertNotNull(message, result);
+                    Assert.assertTrue(message, matches(expression, result));
+                }
+                current = result;
+            }
+        }
+    }
+
+    @Test
+    public void relativeDaysOfMonth() {
+        ScheduleExpression expression = new ScheduleExpression().second(0).minute(0).hour(12).dayOfMonth("Last Sat, -3, 5th Wed").timezone("UTC");
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(expression);
+        Calendar current = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        current.setTimeInMillis(Instant.parse("2023-02-01T00:00:00Z").toEpochMilli());
+        List<Instant> results = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            current = timeout.getNextTimeout(current);
+            results.add(current.toInstant());
+        }
+        Assert.assertEquals(List.of(Instant.parse("2023-02-25T12:00:00Z"), // Last Sat, -3
+                Instant.parse("2023-02-28T12:00:00Z"), // 5th Wed does not exist, i.e. last day
+                Instant.parse("2023-03-25T12:00:00Z"), // Last Sat
+                Instant.parse("2023-03-28T12:00:00Z"), // -3
+                Instant.parse("2023-03-29T12:00:00Z"), // 5th Wed
+                Instant.parse("2023-04-27T12:00:00Z")), // -3
+                results);
+    }
+
+    @Test
+    public void skippedLocalTimes() {
+        // A skipped local time matches using the offset preceding the transition
+        assertTimeouts("Europe/Berlin", "2", "30", "2023-03-25T12:00:00Z", "2023-03-26T01:30:00Z", "2023-03-27T00:30:00Z");
+        assertTimeouts("Europe/Berlin", "2", "*/30", "2023-03-25T12:00:00Z", "2023-03-26T01:00:00Z", "2023-03-26T01:30:00Z", "2023-03-27T00:00:00Z");
+        // Skipped local times coincide with those following the transition
+        assertTimeouts("Europe/Berlin", "1-3", "*/30", "2023-03-25T23:10:00Z", "2023-03-26T00:00:00Z", "2023-03-26T00:30:00Z", "2023-03-26T01:00:00Z", "2023-03-26T01:30:00Z", "2023-03-26T23:00:00Z");
+        // Skipped local times not yet elapsed still match after the transition
+        assertTimeouts("Europe/Berlin", "2", "*/30", "2023-03-26T01:10:00Z", "2023-03-26T01:30:00Z", "2023-03-27T00:00:00Z");
+        assertTimeouts("America/New_York", "2", "30", "2023-03-11T12:00:00Z", "2023-03-12T07:30:00Z", "2023-03-13T06:30:00Z");
+        assertTimeouts("Australia/Sydney", "2", "30", "2023-09-29T12:00:00Z", "2023-09-29T16:30:00Z", "2023-09-30T16:30:00Z", "2023-10-01T15:30:00Z");
+        assertTimeouts("Australia/Sydney", "1-3", "*/30", "2023-09-30T14:40:00Z", "2023-09-30T15:00:00Z", "2023-09-30T15:30:00Z", "2023-09-30T16:00:00Z", "2023-09-30T16:30:00Z", "2023-10-01T14:00:00Z");
+    }
+
+    @Test
+    public void repeatedLocalTimes() {
+        // A daily schedule fires only once
+        assertTimeouts("Europe/Berlin", "2", "30", "2023-10-28T12:00:00Z", "2023-10-29T00:30:00Z", "2023-10-30T01:30:00Z");
+        assertTimeouts("Europe/Berlin", "2", "*/30", "2023-10-28T12:00:00Z", "2023-10-29T00:00:00Z", "2023-10-29T00:30:00Z", "2023-10-30T01:00:00Z");
+        assertTimeouts("Australia/Sydney", "2", "30", "2023-03-31T12:00:00Z", "2023-03-31T15:30:00Z", "2023-04-01T15:30:00Z", "2023-04-02T16:30:00Z");
+        // ... unless the search starts within the repeated period
+        assertTimeouts("Europe/Berlin", "2", "30", "2023-10-29T01:10:00Z", "2023-10-29T01:30:00Z", "2023-10-30T01:30:00Z");
+        // A schedule that matches later that same day continues throughout the repeated period
+        assertTimeouts("Europe/Berlin", "1-3", "*/30", "2023-10-28T22:50:00Z", "2023-10-28T23:00:00Z", "2023-10-28T23:30:00Z", "2023-10-29T00:00:00Z", "2023-10-29T00:30:00Z",
+                "2023-10-29T01:00:00Z", "2023-10-29T01:30:00Z", "2023-10-29T02:00:00Z", "2023-10-29T02:30:00Z", "2023-10-30T00:00:00Z");
+        assertTimeouts("America/New_York", "0-2", "0,30", "2023-11-05T03:50:00Z", "2023-11-05T04:00:00Z", "2023-11-05T04:30:00Z", "2023-11-05T05:00:00Z", "2023-11-05T05:30:00Z",
+                "2023-11-05T06:00:00Z", "2023-11-05T06:30:00Z", "2023-11-05T07:00:00Z", "2023-11-05T07:30:00Z", "2023-11-06T05:00:00Z");
+    }
+
+    private static void assertTimeouts(String zone, String hour, String minute, String from, String... expected) {
+        ScheduleExpression expression = new ScheduleExpression().second(0).minute(minute).hour(hour).timezone(zone);
+        CalendarBasedTimeout timeout = new CalendarBasedTimeout(expression);
+        Calendar current = new GregorianCalendar(TimeZone.getTimeZone(zone));
+        current.setTimeInMillis(Instant.parse(from).toEpochMilli());
+        List<Instant> results = new ArrayList<>();
+        for (int i = 0; i < expected.length; ++i) {
+            current = timeout.getNextTimeout(current);
+            results.add(current.toInstant());
+        }
+        Assert.assertEquals(describe(expression), Arrays.stream(expected).map(Instant::parse).collect(Collectors.toList()), results);
+    }
+
+    /**
+     * Computes the next timeout of the specified schedule, independently of both {@link CompiledSchedule} and the {@link Calendar} based computation,
+     * as the earliest instant at which a matching local date-time occurs.
+     * A local date-time skipped by an offset transition occurs using the offset preceding the transition.
+     * A local date-time repeated by an offset transition occurs again only if the search starts after the transition,
+     * or if the schedule matches that same day at or after the end of the repeated period.
+     */
+    private static Instant nextTimeout(ScheduleExpression expression, ZoneRules rules, long current) {
+        long time;
+        if (expression.getStart() != null && current < expression.getStart().getTime()) {
+            time = expression.getStart().getTime();
+        } else {
+            time = current + 1000L;
+            time -= Math.floorMod(time, 1000L);
+        }
+        LocalSchedule schedule = new LocalSchedule(expression);
+        Instant from = Instant.ofEpochSecond(Math.floorDiv(time, 1000L));
+        Instant result = null;
+        // A local date-time occurring no earlier than the current instant is no earlier than its local date-time using the least of the surrounding offsets
+        ZoneOffset offset = min(rules.getOffset(from.minus(TRANSITION_MARGIN)), rules.getOffset(from));
+        // Any earlier occurrence of a subsequent local date-time lies across a transition, within the difference between its offsets
+        LocalDateTime limit = null;
+        for (LocalDateTime local = schedule.nextMatch(LocalDateTime.ofInstant(from, offset)); local != null && (limit == null || local.isBefore(limit)); local = schedule.nextMatch(local.plusSeconds(1))) {
+            List<ZoneOffset> offsets = rules.getValidOffsets(local);
+            List<Instant> instants = new ArrayList<>(2);
+            if (offsets.isEmpty()) {
+                instants.add(local.toInstant(rules.getTransition(local).getOffsetBefore()));
+            } else {
+                instants.add(local.toInstant(offsets.get(0)));
+                if (offsets.size() > 1) {
+                    ZoneOffsetTransition transition = rules.getTransition(local);
+                    LocalDateTime later = schedule.nextMatch(transition.getDateTimeBefore());
+                    if (!from.isBefore(transition.getInstant()) || (later != null && later.toLocalDate().equals(local.toLocalDate()))) {
+                        instants.add(local.toInstant(offsets.get(1)));
+                    }
+                }
+            }
+            for (Instant instant : instants) {
+                if (!instant.isBefore(from) && (result == null || instant.isBefore(result))) {
+                    ZoneOffsetTransition transition = rules.nextTransition(instant.minus(TRANSITION_MARGIN));
+                    boolean near = (transition != null) && transition.getInstant().isBefore(instant.plus(TRANSITION_MARGIN));
+                    result = instant;
+                    limit = local.plusSeconds(1L + (near ? Math.abs(transition.getDuration().getSeconds()) : 0L));
+                }
+            }
+        }
+        if (result == null) {
+            return null;
+        }
+        result = result.plusMillis(Math.floorMod(time, 1000L));
+        return (expression.getEnd() == null || result.toEpochMilli() <= expression.getEnd().getTime()) ? result : null;
+    }
+
+    private static ZoneOffset min(ZoneOffset offset1, ZoneOffset offset2) {
+        return (offset1.getTotalSeconds() <= offset2.getTotalSeconds()) ? offset1 : offset2;
+    }
+
+    /**
+     * Indicates whether the specified time matches the specified schedule, independently of {@link CompiledSchedule}.
+     */
+    private static boolean matches(ScheduleExpression expression, Calendar calendar) {
+        return (calendar != null) && new LocalSchedule(expression).matches(calendar);
+    }
+
+    private static boolean nearTransition(ZoneRules rules, Calendar current, Calendar expected, Calendar result) {
+        if (rules.isFixedOffset()) {
+            return false;
+        }
+        long end = current.getTimeInMillis();
+        for (Calendar calendar : new Calendar[] { expected, result }) {
+            if (calendar != null) {
+                end = Math.max(end, calendar.getTimeInMillis());
+            }
+        }
+        ZoneOffsetTransition transition = rules.nextTransition(current.toInstant().minus(TRANSITION_MARGIN));
+        return (transition != null) && transition.getInstant().isBefore(Instant.ofEpochMilli(end).plus(TRANSITION_MARGIN));
+    }
+
+    private static Instant toInstant(Long time) {
+        return (time != null) ? Instant.ofEpochMilli(time) : null;
+    }
+
+    private static String describe(ScheduleExpression expression) {
+        return String.format("second=%s, minute=%s, hour=%s, dayOfMonth=%s, month=%s, dayOfWeek=%s, year=%s, timezone=%s, start=%s, end=%s",
+                expression.getSecond(), expression.getMinute(), expression.getHour(), expression.getDayOfMonth(), expression.getMonth(),
+                expression.getDayOfWeek(), expression.getYear(), expression.getTimezone(),
+                (expression.getStart() != null) ? expression.getStart().toInstant() : null, (expression.getEnd() != null) ? expression.getEnd().toInstant() : null);
+    }
+
+    private static String timeValue(Random random, int size) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return "*";
+            case 1:
+                return Integer.toString(random.nextInt(size));
+            case 2:
+                return list(random, r -> Integer.toString(r.nextInt(size)));
+            case 3:
+                // Includes ranges where start > end
+                return random.nextInt(size) + "-" + random.nextInt(size);
+            case 4:
+                return random.nextInt(size) + "/" + (1 + random.nextInt(size / 2));
+            default:
+                return "*/" + (1 + random.nextInt(size / 2));
+        }
+    }
+
+    private static String dayOfMonthValue(Random random) {
+        switch (random.nextInt(7)) {
+            case 0:
+            case 1:
+                return "*";
+            case 2:
+                return Integer.toString(1 + random.nextInt(31));
+            case 3:
+                return list(random, CompiledScheduleTestCase::dayOfMonthItem);
+            case 4:
+                int start = 1 + random.nextInt(31);
+                return start + "-" + (start + random.nextInt(32 - start));
+            case 5:
+                return (1 + random.nextInt(20)) + "-Last";
+            default:
+                return dayOfMonthItem(random);
+        }
+    }
+
+    private static String dayOfMonthItem(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return "Last";
+            case 1:
+                return Integer.toString(-1 - random.nextInt(7));
+            case 2:
+                return ORDINALS[random.nextInt(ORDINALS.length)] + " " + DAYS_OF_WEEK[random.nextInt(DAYS_OF_WEEK.length)];
+            default:
+                return Integer.toString(1 + random.nextInt(31));
+        }
+    }
+
+    private static String monthValue(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+            case 1:
+                return "*";
+            case 2:
+                return MONTHS[random.nextInt(MONTHS.length)];
+            case 3:
+                return list(random, r -> Integer.toString(1 + r.nextInt(12)));
+            default:
+                return MONTHS[random.nextInt(MONTHS.length)] + "-" + MONTHS[random.nextInt(MONTHS.length)];
+        }
+    }
+
+    private static String dayOfWeekValue(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+            case 1:
+                return "*";
+            case 2:
+                return Integer.toString(random.nextInt(8));
+            case 3:
+                return list(random, r -> DAYS_OF_WEEK[r.nextInt(DAYS_OF_WEEK.length)]);
+            default:
+                return DAYS_OF_WEEK[random.nextInt(DAYS_OF_WEEK.length)] + "-" + DAYS_OF_WEEK[random.nextInt(DAYS_OF_WEEK.length)];
+        }
+    }
+
+    private static String yearValue(Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return "2030";
+            case 1:
+                return list(random, r -> Integer.toString(2020 + r.nextInt(15)));
+            case 2:
+                return "2025-2040";
+            default:
+                return "*";
+        }
+    }
+
+    private static String list(Random random, Function<Random, String> item) {
+        StringBuilder builder = new StringBuilder(item.apply(random));
+        for (int i = random.nextInt(3); i >= 0; --i) {
+            builder.append(',').append(item.apply(random));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Matches local date-times against the attributes of a schedule expression, independently of {@link CompiledSchedule}.
+     */
+    private static class LocalSchedule {
+        private final Second second;
+        private final Minute minute;
+        private final Hour hour;
+        private final DayOfMonth dayOfMonth;
+        private final DayOfWeek dayOfWeek;
+        private final Month month;
+        private final Year year;
+        private final Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(ZoneOffset.UTC));
+
+        LocalSchedule(ScheduleExpression expression) {
+            this.second = new Second(expression.getSecond());
+            this.minute = new Minute(expression.getMinute());
+            this.hour = new Hour(expression.getHour());
+            this.dayOfMonth = new DayOfMonth(expression.getDayOfMonth());
+            this.dayOfWeek = new DayOfWeek(expression.getDayOfWeek());
+            this.month = new Month(expression.getMonth());
+            this.year = new Year(expression.getYear());
+            this.calendar.setFirstDayOfWeek(Calendar.SUNDAY);
+        }
+
+        boolean matches(Calendar calendar) {
+            return this.matchesDate(calendar)
+                    && this.second.getNextMatch(calendar.get(Calendar.SECOND)) == calendar.get(Calendar.SECOND)
+                    && this.minute.getNextMatch(calendar.get(Calendar.MINUTE)) == calendar.get(Calendar.MINUTE)
+                    && this.hour.getNextMatch(calendar.get(Calendar.HOUR_OF_DAY)) == calendar.get(Calendar.HOUR_OF_DAY);
+        }
+
+        private boolean matchesDate(Calendar calendar) {
+            boolean dayOfMonthMatches = this.dayOfMonth.getNextMatch(calendar) == calendar.get(Calendar.DAY_OF_MONTH);
+            boolean dayOfWeekMatches = this.dayOfWeek.getNextMatch(calendar) == calendar.get(Calendar.DAY_OF_WEEK);
+            boolean dayMatches;
+            if (this.dayOfMonth.getType() == ScheduleExpressionType.WILDCARD) {
+                dayMatches = dayOfWeekMatches;
+            } else if (this.dayOfWeek.getType() == ScheduleExpressionType.WILDCARD) {
+                dayMatches = dayOfMonthMatches;
+            } else {
+                dayMatches = dayOfMonthMatches || dayOfWeekMatches;
+            }
+            return dayMatches
+                    && this.month.getNextMatch(calendar) == calendar.get(Calendar.MONTH)
+                    && this.year.getNextMatch(calendar) == calendar.get(Calendar.YEAR);
+        }
+
+        /**
+         * Computes the earliest local date-time, no earlier than the specified local date-time, matching this schedule, by brute force.
+         */
+        LocalDateTime nextMatch(LocalDateTime current) {
+            Calendar calendar = this.calendar;
+            for (LocalDate date = current.toLocalDate(); date.getYear() <= LAST_YEAR; date = date.plusDays(1)) {
+                calendar.clear();
+                calendar.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+                if (this.year.getNextMatch(calendar) != date.getYear()) {
+                    date = date.withDayOfYear(date.lengthOfYear());
+                    continue;
+                }
+                if (this.month.getNextMatch(calendar) != date.getMonthValue() - 1) {
+                    date = date.withDayOfMonth(date.lengthOfMonth());
+                    continue;
+                }
+                if (!this.matchesDate(calendar)) {
+                    continue;
+                }
+                for (int h = 0; h < 24; ++h) {
+                    if (this.hour.getNextMatch(h) != h || date.atTime(h, 59, 59).isBefore(current)) {
+                        continue;
+                    }
+                    for (int m = 0; m < 60; ++m) {
+                        if (this.minute.getNextMatch(m) != m || date.atTime(h, m, 59).isBefore(current)) {
+                            continue;
+                        }
+                        for (int s = 0; s < 60; ++s) {
+                            if (this.second.getNextMatch(s) == s && !date.atTime(h, m, s).isBefore(current)) {
+                                return date.atTime(h, m, s);
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimerScheduler.ScheduledTask;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimingWheelTimerScheduler}.
+ */
+public class TimingWheelTimerSchedulerTestCase {
+    private static final ThreadFactory THREAD_FACTORY = Thread::new;
+
+    @Test
+    public void schedule() throws InterruptedException {
+        try (TimerScheduler scheduler = new TimingWheelTimerScheduler(Duration.ofMillis(1), Runnable::run, THREAD_FACTORY)) {
+            int count = 200;
+            CountDownLatch latch = new CountDownLatch(count);
+            AtomicInteger early = new AtomicInteger();
+            for (int i = 0; i < count; ++i) {
+                // Spans multiple wheels
+                long delay = i * 7L;
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+                scheduler.schedule(() -> {
+                    if (System.nanoTime() < deadline) {
+                        early.incrementAndGet();
+                    }
+                    latch.countDown();
+                }, delay);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(0, early.get());
+            assertEquals(0, scheduler.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        try (TimerScheduler scheduler = new TimingWheelTimerScheduler(Duration.ofMillis(1), Runnable::run, THREAD_FACTORY)) {
+            AtomicInteger executions = new AtomicInteger();
+            ScheduledTask task = scheduler.schedule(executions::incrementAndGet, 50);
+            ScheduledTask distantTask = scheduler.schedule(executions::incrementAndGet, TimeUnit.DAYS.toMillis(365L * 100));
+            assertEquals(2, scheduler.getQueueDepth());
+
+            assertTrue(task.cancel());
+            assertFalse(task.cancel());
+            assertTrue(distantTask.cancel());
+            assertEquals(0, scheduler.getQueueDepth());
+            scheduler.purge();
+
+            CountDownLatch latch = new CountDownLatch(1);
+            ScheduledTask completedTask = scheduler.schedule(latch::countDown, 100);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, executions.get());
+            // Cannot cancel a completed task
+            assertFalse(completedTask.cancel());
+        }
+    }
+
+    @Test
+    public void scheduleAtFixedRate() throws InterruptedException {
+        try (TimerScheduler scheduler = new TimingWheelTimerScheduler(Duration.ofMillis(1), Runnable::run, THREAD_FACTORY)) {
+            CountDownLatch latch = new CountDownLatch(5);
+            ScheduledTask task = scheduler.scheduleAtFixedRate(latch::countDown, 0, 20);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, scheduler.getQueueDepth());
+            assertTrue(task.cancel());
+            assertEquals(0, scheduler.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void rejected() throws InterruptedException {
+        AtomicInteger rejections = new AtomicInteger(5);
+        Executor executor = task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        };
+        try (TimerScheduler scheduler = new TimingWheelTimerScheduler(Duration.ofMillis(1), executor, THREAD_FACTORY)) {
+            assertTrue(scheduler.isExecutedBy(executor));
+            assertFalse(scheduler.isExecutedBy(Runnable::run));
+
+            CountDownLatch latch = new CountDownLatch(1);
+            ScheduledTask task = scheduler.schedule(latch::countDown, 10);
+            // Rejected executions are retried, with increasing intervals
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, scheduler.getQueueDepth());
+            assertFalse(task.cancel());
+        }
+    }
+}
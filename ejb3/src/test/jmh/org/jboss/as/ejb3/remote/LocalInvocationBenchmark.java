@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ee.component.Component;
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.as.ee.utils.DescriptorUtils;
+import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
+import org.jboss.as.ejb3.deployment.DeploymentRepositoryService;
+import org.jboss.as.ejb3.deployment.EjbDeploymentInformation;
+import org.jboss.as.ejb3.deployment.ModuleDeployment;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.ejb.client.Affinity;
+import org.jboss.ejb.client.EJBClient;
+import org.jboss.ejb.client.EJBClientContext;
+import org.jboss.ejb.client.EJBIdentifier;
+import org.jboss.ejb.client.StatelessEJBLocator;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.msc.value.InjectedValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the server-side dispatch overhead of an invocation on a remote view of a stateless bean via the {@link LocalTransportProvider},
+ * i.e. the resolution of the target deployment, bean, view, and method, with and without an {@link EJBMethodLocatorIndex}.
+ * The target view simply echoes its parameter, so that the cost of the bean itself does not skew the results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalInvocationBenchmark {
+    private static final String APPLICATION_NAME = "";
+    private static final String MODULE_NAME = "benchmark";
+    private static final String DISTINCT_NAME = "";
+    private static final String BEAN_NAME = "EchoBean";
+
+    public interface Echo {
+        Object echo(Object value);
+        Object echo(Object value, String label);
+        int echo(int value);
+        String echo(String value);
+        // Additional methods to emulate a non-trivial view
+        void first(String value);
+        void second(String value, int count);
+        void third(String[] values);
+        void fourth(Map<String, Object> values);
+        void fifth(Object value, Object other);
+    }
+
+    // Whether the view is indexed by method locator
+    @Param({ "true", "false" })
+    boolean indexed;
+
+    // Number of other deployments in the repository
+    @Param({ "1", "100" })
+    int deployments;
+
+    private final DeploymentRepositoryService repository = new DeploymentRepositoryService();
+    private final LocalTransportProvider provider = new LocalTransportProvider(true);
+    private Echo proxy;
+    private final Object value = new Object();
+
+    @Setup
+    public void setup() throws Exception {
+        this.repository.start(null);
+        for (int i = 0; i < this.deployments; ++i) {
+            DeploymentModuleIdentifier identifier = new DeploymentModuleIdentifier(APPLICATION_NAME, (i == 0) ? MODULE_NAME : MODULE_NAME + i, DISTINCT_NAME);
+            InjectedValue<EJBComponent> component = new InjectedValue<>();
+            component.inject(null);
+            InjectedValue<ComponentView> view = new InjectedValue<>();
+            view.inject(new EchoView(this.indexed));
+            EjbDeploymentInformation information = new EjbDeploymentInformation(BEAN_NAME, component, Collections.singletonMap(Echo.class.getName(), view), null, Echo.class.getClassLoader(), new InjectedValue<>());
+            this.repository.add(identifier, new ModuleDeployment(identifier, Collections.singletonMap(BEAN_NAME, information)));
+            this.repository.startDeployment(identifier);
+        }
+        this.provider.getDeploymentRepository().inject(this.repository);
+        this.provider.start(null);
+
+        EJBClientContext.Builder builder = new EJBClientContext.Builder();
+        builder.addTransportProvider(this.provider);
+        EJBClientContext.getContextManager().setGlobalDefault(builder.build());
+
+        this.proxy = EJBClient.createProxy(StatelessEJBLocator.create(Echo.class, new EJBIdentifier(APPLICATION_NAME, MODULE_NAME, BEAN_NAME, DISTINCT_NAME), Affinity.LOCAL));
+    }
+
+    @TearDown
+    public void tearDown() {
+        EJBClientContext.getContextManager().setGlobalDefault(null);
+        this.provider.stop(null);
+        this.repository.stop(null);
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return this.proxy.echo(this.value);
+    }
+
+    @Benchmark
+    public Object invokeOverload() {
+        return this.proxy.echo(this.value, MODULE_NAME);
+    }
+
+    private static class EchoView implements ComponentView {
+        private final Set<Method> methods = new LinkedHashSet<>(Arrays.asList(Echo.class.getMethods()));
+        private final Map<String, Method> descriptors = new HashMap<>();
+        private final EJBMethodLocatorIndex index;
+
+        EchoView(boolean indexed) {
+            for (Method method : this.methods) {
+                this.descriptors.put(method.getName() + DescriptorUtils.methodDescriptor(method), method);
+            }
+            this.index = indexed ? new EJBMethodLocatorIndex(this.methods) : null;
+        }
+
+        @Override
+        public ManagedReference createInstance() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ManagedReference createInstance(Map<Object, Object> contextData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object invoke(InterceptorContext context) {
+            return context.getParameters()[0];
+        }
+
+        @Override
+        public Component getComponent() {
+            return null;
+        }
+
+        @Override
+        public Class<?> getProxyClass() {
+            return Echo.class;
+        }
+
+        @Override
+        public Class<?> getViewClass() {
+            return Echo.class;
+        }
+
+        @Override
+        public Set<Method> getViewMethods() {
+            return this.methods;
+        }
+
+        @Override
+        public Method getMethod(String name, String descriptor) {
+            Method method = this.descriptors.get(name + descriptor);
+            if (method == null) {
+                throw new IllegalArgumentException(name + descriptor);
+            }
+            return method;
+        }
+
+        @Override
+        public <T> T getPrivateData(Class<T> type) {
+            return (type == EJBMethodLocatorIndex.class) ? type.cast(this.index) : null;
+        }
+
+        @Override
+        public boolean isAsynchronous(Method method) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ejb.ScheduleExpression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput and allocation rate of {@link CalendarBasedTimeout#getNextTimeout(Calendar)} using a compiled schedule
+ * vs the {@link Calendar} based computation, for a selection of schedules.
+ * The latter runs in a separate fork, since the computation is selected via system property.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarTimeoutBenchmark {
+    // Number of pre-computed previous timeouts, to avoid measuring their creation
+    private static final int SIZE = 1 << 12;
+    private static final String TIME_ZONE = "Europe/Berlin";
+
+    // second minute hour dayOfMonth month dayOfWeek
+    @Param({ "*/5 * * * * *", "0 */15 9-17 * * Mon-Fri", "0 30 2 Last * *", "0 0 0 1 Jan,Jul *" })
+    String schedule;
+
+    private CalendarBasedTimeout timeout;
+    private Calendar[] timeouts;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        String[] attributes = this.schedule.split(" ");
+        ScheduleExpression expression = new ScheduleExpression()
+                .second(attributes[0])
+                .minute(attributes[1])
+                .hour(attributes[2])
+                .dayOfMonth(attributes[3])
+                .month(attributes[4])
+                .dayOfWeek(attributes[5])
+                .timezone(TIME_ZONE);
+        this.timeout = new CalendarBasedTimeout(expression);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        this.timeouts = new Calendar[SIZE];
+        for (int i = 0; i < SIZE; ++i) {
+            Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(TIME_ZONE));
+            // Distribute previous timeouts over the next 10 years
+            calendar.setTimeInMillis(now + random.nextLong(TimeUnit.DAYS.toMillis(3650)));
+            this.timeouts[i] = this.timeout.getNextTimeout(calendar);
+        }
+    }
+
+    @Benchmark
+    public Calendar compiled() {
+        return this.timeout.getNextTimeout(this.timeouts[this.index++ & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djboss.ejb.timer.schedule.compiled=false")
+    public Calendar calendar() {
+        return this.timeout.getNextTimeout(this.timeouts[this.index++ & (SIZE - 1)]);
+    }
+}
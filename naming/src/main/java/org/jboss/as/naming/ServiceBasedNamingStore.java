@@ -30,7 +30,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -58,6 +61,9 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * @author Eduardo Martins
  */
 public class ServiceBasedNamingStore implements NamingStore {
+    // Upper bound on the number of cached resolutions, since distinct names may resolve to the same service, e.g. "foo/bar" and "foo//bar"
+    private static final int MAX_RESOLUTIONS = 4096;
+
     private final Name EMPTY_NAME = new CompositeName();
     private Name baseName;
     private final ServiceRegistry serviceRegistry;
@@ -65,6 +71,10 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    // Controllers of bound services, keyed by the name resolving to them, invalidated whenever a bound service is added or removed
+    private final ConcurrentMap<String, Resolution> resolutions = new ConcurrentHashMap<String, Resolution>();
+    private final AtomicLong resolutionsVersion = new AtomicLong();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -79,9 +89,21 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final String nameString = name.toString();
+        final Resolution resolution = resolutions.get(nameString);
+        if (resolution != null) {
+            final Object obj = resolution.lookup(nameString, dereference);
+            if (obj != null) {
+                return obj;
+            }
+        }
+        final long version = resolutionsVersion.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
-        if (obj == null) {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = lookup(nameString, controller, dereference);
+        if (obj != null) {
+            cacheResolution(nameString, version, lookupName, controller);
+        } else {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
@@ -124,8 +146,11 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, serviceRegistry.getService(lookupName), dereference);
+    }
+
+    private Object lookup(final String name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
@@ -257,6 +282,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        invalidateResolutions();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -271,10 +297,42 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw NamingLogger.ROOT_LOGGER.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        invalidateResolutions();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidateResolutions();
+    }
+
+    /**
+     * Discards cached resolutions, e.g. after the value of a bound service was replaced.
+     */
+    protected void invalidateResolutions() {
+        resolutionsVersion.incrementAndGet();
+        resolutions.clear();
+    }
+
+    /**
+     * Caches the controller of a bound service, unless bound services were added or removed since the specified version was read.
+     */
+    private void cacheResolution(final String name, final long version, final ServiceName serviceName, final ServiceController<?> controller) {
+        if (resolutions.size() >= MAX_RESOLUTIONS || !boundServices.contains(serviceName)) {
+            return;
+        }
+        final Object value;
+        try {
+            value = controller.getValue();
+        } catch (IllegalStateException e) {
+            return;
+        }
+        // The reference of an immediate factory is immutable, and can be returned without consulting the factory
+        final ManagedReference reference = (value instanceof ImmediateManagedReferenceFactory) ? ImmediateManagedReferenceFactory.class.cast(value).getReference() : null;
+        final Resolution resolution = new Resolution(controller, reference);
+        resolutions.put(name, resolution);
+        if (resolutionsVersion.get() != version) {
+            resolutions.remove(name, resolution);
+        }
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -320,6 +378,23 @@ public class ServiceBasedNamingStore implements NamingStore {
         return name;
     }
 
+    private class Resolution {
+        private final ServiceController<?> controller;
+        private final ManagedReference reference;
+
+        Resolution(final ServiceController<?> controller, final ManagedReference reference) {
+            this.controller = controller;
+            this.reference = reference;
+        }
+
+        Object lookup(final String name, final boolean dereference) throws NamingException {
+            if (dereference && reference != null) {
+                return reference.getInstance();
+            }
+            return ServiceBasedNamingStore.this.lookup(name, controller, dereference);
+        }
+    }
+
     protected ServiceName getServiceNameBase() {
         return serviceNameBase;
     }
@@ -119,6 +119,8 @@ public class WritableServiceBasedNamingStore extends ServiceBasedNamingStore imp
                 duBindingReferences.add(binderService);
             }
             binderService.getManagedObjectInjector().setValue(() -> new ImmediateManagedReferenceFactory(object));
+            // a cached resolution may hold the reference of the replaced value
+            invalidateResolutions();
         }
     }
 
@@ -31,18 +31,21 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -385,6 +388,31 @@ public class ServiceBasedNamingStoreTestCase {
         }
     }
 
+    @Test
+    public void testLookupCachedBinding() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "cached");
+        final Object value = new Object();
+        bindReference(bindingName, new ImmediateManagedReferenceFactory(value));
+
+        final Name name = new CompositeName("foo/cached");
+        assertSame(value, store.lookup(name));
+        // Subsequent lookups are served from the resolution cache
+        assertSame(value, store.lookup(name));
+        assertTrue(store.lookup(name, false) instanceof ImmediateManagedReferenceFactory);
+
+        container.getRequiredService(bindingName).setMode(ServiceController.Mode.REMOVE);
+        container.awaitStability();
+        try {
+            store.lookup(name);
+            fail("Should have thrown and NameNotFoundException");
+        } catch (NameNotFoundException expected) {}
+
+        // Rebinding must not resolve the stale value
+        final Object newValue = new Object();
+        bindReference(bindingName, new ImmediateManagedReferenceFactory(newValue));
+        assertSame(newValue, store.lookup(name));
+    }
+
     private void assertContains(final List<? extends NameClassPair> list, String name, Class<?> type) {
         for (NameClassPair value : list) {
             if (value instanceof Binding) {
@@ -414,4 +442,21 @@ public class ServiceBasedNamingStoreTestCase {
         }).install();
         latch.await();
     }
+
+    private void bindReference(final ServiceName serviceName, final ManagedReferenceFactory factory) throws Exception {
+        container.addService(serviceName, new Service<ManagedReferenceFactory>() {
+            public void start(StartContext context) throws StartException {
+                store.add(serviceName);
+            }
+
+            public void stop(StopContext context) {
+                store.remove(serviceName);
+            }
+
+            public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
+                return factory;
+            }
+        }).install();
+        container.awaitStability();
+    }
 }
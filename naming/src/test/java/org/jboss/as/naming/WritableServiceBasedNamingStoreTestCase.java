@@ -229,6 +229,22 @@ public class WritableServiceBasedNamingStoreTestCase {
         assertEquals(newValue, store.lookup(name));
     }
 
+    @Test
+    public void testRebindAfterLookup() throws Exception {
+        final Name name = new CompositeName("test");
+        final Object value = new Object();
+        final Object newValue = new Object();
+        WritableServiceBasedNamingStore.pushOwner(OWNER_FOO);
+        try {
+            store.bind(name, value);
+            assertEquals(value, store.lookup(name));
+            store.rebind(name, newValue);
+        } finally {
+            WritableServiceBasedNamingStore.popOwner();
+        }
+        assertEquals(newValue, store.lookup(name));
+    }
+
     @Test
     public void testRebindNoOwner() throws Exception {
         try {
@@ -116,6 +116,8 @@ public class AbstractValidationUnitTest {
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-iiop_2_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-pool_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-pool_2_0.xsd");
+        EXCLUDED_SCHEMA_FILES.add("jboss-ejb-bulkhead_1_0.xsd");
+        EXCLUDED_SCHEMA_FILES.add("jboss-ejb-concurrency_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-resource-adapter-binding_1_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-resource-adapter-binding_2_0.xsd");
         EXCLUDED_SCHEMA_FILES.add("jboss-ejb-security_1_0.xsd");